@@ -0,0 +1,19 @@
+package com.flipkart.krystal.honeycomb.forkjoin;
+
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Executes the synchronous part of forked workflow instances, a batch at a time. */
+@FunctionalInterface
+public interface ChildWorkflowExecutor {
+
+  /**
+   * Starts executing the given instances, all of which belong to the given workflow.
+   *
+   * @return the futures of the responses of the instances, in the same order as the instances
+   */
+  ImmutableList<CompletableFuture<@Nullable Object>> execute(
+      String workflowId, ImmutableList<DurableWorkflowInstance> instances);
+}
@@ -0,0 +1,163 @@
+package com.flipkart.krystal.honeycomb.forkjoin;
+
+import static com.flipkart.krystal.data.Errable.errableFrom;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.honeycomb.store.ForkHandler;
+import com.flipkart.krystal.honeycomb.store.WorkflowStore;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ForkHandler} which executes forked workflow instances concurrently on a bounded pool of
+ * worker threads, and resumes the parent instance via a {@link JoinListener} once all the children
+ * have responded.
+ *
+ * <p>The children of a fork are split into batches of at most {@code maxBatchSize} instances, and
+ * each batch is handed over to the {@link ChildWorkflowExecutor} by one worker. A worker waits
+ * until all the instances of its batch have responded before picking up the next batch, so the
+ * number of batches in flight never exceeds the number of workers. The responses are collected
+ * in a lock-free countdown per fork.
+ */
+@Slf4j
+public final class ForkJoinScheduler implements ForkHandler, AutoCloseable {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+  private final ChildWorkflowExecutor childWorkflowExecutor;
+  private final JoinListener joinListener;
+  private final int maxBatchSize;
+  private final ExecutorService workerPool;
+
+  /**
+   * Creates a scheduler and registers it as the fork handler of the given store.
+   *
+   * @param store The store whose instances' forks are to be executed
+   * @param childWorkflowExecutor Executes batches of forked instances
+   * @param joinListener Resumes the parents
+   * @param workerCount The maximum number of batches of forked instances executed concurrently.
+   *     Defaults to the number of available processors.
+   * @param maxBatchSize The maximum number of forked instances executed in one batch. Defaults to
+   *     {@value #DEFAULT_MAX_BATCH_SIZE}
+   */
+  @Builder
+  private ForkJoinScheduler(
+      @NonNull WorkflowStore store,
+      @NonNull ChildWorkflowExecutor childWorkflowExecutor,
+      @NonNull JoinListener joinListener,
+      int workerCount,
+      int maxBatchSize) {
+    if (workerCount <= 0) {
+      workerCount = Runtime.getRuntime().availableProcessors();
+    }
+    if (maxBatchSize <= 0) {
+      maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    }
+    this.childWorkflowExecutor = childWorkflowExecutor;
+    this.joinListener = joinListener;
+    this.maxBatchSize = maxBatchSize;
+    AtomicInteger workerIndex = new AtomicInteger();
+    this.workerPool =
+        Executors.newFixedThreadPool(
+            workerCount,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "honeycomb-fork-join-" + workerIndex.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+    store.registerForkHandler(this);
+  }
+
+  @Override
+  public void onFork(
+      DurableWorkflowInstance parent, ImmutableList<DurableWorkflowInstance> children) {
+    PendingJoin pendingJoin = new PendingJoin(parent, children);
+    if (children.isEmpty()) {
+      resume(pendingJoin);
+      return;
+    }
+    for (int offset = 0; offset < children.size(); offset += maxBatchSize) {
+      int batchOffset = offset;
+      ImmutableList<DurableWorkflowInstance> batch =
+          children.subList(offset, Math.min(children.size(), offset + maxBatchSize));
+      workerPool.execute(() -> executeBatch(pendingJoin, batch, batchOffset));
+    }
+  }
+
+  /** Stops accepting new forks and waits for the batches in flight to complete. */
+  @Override
+  public void close() throws InterruptedException {
+    workerPool.shutdown();
+    if (!workerPool.awaitTermination(1, TimeUnit.MINUTES)) {
+      workerPool.shutdownNow();
+    }
+  }
+
+  private void executeBatch(
+      PendingJoin pendingJoin, ImmutableList<DurableWorkflowInstance> batch, int batchOffset) {
+    String workflowId = batch.get(0).workflowId();
+    ImmutableList<CompletableFuture<@Nullable Object>> responses;
+    try {
+      responses = childWorkflowExecutor.execute(workflowId, batch);
+    } catch (Throwable e) {
+      responses =
+          batch.stream()
+              .map(_i -> CompletableFuture.<@Nullable Object>failedFuture(e))
+              .collect(toImmutableList());
+    }
+    if (responses.size() != batch.size()) {
+      IllegalStateException e =
+          new IllegalStateException(
+              "Expected %s responses for workflow %s, but received %s"
+                  .formatted(batch.size(), workflowId, responses.size()));
+      responses =
+          batch.stream()
+              .map(_i -> CompletableFuture.<@Nullable Object>failedFuture(e))
+              .collect(toImmutableList());
+    }
+    for (int i = 0; i < responses.size(); i++) {
+      int childIndex = batchOffset + i;
+      responses
+          .get(i)
+          .whenComplete(
+              (response, error) -> {
+                if (pendingJoin.complete(childIndex, errableFrom(response, error))) {
+                  resume(pendingJoin);
+                }
+              });
+    }
+    allOf(responses.toArray(CompletableFuture[]::new)).handle((_r, _t) -> null).join();
+  }
+
+  private void resume(PendingJoin pendingJoin) {
+    try {
+      workerPool.execute(() -> join(pendingJoin));
+    } catch (RejectedExecutionException e) {
+      // The scheduler is being closed - resume the parent on the current thread instead
+      join(pendingJoin);
+    }
+  }
+
+  private void join(PendingJoin pendingJoin) {
+    try {
+      joinListener.onJoin(pendingJoin.parent(), pendingJoin.children(), pendingJoin.responses());
+    } catch (Throwable e) {
+      log.error(
+          "Could not resume workflow instance {} after its forked instances completed",
+          pendingJoin.parent().instanceId(),
+          e);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.flipkart.krystal.honeycomb.forkjoin;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.google.common.collect.ImmutableList;
+
+/** Resumes a workflow instance after all the instances it forked have finished. */
+@FunctionalInterface
+public interface JoinListener {
+
+  /**
+   * @param parent the instance which forked the children
+   * @param children the forked instances
+   * @param responses the responses of the forked instances, in the same order as {@code children}
+   */
+  void onJoin(
+      DurableWorkflowInstance parent,
+      ImmutableList<DurableWorkflowInstance> children,
+      ImmutableList<Errable<Object>> responses);
+}
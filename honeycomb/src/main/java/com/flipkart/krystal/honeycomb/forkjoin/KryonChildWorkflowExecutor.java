@@ -0,0 +1,131 @@
+package com.flipkart.krystal.honeycomb.forkjoin;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ChildWorkflowExecutor} which executes each forked instance as a request to the kryon
+ * mapped to its workflow. All the instances of a batch are executed by a single {@link
+ * KryonExecutor}, so that the dependencies they have in common are batched together when the
+ * executor is flushed.
+ */
+public final class KryonChildWorkflowExecutor implements ChildWorkflowExecutor {
+
+  private static final AtomicLong EXECUTOR_COUNT = new AtomicLong();
+
+  private final KryonDefinitionRegistry kryonDefinitionRegistry;
+  private final SingleThreadExecutorsPool executorsPool;
+  private final ImmutableMap<String, KryonId> workflowKryons;
+  private final Function<Object, Facets> facetsExtractor;
+  private final Function<SingleThreadExecutor, KryonExecutorConfig> executorConfigFactory;
+
+  /**
+   * @param kryonDefinitionRegistry The registry of the kryons which execute the workflows
+   * @param executorsPool The pool from which the threads of the kryon executors are leased
+   * @param workflowKryons The kryon which executes each workflow
+   * @param facetsExtractor Converts the payload of a forked instance to the facets of the kryon
+   *     request. By default, the payloads are expected to be {@link Facets} themselves.
+   * @param executorConfigFactory Creates the config of each kryon executor. Defaults to the default
+   *     {@link KryonExecutorConfig}
+   */
+  @Builder
+  private KryonChildWorkflowExecutor(
+      @NonNull KryonDefinitionRegistry kryonDefinitionRegistry,
+      @NonNull SingleThreadExecutorsPool executorsPool,
+      @Singular Map<String, KryonId> workflowKryons,
+      @Nullable Function<Object, Facets> facetsExtractor,
+      @Nullable Function<SingleThreadExecutor, KryonExecutorConfig> executorConfigFactory) {
+    this.kryonDefinitionRegistry = kryonDefinitionRegistry;
+    this.executorsPool = executorsPool;
+    this.workflowKryons = ImmutableMap.copyOf(workflowKryons);
+    this.facetsExtractor =
+        facetsExtractor != null ? facetsExtractor : KryonChildWorkflowExecutor::toFacets;
+    this.executorConfigFactory =
+        executorConfigFactory != null
+            ? executorConfigFactory
+            : executor -> KryonExecutorConfig.builder().singleThreadExecutor(executor).build();
+  }
+
+  @Override
+  public ImmutableList<CompletableFuture<@Nullable Object>> execute(
+      String workflowId, ImmutableList<DurableWorkflowInstance> instances) {
+    KryonId kryonId = workflowKryons.get(workflowId);
+    if (kryonId == null) {
+      throw new IllegalArgumentException("No kryon has been configured for workflow " + workflowId);
+    }
+    Lease<SingleThreadExecutor> lease;
+    try {
+      lease = executorsPool.lease();
+    } catch (LeaseUnavailableException e) {
+      return instances.stream()
+          .map(_i -> CompletableFuture.<@Nullable Object>failedFuture(e))
+          .collect(toImmutableList());
+    }
+    ImmutableList<CompletableFuture<@Nullable Object>> responses;
+    try (KryonExecutor kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            executorConfigFactory.apply(lease.get()),
+            "honeycomb-%s-%s".formatted(workflowId, EXECUTOR_COUNT.getAndIncrement()))) {
+      responses =
+          instances.stream()
+              .map(instance -> executeInstance(kryonExecutor, kryonId, instance))
+              .collect(toImmutableList());
+    } catch (Throwable e) {
+      lease.close();
+      throw e;
+    }
+    allOf(responses.toArray(CompletableFuture[]::new)).whenComplete((_r, _t) -> lease.close());
+    return responses;
+  }
+
+  private CompletableFuture<@Nullable Object> executeInstance(
+      KryonExecutor kryonExecutor, KryonId kryonId, DurableWorkflowInstance instance) {
+    try {
+      Object payload =
+          instance
+              .input()
+              .orElseThrow(
+                  () ->
+                      new IllegalArgumentException(
+                          "Workflow instance %s was not forked with a payload"
+                              .formatted(instance.instanceId())));
+      return kryonExecutor.executeKryon(
+          kryonId,
+          facetsExtractor.apply(payload),
+          KryonExecutionConfig.builder().executionId(instance.instanceId()).build());
+    } catch (Throwable e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static Facets toFacets(Object payload) {
+    if (payload instanceof Facets facets) {
+      return facets;
+    }
+    throw new IllegalArgumentException(
+        "Expected the payload to be of type Facets, but found " + payload.getClass());
+  }
+}
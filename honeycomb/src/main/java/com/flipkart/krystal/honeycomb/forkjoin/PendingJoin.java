@@ -0,0 +1,60 @@
+package com.flipkart.krystal.honeycomb.forkjoin;
+
+import static java.util.Objects.requireNonNull;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Collects the responses of the children of one fork. Responses can be recorded concurrently from
+ * any thread without locking - the thread which records the last response is the one which
+ * resumes the parent.
+ */
+final class PendingJoin {
+
+  private final DurableWorkflowInstance parent;
+  private final ImmutableList<DurableWorkflowInstance> children;
+  private final AtomicReferenceArray<Errable<Object>> responses;
+  private final AtomicInteger remaining;
+
+  PendingJoin(DurableWorkflowInstance parent, ImmutableList<DurableWorkflowInstance> children) {
+    this.parent = parent;
+    this.children = children;
+    this.responses = new AtomicReferenceArray<>(children.size());
+    this.remaining = new AtomicInteger(children.size());
+  }
+
+  DurableWorkflowInstance parent() {
+    return parent;
+  }
+
+  ImmutableList<DurableWorkflowInstance> children() {
+    return children;
+  }
+
+  /**
+   * Records the response of the child at the given index. A child's response is recorded only
+   * once - later responses of the same child are ignored.
+   *
+   * @return true if this was the last pending response
+   */
+  boolean complete(int childIndex, Errable<Object> response) {
+    if (!responses.compareAndSet(childIndex, null, response)) {
+      return false;
+    }
+    return remaining.decrementAndGet() == 0;
+  }
+
+  /** Returns the responses of all the children. Must be called only after all have completed. */
+  ImmutableList<Errable<Object>> responses() {
+    ImmutableList.Builder<Errable<Object>> builder =
+        ImmutableList.builderWithExpectedSize(responses.length());
+    for (int i = 0; i < responses.length(); i++) {
+      builder.add(requireNonNull(responses.get(i)));
+    }
+    return builder.build();
+  }
+}
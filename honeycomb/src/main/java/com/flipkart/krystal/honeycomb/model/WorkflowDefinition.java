@@ -0,0 +1,11 @@
+package com.flipkart.krystal.honeycomb.model;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The definition of a workflow as needed by honeycomb to manage the payloads of its instances.
+ *
+ * @param workflowId The unique id of the workflow
+ * @param fieldNames The names of the fields of the payload of the workflow
+ */
+public record WorkflowDefinition(String workflowId, ImmutableSet<String> fieldNames) {}
@@ -0,0 +1,193 @@
+package com.flipkart.krystal.honeycomb.progress;
+
+import com.flipkart.krystal.honeycomb.UnrecognizedFieldException;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Tracks which fields of the payload of one workflow instance are ready, i.e. have been assigned
+ * a value, using the slots of the instance's {@link PayloadSchema}.
+ *
+ * <p>Updates are applied as deltas: applying a set of field values only touches the slots of those
+ * fields and their parents, and only the watchers of the fields which became ready, so the cost of
+ * an update is proportional to the number of changed fields and not to the size of the payload.
+ * Fields never become un-ready.
+ *
+ * <p>This class is thread-safe. Watchers are notified on the {@link Executor} passed to the
+ * constructor, never on the thread which applies the updates.
+ */
+public final class FieldProgressIndex {
+
+  private final PayloadSchema schema;
+  private final Executor watcherExecutor;
+
+  /** The number of leaf fields nested in each slot which are ready. */
+  private final int[] readyLeafCounts;
+
+  private final @Nullable List<FieldWatch>[] watchesBySlot;
+  private int readyLeafCount;
+
+  @SuppressWarnings("unchecked")
+  public FieldProgressIndex(PayloadSchema schema, Executor watcherExecutor) {
+    this.schema = schema;
+    this.watcherExecutor = watcherExecutor;
+    this.readyLeafCounts = new int[schema.slotCount()];
+    this.watchesBySlot = new List[schema.slotCount()];
+  }
+
+  public PayloadSchema schema() {
+    return schema;
+  }
+
+  /**
+   * Marks the given fields as ready. Fields which are not leaf fields of the schema are ignored, so
+   * that updates persisted before a field was removed from the workflow can still be replayed.
+   *
+   * @return the paths of the fields which became ready due to this update, including parent fields
+   */
+  public ImmutableSet<String> apply(Collection<FieldValue> fieldValues) {
+    ImmutableSet.Builder<String> newlyReady = ImmutableSet.builder();
+    List<FieldWatch> triggered = new ArrayList<>();
+    synchronized (this) {
+      for (FieldValue fieldValue : fieldValues) {
+        int slot = schema.slotOf(fieldValue.fieldName());
+        if (slot < 0 || !schema.isLeaf(slot) || readyLeafCounts[slot] > 0) {
+          continue;
+        }
+        readyLeafCount++;
+        for (int s = slot; s >= 0; s = schema.parentSlot(s)) {
+          if (++readyLeafCounts[s] == schema.leafCount(s)) {
+            newlyReady.add(schema.pathOf(s));
+            triggerWatches(s, triggered);
+          }
+        }
+      }
+    }
+    for (FieldWatch watch : triggered) {
+      watcherExecutor.execute(watch.onReady);
+    }
+    return newlyReady.build();
+  }
+
+  /**
+   * Returns true if the field with the given path - and, for a parent field, every field nested in
+   * it - is ready.
+   *
+   * @throws UnrecognizedFieldException if there is no field with the given path
+   */
+  public synchronized boolean isReady(String path) throws UnrecognizedFieldException {
+    return isReady(getSlot(path));
+  }
+
+  /** Returns the number of leaf fields which are ready. */
+  public synchronized int readyLeafCount() {
+    return readyLeafCount;
+  }
+
+  /** Returns the fraction of leaf fields which are ready, between 0 and 1. */
+  public synchronized double progress() {
+    int leafCount = schema.leafCount();
+    return leafCount == 0 ? 1 : (double) readyLeafCount / leafCount;
+  }
+
+  /**
+   * Registers a callback which is invoked once when all the given fields are ready. If they are
+   * already ready, the callback is invoked immediately (on the watcher executor).
+   *
+   * @throws UnrecognizedFieldException if any of the paths is not a field of the schema
+   */
+  public FieldWatch watch(Collection<String> paths, Runnable onReady)
+      throws UnrecognizedFieldException {
+    int[] slots = new int[paths.size()];
+    int i = 0;
+    for (String path : paths) {
+      slots[i++] = getSlot(path);
+    }
+    FieldWatch watch = new FieldWatch(slots, onReady);
+    boolean ready;
+    synchronized (this) {
+      for (int slot : slots) {
+        if (!isReady(slot)) {
+          List<FieldWatch> watches = watchesBySlot[slot];
+          if (watches == null) {
+            watches = new ArrayList<>(1);
+            watchesBySlot[slot] = watches;
+          }
+          watches.add(watch);
+          watch.pending++;
+        }
+      }
+      ready = watch.pending == 0;
+    }
+    if (ready) {
+      watcherExecutor.execute(onReady);
+    }
+    return watch;
+  }
+
+  private int getSlot(String path) throws UnrecognizedFieldException {
+    int slot = schema.slotOf(path);
+    if (slot < 0) {
+      throw new UnrecognizedFieldException(
+          "Field %s is not part of the payload of workflow %s"
+              .formatted(path, schema.workflowId()));
+    }
+    return slot;
+  }
+
+  private boolean isReady(int slot) {
+    return readyLeafCounts[slot] == schema.leafCount(slot);
+  }
+
+  private void triggerWatches(int slot, List<FieldWatch> triggered) {
+    List<FieldWatch> watches = watchesBySlot[slot];
+    if (watches == null) {
+      return;
+    }
+    // A ready slot never becomes un-ready, so its watches are not needed anymore
+    watchesBySlot[slot] = null;
+    for (FieldWatch watch : watches) {
+      if (--watch.pending == 0 && !watch.cancelled) {
+        triggered.add(watch);
+      }
+    }
+  }
+
+  /** A registration of a callback on the readiness of a set of fields. */
+  public final class FieldWatch {
+
+    private final int[] slots;
+    private final Runnable onReady;
+
+    /** The number of watched fields which are not ready yet. Guarded by the index. */
+    private int pending;
+
+    private volatile boolean cancelled;
+
+    private FieldWatch(int[] slots, Runnable onReady) {
+      this.slots = slots;
+      this.onReady = onReady;
+    }
+
+    /**
+     * Makes sure the callback is not invoked if the fields are not ready yet. Has no effect if
+     * the callback has already been invoked.
+     */
+    public void cancel() {
+      cancelled = true;
+      synchronized (FieldProgressIndex.this) {
+        for (int slot : slots) {
+          List<FieldWatch> watches = watchesBySlot[slot];
+          if (watches != null) {
+            watches.remove(this);
+          }
+        }
+      }
+    }
+  }
+}
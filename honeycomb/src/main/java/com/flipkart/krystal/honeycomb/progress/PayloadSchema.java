@@ -0,0 +1,130 @@
+package com.flipkart.krystal.honeycomb.progress;
+
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The compiled form of the payload of a workflow, in which every field is identified by a number
+ * (its slot) so that the progress of an instance can be tracked in arrays instead of maps.
+ *
+ * <p>The field names of a {@link WorkflowDefinition} are paths of nested fields separated by
+ * {@value #PATH_SEPARATOR} (for example {@code address.city}). Each prefix of a field's path is a
+ * parent field which gets a slot of its own. A parent field is ready when all the fields nested in
+ * it are ready.
+ */
+public final class PayloadSchema {
+
+  public static final char PATH_SEPARATOR = '.';
+
+  private static final int NO_PARENT = -1;
+
+  private final String workflowId;
+  private final ImmutableList<String> paths;
+  private final ImmutableMap<String, Integer> slots;
+  private final int[] parentSlots;
+  private final int[] leafCounts;
+  private final ImmutableSet<String> leafPaths;
+
+  private PayloadSchema(
+      String workflowId,
+      ImmutableMap<String, Integer> slots,
+      int[] parentSlots,
+      int[] leafCounts,
+      ImmutableSet<String> leafPaths) {
+    this.workflowId = workflowId;
+    this.paths = slots.keySet().asList();
+    this.slots = slots;
+    this.parentSlots = parentSlots;
+    this.leafCounts = leafCounts;
+    this.leafPaths = leafPaths;
+  }
+
+  /**
+   * Assigns slots to all the fields of the given workflow and their parents.
+   *
+   * @throws IllegalArgumentException if a field of the workflow is also the parent of other fields
+   */
+  public static PayloadSchema compile(WorkflowDefinition workflowDefinition) {
+    ImmutableSet<String> leaves = workflowDefinition.fieldNames();
+    Map<String, Integer> slots = new LinkedHashMap<>();
+    List<Integer> parentSlots = new ArrayList<>();
+    List<Integer> leafCounts = new ArrayList<>();
+    for (String leaf : new TreeSet<>(leaves)) {
+      int parentSlot = NO_PARENT;
+      int separator = leaf.indexOf(PATH_SEPARATOR);
+      while (true) {
+        String path = separator < 0 ? leaf : leaf.substring(0, separator);
+        if (separator >= 0 && leaves.contains(path)) {
+          throw new IllegalArgumentException(
+              "Field %s of workflow %s cannot also be the parent of the field %s"
+                  .formatted(path, workflowDefinition.workflowId(), leaf));
+        }
+        Integer slot = slots.get(path);
+        if (slot == null) {
+          slot = slots.size();
+          slots.put(path, slot);
+          parentSlots.add(parentSlot);
+          leafCounts.add(0);
+        }
+        leafCounts.set(slot, leafCounts.get(slot) + 1);
+        if (separator < 0) {
+          break;
+        }
+        parentSlot = slot;
+        separator = leaf.indexOf(PATH_SEPARATOR, separator + 1);
+      }
+    }
+    return new PayloadSchema(
+        workflowDefinition.workflowId(),
+        ImmutableMap.copyOf(slots),
+        parentSlots.stream().mapToInt(Integer::intValue).toArray(),
+        leafCounts.stream().mapToInt(Integer::intValue).toArray(),
+        leaves);
+  }
+
+  public String workflowId() {
+    return workflowId;
+  }
+
+  /** Returns the number of slots, including those of parent fields. */
+  public int slotCount() {
+    return paths.size();
+  }
+
+  /** Returns the number of fields which are not parents of other fields. */
+  public int leafCount() {
+    return leafPaths.size();
+  }
+
+  /** Returns the slot of the field with the given path, or -1 if there is no such field. */
+  public int slotOf(String path) {
+    Integer slot = slots.get(path);
+    return slot == null ? -1 : slot;
+  }
+
+  public String pathOf(int slot) {
+    return paths.get(slot);
+  }
+
+  /** Returns true if the field in the given slot is not the parent of other fields. */
+  public boolean isLeaf(int slot) {
+    return leafPaths.contains(paths.get(slot));
+  }
+
+  /** Returns the slot of the parent of the field in the given slot, or -1 if it is top-level. */
+  int parentSlot(int slot) {
+    return parentSlots[slot];
+  }
+
+  /** Returns the number of leaf fields nested in the given slot (1 for a leaf field). */
+  int leafCount(int slot) {
+    return leafCounts[slot];
+  }
+}
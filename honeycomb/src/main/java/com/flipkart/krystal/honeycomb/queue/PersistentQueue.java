@@ -0,0 +1,347 @@
+package com.flipkart.krystal.honeycomb.queue;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An embedded, durable, multi-consumer queue of messages, persisted in memory-mapped segment files
+ * in the local file system. It is meant to be used as the channel between the asynchronous steps
+ * of workflows on a single node.
+ *
+ * <ul>
+ *   <li>Appends: Messages are written directly into the mapped segment, and a new segment is
+ *       started when the current one is full. A batch of messages appended together costs one
+ *       fsync (see {@link PersistentQueueConfig#deferSync()}).
+ *   <li>Reads: {@link QueueConsumer}s read messages as read-only views of the mapped segments,
+ *       without copying them.
+ *   <li>Consumer offsets: Every consumer is identified by a name and commits the offset up to
+ *       which it has processed the messages. A consumer resumes from its committed offset when the
+ *       queue is reopened. Segments are deleted once all consumers have committed past them.
+ *   <li>Back-pressure: At most {@code maxBacklog} messages can be pending commit by the slowest
+ *       consumer. Appends block till the backlog has room.
+ * </ul>
+ *
+ * <p>Appends from multiple threads are serialized. Each consumer must be used by one thread at a
+ * time, but different consumers can read concurrently with each other and with appends.
+ */
+public final class PersistentQueue implements AutoCloseable {
+
+  private static final Pattern CONSUMER_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+  private final Path directory;
+  private final int segmentSize;
+  private final long maxBacklog;
+  private final boolean deferSync;
+  private final ConcurrentSkipListMap<Long, QueueSegment> segments = new ConcurrentSkipListMap<>();
+  private final Map<String, QueueConsumer> consumers = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition notEmpty = lock.newCondition();
+
+  // Guarded by lock
+  private QueueSegment activeSegment;
+  private int writePosition;
+  private int syncedPosition;
+
+  /** The offset of the next message to be appended. Published after the messages are written. */
+  private volatile long nextOffset;
+
+  private volatile boolean closed;
+
+  private PersistentQueue(PersistentQueueConfig config) throws IOException {
+    this.directory = config.directory();
+    this.segmentSize = config.segmentSize();
+    this.maxBacklog = config.maxBacklog();
+    this.deferSync = config.deferSync();
+    Files.createDirectories(directory);
+    this.activeSegment = recoverSegments();
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path path : files.toList()) {
+        String fileName = path.getFileName().toString();
+        if (fileName.startsWith(QueueConsumer.PREFIX) && fileName.endsWith(QueueConsumer.SUFFIX)) {
+          String name =
+              fileName.substring(
+                  QueueConsumer.PREFIX.length(),
+                  fileName.length() - QueueConsumer.SUFFIX.length());
+          consumers.put(name, QueueConsumer.open(this, name, directory, 0));
+        }
+      }
+    }
+  }
+
+  /** Opens the queue, recovering all the messages and consumer offsets persisted in it. */
+  public static PersistentQueue open(PersistentQueueConfig config) throws IOException {
+    return new PersistentQueue(config);
+  }
+
+  /**
+   * Appends a message to the queue, blocking while the backlog is full.
+   *
+   * @return the offset of the message
+   */
+  public long append(byte[] message) throws InterruptedException {
+    return appendAll(List.of(message));
+  }
+
+  /**
+   * Appends the messages to the queue as one batch, blocking while the backlog is full.
+   *
+   * @return the offset of the first message
+   * @throws IllegalArgumentException if a message is too large to fit in a segment
+   */
+  public long appendAll(List<byte[]> messages) throws InterruptedException {
+    return appendAll(messages, null).orElseThrow();
+  }
+
+  /**
+   * Appends the messages to the queue as one batch, waiting at most for the given duration for
+   * the backlog to have room.
+   *
+   * @return the offset of the first message, or empty if the messages could not be appended before
+   *     the timeout
+   * @throws IllegalArgumentException if a message is too large to fit in a segment
+   */
+  public OptionalLong tryAppendAll(List<byte[]> messages, Duration timeout)
+      throws InterruptedException {
+    return appendAll(messages, timeout);
+  }
+
+  /**
+   * Returns the consumer with the given name, creating it if needed. A new consumer starts reading
+   * from the oldest message retained in the queue.
+   */
+  public QueueConsumer consumer(String name) {
+    if (!CONSUMER_NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid consumer name " + name);
+    }
+    return consumers.computeIfAbsent(
+        name,
+        _n -> {
+          try {
+            return QueueConsumer.open(this, name, directory, firstRetainedOffset());
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  /** Makes all the messages appended so far durable. */
+  public void sync() {
+    lock.lock();
+    try {
+      activeSegment.force(syncedPosition, writePosition - syncedPosition);
+      syncedPosition = writePosition;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the offset of the next message to be appended. */
+  public long nextOffset() {
+    return nextOffset;
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      activeSegment.force(syncedPosition, writePosition - syncedPosition);
+      syncedPosition = writePosition;
+      closed = true;
+      notFull.signalAll();
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the segment containing the given offset, if it is still retained. */
+  @Nullable QueueSegment segmentOf(long offset) {
+    Entry<Long, QueueSegment> entry = segments.floorEntry(offset);
+    return entry == null ? null : entry.getValue();
+  }
+
+  /** Waits till a message is available at the given offset, or the timeout elapses. */
+  void awaitMessage(long offset, long timeoutNanos) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (!closed && nextOffset <= offset && timeoutNanos > 0) {
+        timeoutNanos = notEmpty.awaitNanos(timeoutNanos);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Called when a consumer commits, to release back-pressure and delete consumed segments. */
+  void committed() throws IOException {
+    lock.lock();
+    try {
+      long lowWatermark = lowWatermark();
+      // A segment can be deleted if the next segment starts at or before the low watermark
+      Entry<Long, QueueSegment> first = segments.firstEntry();
+      while (first != null) {
+        Long nextBase = segments.higherKey(first.getKey());
+        if (nextBase == null || nextBase > lowWatermark) {
+          break;
+        }
+        segments.remove(first.getKey());
+        first.getValue().delete();
+        first = segments.firstEntry();
+      }
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private OptionalLong appendAll(List<byte[]> messages, @Nullable Duration timeout)
+      throws InterruptedException {
+    for (byte[] message : messages) {
+      if (QueueSegment.HEADER_SIZE + message.length > segmentSize) {
+        throw new IllegalArgumentException(
+            "A message of %s bytes does not fit in a segment of %s bytes"
+                .formatted(message.length, segmentSize));
+      }
+    }
+    if (messages.isEmpty()) {
+      return OptionalLong.of(nextOffset);
+    }
+    long timeoutNanos = timeout == null ? Long.MAX_VALUE : timeout.toNanos();
+    lock.lockInterruptibly();
+    try {
+      while (!closed && !hasRoomFor(messages.size())) {
+        if (timeout == null) {
+          notFull.await();
+        } else if (timeoutNanos <= 0) {
+          return OptionalLong.empty();
+        } else {
+          timeoutNanos = notFull.awaitNanos(timeoutNanos);
+        }
+      }
+      if (closed) {
+        throw new IllegalStateException("The queue has been closed");
+      }
+      long firstOffset = nextOffset;
+      long offset = firstOffset;
+      for (byte[] message : messages) {
+        if (!activeSegment.fits(writePosition, message.length)) {
+          rollSegment(offset);
+        }
+        writePosition = activeSegment.write(writePosition, message);
+        offset++;
+      }
+      if (!deferSync) {
+        activeSegment.force(syncedPosition, writePosition - syncedPosition);
+        syncedPosition = writePosition;
+      }
+      nextOffset = offset;
+      notEmpty.signalAll();
+      return OptionalLong.of(firstOffset);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** The backlog never blocks a batch when it is empty, even if the batch is larger than it. */
+  private boolean hasRoomFor(int messageCount) {
+    long backlog = nextOffset - lowWatermark();
+    return backlog == 0 || backlog + messageCount <= maxBacklog;
+  }
+
+  /** The offset up to which all consumers have committed. */
+  private long lowWatermark() {
+    if (consumers.isEmpty()) {
+      return firstRetainedOffset();
+    }
+    long lowWatermark = Long.MAX_VALUE;
+    for (QueueConsumer consumer : consumers.values()) {
+      lowWatermark = Math.min(lowWatermark, consumer.committedOffset());
+    }
+    return lowWatermark;
+  }
+
+  private long firstRetainedOffset() {
+    Long firstKey = segments.isEmpty() ? null : segments.firstKey();
+    return firstKey == null ? nextOffset : firstKey;
+  }
+
+  private void rollSegment(long baseOffset) throws IOException {
+    activeSegment.force(syncedPosition, writePosition - syncedPosition);
+    activeSegment = QueueSegment.create(directory, baseOffset, segmentSize);
+    segments.put(baseOffset, activeSegment);
+    writePosition = 0;
+    syncedPosition = 0;
+  }
+
+  /** Loads the existing segments and returns the one to which messages are to be appended. */
+  private QueueSegment recoverSegments() throws IOException {
+    List<QueueSegment> recovered = new ArrayList<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path path : files.toList()) {
+        String fileName = path.getFileName().toString();
+        if (fileName.startsWith(QueueSegment.PREFIX) && fileName.endsWith(QueueSegment.SUFFIX)) {
+          recovered.add(QueueSegment.open(path));
+        }
+      }
+    }
+    if (recovered.isEmpty()) {
+      QueueSegment segment = QueueSegment.create(directory, 0, segmentSize);
+      segments.put(0L, segment);
+      return segment;
+    }
+    recovered.forEach(segment -> segments.put(segment.baseOffset(), segment));
+    long offset = segments.firstKey();
+    QueueSegment lastSegment = segments.lastEntry().getValue();
+    for (QueueSegment segment : segments.values()) {
+      if (segment.baseOffset() != offset) {
+        throw new IOException(
+            "Queue segment starting at %s was expected to start at %s"
+                .formatted(segment.baseOffset(), offset));
+      }
+      int position = 0;
+      while (segment.isValidAt(position)) {
+        position += QueueSegment.HEADER_SIZE + segment.lengthAt(position);
+        offset++;
+      }
+      if (segment == lastSegment) {
+        // Discard messages which were only partially written before a crash
+        if (segment.lengthAt(position) != -1) {
+          segment.truncate(position);
+        }
+        writePosition = position;
+        syncedPosition = position;
+      } else if (segment.lengthAt(position) != -1) {
+        // Older segments were fsynced before the next one was started, so they cannot be torn.
+        // Truncating them would silently drop the messages after the corruption.
+        throw new IOException(
+            "Queue segment starting at %s is corrupted at position %s"
+                .formatted(segment.baseOffset(), position));
+      }
+    }
+    nextOffset = offset;
+    return lastSegment;
+  }
+}
@@ -0,0 +1,34 @@
+package com.flipkart.krystal.honeycomb.queue;
+
+import java.nio.file.Path;
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * @param directory The directory in which the segments of the queue and the offsets of its
+ *     consumers are stored. Must not be shared with any other queue.
+ * @param segmentSize The size in bytes of each segment file. A message must fit in one segment.
+ *     Defaults to {@value #DEFAULT_SEGMENT_SIZE}
+ * @param maxBacklog The maximum number of messages which can be appended but not yet committed by
+ *     all the consumers. Appends block when the backlog is full. Defaults to {@value
+ *     #DEFAULT_MAX_BACKLOG}
+ * @param deferSync If true, appends are not fsynced, and become durable only when the operating
+ *     system writes back the mapped pages or {@link PersistentQueue#sync()} is called. By default,
+ *     every batch of appended messages is fsynced before the append returns.
+ */
+public record PersistentQueueConfig(
+    @NonNull Path directory, int segmentSize, long maxBacklog, boolean deferSync) {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  public static final long DEFAULT_MAX_BACKLOG = 1_000_000;
+
+  @Builder
+  public PersistentQueueConfig {
+    if (segmentSize <= QueueSegment.HEADER_SIZE) {
+      segmentSize = DEFAULT_SEGMENT_SIZE;
+    }
+    if (maxBacklog <= 0) {
+      maxBacklog = DEFAULT_MAX_BACKLOG;
+    }
+  }
+}
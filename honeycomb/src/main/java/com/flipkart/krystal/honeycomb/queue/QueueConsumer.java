@@ -0,0 +1,132 @@
+package com.flipkart.krystal.honeycomb.queue;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Reads the messages of a {@link PersistentQueue} in order, and durably tracks the offset up to
+ * which they have been processed. A consumer must be used by one thread at a time.
+ */
+public final class QueueConsumer {
+
+  static final String PREFIX = "consumer-";
+  static final String SUFFIX = ".offset";
+
+  private final PersistentQueue queue;
+  private final String name;
+
+  /** Holds the committed offset, memory-mapped so that a commit is a single write and fsync. */
+  private final MappedByteBuffer offsetFile;
+
+  private volatile long committedOffset;
+
+  /** The offset of the next message to be read. */
+  private long readOffset;
+
+  private @Nullable QueueSegment readSegment;
+  private int readPosition;
+
+  private QueueConsumer(
+      PersistentQueue queue, String name, MappedByteBuffer offsetFile, long committedOffset) {
+    this.queue = queue;
+    this.name = name;
+    this.offsetFile = offsetFile;
+    this.committedOffset = committedOffset;
+    this.readOffset = committedOffset;
+  }
+
+  static QueueConsumer open(
+      PersistentQueue queue, String name, Path directory, long initialOffset) throws IOException {
+    Path path = directory.resolve(PREFIX + name + SUFFIX);
+    boolean exists = Files.exists(path);
+    try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+      MappedByteBuffer offsetFile = channel.map(READ_WRITE, 0, Long.BYTES);
+      if (!exists) {
+        offsetFile.putLong(0, initialOffset);
+        offsetFile.force();
+      }
+      return new QueueConsumer(queue, name, offsetFile, offsetFile.getLong(0));
+    }
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Returns at most {@code maxMessages} messages following those returned by the previous poll,
+   * without waiting for new messages.
+   */
+  public ImmutableList<QueueMessage> poll(int maxMessages) {
+    ImmutableList.Builder<QueueMessage> messages = ImmutableList.builder();
+    // Messages before the queue's next offset are guaranteed to be completely written
+    long available = queue.nextOffset();
+    for (int i = 0; i < maxMessages && readOffset < available; i++) {
+      QueueSegment segment = this.readSegment;
+      if (segment == null || segment.lengthAt(readPosition) < 0) {
+        segment = seek(readOffset);
+      }
+      messages.add(new QueueMessage(readOffset, segment.payloadAt(readPosition)));
+      readPosition += QueueSegment.HEADER_SIZE + segment.lengthAt(readPosition);
+      readOffset++;
+    }
+    return messages.build();
+  }
+
+  /**
+   * Returns at most {@code maxMessages} messages following those returned by the previous poll,
+   * waiting at most for the given duration if no messages are available.
+   */
+  public ImmutableList<QueueMessage> poll(int maxMessages, Duration timeout)
+      throws InterruptedException {
+    queue.awaitMessage(readOffset, timeout.toNanos());
+    return poll(maxMessages);
+  }
+
+  /**
+   * Durably records that all the messages returned by the previous polls have been processed, so
+   * that this consumer resumes after them when the queue is reopened.
+   */
+  public void commit() {
+    offsetFile.putLong(0, readOffset);
+    offsetFile.force();
+    committedOffset = readOffset;
+    try {
+      queue.committed();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public long committedOffset() {
+    return committedOffset;
+  }
+
+  /** Positions the consumer at the given offset by scanning the segment containing it. */
+  private QueueSegment seek(long offset) {
+    QueueSegment segment = queue.segmentOf(offset);
+    if (segment == null) {
+      throw new IllegalStateException(
+          "Message at offset %s is no longer retained by the queue".formatted(offset));
+    }
+    int position = 0;
+    for (long o = segment.baseOffset(); o < offset; o++) {
+      position += QueueSegment.HEADER_SIZE + segment.lengthAt(position);
+    }
+    this.readSegment = segment;
+    this.readPosition = position;
+    return segment;
+  }
+}
@@ -0,0 +1,12 @@
+package com.flipkart.krystal.honeycomb.queue;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A message read from a {@link PersistentQueue}.
+ *
+ * @param offset The position of the message in the queue
+ * @param payload A read-only view of the payload, backed directly by the memory-mapped segment
+ *     file - the payload is not copied.
+ */
+public record QueueMessage(long offset, ByteBuffer payload) {}
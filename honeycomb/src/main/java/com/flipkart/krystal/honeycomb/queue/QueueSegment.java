@@ -0,0 +1,123 @@
+package com.flipkart.krystal.honeycomb.queue;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * A pre-allocated, memory-mapped file holding a contiguous range of the messages of a {@link
+ * PersistentQueue}, starting at {@link #baseOffset()}.
+ *
+ * <p>Every message is stored as {@code [length + 1][crc32c][payload]}. The length is stored plus
+ * one so that a zero marks the end of the messages written to the segment.
+ */
+final class QueueSegment {
+
+  static final String PREFIX = "queue-";
+  static final String SUFFIX = ".seg";
+  static final int HEADER_SIZE = Integer.BYTES * 2;
+
+  private final long baseOffset;
+  private final Path path;
+  private final MappedByteBuffer buffer;
+
+  private QueueSegment(long baseOffset, Path path, MappedByteBuffer buffer) {
+    this.baseOffset = baseOffset;
+    this.path = path;
+    this.buffer = buffer;
+  }
+
+  static QueueSegment create(Path directory, long baseOffset, int size) throws IOException {
+    Path path = directory.resolve(PREFIX + baseOffset + SUFFIX);
+    try (FileChannel channel = FileChannel.open(path, CREATE_NEW, READ, WRITE)) {
+      return new QueueSegment(baseOffset, path, channel.map(READ_WRITE, 0, size));
+    }
+  }
+
+  static QueueSegment open(Path path) throws IOException {
+    String fileName = path.getFileName().toString();
+    long baseOffset =
+        Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+    try (FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+      return new QueueSegment(baseOffset, path, channel.map(READ_WRITE, 0, channel.size()));
+    }
+  }
+
+  long baseOffset() {
+    return baseOffset;
+  }
+
+  int size() {
+    return buffer.capacity();
+  }
+
+  /** Returns true if a message of the given length fits in the segment at the given position. */
+  boolean fits(int position, int length) {
+    return position + HEADER_SIZE + length <= buffer.capacity();
+  }
+
+  /** Writes the message at the given position and returns the position after the message. */
+  int write(int position, byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    buffer.put(position + HEADER_SIZE, payload);
+    buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+    buffer.putInt(position, payload.length + 1);
+    return position + HEADER_SIZE + payload.length;
+  }
+
+  /**
+   * Returns the length of the payload of the message at the given position, or -1 if no message
+   * has been written there.
+   */
+  int lengthAt(int position) {
+    if (position + HEADER_SIZE > buffer.capacity()) {
+      return -1;
+    }
+    return buffer.getInt(position) - 1;
+  }
+
+  /** Returns a read-only view of the payload of the message at the given position. */
+  ByteBuffer payloadAt(int position) {
+    return buffer.slice(position + HEADER_SIZE, lengthAt(position)).asReadOnlyBuffer();
+  }
+
+  /** Returns true if the message at the given position is completely written and intact. */
+  boolean isValidAt(int position) {
+    int length = lengthAt(position);
+    if (length < 0 || !fits(position, length)) {
+      return false;
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(position + HEADER_SIZE, length));
+    return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES);
+  }
+
+  /** Zeroes the segment from the given position, discarding partially written messages. */
+  void truncate(int position) {
+    byte[] zeros = new byte[4096];
+    for (int i = position; i < buffer.capacity(); i += zeros.length) {
+      buffer.put(i, zeros, 0, Math.min(zeros.length, buffer.capacity() - i));
+    }
+    buffer.force();
+  }
+
+  void force(int position, int length) {
+    if (length > 0) {
+      buffer.force(position, length);
+    }
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(path);
+  }
+}
@@ -0,0 +1,12 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+
+/** A step of a workflow instance whose input fields are all ready. */
+public record ReadyStep(DurableWorkflowInstance instance, WorkflowStep step) {
+
+  /** An id which is unique across all the steps of all the workflow instances. */
+  public String executionId() {
+    return instance.instanceId() + ':' + step.stepName();
+  }
+}
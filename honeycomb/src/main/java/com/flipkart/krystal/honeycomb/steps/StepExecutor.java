@@ -0,0 +1,17 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Executes batches of ready steps, which may belong to many different workflow instances. */
+@FunctionalInterface
+public interface StepExecutor {
+
+  /**
+   * Starts executing all the given steps together.
+   *
+   * @return The responses of the steps, in the same order as the steps
+   */
+  ImmutableList<CompletableFuture<@Nullable Object>> execute(ImmutableList<ReadyStep> steps);
+}
@@ -0,0 +1,12 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+/** Handles the steps whose execution, or the write back of whose response, failed. */
+@FunctionalInterface
+public interface StepFailureListener {
+
+  /**
+   * Called once per failed step. The output field of the step is left unset, and the step is not
+   * retried by the {@link StepRunner} - it is upto the listener to schedule it again if needed.
+   */
+  void onStepFailed(ReadyStep step, Throwable error);
+}
@@ -0,0 +1,225 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.honeycomb.UnrecognizedFieldException;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.progress.FieldProgressIndex.FieldWatch;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.honeycomb.store.WorkflowStore;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Executes the synchronous steps of workflow instances as soon as their input fields are ready, and
+ * writes the responses of the steps back to the payloads of the instances.
+ *
+ * <p>Ready steps are not executed one instance at a time. A single runner thread drains all the
+ * steps which are ready - across all workflow instances - and hands them over to the {@link
+ * StepExecutor} as one batch of at most {@code maxBatchSize} steps. With a {@link
+ * VajramStepExecutor}, the whole batch is executed in one vajram executor, so the IO calls of steps
+ * of different instances are batched together. While a batch is executing, newly ready steps
+ * accumulate and form the next batch. The responses of a batch are written to the store together,
+ * costing as few fsyncs as possible.
+ */
+@Slf4j
+public final class StepRunner implements AutoCloseable {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+  private final StepExecutor stepExecutor;
+  private final WorkflowStore store;
+  private final StepFailureListener failureListener;
+  private final int maxBatchSize;
+  private final long batchWindowNanos;
+  private final LinkedBlockingQueue<ReadyStep> readySteps = new LinkedBlockingQueue<>();
+  private final Thread runnerThread;
+  private volatile boolean closed;
+
+  /**
+   * Creates a runner and starts its runner thread.
+   *
+   * @param store The store of the workflow instances whose steps are to be executed
+   * @param stepExecutor Executes batches of ready steps
+   * @param failureListener Handles failed steps. By default, failures are logged.
+   * @param maxBatchSize The maximum number of steps executed in one batch. Defaults to {@value
+   *     #DEFAULT_MAX_BATCH_SIZE}
+   * @param batchWindow The maximum duration for which the runner waits for more steps to become
+   *     ready after the first step of a batch is ready. Waiting trades latency for larger batches.
+   *     By default, the runner does not wait.
+   */
+  @Builder
+  private StepRunner(
+      @NonNull WorkflowStore store,
+      @NonNull StepExecutor stepExecutor,
+      @Nullable StepFailureListener failureListener,
+      int maxBatchSize,
+      @Nullable Duration batchWindow) {
+    if (maxBatchSize <= 0) {
+      maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    }
+    this.store = store;
+    this.stepExecutor = stepExecutor;
+    this.failureListener =
+        failureListener != null
+            ? failureListener
+            : (step, error) ->
+                log.error(
+                    "Step {} of workflow instance {} failed",
+                    step.step().stepName(),
+                    step.instance().instanceId(),
+                    error);
+    this.maxBatchSize = maxBatchSize;
+    this.batchWindowNanos = batchWindow == null ? 0 : batchWindow.toNanos();
+    this.runnerThread = new Thread(this::run, "honeycomb-step-runner");
+    runnerThread.setDaemon(true);
+    runnerThread.start();
+  }
+
+  /**
+   * Executes the step for the given instance once all the input fields of the step are ready. If
+   * they are already ready, the step is executed right away.
+   *
+   * @return A watch which can be cancelled to unschedule the step, or empty if the output field of
+   *     the step already has a durable value, in which case the step is not executed again.
+   * @throws UnrecognizedFieldException if an input or output field of the step is not a field of
+   *     the instance's workflow
+   */
+  public Optional<FieldWatch> schedule(DurableWorkflowInstance instance, WorkflowStep step)
+      throws UnrecognizedFieldException {
+    if (closed) {
+      throw new IllegalStateException("The step runner has been closed");
+    }
+    if (instance.isFieldReady(step.outputField())) {
+      return Optional.empty();
+    }
+    ReadyStep readyStep = new ReadyStep(instance, step);
+    return Optional.of(instance.watchFields(step.inputFields(), () -> readySteps.add(readyStep)));
+  }
+
+  /**
+   * Stops the runner after executing the steps which are already ready. Steps which become ready
+   * after this are not executed - they can be scheduled again after the store is reopened.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    runnerThread.join(TimeUnit.MINUTES.toMillis(1));
+  }
+
+  private void run() {
+    List<ReadyStep> batch = new ArrayList<>();
+    while (!closed || !readySteps.isEmpty()) {
+      try {
+        ReadyStep first = readySteps.poll(100, MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + batchWindowNanos;
+        readySteps.drainTo(batch, maxBatchSize - batch.size());
+        long remaining;
+        while (batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+          ReadyStep next = readySteps.poll(remaining, NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          readySteps.drainTo(batch, maxBatchSize - batch.size());
+        }
+      } catch (InterruptedException e) {
+        log.warn("Step runner was interrupted. {} ready steps will not be executed", batch.size());
+        return;
+      }
+      try {
+        runBatch(ImmutableList.copyOf(batch));
+      } catch (Throwable e) {
+        log.error("Could not run a batch of {} steps", batch.size(), e);
+      }
+      batch.clear();
+    }
+  }
+
+  private void runBatch(ImmutableList<ReadyStep> batch) {
+    ImmutableList<CompletableFuture<@Nullable Object>> responses;
+    try {
+      responses = stepExecutor.execute(batch);
+    } catch (Throwable e) {
+      responses = failAll(batch, e);
+    }
+    if (responses.size() != batch.size()) {
+      responses =
+          failAll(
+              batch,
+              new IllegalStateException(
+                  "Expected %s step responses, but received %s"
+                      .formatted(batch.size(), responses.size())));
+    }
+    allOf(responses.toArray(CompletableFuture[]::new)).handle((_r, _t) -> null).join();
+
+    ListMultimap<DurableWorkflowInstance, FieldValue> outputs = ArrayListMultimap.create();
+    List<ReadyStep> completedSteps = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      ReadyStep step = batch.get(i);
+      @Nullable Object response;
+      try {
+        response = responses.get(i).join();
+      } catch (Throwable e) {
+        fail(step, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        continue;
+      }
+      if (response == null) {
+        fail(
+            step,
+            new IllegalStateException(
+                "Vajram %s returned no response".formatted(step.step().vajramId())));
+        continue;
+      }
+      outputs.put(step.instance(), new FieldValue(step.step().outputField(), response));
+      completedSteps.add(step);
+    }
+    if (outputs.isEmpty()) {
+      return;
+    }
+    try {
+      store.updateFields(outputs);
+    } catch (Throwable e) {
+      completedSteps.forEach(step -> fail(step, e));
+    }
+  }
+
+  private void fail(ReadyStep step, Throwable error) {
+    try {
+      failureListener.onStepFailed(step, error);
+    } catch (Throwable e) {
+      log.error(
+          "Step failure listener failed for step {} of workflow instance {}",
+          step.step().stepName(),
+          step.instance().instanceId(),
+          e);
+    }
+  }
+
+  private static ImmutableList<CompletableFuture<@Nullable Object>> failAll(
+      ImmutableList<ReadyStep> batch, Throwable error) {
+    return batch.stream()
+        .map(_s -> CompletableFuture.<@Nullable Object>failedFuture(error))
+        .collect(toImmutableList());
+  }
+}
@@ -0,0 +1,101 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link StepExecutor} which executes all the steps of a batch in one {@link
+ * KrystexVajramExecutor}. Since the executor is flushed only after all the steps have been
+ * submitted to it, the {@link InputBatcherConfig input batchers} registered with the {@link
+ * VajramKryonGraph} batch the IO calls of all the steps together, even though the steps belong to
+ * different workflow instances.
+ */
+public final class VajramStepExecutor implements StepExecutor {
+
+  private static final AtomicLong EXECUTOR_COUNT = new AtomicLong();
+
+  private final VajramKryonGraph vajramKryonGraph;
+  private final SingleThreadExecutorsPool executorsPool;
+  private final Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory;
+
+  /**
+   * @param vajramKryonGraph The graph of the vajrams which execute the steps
+   * @param executorsPool The pool from which the threads of the vajram executors are leased
+   * @param executorConfigFactory Creates the config of each vajram executor. Defaults to a config
+   *     with the default {@link KryonExecutorConfig}
+   */
+  @Builder
+  private VajramStepExecutor(
+      @NonNull VajramKryonGraph vajramKryonGraph,
+      @NonNull SingleThreadExecutorsPool executorsPool,
+      @Nullable Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory) {
+    this.vajramKryonGraph = vajramKryonGraph;
+    this.executorsPool = executorsPool;
+    this.executorConfigFactory =
+        executorConfigFactory != null
+            ? executorConfigFactory
+            : executor ->
+                KrystexVajramExecutorConfig.builder()
+                    .requestId("honeycomb-steps-" + EXECUTOR_COUNT.getAndIncrement())
+                    .kryonExecutorConfigBuilder(
+                        KryonExecutorConfig.builder().singleThreadExecutor(executor))
+                    .build();
+  }
+
+  @Override
+  public ImmutableList<CompletableFuture<@Nullable Object>> execute(
+      ImmutableList<ReadyStep> steps) {
+    Lease<SingleThreadExecutor> lease;
+    try {
+      lease = executorsPool.lease();
+    } catch (LeaseUnavailableException e) {
+      return steps.stream()
+          .map(_s -> CompletableFuture.<@Nullable Object>failedFuture(e))
+          .collect(toImmutableList());
+    }
+    ImmutableList<CompletableFuture<@Nullable Object>> responses;
+    try (KrystexVajramExecutor vajramExecutor =
+        vajramKryonGraph.createExecutor(executorConfigFactory.apply(lease.get()))) {
+      responses =
+          steps.stream()
+              .map(step -> executeStep(vajramExecutor, step))
+              .collect(toImmutableList());
+    } catch (Throwable e) {
+      lease.close();
+      throw e;
+    }
+    allOf(responses.toArray(CompletableFuture[]::new)).whenComplete((_r, _t) -> lease.close());
+    return responses;
+  }
+
+  private static CompletableFuture<@Nullable Object> executeStep(
+      KrystexVajramExecutor vajramExecutor, ReadyStep readyStep) {
+    try {
+      WorkflowStep step = readyStep.step();
+      return vajramExecutor.executeWithFacets(
+          step.vajramId(),
+          step.facetsMapper().apply(readyStep.instance().fieldValues()),
+          KryonExecutionConfig.builder().executionId(readyStep.executionId()).build());
+    } catch (Throwable e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
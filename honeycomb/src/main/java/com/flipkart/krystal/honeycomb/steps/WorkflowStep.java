@@ -0,0 +1,38 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.vajram.VajramID;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+
+/**
+ * A synchronous step of a workflow, which is executed by a vajram once some fields of the workflow
+ * payload are ready, and whose response is written back to another field of the payload.
+ *
+ * @param stepName The name of the step, unique within its workflow
+ * @param vajramId The vajram which executes the step
+ * @param inputFields The paths of the payload fields which must be ready before the step can
+ *     execute
+ * @param facetsMapper Converts the field values of the workflow instance to the facets of the
+ *     vajram request
+ * @param outputField The payload field to which the response of the vajram is written
+ */
+public record WorkflowStep(
+    @NonNull String stepName,
+    @NonNull VajramID vajramId,
+    @Singular ImmutableSet<String> inputFields,
+    @NonNull Function<ImmutableMap<String, FieldValue>, Facets> facetsMapper,
+    @NonNull String outputField) {
+
+  @Builder
+  public WorkflowStep {
+    if (inputFields == null) {
+      inputFields = ImmutableSet.of();
+    }
+  }
+}
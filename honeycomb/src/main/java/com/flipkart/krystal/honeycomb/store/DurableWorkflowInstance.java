@@ -0,0 +1,126 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import com.flipkart.krystal.honeycomb.UnrecognizedFieldException;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.flipkart.krystal.honeycomb.model.WorkflowInstance;
+import com.flipkart.krystal.honeycomb.progress.FieldProgressIndex;
+import com.flipkart.krystal.honeycomb.progress.FieldProgressIndex.FieldWatch;
+import com.flipkart.krystal.honeycomb.store.LogRecord.FieldsUpdated;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * A {@link WorkflowInstance} whose payload is persisted in a {@link WorkflowStore}. Field updates
+ * are durable when {@link #updateFields(FieldValue...)} returns.
+ */
+public final class DurableWorkflowInstance implements WorkflowInstance {
+
+  private final String instanceId;
+  private final WorkflowDefinition workflowDefinition;
+  private final WorkflowStore store;
+
+  DurableWorkflowInstance(
+      String instanceId, WorkflowDefinition workflowDefinition, WorkflowStore store) {
+    this.instanceId = instanceId;
+    this.workflowDefinition = workflowDefinition;
+    this.store = store;
+  }
+
+  public String instanceId() {
+    return instanceId;
+  }
+
+  public String workflowId() {
+    return workflowDefinition.workflowId();
+  }
+
+  @Override
+  public void updateFields(FieldValue... fieldValues) throws UnrecognizedFieldException {
+    store.appendDurably(fieldsUpdated(ImmutableList.copyOf(fieldValues)));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The child instances and their parent are durably recorded in the store before they are
+   * handed over to the {@link ForkHandler} registered with the store.
+   *
+   * @throws UnsupportedOperationException if no fork handler has been registered with the store
+   */
+  @Override
+  public void fork(String workflowId, Object... payloads) {
+    store.fork(this, workflowId, ImmutableList.copyOf(payloads));
+  }
+
+  /** Returns the latest durable values of the fields of this instance's payload. */
+  public ImmutableMap<String, FieldValue> fieldValues() {
+    return store.fieldValues(instanceId);
+  }
+
+  public Optional<FieldValue> getFieldValue(String fieldName) {
+    return Optional.ofNullable(fieldValues().get(fieldName));
+  }
+
+  /**
+   * Returns true if the field with the given path has a durable value. For a parent of nested
+   * fields, returns true if all the fields nested in it have durable values.
+   *
+   * @throws UnrecognizedFieldException if the path is not a field of the workflow payload
+   */
+  public boolean isFieldReady(String fieldPath) throws UnrecognizedFieldException {
+    return fieldProgress().isReady(fieldPath);
+  }
+
+  /** Returns the fraction of the fields of the payload which have durable values. */
+  public double progress() {
+    return fieldProgress().progress();
+  }
+
+  /**
+   * Registers a callback which is invoked once all the given fields have durable values. The
+   * callback is invoked on the store's field watcher executor.
+   *
+   * @throws UnrecognizedFieldException if any of the paths is not a field of the workflow payload
+   */
+  public FieldWatch watchFields(Collection<String> fieldPaths, Runnable onReady)
+      throws UnrecognizedFieldException {
+    return fieldProgress().watch(fieldPaths, onReady);
+  }
+
+  /** Returns the id of the instance from which this instance was forked, if any. */
+  public Optional<String> parentInstanceId() {
+    return store.parentInstanceId(instanceId);
+  }
+
+  /** Returns the payload with which this instance was forked, if any. */
+  public Optional<Object> input() {
+    return store.input(instanceId);
+  }
+
+  /** Returns the ids of all the instances forked from this instance, in the order of forking. */
+  public ImmutableList<String> childInstanceIds() {
+    return store.childInstanceIds(instanceId);
+  }
+
+  /** Validates the field values and returns the log record which updates them. */
+  FieldsUpdated fieldsUpdated(ImmutableList<FieldValue> fieldValues)
+      throws UnrecognizedFieldException {
+    for (FieldValue fieldValue : fieldValues) {
+      if (!workflowDefinition.fieldNames().contains(fieldValue.fieldName())) {
+        throw new UnrecognizedFieldException(
+            "Field %s is not part of the payload of workflow %s"
+                .formatted(fieldValue.fieldName(), workflowId()));
+      }
+    }
+    return new FieldsUpdated(instanceId, fieldValues);
+  }
+
+  private FieldProgressIndex fieldProgress() {
+    return store
+        .fieldProgress(instanceId)
+        .orElseThrow(() -> new IllegalStateException("Unknown workflow instance " + instanceId));
+  }
+}
@@ -0,0 +1,20 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Executes the child instances forked by {@link DurableWorkflowInstance#fork(String, Object...)}
+ * and resumes the parent instance when all of them have finished. A fork handler is registered
+ * with a {@link WorkflowStore} using {@link WorkflowStore#registerForkHandler(ForkHandler)}.
+ */
+@FunctionalInterface
+public interface ForkHandler {
+
+  /**
+   * Called after the child instances have been durably created in the store.
+   *
+   * @param parent the instance which forked the children
+   * @param children the forked instances, in the order of the payloads passed to {@code fork}
+   */
+  void onFork(DurableWorkflowInstance parent, ImmutableList<DurableWorkflowInstance> children);
+}
@@ -0,0 +1,33 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link PayloadCodec} which uses java serialization. All payloads must be {@link Serializable}.
+ */
+public final class JavaSerializationCodec implements PayloadCodec {
+
+  @Override
+  public byte[] encode(@Nullable Object payload) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(payload);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Override
+  public @Nullable Object decode(byte[] bytes) throws IOException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException(e);
+    }
+  }
+}
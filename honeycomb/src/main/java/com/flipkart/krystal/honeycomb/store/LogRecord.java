@@ -0,0 +1,32 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.google.common.collect.ImmutableList;
+
+/** A single entry of the {@link WriteAheadLog}. */
+sealed interface LogRecord {
+
+  String instanceId();
+
+  record InstanceCreated(String instanceId, String workflowId) implements LogRecord {}
+
+  record FieldsUpdated(String instanceId, ImmutableList<FieldValue> fieldValues)
+      implements LogRecord {}
+
+  /**
+   * Child instances of the workflow {@code workflowId} were forked from the instance {@code
+   * instanceId}, one for each of the given payloads.
+   */
+  record InstancesForked(
+      String instanceId,
+      String workflowId,
+      ImmutableList<String> childInstanceIds,
+      ImmutableList<Object> payloads)
+      implements LogRecord {}
+
+  record TimerAdded(String instanceId, String timerId, String purpose, long deadlineEpochMillis)
+      implements LogRecord {}
+
+  /** The timer was either fired or cancelled. */
+  record TimerRemoved(String instanceId, String timerId) implements LogRecord {}
+}
@@ -0,0 +1,131 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import static java.util.Objects.requireNonNull;
+
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.store.LogRecord.FieldsUpdated;
+import com.flipkart.krystal.honeycomb.store.LogRecord.InstanceCreated;
+import com.flipkart.krystal.honeycomb.store.LogRecord.InstancesForked;
+import com.flipkart.krystal.honeycomb.store.LogRecord.TimerAdded;
+import com.flipkart.krystal.honeycomb.store.LogRecord.TimerRemoved;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Serializes {@link LogRecord}s to and from their binary representation in the log. */
+final class LogRecordCodec {
+
+  private static final byte INSTANCE_CREATED = 1;
+  private static final byte FIELDS_UPDATED = 2;
+  private static final byte INSTANCES_FORKED = 3;
+  private static final byte TIMER_ADDED = 4;
+  private static final byte TIMER_REMOVED = 5;
+
+  private final PayloadCodec payloadCodec;
+
+  LogRecordCodec(PayloadCodec payloadCodec) {
+    this.payloadCodec = payloadCodec;
+  }
+
+  byte[] encode(LogRecord logRecord) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    if (logRecord instanceof InstanceCreated instanceCreated) {
+      out.writeByte(INSTANCE_CREATED);
+      out.writeUTF(instanceCreated.instanceId());
+      out.writeUTF(instanceCreated.workflowId());
+    } else if (logRecord instanceof FieldsUpdated fieldsUpdated) {
+      out.writeByte(FIELDS_UPDATED);
+      out.writeUTF(fieldsUpdated.instanceId());
+      out.writeInt(fieldsUpdated.fieldValues().size());
+      for (FieldValue fieldValue : fieldsUpdated.fieldValues()) {
+        writeFieldValue(out, fieldValue);
+      }
+    } else if (logRecord instanceof InstancesForked instancesForked) {
+      out.writeByte(INSTANCES_FORKED);
+      out.writeUTF(instancesForked.instanceId());
+      out.writeUTF(instancesForked.workflowId());
+      out.writeInt(instancesForked.childInstanceIds().size());
+      for (int i = 0; i < instancesForked.childInstanceIds().size(); i++) {
+        out.writeUTF(instancesForked.childInstanceIds().get(i));
+        writePayload(out, instancesForked.payloads().get(i));
+      }
+    } else if (logRecord instanceof TimerAdded timerAdded) {
+      out.writeByte(TIMER_ADDED);
+      out.writeUTF(timerAdded.instanceId());
+      out.writeUTF(timerAdded.timerId());
+      out.writeUTF(timerAdded.purpose());
+      out.writeLong(timerAdded.deadlineEpochMillis());
+    } else if (logRecord instanceof TimerRemoved timerRemoved) {
+      out.writeByte(TIMER_REMOVED);
+      out.writeUTF(timerRemoved.instanceId());
+      out.writeUTF(timerRemoved.timerId());
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  LogRecord decode(DataInput in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case INSTANCE_CREATED -> {
+        return new InstanceCreated(in.readUTF(), in.readUTF());
+      }
+      case FIELDS_UPDATED -> {
+        String instanceId = in.readUTF();
+        int count = in.readInt();
+        ImmutableList.Builder<FieldValue> fieldValues = ImmutableList.builderWithExpectedSize(count);
+        for (int i = 0; i < count; i++) {
+          fieldValues.add(readFieldValue(in));
+        }
+        return new FieldsUpdated(instanceId, fieldValues.build());
+      }
+      case INSTANCES_FORKED -> {
+        String instanceId = in.readUTF();
+        String workflowId = in.readUTF();
+        int count = in.readInt();
+        ImmutableList.Builder<String> childInstanceIds = ImmutableList.builderWithExpectedSize(count);
+        ImmutableList.Builder<Object> payloads = ImmutableList.builderWithExpectedSize(count);
+        for (int i = 0; i < count; i++) {
+          childInstanceIds.add(in.readUTF());
+          payloads.add(requireNonNull(readPayload(in)));
+        }
+        return new InstancesForked(
+            instanceId, workflowId, childInstanceIds.build(), payloads.build());
+      }
+      case TIMER_ADDED -> {
+        return new TimerAdded(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong());
+      }
+      case TIMER_REMOVED -> {
+        return new TimerRemoved(in.readUTF(), in.readUTF());
+      }
+      default -> throw new IOException("Unknown log record type " + type);
+    }
+  }
+
+  void writeFieldValue(DataOutput out, FieldValue fieldValue) throws IOException {
+    out.writeUTF(fieldValue.fieldName());
+    writePayload(out, fieldValue.payload());
+  }
+
+  FieldValue readFieldValue(DataInput in) throws IOException {
+    String fieldName = in.readUTF();
+    return new FieldValue(fieldName, readPayload(in));
+  }
+
+  void writePayload(DataOutput out, @Nullable Object payload) throws IOException {
+    byte[] bytes = payloadCodec.encode(payload);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  @Nullable Object readPayload(DataInput in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return payloadCodec.decode(bytes);
+  }
+}
@@ -0,0 +1,21 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The in-memory state which is derived from the {@link WriteAheadLog}. All methods are called from
+ * a single thread at a time.
+ */
+interface LogStateMachine {
+
+  /** Applies a record which has been durably written to (or replayed from) the log. */
+  void apply(LogRecord logRecord);
+
+  /** Writes the complete current state so that the log records applied so far can be discarded. */
+  void writeSnapshot(DataOutput out) throws IOException;
+
+  /** Replaces the current state with the one written by {@link #writeSnapshot(DataOutput)}. */
+  void restoreSnapshot(DataInput in) throws IOException;
+}
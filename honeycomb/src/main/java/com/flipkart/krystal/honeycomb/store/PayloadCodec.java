@@ -0,0 +1,12 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Converts the payloads of workflow fields to and from the bytes persisted in the workflow log. */
+public interface PayloadCodec {
+
+  byte[] encode(@Nullable Object payload) throws IOException;
+
+  @Nullable Object decode(byte[] bytes) throws IOException;
+}
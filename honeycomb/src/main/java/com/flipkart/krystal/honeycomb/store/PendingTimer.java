@@ -0,0 +1,14 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import java.time.Instant;
+
+/**
+ * A durable timer of a workflow instance which has not fired yet.
+ *
+ * @param timerId The unique id of the timer
+ * @param instanceId The workflow instance which is to be resumed when the timer fires
+ * @param purpose Identifies why the timer was scheduled (for example, a retry or a timeout), so
+ *     that the workflow can decide how to resume
+ * @param deadline The time at or after which the timer fires
+ */
+public record PendingTimer(String timerId, String instanceId, String purpose, Instant deadline) {}
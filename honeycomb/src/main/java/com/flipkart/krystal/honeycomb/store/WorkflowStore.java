@@ -0,0 +1,410 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+
+import com.flipkart.krystal.honeycomb.UnrecognizedFieldException;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.flipkart.krystal.honeycomb.progress.FieldProgressIndex;
+import com.flipkart.krystal.honeycomb.progress.PayloadSchema;
+import com.flipkart.krystal.honeycomb.store.LogRecord.FieldsUpdated;
+import com.flipkart.krystal.honeycomb.store.LogRecord.InstanceCreated;
+import com.flipkart.krystal.honeycomb.store.LogRecord.InstancesForked;
+import com.flipkart.krystal.honeycomb.store.LogRecord.TimerAdded;
+import com.flipkart.krystal.honeycomb.store.LogRecord.TimerRemoved;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An embedded store of workflow instances and their payloads, which persists all changes to a
+ * {@link WriteAheadLog} in the local file system. This allows running asynchronous workflows on a
+ * single node without an external database.
+ *
+ * <p>The latest state of all the workflow instances is held in memory and is rebuilt from the log
+ * when the store is opened.
+ */
+public final class WorkflowStore implements AutoCloseable {
+
+  private final ImmutableMap<String, WorkflowDefinition> workflowDefinitions;
+  private final ImmutableMap<String, PayloadSchema> payloadSchemas;
+  private final Executor fieldWatcherExecutor;
+  private final LogRecordCodec codec;
+  private final Map<String, InstanceState> instances = new ConcurrentHashMap<>();
+  private final Map<String, PendingTimer> timers = new ConcurrentHashMap<>();
+  private final WriteAheadLog log;
+  private final AtomicReference<@Nullable ForkHandler> forkHandler = new AtomicReference<>();
+
+  private WorkflowStore(WorkflowStoreConfig config) throws IOException {
+    this.workflowDefinitions =
+        config.workflowDefinitions().stream()
+            .collect(toImmutableMap(WorkflowDefinition::workflowId, identity()));
+    this.payloadSchemas =
+        workflowDefinitions.values().stream()
+            .map(PayloadSchema::compile)
+            .collect(toImmutableMap(PayloadSchema::workflowId, identity()));
+    this.fieldWatcherExecutor = config.fieldWatcherExecutor();
+    this.codec = new LogRecordCodec(config.payloadCodec());
+    this.log =
+        WriteAheadLog.open(
+            config.directory(),
+            codec,
+            new StoreStateMachine(),
+            config.maxBatchSize(),
+            config.snapshotInterval());
+  }
+
+  /** Opens the store, recovering all the workflow instances persisted in it. */
+  public static WorkflowStore open(WorkflowStoreConfig config) throws IOException {
+    return new WorkflowStore(config);
+  }
+
+  /**
+   * Durably creates a new instance of the given workflow with an empty payload.
+   *
+   * @throws IllegalArgumentException if the workflow is not known to this store
+   */
+  public DurableWorkflowInstance createInstance(String workflowId) {
+    WorkflowDefinition workflowDefinition = getWorkflowDefinition(workflowId);
+    String instanceId = UUID.randomUUID().toString();
+    appendDurably(new InstanceCreated(instanceId, workflowId));
+    return new DurableWorkflowInstance(instanceId, workflowDefinition, this);
+  }
+
+  public Optional<DurableWorkflowInstance> getInstance(String instanceId) {
+    return Optional.ofNullable(instances.get(instanceId))
+        .map(
+            instanceState ->
+                new DurableWorkflowInstance(
+                    instanceId, getWorkflowDefinition(instanceState.workflowId()), this));
+  }
+
+  /**
+   * Registers the handler which executes the instances forked from the instances of this store.
+   *
+   * @throws IllegalStateException if a fork handler has already been registered
+   */
+  public void registerForkHandler(ForkHandler forkHandler) {
+    if (!this.forkHandler.compareAndSet(null, forkHandler)) {
+      throw new IllegalStateException("A fork handler has already been registered");
+    }
+  }
+
+  /**
+   * Durably records a new timer of the given instance.
+   *
+   * @throws IllegalArgumentException if the instance is not known to this store
+   */
+  public PendingTimer addTimer(String instanceId, String purpose, Instant deadline) {
+    if (!instances.containsKey(instanceId)) {
+      throw new IllegalArgumentException("Unknown workflow instance " + instanceId);
+    }
+    PendingTimer timer =
+        new PendingTimer(UUID.randomUUID().toString(), instanceId, purpose, deadline);
+    appendDurably(
+        new TimerAdded(instanceId, timer.timerId(), purpose, deadline.toEpochMilli()));
+    return timer;
+  }
+
+  /**
+   * Durably removes the given timers, because they have either fired or been cancelled. The
+   * removals are committed to the log together.
+   */
+  public void removeTimers(Collection<PendingTimer> timers) {
+    appendAllDurably(
+        timers.stream()
+            .<LogRecord>map(timer -> new TimerRemoved(timer.instanceId(), timer.timerId()))
+            .collect(toImmutableList()));
+  }
+
+  /**
+   * Durably updates the fields of many instances together. This is equivalent to calling {@link
+   * DurableWorkflowInstance#updateFields(FieldValue...)} on each instance, except that all the
+   * updates are written and fsynced in as few batches as possible.
+   *
+   * @throws UnrecognizedFieldException if any field is not part of the payload of its instance's
+   *     workflow, in which case none of the fields are updated
+   */
+  public void updateFields(ListMultimap<DurableWorkflowInstance, FieldValue> fieldValues)
+      throws UnrecognizedFieldException {
+    ImmutableList.Builder<LogRecord> logRecords = ImmutableList.builder();
+    for (Entry<DurableWorkflowInstance, Collection<FieldValue>> entry :
+        fieldValues.asMap().entrySet()) {
+      logRecords.add(entry.getKey().fieldsUpdated(ImmutableList.copyOf(entry.getValue())));
+    }
+    appendAllDurably(logRecords.build());
+  }
+
+  /** Returns true if the timer has been added and not removed yet. */
+  public boolean isTimerPending(PendingTimer timer) {
+    return timers.containsKey(timer.timerId());
+  }
+
+  /** Returns all the timers which have been added and not removed yet. */
+  public ImmutableList<PendingTimer> pendingTimers() {
+    return ImmutableList.copyOf(timers.values());
+  }
+
+  @Override
+  public void close() {
+    log.close();
+  }
+
+  /**
+   * Durably creates one child instance of the given workflow per payload, recording the parent of
+   * the children, and hands them over to the registered {@link ForkHandler}.
+   */
+  void fork(DurableWorkflowInstance parent, String workflowId, ImmutableList<Object> payloads) {
+    ForkHandler forkHandler = this.forkHandler.get();
+    if (forkHandler == null) {
+      throw new UnsupportedOperationException(
+          "No fork handler has been registered with the workflow store");
+    }
+    WorkflowDefinition workflowDefinition = getWorkflowDefinition(workflowId);
+    ImmutableList<String> childInstanceIds =
+        payloads.stream()
+            .map(_p -> UUID.randomUUID().toString())
+            .collect(toImmutableList());
+    appendDurably(
+        new InstancesForked(parent.instanceId(), workflowId, childInstanceIds, payloads));
+    forkHandler.onFork(
+        parent,
+        childInstanceIds.stream()
+            .map(instanceId -> new DurableWorkflowInstance(instanceId, workflowDefinition, this))
+            .collect(toImmutableList()));
+  }
+
+  ImmutableMap<String, FieldValue> fieldValues(String instanceId) {
+    InstanceState instanceState = instances.get(instanceId);
+    if (instanceState == null) {
+      return ImmutableMap.of();
+    }
+    return ImmutableMap.copyOf(instanceState.fieldValues());
+  }
+
+  Optional<FieldProgressIndex> fieldProgress(String instanceId) {
+    return Optional.ofNullable(instances.get(instanceId)).map(InstanceState::fieldProgress);
+  }
+
+  Optional<String> parentInstanceId(String instanceId) {
+    return Optional.ofNullable(instances.get(instanceId)).map(InstanceState::parentInstanceId);
+  }
+
+  Optional<Object> input(String instanceId) {
+    return Optional.ofNullable(instances.get(instanceId)).map(InstanceState::input);
+  }
+
+  ImmutableList<String> childInstanceIds(String instanceId) {
+    InstanceState instanceState = instances.get(instanceId);
+    if (instanceState == null) {
+      return ImmutableList.of();
+    }
+    return ImmutableList.copyOf(instanceState.childInstanceIds());
+  }
+
+  /** Appends the record to the log and waits till it is durable. */
+  void appendDurably(LogRecord logRecord) {
+    appendAllDurably(ImmutableList.of(logRecord));
+  }
+
+  /**
+   * Appends all the records to the log and waits till they are durable. The records are appended
+   * before waiting on any of them, so that they are written and fsynced in as few batches as
+   * possible.
+   */
+  void appendAllDurably(ImmutableList<LogRecord> logRecords) {
+    try {
+      List<CompletableFuture<Long>> appended = new ArrayList<>(logRecords.size());
+      for (LogRecord logRecord : logRecords) {
+        appended.add(log.append(logRecord));
+      }
+      appended.forEach(CompletableFuture::join);
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException ioException) {
+        throw new UncheckedIOException(ioException);
+      } else if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  private WorkflowDefinition getWorkflowDefinition(String workflowId) {
+    WorkflowDefinition workflowDefinition = workflowDefinitions.get(workflowId);
+    if (workflowDefinition == null) {
+      throw new IllegalArgumentException("Unknown workflow " + workflowId);
+    }
+    return workflowDefinition;
+  }
+
+  /**
+   * @param parentInstanceId The instance from which this instance was forked, if any
+   * @param input The payload with which this instance was forked, if any
+   * @param fieldProgress The readiness of the fields in {@code fieldValues}
+   */
+  private record InstanceState(
+      String workflowId,
+      @Nullable String parentInstanceId,
+      @Nullable Object input,
+      Map<String, FieldValue> fieldValues,
+      FieldProgressIndex fieldProgress,
+      List<String> childInstanceIds) {}
+
+  private InstanceState newInstanceState(
+      String workflowId, @Nullable String parentInstanceId, @Nullable Object input) {
+    PayloadSchema payloadSchema = payloadSchemas.get(workflowId);
+    if (payloadSchema == null) {
+      // The workflow has been removed from the store's config after the instance was created
+      payloadSchema = PayloadSchema.compile(new WorkflowDefinition(workflowId, ImmutableSet.of()));
+    }
+    return new InstanceState(
+        workflowId,
+        parentInstanceId,
+        input,
+        new ConcurrentHashMap<>(),
+        new FieldProgressIndex(payloadSchema, fieldWatcherExecutor),
+        new CopyOnWriteArrayList<>());
+  }
+
+  private final class StoreStateMachine implements LogStateMachine {
+
+    @Override
+    public void apply(LogRecord logRecord) {
+      if (logRecord instanceof InstanceCreated instanceCreated) {
+        instances.putIfAbsent(
+            instanceCreated.instanceId(),
+            newInstanceState(instanceCreated.workflowId(), null, null));
+      } else if (logRecord instanceof FieldsUpdated fieldsUpdated) {
+        InstanceState instanceState = getInstanceState(fieldsUpdated.instanceId());
+        for (FieldValue fieldValue : fieldsUpdated.fieldValues()) {
+          instanceState.fieldValues().put(fieldValue.fieldName(), fieldValue);
+        }
+        instanceState.fieldProgress().apply(fieldsUpdated.fieldValues());
+      } else if (logRecord instanceof TimerAdded timerAdded) {
+        timers.put(
+            timerAdded.timerId(),
+            new PendingTimer(
+                timerAdded.timerId(),
+                timerAdded.instanceId(),
+                timerAdded.purpose(),
+                Instant.ofEpochMilli(timerAdded.deadlineEpochMillis())));
+      } else if (logRecord instanceof TimerRemoved timerRemoved) {
+        timers.remove(timerRemoved.timerId());
+      } else if (logRecord instanceof InstancesForked instancesForked) {
+        InstanceState parentState = getInstanceState(instancesForked.instanceId());
+        for (int i = 0; i < instancesForked.childInstanceIds().size(); i++) {
+          String childInstanceId = instancesForked.childInstanceIds().get(i);
+          if (instances.putIfAbsent(
+                  childInstanceId,
+                  newInstanceState(
+                      instancesForked.workflowId(),
+                      instancesForked.instanceId(),
+                      instancesForked.payloads().get(i)))
+              == null) {
+            parentState.childInstanceIds().add(childInstanceId);
+          }
+        }
+      }
+    }
+
+    private InstanceState getInstanceState(String instanceId) {
+      InstanceState instanceState = instances.get(instanceId);
+      if (instanceState == null) {
+        throw new IllegalStateException("Unknown workflow instance " + instanceId);
+      }
+      return instanceState;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutput out) throws IOException {
+      out.writeInt(instances.size());
+      for (Entry<String, InstanceState> instance : instances.entrySet()) {
+        InstanceState instanceState = instance.getValue();
+        out.writeUTF(instance.getKey());
+        out.writeUTF(instanceState.workflowId());
+        String parentInstanceId = instanceState.parentInstanceId();
+        out.writeBoolean(parentInstanceId != null);
+        if (parentInstanceId != null) {
+          out.writeUTF(parentInstanceId);
+          codec.writePayload(out, instanceState.input());
+        }
+        Map<String, FieldValue> fieldValues = instanceState.fieldValues();
+        out.writeInt(fieldValues.size());
+        for (FieldValue fieldValue : fieldValues.values()) {
+          codec.writeFieldValue(out, fieldValue);
+        }
+        List<String> childInstanceIds = instanceState.childInstanceIds();
+        out.writeInt(childInstanceIds.size());
+        for (String childInstanceId : childInstanceIds) {
+          out.writeUTF(childInstanceId);
+        }
+      }
+      out.writeInt(timers.size());
+      for (PendingTimer timer : timers.values()) {
+        out.writeUTF(timer.timerId());
+        out.writeUTF(timer.instanceId());
+        out.writeUTF(timer.purpose());
+        out.writeLong(timer.deadline().toEpochMilli());
+      }
+    }
+
+    @Override
+    public void restoreSnapshot(DataInput in) throws IOException {
+      instances.clear();
+      int instanceCount = in.readInt();
+      for (int i = 0; i < instanceCount; i++) {
+        String instanceId = in.readUTF();
+        String workflowId = in.readUTF();
+        InstanceState instanceState;
+        if (in.readBoolean()) {
+          String parentInstanceId = in.readUTF();
+          instanceState = newInstanceState(workflowId, parentInstanceId, codec.readPayload(in));
+        } else {
+          instanceState = newInstanceState(workflowId, null, null);
+        }
+        int fieldCount = in.readInt();
+        for (int j = 0; j < fieldCount; j++) {
+          FieldValue fieldValue = codec.readFieldValue(in);
+          instanceState.fieldValues().put(fieldValue.fieldName(), fieldValue);
+        }
+        instanceState.fieldProgress().apply(instanceState.fieldValues().values());
+        int childCount = in.readInt();
+        for (int j = 0; j < childCount; j++) {
+          instanceState.childInstanceIds().add(in.readUTF());
+        }
+        instances.put(instanceId, instanceState);
+      }
+      timers.clear();
+      int timerCount = in.readInt();
+      for (int i = 0; i < timerCount; i++) {
+        PendingTimer timer =
+            new PendingTimer(
+                in.readUTF(), in.readUTF(), in.readUTF(), Instant.ofEpochMilli(in.readLong()));
+        timers.put(timer.timerId(), timer);
+      }
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+
+/**
+ * @param directory The directory in which the workflow log and its snapshots are stored. Must not
+ *     be shared with any other store.
+ * @param workflowDefinitions The workflows whose instances are managed by the store
+ * @param maxBatchSize The maximum number of log records which are written and fsynced together.
+ *     Defaults to {@value #DEFAULT_MAX_BATCH_SIZE}
+ * @param snapshotInterval The number of log records after which a snapshot of all the workflow
+ *     instances is taken, so that recovery need not replay the complete log. Defaults to {@value
+ *     #DEFAULT_SNAPSHOT_INTERVAL}
+ * @param payloadCodec Used to persist the payloads of workflow fields. Defaults to {@link
+ *     JavaSerializationCodec}
+ * @param fieldWatcherExecutor The executor on which watchers of the readiness of payload fields
+ *     are notified. Defaults to {@link ForkJoinPool#commonPool()}
+ */
+public record WorkflowStoreConfig(
+    @NonNull Path directory,
+    @Singular ImmutableList<WorkflowDefinition> workflowDefinitions,
+    int maxBatchSize,
+    int snapshotInterval,
+    PayloadCodec payloadCodec,
+    Executor fieldWatcherExecutor) {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+  public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+  @Builder
+  public WorkflowStoreConfig {
+    if (workflowDefinitions == null) {
+      workflowDefinitions = ImmutableList.of();
+    }
+    if (maxBatchSize <= 0) {
+      maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    }
+    if (snapshotInterval <= 0) {
+      snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+    }
+    if (payloadCodec == null) {
+      payloadCodec = new JavaSerializationCodec();
+    }
+    if (fieldWatcherExecutor == null) {
+      fieldWatcherExecutor = ForkJoinPool.commonPool();
+    }
+  }
+}
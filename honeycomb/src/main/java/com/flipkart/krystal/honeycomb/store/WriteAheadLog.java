@@ -0,0 +1,407 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An append-only write-ahead log of {@link LogRecord}s persisted in a directory of the local file
+ * system.
+ *
+ * <p>Appends from all threads are handed over to a single writer thread which writes them in
+ * batches and issues one {@code fsync} per batch (group commit), so the cost of an fsync is shared
+ * by all the appends which arrived while the previous batch was being written. An append is
+ * acknowledged only after its batch is durable and has been applied to the {@link
+ * LogStateMachine}.
+ *
+ * <p>Every {@code snapshotInterval} records, the writer thread persists a snapshot of the state
+ * machine, starts a new log segment and deletes the segments covered by the snapshot. When the log
+ * is opened, the latest snapshot is restored and the subsequent segments are replayed by
+ * memory-mapping them. Records which were only partially written at the end of the log (for
+ * example, due to a crash in the middle of a write) are discarded. A record which is durable but
+ * could not be applied to the state machine is skipped during replay, just as its append was
+ * failed.
+ *
+ * <p>Every record is stored as {@code [length][crc32c][log sequence number][record]}.
+ */
+@Slf4j
+final class WriteAheadLog implements AutoCloseable {
+
+  private static final String SEGMENT_PREFIX = "wal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String SNAPSHOT_SUFFIX = ".snap";
+  private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+  private final Path directory;
+  private final LogRecordCodec codec;
+  private final LogStateMachine stateMachine;
+  private final int maxBatchSize;
+  private final int snapshotInterval;
+  private final BlockingQueue<PendingAppend> pendingAppends = new LinkedBlockingQueue<>();
+  private final Thread writerThread;
+
+  // Accessed only by the writer thread once the log has been opened
+  private FileChannel segment;
+  private long nextLsn;
+  private int recordsSinceSnapshot;
+
+  /** Once the log fails to write, the state of the files is unknown. So all appends are failed. */
+  private volatile @Nullable IOException writeFailure;
+
+  private volatile boolean closed;
+
+  private WriteAheadLog(
+      Path directory,
+      LogRecordCodec codec,
+      LogStateMachine stateMachine,
+      int maxBatchSize,
+      int snapshotInterval)
+      throws IOException {
+    this.directory = directory;
+    this.codec = codec;
+    this.stateMachine = stateMachine;
+    this.maxBatchSize = maxBatchSize;
+    this.snapshotInterval = snapshotInterval;
+    Files.createDirectories(directory);
+    this.nextLsn = recover() + 1;
+    this.segment = openSegment(nextLsn);
+    this.writerThread = new Thread(this::runWriter, "honeycomb-wal-writer-" + directory);
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Opens the log in the given directory, restoring the state machine from the log's contents.
+   */
+  static WriteAheadLog open(
+      Path directory,
+      LogRecordCodec codec,
+      LogStateMachine stateMachine,
+      int maxBatchSize,
+      int snapshotInterval)
+      throws IOException {
+    return new WriteAheadLog(directory, codec, stateMachine, maxBatchSize, snapshotInterval);
+  }
+
+  /**
+   * Appends the given record to the log.
+   *
+   * @return A future which completes with the log sequence number of the record once the record
+   *     is durable and has been applied to the state machine.
+   */
+  CompletableFuture<Long> append(LogRecord logRecord) {
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    IOException writeFailure = this.writeFailure;
+    if (writeFailure != null) {
+      future.completeExceptionally(writeFailure);
+      return future;
+    }
+    if (closed) {
+      future.completeExceptionally(new IllegalStateException("The workflow log is closed"));
+      return future;
+    }
+    try {
+      pendingAppends.add(new PendingAppend(logRecord, codec.encode(logRecord), future));
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+      return future;
+    }
+    if (closed && !writerThread.isAlive()) {
+      // The log was closed after the check above, and the writer thread (as well as close())
+      // might have finished draining the queue before this append was added to it.
+      failPendingAppends(new IllegalStateException("The workflow log is closed"));
+    }
+    return future;
+  }
+
+  /** Writes the pending appends, snapshots the state and stops the writer thread. */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    failPendingAppends(new IllegalStateException("The workflow log is closed"));
+  }
+
+  private void runWriter() {
+    List<PendingAppend> batch = new ArrayList<>(maxBatchSize);
+    try {
+      while (true) {
+        PendingAppend first = pendingAppends.poll(10, MILLISECONDS);
+        if (first == null) {
+          if (closed) {
+            break;
+          }
+          continue;
+        }
+        batch.add(first);
+        pendingAppends.drainTo(batch, maxBatchSize - 1);
+        writeBatch(batch);
+        batch.clear();
+        if (recordsSinceSnapshot >= snapshotInterval) {
+          takeSnapshot();
+        }
+      }
+      if (recordsSinceSnapshot > 0 && writeFailure == null) {
+        // So that the next open need not replay the log
+        takeSnapshot();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      closeQuietly(segment);
+    }
+  }
+
+  private void writeBatch(List<PendingAppend> batch) {
+    IOException writeFailure = this.writeFailure;
+    if (writeFailure != null) {
+      batch.forEach(append -> append.future().completeExceptionally(writeFailure));
+      return;
+    }
+    int size = 0;
+    for (PendingAppend append : batch) {
+      size += HEADER_SIZE + Long.BYTES + append.encoded().length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    CRC32C crc = new CRC32C();
+    long lsn = nextLsn;
+    for (PendingAppend append : batch) {
+      int bodyLength = Long.BYTES + append.encoded().length;
+      int bodyStart = buffer.position() + HEADER_SIZE;
+      buffer.putInt(bodyLength).putInt(0).putLong(lsn++).put(append.encoded());
+      crc.reset();
+      crc.update(buffer.array(), bodyStart, bodyLength);
+      buffer.putInt(bodyStart - Integer.BYTES, (int) crc.getValue());
+    }
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        segment.write(buffer);
+      }
+      segment.force(false);
+    } catch (IOException e) {
+      log.error("Could not write to the workflow log in {}. Failing all appends.", directory, e);
+      this.writeFailure = e;
+      batch.forEach(append -> append.future().completeExceptionally(e));
+      failPendingAppends(e);
+      return;
+    }
+    for (PendingAppend append : batch) {
+      long recordLsn = nextLsn++;
+      try {
+        stateMachine.apply(append.logRecord());
+        append.future().complete(recordLsn);
+      } catch (RuntimeException e) {
+        append.future().completeExceptionally(e);
+      }
+    }
+    recordsSinceSnapshot += batch.size();
+  }
+
+  private void takeSnapshot() {
+    long snapshotLsn = nextLsn - 1;
+    Path snapshot = directory.resolve(SNAPSHOT_PREFIX + snapshotLsn + SNAPSHOT_SUFFIX);
+    Path tempFile = directory.resolve(snapshot.getFileName() + ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(tempFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+        DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        stateMachine.writeSnapshot(out);
+        out.flush();
+        channel.force(true);
+      }
+      Files.move(tempFile, snapshot, ATOMIC_MOVE);
+      closeQuietly(segment);
+      segment = openSegment(nextLsn);
+      recordsSinceSnapshot = 0;
+      // Everything before the snapshot is no longer needed
+      for (Path oldSegment : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(nextLsn).values()) {
+        Files.deleteIfExists(oldSegment);
+      }
+      for (Path oldSnapshot :
+          listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(snapshotLsn).values()) {
+        Files.deleteIfExists(oldSnapshot);
+      }
+    } catch (IOException e) {
+      // The log is still intact. So we can continue without the snapshot
+      log.error("Could not snapshot the workflow log in {}", directory, e);
+    }
+  }
+
+  /**
+   * Restores the latest snapshot and replays the log segments after it.
+   *
+   * @return the log sequence number of the last record which has been recovered.
+   */
+  private long recover() throws IOException {
+    long lastLsn = 0;
+    Entry<Long, Path> snapshot = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).lastEntry();
+    if (snapshot != null) {
+      try (FileChannel channel = FileChannel.open(snapshot.getValue(), READ)) {
+        MappedByteBuffer buffer = channel.map(READ_ONLY, 0, channel.size());
+        stateMachine.restoreSnapshot(new DataInputStream(new ByteBufferInputStream(buffer)));
+      }
+      lastLsn = snapshot.getKey();
+    }
+    NavigableMap<Long, Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    for (Entry<Long, Path> segment : segments.entrySet()) {
+      boolean lastSegment = segment.getKey().equals(segments.lastKey());
+      lastLsn = replaySegment(segment.getValue(), lastLsn, lastSegment);
+    }
+    return lastLsn;
+  }
+
+  private long replaySegment(Path path, long lastLsn, boolean lastSegment) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+      long size = channel.size();
+      if (size == 0) {
+        return lastLsn;
+      }
+      MappedByteBuffer buffer = channel.map(READ_ONLY, 0, size);
+      CRC32C crc = new CRC32C();
+      int validSize = 0;
+      while (buffer.remaining() >= HEADER_SIZE) {
+        int bodyLength = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (bodyLength < Long.BYTES || bodyLength > buffer.remaining()) {
+          break;
+        }
+        ByteBuffer body = buffer.slice(buffer.position(), bodyLength);
+        crc.reset();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        buffer.position(buffer.position() + bodyLength);
+        validSize = buffer.position();
+        long lsn = body.getLong();
+        if (lsn <= lastLsn) {
+          // Already part of the snapshot
+          continue;
+        }
+        LogRecord logRecord = codec.decode(new DataInputStream(new ByteBufferInputStream(body)));
+        try {
+          stateMachine.apply(logRecord);
+        } catch (RuntimeException e) {
+          // The record is durable, but applying it failed when it was appended too - and that
+          // append was reported as failed. So the record is skipped rather than failing recovery.
+          log.warn("Skipping record {} of {} which could not be applied", lsn, path, e);
+        }
+        lastLsn = lsn;
+      }
+      if (validSize < size) {
+        if (!lastSegment) {
+          throw new IOException(
+              "Workflow log segment %s is corrupted at offset %s".formatted(path, validSize));
+        }
+        log.warn(
+            "Discarding {} bytes of partially written records at the end of {}",
+            size - validSize,
+            path);
+        channel.truncate(validSize);
+      }
+    }
+    return lastLsn;
+  }
+
+  private FileChannel openSegment(long firstLsn) throws IOException {
+    return FileChannel.open(
+        directory.resolve(SEGMENT_PREFIX + firstLsn + SEGMENT_SUFFIX), CREATE, WRITE, APPEND);
+  }
+
+  /** Returns the files with the given prefix and suffix keyed by the log sequence number. */
+  private NavigableMap<Long, Path> listFiles(String prefix, String suffix) throws IOException {
+    NavigableMap<Long, Path> files = new TreeMap<>();
+    try (Stream<Path> paths = Files.list(directory)) {
+      paths.forEach(
+          path -> {
+            String fileName = path.getFileName().toString();
+            if (fileName.startsWith(prefix) && fileName.endsWith(suffix)) {
+              try {
+                files.put(
+                    Long.parseLong(
+                        fileName.substring(prefix.length(), fileName.length() - suffix.length())),
+                    path);
+              } catch (NumberFormatException e) {
+                log.warn("Ignoring unrecognized file {} in workflow log directory", path);
+              }
+            }
+          });
+    }
+    return files;
+  }
+
+  private void failPendingAppends(Exception e) {
+    List<PendingAppend> remaining = new ArrayList<>();
+    pendingAppends.drainTo(remaining);
+    remaining.forEach(append -> append.future().completeExceptionally(e));
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.warn("Could not close workflow log segment", e);
+    }
+  }
+
+  private record PendingAppend(
+      LogRecord logRecord, byte[] encoded, CompletableFuture<Long> future) {}
+
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.flipkart.krystal.honeycomb.timer;
+
+import com.flipkart.krystal.honeycomb.store.PendingTimer;
+import com.google.common.collect.ImmutableList;
+
+/** Resumes the workflow instances whose timers have fired. */
+@FunctionalInterface
+public interface TimerListener {
+
+  /**
+   * Called with a batch of timers which have reached their deadlines. The timers are removed from
+   * the store after this method returns normally - if it throws, the timers fire again after a
+   * backoff, and if the process stops before it returns, the timers fire again when the store is
+   * reopened.
+   */
+  void onTimersFired(ImmutableList<PendingTimer> timers);
+}
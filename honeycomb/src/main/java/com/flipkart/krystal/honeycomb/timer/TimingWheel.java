@@ -0,0 +1,157 @@
+package com.flipkart.krystal.honeycomb.timer;
+
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A hierarchical timing wheel which holds timers in buckets of doubly linked lists, so that adding
+ * and cancelling a timer are O(1) irrespective of the number of pending timers.
+ *
+ * <p>Time is measured in ticks. Level 0 has one bucket per tick, and each bucket of level {@code
+ * n} spans {@code 2^(bitsPerLevel * n)} ticks. A timer is placed in the lowest level in whose
+ * span it falls, and is cascaded to lower levels as time advances, until it expires from a level 0
+ * bucket exactly at its deadline tick. Enough levels are created to hold any deadline which fits
+ * in a long.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class TimingWheel<T> {
+
+  private final int bitsPerLevel;
+  private final int mask;
+  private final @Nullable Node<T>[][] buckets;
+  private long currentTick;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  TimingWheel(int bitsPerLevel, long startTick) {
+    if (bitsPerLevel <= 0 || bitsPerLevel > 16) {
+      throw new IllegalArgumentException("bitsPerLevel must be between 1 and 16");
+    }
+    this.bitsPerLevel = bitsPerLevel;
+    this.mask = (1 << bitsPerLevel) - 1;
+    int levels = (Long.SIZE + bitsPerLevel - 1) / bitsPerLevel;
+    this.buckets = new Node[levels][1 << bitsPerLevel];
+    this.currentTick = startTick;
+  }
+
+  long currentTick() {
+    return currentTick;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds a timer which expires at the given tick. Timers whose deadline is not after the current
+   * tick expire at the next tick.
+   */
+  Node<T> add(long deadlineTick, T value) {
+    Node<T> node = new Node<>(Math.max(deadlineTick, currentTick + 1), value);
+    insert(node);
+    size++;
+    return node;
+  }
+
+  /** Removes the timer if it has not expired yet. */
+  void cancel(Node<T> node) {
+    if (node.level >= 0) {
+      unlink(node);
+      size--;
+    }
+  }
+
+  /** Advances the wheel up to the given tick, passing the value of each expired timer. */
+  void advanceTo(long tick, Consumer<T> expired) {
+    while (currentTick < tick) {
+      if (size == 0) {
+        currentTick = tick;
+        return;
+      }
+      currentTick++;
+      // Cascade from the highest level first, so that timers can flow down multiple levels
+      for (int level = buckets.length - 1; level > 0; level--) {
+        int shift = bitsPerLevel * level;
+        if ((currentTick & ((1L << shift) - 1)) == 0) {
+          Node<T> node = detachBucket(level, (int) ((currentTick >>> shift) & mask));
+          while (node != null) {
+            Node<T> next = node.next;
+            insert(node);
+            node = next;
+          }
+        }
+      }
+      Node<T> node = detachBucket(0, (int) (currentTick & mask));
+      while (node != null) {
+        Node<T> next = node.next;
+        node.next = null;
+        node.level = -1;
+        size--;
+        expired.accept(node.value);
+        node = next;
+      }
+    }
+  }
+
+  private void insert(Node<T> node) {
+    int level = 0;
+    // The lowest level whose parent-level span contains both the current tick and the deadline
+    while (level < buckets.length - 1
+        && (node.deadlineTick >>> (bitsPerLevel * (level + 1)))
+            != (currentTick >>> (bitsPerLevel * (level + 1)))) {
+      level++;
+    }
+    int index = (int) ((node.deadlineTick >>> (bitsPerLevel * level)) & mask);
+    Node<T> head = buckets[level][index];
+    node.level = level;
+    node.index = index;
+    node.prev = null;
+    node.next = head;
+    if (head != null) {
+      head.prev = node;
+    }
+    buckets[level][index] = node;
+  }
+
+  private void unlink(Node<T> node) {
+    if (node.prev != null) {
+      node.prev.next = node.next;
+    } else {
+      buckets[node.level][node.index] = node.next;
+    }
+    if (node.next != null) {
+      node.next.prev = node.prev;
+    }
+    node.prev = null;
+    node.next = null;
+    node.level = -1;
+  }
+
+  private @Nullable Node<T> detachBucket(int level, int index) {
+    Node<T> head = buckets[level][index];
+    buckets[level][index] = null;
+    return head;
+  }
+
+  static final class Node<T> {
+    private final long deadlineTick;
+    private final T value;
+    private @Nullable Node<T> prev;
+    private @Nullable Node<T> next;
+
+    /** The level of the bucket holding this node, or -1 if it has expired or been cancelled. */
+    private int level = -1;
+
+    private int index;
+
+    private Node(long deadlineTick, T value) {
+      this.deadlineTick = deadlineTick;
+      this.value = value;
+    }
+
+    T value() {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package com.flipkart.krystal.honeycomb.timer;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.honeycomb.store.PendingTimer;
+import com.flipkart.krystal.honeycomb.store.WorkflowStore;
+import com.flipkart.krystal.honeycomb.timer.TimingWheel.Node;
+import com.google.common.collect.ImmutableList;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Schedules durable timers for workflow instances - for retries, timeouts, or waits for external
+ * events - and resumes the instances via a {@link TimerListener} when the timers fire.
+ *
+ * <p>Timers are persisted in the workflow log of the {@link WorkflowStore}, and the pending timers
+ * are reloaded when the scheduler is created, so timers survive restarts. In memory, the timers
+ * are held in a hierarchical {@link TimingWheel} owned by a single ticker thread. Scheduling and
+ * cancelling a timer only enqueue a command for the ticker thread, and each tick fires all the
+ * timers which are due in batches of at most {@code maxBatchSize}. So a single thread can manage
+ * millions of pending timers, without a thread per timer or polling a database.
+ *
+ * <p>Timers fire at least once: a timer is removed from the store only after the listener has
+ * processed it. If the listener fails, the timers of the failed batch are fired again after an
+ * exponentially increasing backoff, until the listener succeeds or the timers are cancelled. A
+ * timer which is cancelled at the same time as it expires may still fire.
+ */
+@Slf4j
+public final class WorkflowTimerScheduler implements AutoCloseable {
+
+  public static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(10);
+  public static final int DEFAULT_BITS_PER_LEVEL = 8;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+  public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(1);
+  public static final Duration DEFAULT_MAX_RETRY_BACKOFF = Duration.ofMinutes(5);
+
+  private final WorkflowStore store;
+  private final TimerListener timerListener;
+  private final Executor listenerExecutor;
+  private final Clock clock;
+  private final long tickMillis;
+  private final int maxBatchSize;
+  private final long retryBackoffMillis;
+  private final long maxRetryBackoffMillis;
+  private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+  private final Thread tickerThread;
+  private volatile boolean closed;
+
+  // Accessed only by the ticker thread
+  private final TimingWheel<ScheduledTimer> timingWheel;
+  private final Map<String, Node<ScheduledTimer>> timerNodes = new HashMap<>();
+
+  /**
+   * Creates a scheduler, loads the pending timers of the store and starts ticking.
+   *
+   * @param store The store in which the timers are persisted
+   * @param timerListener Resumes the workflow instances whose timers have fired
+   * @param listenerExecutor The executor on which the timer listener is invoked. Defaults to
+   *     {@link ForkJoinPool#commonPool()}
+   * @param tickDuration The resolution of the timers. Defaults to 10 milliseconds.
+   * @param bitsPerLevel The number of buckets in each level of the timing wheel, as a power of 2.
+   *     Defaults to {@value #DEFAULT_BITS_PER_LEVEL}
+   * @param maxBatchSize The maximum number of timers passed to the listener in one call. Defaults
+   *     to {@value #DEFAULT_MAX_BATCH_SIZE}
+   * @param retryBackoff The delay after which timers are fired again if the listener fails to
+   *     process them. The delay doubles with every consecutive failure. Defaults to 1 second.
+   * @param maxRetryBackoff The maximum delay between two firings of a timer which the listener
+   *     fails to process. Defaults to 5 minutes.
+   * @param clock Defaults to the system UTC clock
+   */
+  @Builder
+  private WorkflowTimerScheduler(
+      @NonNull WorkflowStore store,
+      @NonNull TimerListener timerListener,
+      @Nullable Executor listenerExecutor,
+      @Nullable Duration tickDuration,
+      int bitsPerLevel,
+      int maxBatchSize,
+      @Nullable Duration retryBackoff,
+      @Nullable Duration maxRetryBackoff,
+      @Nullable Clock clock) {
+    this.store = store;
+    this.timerListener = timerListener;
+    this.listenerExecutor = listenerExecutor != null ? listenerExecutor : ForkJoinPool.commonPool();
+    this.clock = clock != null ? clock : Clock.systemUTC();
+    this.tickMillis =
+        Math.max(1, (tickDuration != null ? tickDuration : DEFAULT_TICK_DURATION).toMillis());
+    this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : DEFAULT_MAX_BATCH_SIZE;
+    this.retryBackoffMillis =
+        Math.max(1, (retryBackoff != null ? retryBackoff : DEFAULT_RETRY_BACKOFF).toMillis());
+    this.maxRetryBackoffMillis =
+        Math.max(
+            retryBackoffMillis,
+            (maxRetryBackoff != null ? maxRetryBackoff : DEFAULT_MAX_RETRY_BACKOFF).toMillis());
+    this.timingWheel =
+        new TimingWheel<>(
+            bitsPerLevel > 0 ? bitsPerLevel : DEFAULT_BITS_PER_LEVEL, currentTick());
+    for (PendingTimer timer : store.pendingTimers()) {
+      commands.add(new Schedule(new ScheduledTimer(timer, timer.deadline().toEpochMilli(), 0)));
+    }
+    this.tickerThread = new Thread(this::tick, "honeycomb-timer-ticker");
+    tickerThread.setDaemon(true);
+    tickerThread.start();
+  }
+
+  /**
+   * Durably schedules a timer which resumes the given instance after the given delay.
+   *
+   * @param purpose passed back to the listener when the timer fires
+   */
+  public PendingTimer schedule(DurableWorkflowInstance instance, String purpose, Duration delay) {
+    return schedule(instance, purpose, clock.instant().plus(delay));
+  }
+
+  /**
+   * Durably schedules a timer which resumes the given instance at the given time.
+   *
+   * @param purpose passed back to the listener when the timer fires
+   */
+  public PendingTimer schedule(DurableWorkflowInstance instance, String purpose, Instant deadline) {
+    if (closed) {
+      throw new IllegalStateException("The timer scheduler has been closed");
+    }
+    PendingTimer timer = store.addTimer(instance.instanceId(), purpose, deadline);
+    commands.add(new Schedule(new ScheduledTimer(timer, deadline.toEpochMilli(), 0)));
+    return timer;
+  }
+
+  /** Durably cancels the timer. Has no effect if the timer has already fired. */
+  public void cancel(PendingTimer timer) {
+    store.removeTimers(ImmutableList.of(timer));
+    commands.add(new Cancel(timer.timerId()));
+  }
+
+  /** Stops the ticker thread. Pending timers remain in the store. */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    LockSupport.unpark(tickerThread);
+    tickerThread.join();
+  }
+
+  private void tick() {
+    List<ScheduledTimer> expired = new ArrayList<>();
+    while (!closed) {
+      Command command;
+      while ((command = commands.poll()) != null) {
+        if (command instanceof Schedule schedule) {
+          ScheduledTimer timer = schedule.timer();
+          long deadlineTick = Math.floorDiv(timer.fireAtMillis() + tickMillis - 1, tickMillis);
+          timerNodes.put(timer.timer().timerId(), timingWheel.add(deadlineTick, timer));
+        } else if (command instanceof Cancel cancel) {
+          Node<ScheduledTimer> node = timerNodes.remove(cancel.timerId());
+          if (node != null) {
+            timingWheel.cancel(node);
+          }
+        }
+      }
+      timingWheel.advanceTo(
+          currentTick(),
+          timer -> {
+            timerNodes.remove(timer.timer().timerId());
+            expired.add(timer);
+          });
+      for (int i = 0; i < expired.size(); i += maxBatchSize) {
+        fire(ImmutableList.copyOf(expired.subList(i, Math.min(expired.size(), i + maxBatchSize))));
+      }
+      expired.clear();
+      long nextTickMillis = (timingWheel.currentTick() + 1) * tickMillis;
+      LockSupport.parkNanos(Math.max(0, nextTickMillis - clock.millis()) * 1_000_000);
+    }
+  }
+
+  private void fire(ImmutableList<ScheduledTimer> scheduledTimers) {
+    ImmutableList<PendingTimer> timers =
+        scheduledTimers.stream().map(ScheduledTimer::timer).collect(toImmutableList());
+    listenerExecutor.execute(
+        () -> {
+          try {
+            timerListener.onTimersFired(timers);
+            store.removeTimers(timers);
+          } catch (Throwable e) {
+            log.error("Could not process {} fired timers. Retrying them.", timers.size(), e);
+            retry(scheduledTimers);
+          }
+        });
+  }
+
+  private void retry(ImmutableList<ScheduledTimer> scheduledTimers) {
+    long now = clock.millis();
+    for (ScheduledTimer scheduledTimer : scheduledTimers) {
+      // Timers which were cancelled while they were being processed need not fire again
+      if (!store.isTimerPending(scheduledTimer.timer())) {
+        continue;
+      }
+      int failedAttempts = scheduledTimer.failedAttempts() + 1;
+      long backoffMillis =
+          Math.min(maxRetryBackoffMillis, retryBackoffMillis << Math.min(failedAttempts - 1, 20));
+      commands.add(
+          new Schedule(
+              new ScheduledTimer(scheduledTimer.timer(), now + backoffMillis, failedAttempts)));
+    }
+  }
+
+  private long currentTick() {
+    return clock.millis() / tickMillis;
+  }
+
+  private sealed interface Command {}
+
+  /**
+   * @param fireAtMillis The deadline of the timer, or the time of its next retry if the listener
+   *     has failed to process it
+   * @param failedAttempts The number of times the listener has failed to process the timer
+   */
+  private record ScheduledTimer(PendingTimer timer, long fireAtMillis, int failedAttempts) {}
+
+  private record Schedule(ScheduledTimer timer) implements Command {}
+
+  private record Cancel(String timerId) implements Command {}
+}
@@ -0,0 +1,84 @@
+package com.flipkart.krystal.honeycomb.forkjoin;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.honeycomb.store.WorkflowStore;
+import com.flipkart.krystal.honeycomb.store.WorkflowStoreConfig;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ForkJoinSchedulerTest {
+
+  private static final WorkflowDefinition ORDER_WORKFLOW =
+      new WorkflowDefinition("order", ImmutableSet.of("status"));
+  private static final WorkflowDefinition ITEM_WORKFLOW =
+      new WorkflowDefinition("item", ImmutableSet.of());
+
+  @TempDir Path directory;
+
+  @Test
+  void fork_allChildrenComplete_parentResumedWithResponsesInOrder() throws Exception {
+    List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    CompletableFuture<ImmutableList<Errable<Object>>> joined = new CompletableFuture<>();
+    String parentId;
+    ImmutableList<String> childIds;
+    try (WorkflowStore store = WorkflowStore.open(config());
+        ForkJoinScheduler scheduler =
+            ForkJoinScheduler.builder()
+                .store(store)
+                .childWorkflowExecutor(
+                    (workflowId, instances) -> {
+                      batchSizes.add(instances.size());
+                      return instances.stream()
+                          .map(
+                              instance ->
+                                  supplyAsync(
+                                      () -> (Object) ((Integer) instance.input().orElseThrow() * 2)))
+                          .collect(toImmutableList());
+                    })
+                .joinListener((parent, children, responses) -> joined.complete(responses))
+                .workerCount(4)
+                .maxBatchSize(10)
+                .build()) {
+      DurableWorkflowInstance parent = store.createInstance("order");
+      parentId = parent.instanceId();
+      parent.fork("item", IntStream.range(0, 95).boxed().toArray());
+
+      assertThat(joined.get(5, TimeUnit.SECONDS))
+          .containsExactlyElementsOf(
+              IntStream.range(0, 95).mapToObj(i -> Errable.withValue((Object) (i * 2))).toList());
+      assertThat(batchSizes).hasSize(10).allMatch(size -> size <= 10);
+      childIds = parent.childInstanceIds();
+      assertThat(childIds).hasSize(95);
+    }
+    try (WorkflowStore store = WorkflowStore.open(config())) {
+      assertThat(store.getInstance(parentId).orElseThrow().childInstanceIds())
+          .containsExactlyElementsOf(childIds);
+      DurableWorkflowInstance child = store.getInstance(childIds.get(7)).orElseThrow();
+      assertThat(child.workflowId()).isEqualTo("item");
+      assertThat(child.parentInstanceId()).hasValue(parentId);
+      assertThat(child.input()).hasValue(7);
+    }
+  }
+
+  private WorkflowStoreConfig config() {
+    return WorkflowStoreConfig.builder()
+        .directory(directory)
+        .workflowDefinition(ORDER_WORKFLOW)
+        .workflowDefinition(ITEM_WORKFLOW)
+        .build();
+  }
+}
@@ -0,0 +1,66 @@
+package com.flipkart.krystal.honeycomb.progress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class FieldProgressIndexTest {
+
+  private static final WorkflowDefinition ORDER_WORKFLOW =
+      new WorkflowDefinition(
+          "order", ImmutableSet.of("status", "address.city", "address.zip", "address.geo.lat"));
+
+  @Test
+  void apply_nestedFields_parentReadyWhenAllNestedFieldsReady() throws Exception {
+    FieldProgressIndex index =
+        new FieldProgressIndex(PayloadSchema.compile(ORDER_WORKFLOW), Runnable::run);
+
+    assertThat(index.apply(List.of(new FieldValue("address.city", "Bengaluru"))))
+        .containsExactly("address.city");
+    assertThat(index.isReady("address")).isFalse();
+    assertThat(
+            index.apply(
+                List.of(
+                    new FieldValue("address.zip", "560001"),
+                    new FieldValue("address.geo.lat", 12.97))))
+        .containsExactlyInAnyOrder(
+            "address.zip", "address.geo.lat", "address.geo", "address");
+    assertThat(index.isReady("address")).isTrue();
+    assertThat(index.readyLeafCount()).isEqualTo(3);
+    assertThat(index.progress()).isEqualTo(0.75);
+  }
+
+  @Test
+  void watch_fieldsBecomeReady_notifiedOnceAfterLastField() throws Exception {
+    FieldProgressIndex index =
+        new FieldProgressIndex(PayloadSchema.compile(ORDER_WORKFLOW), Runnable::run);
+    AtomicInteger notifications = new AtomicInteger();
+    index.watch(List.of("status", "address.geo"), notifications::incrementAndGet);
+
+    index.apply(List.of(new FieldValue("status", "CREATED")));
+    assertThat(notifications).hasValue(0);
+    index.apply(List.of(new FieldValue("address.geo.lat", 12.97)));
+    assertThat(notifications).hasValue(1);
+    index.apply(List.of(new FieldValue("status", "PAID")));
+    assertThat(notifications).hasValue(1);
+
+    // Watching fields which are already ready notifies immediately
+    index.watch(List.of("status"), notifications::incrementAndGet);
+    assertThat(notifications).hasValue(2);
+  }
+
+  @Test
+  void compile_fieldIsAlsoParent_throws() {
+    assertThatThrownBy(
+            () ->
+                PayloadSchema.compile(
+                    new WorkflowDefinition("order", ImmutableSet.of("address", "address.city"))))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
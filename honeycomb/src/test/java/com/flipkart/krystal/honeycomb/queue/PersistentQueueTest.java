@@ -0,0 +1,95 @@
+package com.flipkart.krystal.honeycomb.queue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentQueueTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void poll_messagesAcrossSegments_resumedFromCommittedOffsetAfterReopen() throws Exception {
+    // Small segments, so that the messages span many segments
+    try (PersistentQueue queue = PersistentQueue.open(config(10_000))) {
+      queue.appendAll(messages(0, 100));
+      QueueConsumer consumer = queue.consumer("step-2");
+      assertThat(payloads(consumer.poll(60))).isEqualTo(strings(0, 60));
+      consumer.commit();
+      // Polled, but not committed
+      assertThat(payloads(consumer.poll(10))).isEqualTo(strings(60, 70));
+    }
+    try (PersistentQueue queue = PersistentQueue.open(config(10_000))) {
+      QueueConsumer consumer = queue.consumer("step-2");
+      assertThat(consumer.committedOffset()).isEqualTo(60);
+      assertThat(payloads(consumer.poll(1_000))).isEqualTo(strings(60, 100));
+      consumer.commit();
+      queue.append("100".getBytes(UTF_8));
+      assertThat(payloads(consumer.poll(10, Duration.ofSeconds(1)))).containsExactly("100");
+    }
+    // Fully consumed segments are deleted
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.filter(path -> path.toString().endsWith(".seg")).count()).isLessThan(3);
+    }
+  }
+
+  @Test
+  void tryAppendAll_backlogFull_blocksTillConsumerCommits() throws Exception {
+    try (PersistentQueue queue = PersistentQueue.open(config(10))) {
+      QueueConsumer consumer = queue.consumer("step-2");
+      assertThat(queue.tryAppendAll(messages(0, 10), Duration.ZERO)).hasValue(0);
+      assertThat(queue.tryAppendAll(messages(10, 11), Duration.ofMillis(50))).isEmpty();
+
+      consumer.poll(5);
+      consumer.commit();
+      assertThat(queue.tryAppendAll(messages(10, 15), Duration.ZERO)).hasValue(10);
+    }
+  }
+
+  @Test
+  void open_corruptedMessageInOlderSegment_throws() throws Exception {
+    try (PersistentQueue queue = PersistentQueue.open(config(10_000))) {
+      queue.appendAll(messages(0, 30));
+    }
+    // Flip a byte of the payload of the first message of the first segment
+    try (FileChannel channel = FileChannel.open(directory.resolve("queue-0.seg"), WRITE)) {
+      channel.write(ByteBuffer.wrap("x".getBytes(UTF_8)), QueueSegment.HEADER_SIZE);
+    }
+    assertThatThrownBy(() -> PersistentQueue.open(config(10_000)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("corrupted");
+  }
+
+  private PersistentQueueConfig config(long maxBacklog) {
+    return PersistentQueueConfig.builder()
+        .directory(directory)
+        .segmentSize(128)
+        .maxBacklog(maxBacklog)
+        .build();
+  }
+
+  private static List<byte[]> messages(int from, int to) {
+    return strings(from, to).stream().map(s -> s.getBytes(UTF_8)).toList();
+  }
+
+  private static List<String> strings(int from, int to) {
+    return IntStream.range(from, to).mapToObj(String::valueOf).toList();
+  }
+
+  private static List<String> payloads(List<QueueMessage> messages) {
+    return messages.stream().map(message -> UTF_8.decode(message.payload()).toString()).toList();
+  }
+}
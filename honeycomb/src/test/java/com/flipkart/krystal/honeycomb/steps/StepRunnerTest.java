@@ -0,0 +1,112 @@
+package com.flipkart.krystal.honeycomb.steps;
+
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.honeycomb.store.WorkflowStore;
+import com.flipkart.krystal.honeycomb.store.WorkflowStoreConfig;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StepRunnerTest {
+
+  private static final WorkflowDefinition ORDER_WORKFLOW =
+      new WorkflowDefinition("order", ImmutableSet.of("quantity", "price"));
+
+  private static final WorkflowStep PRICE_STEP =
+      WorkflowStep.builder()
+          .stepName("price")
+          .vajramId(vajramID("PriceCalculator"))
+          .inputField("quantity")
+          .facetsMapper(
+              fields ->
+                  new Facets(
+                      ImmutableMap.of(
+                          "quantity", Errable.withValue(fields.get("quantity").payload()))))
+          .outputField("price")
+          .build();
+
+  @TempDir Path directory;
+
+  @Test
+  void schedule_stepsOfManyInstancesReady_executedInOneBatchAndWrittenBack() throws Exception {
+    List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    List<String> failedInstances = new CopyOnWriteArrayList<>();
+    try (WorkflowStore store = WorkflowStore.open(config());
+        StepRunner stepRunner =
+            StepRunner.builder()
+                .store(store)
+                .stepExecutor(
+                    steps -> {
+                      batchSizes.add(steps.size());
+                      return steps.stream()
+                          .map(
+                              step -> {
+                                int quantity =
+                                    step.step()
+                                        .facetsMapper()
+                                        .apply(step.instance().fieldValues())
+                                        .getInputValueOrThrow("quantity");
+                                return quantity == 0
+                                    ? CompletableFuture.<@Nullable Object>failedFuture(
+                                        new IllegalArgumentException())
+                                    : CompletableFuture.<@Nullable Object>completedFuture(
+                                        quantity * 10);
+                              })
+                          .collect(toImmutableList());
+                    })
+                .failureListener((step, error) -> failedInstances.add(step.instance().instanceId()))
+                .maxBatchSize(20)
+                .batchWindow(Duration.ofSeconds(5))
+                .build()) {
+      List<DurableWorkflowInstance> instances =
+          IntStream.range(0, 20).mapToObj(_i -> store.createInstance("order")).toList();
+      for (DurableWorkflowInstance instance : instances) {
+        assertThat(stepRunner.schedule(instance, PRICE_STEP)).isPresent();
+      }
+      ListMultimap<DurableWorkflowInstance, FieldValue> quantities = ArrayListMultimap.create();
+      for (int i = 0; i < instances.size(); i++) {
+        quantities.put(instances.get(i), new FieldValue("quantity", i));
+      }
+      store.updateFields(quantities);
+
+      for (int i = 1; i < instances.size(); i++) {
+        DurableWorkflowInstance instance = instances.get(i);
+        CompletableFuture<Void> priced = new CompletableFuture<>();
+        instance.watchFields(List.of("price"), () -> priced.complete(null));
+        priced.get(5, TimeUnit.SECONDS);
+        assertThat(instance.getFieldValue("price").orElseThrow().payload()).isEqualTo(i * 10);
+        // The step is not executed again once its output is ready
+        assertThat(stepRunner.schedule(instance, PRICE_STEP)).isEmpty();
+      }
+      assertThat(batchSizes).containsExactly(20);
+      assertThat(failedInstances).containsExactly(instances.get(0).instanceId());
+      assertThat(instances.get(0).isFieldReady("price")).isFalse();
+    }
+  }
+
+  private WorkflowStoreConfig config() {
+    return WorkflowStoreConfig.builder()
+        .directory(directory)
+        .workflowDefinition(ORDER_WORKFLOW)
+        .build();
+  }
+}
@@ -0,0 +1,121 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.honeycomb.UnrecognizedFieldException;
+import com.flipkart.krystal.honeycomb.model.FieldValue;
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkflowStoreTest {
+
+  private static final WorkflowDefinition ORDER_WORKFLOW =
+      new WorkflowDefinition("order", ImmutableSet.of("status", "amount"));
+
+  @TempDir Path directory;
+
+  @Test
+  void updateFields_reopened_fieldValuesRecovered() throws Exception {
+    String instanceId;
+    // A small snapshot interval so that recovery needs both the snapshot and the log
+    try (WorkflowStore store = WorkflowStore.open(config(3))) {
+      DurableWorkflowInstance instance = store.createInstance("order");
+      instanceId = instance.instanceId();
+      instance.updateFields(new FieldValue("status", "CREATED"));
+      instance.updateFields(new FieldValue("amount", 100));
+      instance.updateFields(new FieldValue("status", "PAID"));
+      instance.updateFields(new FieldValue("amount", 120));
+    }
+    try (WorkflowStore store = WorkflowStore.open(config(3))) {
+      DurableWorkflowInstance instance = store.getInstance(instanceId).orElseThrow();
+      assertThat(instance.getFieldValue("status")).hasValue(new FieldValue("status", "PAID"));
+      assertThat(instance.getFieldValue("amount")).hasValue(new FieldValue("amount", 120));
+    }
+  }
+
+  @Test
+  void updateFields_concurrentUpdates_allDurable() throws Exception {
+    List<String> instanceIds;
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+    try (WorkflowStore store = WorkflowStore.open(config(0))) {
+      List<Future<String>> futures =
+          IntStream.range(0, 200)
+              .mapToObj(
+                  i ->
+                      executorService.submit(
+                          () -> {
+                            DurableWorkflowInstance instance = store.createInstance("order");
+                            instance.updateFields(new FieldValue("amount", i));
+                            return instance.instanceId();
+                          }))
+              .toList();
+      instanceIds = futures.stream().map(WorkflowStoreTest::get).toList();
+    } finally {
+      executorService.shutdown();
+    }
+    try (WorkflowStore store = WorkflowStore.open(config(0))) {
+      for (int i = 0; i < instanceIds.size(); i++) {
+        assertThat(store.getInstance(instanceIds.get(i)).orElseThrow().getFieldValue("amount"))
+            .hasValue(new FieldValue("amount", i));
+      }
+    }
+  }
+
+  @Test
+  void open_partiallyWrittenRecordAtEnd_discarded() throws Exception {
+    String instanceId;
+    // A large snapshot interval so that the records are recovered only from the log
+    WorkflowStore store = WorkflowStore.open(config(0));
+    DurableWorkflowInstance instance = store.createInstance("order");
+    instanceId = instance.instanceId();
+    instance.updateFields(new FieldValue("status", "CREATED"));
+    // Simulate a crash - the store is not closed, and a record is only partially written
+    try (Stream<Path> files = Files.list(directory)) {
+      Path segment =
+          files.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().get();
+      Files.write(segment, new byte[] {0, 0, 0, 100, 1, 2, 3}, APPEND);
+    }
+    try (WorkflowStore reopened = WorkflowStore.open(config(0))) {
+      assertThat(reopened.getInstance(instanceId).orElseThrow().getFieldValue("status"))
+          .hasValue(new FieldValue("status", "CREATED"));
+    }
+    store.close();
+  }
+
+  @Test
+  void updateFields_unknownField_throws() throws Exception {
+    try (WorkflowStore store = WorkflowStore.open(config(0))) {
+      DurableWorkflowInstance instance = store.createInstance("order");
+      assertThatThrownBy(() -> instance.updateFields(new FieldValue("unknown", "value")))
+          .isInstanceOf(UnrecognizedFieldException.class);
+    }
+  }
+
+  private WorkflowStoreConfig config(int snapshotInterval) {
+    return WorkflowStoreConfig.builder()
+        .directory(directory)
+        .workflowDefinition(ORDER_WORKFLOW)
+        .snapshotInterval(snapshotInterval)
+        .build();
+  }
+
+  private static <T> T get(Future<T> future) {
+    try {
+      return future.get();
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.flipkart.krystal.honeycomb.store;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.honeycomb.store.LogRecord.InstanceCreated;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+
+  private static final String POISON_WORKFLOW = "poison";
+
+  @TempDir Path directory;
+
+  @Test
+  void open_recordFailedToApply_skippedDuringReplay() throws Exception {
+    RecordingStateMachine stateMachine = new RecordingStateMachine();
+    WriteAheadLog log = open(stateMachine);
+    log.append(new InstanceCreated("1", "order")).get();
+    CompletableFuture<Long> poisoned = log.append(new InstanceCreated("2", POISON_WORKFLOW));
+    log.append(new InstanceCreated("3", "order")).get();
+    assertThat(poisoned).isCompletedExceptionally();
+
+    // Simulate a crash - the log is not closed, so the records are recovered only from the log
+    RecordingStateMachine recovered = new RecordingStateMachine();
+    try (WriteAheadLog reopened = open(recovered)) {
+      assertThat(recovered.applied).extracting(LogRecord::instanceId).containsExactly("1", "3");
+      assertThat(reopened.append(new InstanceCreated("4", "order")).get()).isEqualTo(4L);
+    }
+    log.close();
+  }
+
+  @Test
+  void append_racingClose_allAppendsCompleted() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+    Queue<CompletableFuture<Long>> futures = new ConcurrentLinkedQueue<>();
+    try {
+      WriteAheadLog log = open(new RecordingStateMachine());
+      CountDownLatch started = new CountDownLatch(8);
+      List<CompletableFuture<?>> appenders = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        int appender = i;
+        appenders.add(
+            CompletableFuture.runAsync(
+                () -> {
+                  started.countDown();
+                  for (int j = 0; j < 2000; j++) {
+                    futures.add(log.append(new InstanceCreated(appender + "-" + j, "order")));
+                  }
+                },
+                executorService));
+      }
+      started.await();
+      log.close();
+      CompletableFuture.allOf(appenders.toArray(CompletableFuture[]::new)).get(10, SECONDS);
+
+      CompletableFuture<Long> afterClose = log.append(new InstanceCreated("late", "order"));
+      assertThat(afterClose).isCompletedExceptionally();
+    } finally {
+      executorService.shutdown();
+    }
+    // Every append is either durable or failed - none is left pending forever
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .handle((unused, throwable) -> null)
+        .get(10, SECONDS);
+    assertThat(futures).allMatch(CompletableFuture::isDone);
+  }
+
+  private WriteAheadLog open(LogStateMachine stateMachine) throws Exception {
+    return WriteAheadLog.open(
+        directory,
+        new LogRecordCodec(new JavaSerializationCodec()),
+        stateMachine,
+        100,
+        Integer.MAX_VALUE);
+  }
+
+  private static final class RecordingStateMachine implements LogStateMachine {
+    private final List<LogRecord> applied = new ArrayList<>();
+
+    @Override
+    public void apply(LogRecord logRecord) {
+      if (logRecord instanceof InstanceCreated instanceCreated
+          && POISON_WORKFLOW.equals(instanceCreated.workflowId())) {
+        throw new IllegalArgumentException("Unknown workflow " + instanceCreated.workflowId());
+      }
+      applied.add(logRecord);
+    }
+
+    @Override
+    public void writeSnapshot(DataOutput out) {}
+
+    @Override
+    public void restoreSnapshot(DataInput in) {}
+  }
+}
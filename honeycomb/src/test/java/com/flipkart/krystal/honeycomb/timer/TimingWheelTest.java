@@ -0,0 +1,52 @@
+package com.flipkart.krystal.honeycomb.timer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.honeycomb.timer.TimingWheel.Node;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+  @Test
+  void advanceTo_timersAcrossLevels_eachExpiresExactlyAtItsDeadline() {
+    // 4 buckets per level, so that the timers cascade through several levels
+    TimingWheel<Long> timingWheel = new TimingWheel<>(2, 1_000);
+    Random random = new Random(7);
+    Map<Long, Node<Long>> nodes = new HashMap<>();
+    for (int i = 0; i < 1_000; i++) {
+      long deadline = 1_001 + random.nextInt(5_000);
+      if (!nodes.containsKey(deadline)) {
+        nodes.put(deadline, timingWheel.add(deadline, deadline));
+      }
+    }
+    List<Long> cancelled = new ArrayList<>();
+    nodes.forEach(
+        (deadline, node) -> {
+          if (deadline % 3 == 0) {
+            timingWheel.cancel(node);
+            cancelled.add(deadline);
+          }
+        });
+
+    List<Long> expired = new ArrayList<>();
+    for (long tick = 1_001; tick <= 6_001; tick++) {
+      long currentTick = tick;
+      timingWheel.advanceTo(
+          tick,
+          deadline -> {
+            assertThat(deadline).isEqualTo(currentTick);
+            expired.add(deadline);
+          });
+    }
+
+    assertThat(expired)
+        .hasSize(nodes.size() - cancelled.size())
+        .doesNotContainAnyElementsOf(cancelled);
+    assertThat(timingWheel.size()).isZero();
+  }
+}
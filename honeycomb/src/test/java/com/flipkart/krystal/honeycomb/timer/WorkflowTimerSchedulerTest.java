@@ -0,0 +1,100 @@
+package com.flipkart.krystal.honeycomb.timer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.honeycomb.model.WorkflowDefinition;
+import com.flipkart.krystal.honeycomb.store.DurableWorkflowInstance;
+import com.flipkart.krystal.honeycomb.store.PendingTimer;
+import com.flipkart.krystal.honeycomb.store.WorkflowStore;
+import com.flipkart.krystal.honeycomb.store.WorkflowStoreConfig;
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkflowTimerSchedulerTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void schedule_dueAndCancelledTimers_onlyDueTimersFiredAndRemoved() throws Exception {
+    List<PendingTimer> fired = new CopyOnWriteArrayList<>();
+    CountDownLatch firedLatch = new CountDownLatch(2);
+    PendingTimer slaTimer;
+    try (WorkflowStore store = WorkflowStore.open(config())) {
+      DurableWorkflowInstance instance = store.createInstance("order");
+      try (WorkflowTimerScheduler scheduler =
+          WorkflowTimerScheduler.builder()
+              .store(store)
+              .timerListener(
+                  timers -> {
+                    fired.addAll(timers);
+                    timers.forEach(_t -> firedLatch.countDown());
+                  })
+              .tickDuration(Duration.ofMillis(1))
+              .build()) {
+        PendingTimer cancelled = scheduler.schedule(instance, "cancelled", Duration.ofMillis(300));
+        scheduler.cancel(cancelled);
+        PendingTimer retry = scheduler.schedule(instance, "retry", Duration.ofMillis(100));
+        PendingTimer reminder = scheduler.schedule(instance, "reminder", Duration.ofMillis(400));
+        slaTimer = scheduler.schedule(instance, "sla", Duration.ofHours(1));
+
+        assertThat(firedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly(retry, reminder);
+        // Fired timers are removed asynchronously after the listener returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.pendingTimers().size() > 1 && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+      }
+    }
+    try (WorkflowStore store = WorkflowStore.open(config())) {
+      assertThat(store.pendingTimers()).containsExactly(slaTimer);
+    }
+  }
+
+  @Test
+  void schedule_listenerFails_timerFiredAgainUntilProcessed() throws Exception {
+    AtomicInteger firings = new AtomicInteger();
+    CountDownLatch processedLatch = new CountDownLatch(1);
+    try (WorkflowStore store = WorkflowStore.open(config())) {
+      DurableWorkflowInstance instance = store.createInstance("order");
+      try (WorkflowTimerScheduler scheduler =
+          WorkflowTimerScheduler.builder()
+              .store(store)
+              .timerListener(
+                  timers -> {
+                    if (firings.incrementAndGet() < 3) {
+                      throw new IllegalStateException("The workflow could not be resumed");
+                    }
+                    processedLatch.countDown();
+                  })
+              .tickDuration(Duration.ofMillis(1))
+              .retryBackoff(Duration.ofMillis(20))
+              .build()) {
+        scheduler.schedule(instance, "retry", Duration.ofMillis(10));
+
+        assertThat(processedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!store.pendingTimers().isEmpty() && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+        assertThat(store.pendingTimers()).isEmpty();
+        assertThat(firings).hasValue(3);
+      }
+    }
+  }
+
+  private WorkflowStoreConfig config() {
+    return WorkflowStoreConfig.builder()
+        .directory(directory)
+        .workflowDefinition(new WorkflowDefinition("order", ImmutableSet.of()))
+        .build();
+  }
+}
@@ -0,0 +1,54 @@
+package com.flipkart.krystal.annos;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Allows vajram developers and callers of the krystal runtime to indicate how important the
+ * execution of a vajram is when the process is overloaded. Admission controllers use this tag to
+ * decide which executions are queued and which are shed when the concurrency limit of the process
+ * has been reached.
+ *
+ * <p>When placed on a vajram, the priority applies to every external invocation of the vajram. The
+ * same tag can also be passed as part of the execution metadata of a single request, in which case
+ * it overrides the priority of the vajram.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AdmissionPriority {
+
+  Priority value();
+
+  /** Priority classes in decreasing order of importance. */
+  enum Priority {
+    /** Executions which are never shed in favour of other executions. */
+    CRITICAL,
+    /** The priority of executions which do not specify a priority. */
+    DEFAULT,
+    /**
+     * Executions which are rejected right away instead of being queued if the concurrency limit has
+     * been reached.
+     */
+    SHEDDABLE
+  }
+
+  final class AdmissionPriorities {
+
+    public static AdmissionPriority admissionPriority(Priority value) {
+      return new AdmissionPriorityImpl(value);
+    }
+
+    private record AdmissionPriorityImpl(Priority value) implements AdmissionPriority {
+
+      @Override
+      public Class<? extends Annotation> annotationType() {
+        return AdmissionPriority.class;
+      }
+    }
+
+    private AdmissionPriorities() {}
+  }
+}
@@ -0,0 +1,41 @@
+package com.flipkart.krystal.annos;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Allows vajram developers to indicate that the output logic of a compute vajram is CPU intensive.
+ * When placed on the output logic, the krystal runtime executes the logic on a shared work-stealing
+ * pool instead of the event loop thread of the executor, and resumes the orchestration of the
+ * dependants of the vajram in the event loop once the computation is complete. This prevents one
+ * expensive computation from blocking the orchestration of every other vajram in the request, and
+ * allows independent CPU heavy computations in the same request to execute in parallel.
+ *
+ * <p>The output logic of a vajram tagged with this annotation must be thread-safe and must not
+ * depend on being executed in the event loop thread. This annotation has no effect on IO vajrams
+ * since their output logics are expected to delegate their computation anyway.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CpuHeavy {
+
+  final class CpuHeavyTags {
+
+    public static CpuHeavy cpuHeavy() {
+      return new CpuHeavyImpl();
+    }
+
+    private record CpuHeavyImpl() implements CpuHeavy {
+
+      @Override
+      public Class<? extends Annotation> annotationType() {
+        return CpuHeavy.class;
+      }
+    }
+
+    private CpuHeavyTags() {}
+  }
+}
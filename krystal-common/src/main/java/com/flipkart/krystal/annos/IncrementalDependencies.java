@@ -0,0 +1,67 @@
+package com.flipkart.krystal.annos;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+
+/**
+ * Allows vajram developers to opt in to incremental delivery of the results of fan-out
+ * dependencies. By default, the results of a fan-out dependency are delivered to the dependant
+ * only after every one of the fanned-out requests has completed - so one slow request delays
+ * everything which depends on the dependency.
+ *
+ * <p>For the dependencies listed in this annotation, the krystal runtime delivers results as and
+ * when the individual requests complete. Dependencies of the vajram whose resolvers are bound to
+ * such a dependency are resolved and executed for each set of partial results as they arrive,
+ * instead of waiting for all the results. The output logic of the vajram still receives the
+ * complete results.
+ *
+ * <p>Resolvers bound to an incremental dependency are invoked multiple times per request, each
+ * time with a subset of the results of the dependency. They must hence resolve each result
+ * independently of the others (for example, mapping each result to one request of the resolved
+ * dependency), and must not aggregate across results.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface IncrementalDependencies {
+
+  /** Names of the fan-out dependencies whose results are to be delivered incrementally. */
+  String[] value();
+
+  final class IncrementalDependenciesTags {
+
+    public static IncrementalDependencies incrementalDependencies(String... dependencyNames) {
+      return new IncrementalDependenciesImpl(dependencyNames.clone());
+    }
+
+    private record IncrementalDependenciesImpl(String[] value) implements IncrementalDependencies {
+
+      @Override
+      public Class<? extends Annotation> annotationType() {
+        return IncrementalDependencies.class;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+        return obj instanceof IncrementalDependencies other
+            && Arrays.equals(value, other.value());
+      }
+
+      /** As specified by {@link Annotation#hashCode()} */
+      @Override
+      public int hashCode() {
+        return (127 * "value".hashCode()) ^ Arrays.hashCode(value);
+      }
+
+      @Override
+      public String toString() {
+        return "@IncrementalDependencies(%s)".formatted(Arrays.toString(value));
+      }
+    }
+
+    private IncrementalDependenciesTags() {}
+  }
+}
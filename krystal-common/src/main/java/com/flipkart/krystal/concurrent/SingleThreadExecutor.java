@@ -68,6 +68,15 @@ public class SingleThreadExecutor extends ForkJoinPool {
     }
   }
 
+  /**
+   * Returns the number of tasks which are queued in this executor, plus one if a task is running.
+   * This is an estimate since the queues can change concurrently.
+   */
+  public int pendingTaskCount() {
+    long pending = getQueuedSubmissionCount() + getQueuedTaskCount() + getActiveThreadCount();
+    return (int) Math.min(Integer.MAX_VALUE, pending);
+  }
+
   @Override
   public void execute(Runnable runnable) {
     if (currentThread() == executionThread()) {
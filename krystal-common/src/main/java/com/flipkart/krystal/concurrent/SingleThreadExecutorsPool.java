@@ -11,14 +11,36 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  * caller. This guarantee allows clients to implement the thread-per-request execution model thus
  * allowing applications to use features which rely on the current thread's threadlocal - for
  * example: logging MDC, Servlet requestScope Dependency Injection etc.
+ *
+ * <p>Leases are load aware: of two randomly sampled available executors, the one with fewer {@link
+ * SingleThreadExecutor#pendingTaskCount() pending tasks} is leased - so that a new request does
+ * not land on an executor which is still busy with the leftover work of a previous request while
+ * other executors idle.
  */
 public class SingleThreadExecutorsPool extends RandomMultiLeasePool<@NonNull SingleThreadExecutor> {
 
+  private final int maxThreads;
+
   /**
    * @param name The name of this pool - this is added to the thread names
    * @param maxThreads No more than this number of {@link SingleThreadExecutor}s are created
    */
   public SingleThreadExecutorsPool(String name, int maxThreads) {
-    super(() -> new SingleThreadExecutor(name), 1, maxThreads, SingleThreadExecutor::shutdown);
+    super(
+        () -> new SingleThreadExecutor(name),
+        1,
+        maxThreads,
+        SingleThreadExecutor::shutdown,
+        SingleThreadExecutor::pendingTaskCount);
+    this.maxThreads = maxThreads;
+  }
+
+  /**
+   * Returns the maximum number of {@link SingleThreadExecutor}s this pool creates. Since each
+   * executor can be leased by only one caller at a time, this is also the maximum number of leases
+   * that can be active at any point of time.
+   */
+  public int maxThreads() {
+    return maxThreads;
   }
 }
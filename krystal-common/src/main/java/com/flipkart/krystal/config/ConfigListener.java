@@ -3,4 +3,13 @@ package com.flipkart.krystal.config;
 public interface ConfigListener {
 
   default void onConfigUpdate(ConfigProvider configProvider) {}
+
+  /**
+   * Returns true if a change in the value of the given config key might change the behaviour of
+   * this listener. {@link SnapshotConfigProvider} uses this to notify a listener only when at least
+   * one of the keys it is interested in changes. By default, listeners are interested in all keys.
+   */
+  default boolean isInterestedIn(String configKey) {
+    return true;
+  }
 }
@@ -0,0 +1,41 @@
+package com.flipkart.krystal.config;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable set of configs published by a {@link SnapshotConfigProvider}.
+ *
+ * @param version Incremented every time a new snapshot is published
+ */
+public record ConfigSnapshot(long version, ImmutableMap<String, Object> configs)
+    implements ConfigProvider {
+
+  public static final ConfigSnapshot EMPTY = new ConfigSnapshot(0, ImmutableMap.of());
+
+  @Override
+  public <T> Optional<T> getConfig(String key) {
+    @SuppressWarnings("unchecked")
+    Optional<T> t = Optional.ofNullable((T) configs.get(key));
+    return t;
+  }
+
+  /** Returns the keys which were added, removed or whose values changed since the given snapshot. */
+  public ImmutableSet<String> changedKeys(ConfigSnapshot previous) {
+    ImmutableSet.Builder<String> changedKeys = ImmutableSet.builder();
+    for (String key : Sets.union(configs.keySet(), previous.configs().keySet())) {
+      if (!Objects.equals(configs.get(key), previous.configs().get(key))) {
+        changedKeys.add(key);
+      }
+    }
+    return changedKeys.build();
+  }
+
+  ConfigSnapshot next(Map<String, Object> configs) {
+    return new ConfigSnapshot(version + 1, ImmutableMap.copyOf(configs));
+  }
+}
@@ -0,0 +1,138 @@
+package com.flipkart.krystal.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Loads configs from a {@link Properties} file into a {@link SnapshotConfigProvider}, and reloads
+ * them whenever the file changes.
+ *
+ * <p>Since decorators read configs as typed values, property values are converted as follows:
+ * {@code true}/{@code false} become {@link Boolean}s, integral values become {@link Integer}s (or
+ * {@link Long}s if they don't fit in an int), decimal values become {@link Double}s and all other
+ * values are retained as {@link String}s.
+ *
+ * <p>If the file cannot be read or parsed, the current snapshot is retained.
+ */
+@Slf4j
+public final class FileConfigSource implements AutoCloseable {
+
+  private final Path file;
+  private final SnapshotConfigProvider configProvider;
+  private @Nullable WatchService watchService;
+
+  public FileConfigSource(Path file, SnapshotConfigProvider configProvider) {
+    this.file = file.toAbsolutePath();
+    this.configProvider = configProvider;
+  }
+
+  /**
+   * Loads the file and starts watching it for changes on a daemon thread.
+   *
+   * @throws IOException if the file could not be loaded or watched
+   */
+  public synchronized void start() throws IOException {
+    if (watchService != null) {
+      return;
+    }
+    configProvider.update(load());
+    WatchService watchService = file.getFileSystem().newWatchService();
+    file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    this.watchService = watchService;
+    Thread watcher = new Thread(() -> watch(watchService), "config-watcher-" + file.getFileName());
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  /**
+   * Reloads the file immediately, irrespective of whether it has changed.
+   *
+   * @return true if the file was loaded successfully
+   */
+  public boolean reload() {
+    try {
+      configProvider.update(load());
+      return true;
+    } catch (IOException | RuntimeException e) {
+      log.error("Could not reload configs from {}. Retaining the current configs", file, e);
+      return false;
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    WatchService watchService = this.watchService;
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+
+  private void watch(WatchService watchService) {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          changed |= event.kind() == OVERFLOW || file.getFileName().equals(event.context());
+        }
+        if (changed) {
+          reload();
+        }
+        if (!key.reset()) {
+          log.error("Stopped watching {} since its directory is no longer accessible", file);
+          return;
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      log.debug("Stopped watching {}", file);
+    }
+  }
+
+  private Map<String, Object> load() throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    Map<String, Object> configs = new LinkedHashMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      configs.put(key, parse(properties.getProperty(key).strip()));
+    }
+    return configs;
+  }
+
+  static Object parse(String value) {
+    if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+      return Boolean.parseBoolean(value);
+    }
+    try {
+      long longValue = Long.parseLong(value);
+      return longValue == (int) longValue ? (Object) (int) longValue : (Object) longValue;
+    } catch (NumberFormatException e) {
+      // Not an integral value
+    }
+    try {
+      if (value.contains(".")) {
+        return Double.parseDouble(value);
+      }
+    } catch (NumberFormatException e) {
+      // Not a decimal value
+    }
+    return value;
+  }
+}
@@ -0,0 +1,106 @@
+package com.flipkart.krystal.config;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link ConfigProvider} whose configs can be replaced at runtime, and which notifies the {@link
+ * ConfigListener}s affected by the replacement.
+ *
+ * <p>Configs are published as immutable, versioned {@link ConfigSnapshot}s. Reads go to the latest
+ * snapshot without taking any lock, so this can be read on the hot path - though listeners are
+ * expected to derive their state from the snapshot in {@link ConfigListener#onConfigUpdate} rather
+ * than read configs on every call.
+ *
+ * <p>When a new snapshot is published, only the listeners which are {@link
+ * ConfigListener#isInterestedIn interested in} at least one of the changed keys are notified, on
+ * the publishing thread, in the order in which the snapshots were published. Listeners are held
+ * weakly, so listeners which are no longer in use - like the decorators of closed executors - need
+ * not be removed.
+ *
+ * @see FileConfigSource
+ */
+@Slf4j
+public final class SnapshotConfigProvider implements ConfigProvider {
+
+  private volatile ConfigSnapshot snapshot;
+  private final Set<ConfigListener> listeners =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+  public SnapshotConfigProvider() {
+    this(Map.of());
+  }
+
+  public SnapshotConfigProvider(Map<String, Object> initialConfigs) {
+    this.snapshot = ConfigSnapshot.EMPTY.next(initialConfigs);
+  }
+
+  @Override
+  public <T> Optional<T> getConfig(String key) {
+    return snapshot.getConfig(key);
+  }
+
+  /** Returns the latest snapshot. */
+  public ConfigSnapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Registers the listener and immediately calls its {@link ConfigListener#onConfigUpdate} with
+   * the latest snapshot.
+   *
+   * @return the given listener
+   */
+  public synchronized <L extends ConfigListener> L register(L listener) {
+    listeners.add(listener);
+    listener.onConfigUpdate(snapshot);
+    return listener;
+  }
+
+  public void unregister(ConfigListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Publishes a new snapshot with the given configs, replacing all the current configs, and
+   * notifies the affected listeners. Does nothing if no config has changed.
+   *
+   * @return the keys which changed
+   */
+  public synchronized ImmutableSet<String> update(Map<String, Object> configs) {
+    ConfigSnapshot previous = snapshot;
+    ConfigSnapshot next = previous.next(configs);
+    ImmutableSet<String> changedKeys = next.changedKeys(previous);
+    if (changedKeys.isEmpty()) {
+      return changedKeys;
+    }
+    snapshot = next;
+    ImmutableList<ConfigListener> affectedListeners;
+    synchronized (listeners) {
+      affectedListeners =
+          listeners.stream()
+              .filter(listener -> changedKeys.stream().anyMatch(listener::isInterestedIn))
+              .collect(toImmutableList());
+    }
+    for (ConfigListener listener : affectedListeners) {
+      try {
+        listener.onConfigUpdate(next);
+      } catch (Throwable e) {
+        log.error(
+            "Listener {} failed to apply config snapshot version {}",
+            listener,
+            next.version(),
+            e);
+      }
+    }
+    return changedKeys;
+  }
+}
@@ -0,0 +1,115 @@
+package com.flipkart.krystal.data;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+
+/**
+ * A contiguous, materialized window of the elements emitted by a streaming output.
+ *
+ * <p>Vajrams which produce large result sets can return a {@link Publisher} as their output. When
+ * a fan-out resolver of a dependant is bound to such a dependency, the krystal runtime does not
+ * wait for the stream to complete. Instead, it consumes the stream in bounded windows and invokes
+ * the resolver once per window, passing a {@link StreamWindow} in place of the original publisher
+ * - so the dependency being resolved can start executing as soon as the first window is
+ * available. Resolvers can access the elements of the window using {@link #elementsOf(Publisher)}.
+ *
+ * @param <E> The type of elements of the stream
+ */
+public final class StreamWindow<E> implements Publisher<E> {
+
+  private final ImmutableList<E> elements;
+  private final int index;
+
+  public StreamWindow(List<E> elements, int index) {
+    this.elements = ImmutableList.copyOf(elements);
+    this.index = index;
+  }
+
+  /**
+   * Returns the elements of the given publisher if it is a {@link StreamWindow}.
+   *
+   * @throws IllegalArgumentException if the publisher is not a {@link StreamWindow}. Only windows
+   *     can be read synchronously.
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> ImmutableList<E> elementsOf(Publisher<? extends E> publisher) {
+    if (publisher instanceof StreamWindow<?> streamWindow) {
+      return (ImmutableList<E>) streamWindow.elements();
+    }
+    throw new IllegalArgumentException(
+        "Expected a StreamWindow but found %s. Streaming outputs can be read synchronously only by fan-out resolvers"
+            .formatted(publisher.getClass()));
+  }
+
+  public ImmutableList<E> elements() {
+    return elements;
+  }
+
+  /** The position of this window in the stream. The first window has index 0. */
+  public int index() {
+    return index;
+  }
+
+  /** Replays the elements of this window to the subscriber honoring its demand. */
+  @Override
+  public void subscribe(Subscriber<? super E> subscriber) {
+    subscriber.onSubscribe(new WindowSubscription<>(elements, subscriber));
+  }
+
+  @Override
+  public String toString() {
+    return "StreamWindow[%s]%s".formatted(index, elements);
+  }
+
+  private static final class WindowSubscription<E> implements Subscription {
+    private final ImmutableList<E> elements;
+    private final Subscriber<? super E> subscriber;
+    private int next;
+    private long demand;
+    private boolean emitting;
+    private boolean done;
+
+    private WindowSubscription(ImmutableList<E> elements, Subscriber<? super E> subscriber) {
+      this.elements = elements;
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public synchronized void request(long n) {
+      if (done) {
+        return;
+      }
+      if (n <= 0) {
+        done = true;
+        subscriber.onError(new IllegalArgumentException("Requested non-positive elements: " + n));
+        return;
+      }
+      demand = Long.MAX_VALUE - demand <= n ? Long.MAX_VALUE : demand + n;
+      if (emitting) {
+        // Reentrant call from onNext - the outer loop emits the newly requested elements
+        return;
+      }
+      emitting = true;
+      try {
+        while (demand > 0 && next < elements.size() && !done) {
+          demand--;
+          subscriber.onNext(elements.get(next++));
+        }
+        if (next == elements.size() && !done) {
+          done = true;
+          subscriber.onComplete();
+        }
+      } finally {
+        emitting = false;
+      }
+    }
+
+    @Override
+    public synchronized void cancel() {
+      done = true;
+    }
+  }
+}
@@ -29,28 +29,39 @@ public class FairMultiLeasePool<T extends @NonNull Object> implements MultiLease
 
   @Override
   public final Lease<T> lease() throws LeaseUnavailableException {
-    synchronized (this) {
-      if (closed) {
-        throw new IllegalStateException("MultiLeasePool already closed");
-      }
-      int count = queue.size();
-      PooledObject<T> head;
-      do {
-        head = queue.peek();
-        boolean leasable = checkLeasabilityAndRotateIfNeeded(head);
-        if (leasable) {
-          break;
+    LeaseAcquireEvent leaseEvent = new LeaseAcquireEvent();
+    leaseEvent.begin();
+    try {
+      synchronized (this) {
+        if (closed) {
+          throw new IllegalStateException("MultiLeasePool already closed");
+        }
+        int count = queue.size();
+        PooledObject<T> head;
+        do {
+          head = queue.peek();
+          boolean leasable = checkLeasabilityAndRotateIfNeeded(head);
+          if (leasable) {
+            break;
+          }
+        } while (head != null && --count > 0);
+        PooledObject<T> leasable;
+        if (head == null || !shouldLeaseOut(head)) {
+          leasable = createNewForLeasing();
+          leaseEvent.objectCreated = true;
+        } else {
+          leasable = head;
+          leasable.incrementActiveLeases();
         }
-      } while (head != null && --count > 0);
-      PooledObject<T> leasable;
-      if (head == null || !shouldLeaseOut(head)) {
-        leasable = createNewForLeasing();
-      } else {
-        leasable = head;
-        leasable.incrementActiveLeases();
+        leaseEvent.activeLeases = leasable.activeLeases();
+        stats.reportNewLease(leasable.activeLeases());
+        return new LeaseImpl<>(leasable, this::giveBack);
       }
-      stats.reportNewLease(leasable.activeLeases());
-      return new LeaseImpl<>(leasable, this::giveBack);
+    } catch (LeaseUnavailableException e) {
+      leaseEvent.leaseUnavailable = true;
+      throw e;
+    } finally {
+      leaseEvent.endAndCommit(getClass());
     }
   }
 
@@ -0,0 +1,41 @@
+package com.flipkart.krystal.pooling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** The acquisition of a lease from a {@link MultiLeasePool}, including any wait for its lock. */
+@Name("krystal.LeaseAcquire")
+@Label("Lease Acquire")
+@Category({"Krystal", "Pooling"})
+@Description("A lease being acquired from a multi lease pool")
+@Enabled(false)
+@StackTrace(false)
+final class LeaseAcquireEvent extends Event {
+
+  @Label("Pool Type")
+  String poolType = "";
+
+  @Label("Active Leases")
+  @Description("The number of active leases of the leased object, including this one")
+  int activeLeases;
+
+  @Label("Object Created")
+  boolean objectCreated;
+
+  @Label("Lease Unavailable")
+  boolean leaseUnavailable;
+
+  /** Ends this event and commits it if it is enabled and exceeds the configured threshold. */
+  void endAndCommit(Class<?> poolType) {
+    end();
+    if (shouldCommit()) {
+      this.poolType = poolType.getSimpleName();
+      commit();
+    }
+  }
+}
@@ -9,4 +9,16 @@ public interface MultiLeasePoolStats {
   int peakLeasesOfAnObject();
 
   double peakAvgActiveLeasesPerObject();
+
+  /**
+   * Returns the highest load (for example, the number of pending tasks) of an object at the time it
+   * was leased. Always 0 if the pool is not load aware.
+   */
+  int peakLoadAtLease();
+
+  /**
+   * Returns the average load of objects at the time they were leased. Always 0 if the pool is not
+   * load aware.
+   */
+  double avgLoadAtLease();
 }
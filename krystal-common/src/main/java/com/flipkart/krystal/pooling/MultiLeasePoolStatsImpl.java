@@ -10,9 +10,17 @@ public record MultiLeasePoolStatsImpl(
     int peakPoolSize,
     int peakLeasesOfAnObject,
     double peakAvgActiveLeasesPerObject,
-    int currentActiveLeases)
+    int currentActiveLeases,
+    int peakLoadAtLease,
+    long totalLoadAtLease,
+    long loadAwareLeases)
     implements MultiLeasePoolStats {
 
+  @Override
+  public double avgLoadAtLease() {
+    return loadAwareLeases == 0 ? 0 : totalLoadAtLease * 1.0 / loadAwareLeases;
+  }
+
   public static class MultiLeasePoolStatsImplBuilder {
 
     public void reportNewLease(int numberOfLeasesOfObject) {
@@ -22,6 +30,12 @@ public record MultiLeasePoolStatsImpl(
           max(peakAvgActiveLeasesPerObject, currentActiveLeases * 1.0 / currentPoolSize);
     }
 
+    public void reportLoadAtLease(int load) {
+      loadAwareLeases++;
+      totalLoadAtLease += load;
+      peakLoadAtLease = max(peakLoadAtLease, load);
+    }
+
     public void reportNewObject() {
       currentPoolSize++;
       peakPoolSize = max(peakPoolSize, currentPoolSize);
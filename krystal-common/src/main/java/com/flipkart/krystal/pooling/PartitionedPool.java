@@ -103,6 +103,18 @@ class PartitionedPool<T> implements Iterable<PooledObject<T>> {
     return toLease;
   }
 
+  /**
+   * Returns the available object at the given index without leasing it.
+   *
+   * @param i The index of the object. It must lie between 0 (inclusive) and {@link
+   *     #availableCount()} (exclusive)
+   * @throws IllegalArgumentException if the index is not available for leasing
+   */
+  PooledObject<T> peekAvailable(int i) {
+    checkArgument(i < unavailableStartIndex && i >= 0, "Index [%s] is not available", i);
+    return partitionedList.get(i);
+  }
+
   /**
    * This method must be called when a lease is closed. It decrements the active lease count of the
    * object and makes it available if it is not already available.
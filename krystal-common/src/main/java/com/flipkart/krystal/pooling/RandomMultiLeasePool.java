@@ -5,6 +5,7 @@ import com.flipkart.krystal.pooling.PartitionedPool.PooledObject;
 import java.util.Random;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -23,6 +24,7 @@ public class RandomMultiLeasePool<T extends @NonNull Object> implements MultiLea
 
   private final Supplier<@NonNull T> creator;
   private final int softMaxObjects;
+  private final @Nullable ToIntFunction<T> loadEstimator;
   private boolean closed;
 
   /**
@@ -39,10 +41,28 @@ public class RandomMultiLeasePool<T extends @NonNull Object> implements MultiLea
       int hardMaxLeasesPerObject,
       int softMaxObjects,
       Consumer<T> destroyer) {
+    this(creator, hardMaxLeasesPerObject, softMaxObjects, destroyer, null);
+  }
+
+  /**
+   * @param loadEstimator If present, leases are load aware: instead of leasing a random available
+   *     object, two available objects are sampled at random and the one with the lower load is
+   *     leased ("power of two choices"). This evens out the load across objects at a fraction of
+   *     the cost of finding the least loaded object. The estimator is called while holding the
+   *     pool's lock, so it must be cheap and must not block.
+   * @see #RandomMultiLeasePool(Supplier, int, int, Consumer)
+   */
+  public RandomMultiLeasePool(
+      Supplier<@NonNull T> creator,
+      int hardMaxLeasesPerObject,
+      int softMaxObjects,
+      Consumer<T> destroyer,
+      @Nullable ToIntFunction<T> loadEstimator) {
     this.creator = creator;
     this.softMaxObjects = softMaxObjects;
     this.pool = new PartitionedPool<>(hardMaxLeasesPerObject);
     this.destroyer = destroyer;
+    this.loadEstimator = loadEstimator;
   }
 
   /**
@@ -56,29 +76,56 @@ public class RandomMultiLeasePool<T extends @NonNull Object> implements MultiLea
     if (closed) {
       throw new IllegalStateException("Pool has already been closed.");
     }
+    LeaseAcquireEvent leaseEvent = new LeaseAcquireEvent();
+    leaseEvent.begin();
     PartitionedPool.PooledObject<T> leasable;
-    synchronized (pool) {
-      int availableCount = pool.availableCount();
-      if (availableCount == 0) {
-        leasable = creatNewLeasable();
-      } else {
-        leasable = pool.getForLeasing(random.nextInt(availableCount));
-      }
-      stats.reportNewLease(leasable.activeLeases());
-      return new LeaseImpl<>(
-          leasable,
-          toClose -> {
-            synchronized (pool) {
-              pool.closeLease(toClose);
-              if (closed && toClose.activeLeases() == 0) {
-                destroyer.accept(toClose.ref());
+    try {
+      synchronized (pool) {
+        int availableCount = pool.availableCount();
+        ToIntFunction<T> loadEstimator = this.loadEstimator;
+        if (availableCount == 0) {
+          leasable = creatNewLeasable();
+          leaseEvent.objectCreated = true;
+        } else if (loadEstimator != null && availableCount > 1) {
+          leasable = pool.getForLeasing(lessLoadedOfTwo(availableCount, loadEstimator));
+        } else {
+          leasable = pool.getForLeasing(random.nextInt(availableCount));
+        }
+        leaseEvent.activeLeases = leasable.activeLeases();
+        stats.reportNewLease(leasable.activeLeases());
+        if (loadEstimator != null) {
+          stats.reportLoadAtLease(loadEstimator.applyAsInt(leasable.ref()));
+        }
+        return new LeaseImpl<>(
+            leasable,
+            toClose -> {
+              synchronized (pool) {
+                pool.closeLease(toClose);
+                if (closed && toClose.activeLeases() == 0) {
+                  destroyer.accept(toClose.ref());
+                }
               }
-            }
-            stats.reportLeaseClosed();
-          });
+              stats.reportLeaseClosed();
+            });
+      }
+    } catch (LeaseUnavailableException e) {
+      leaseEvent.leaseUnavailable = true;
+      throw e;
+    } finally {
+      leaseEvent.endAndCommit(getClass());
     }
   }
 
+  /** Returns the index of the less loaded of two distinct, randomly chosen available objects. */
+  private int lessLoadedOfTwo(int availableCount, ToIntFunction<T> loadEstimator) {
+    int first = random.nextInt(availableCount);
+    // Pick a second index distinct from the first
+    int second = (first + 1 + random.nextInt(availableCount - 1)) % availableCount;
+    int firstLoad = loadEstimator.applyAsInt(pool.peekAvailable(first).ref());
+    int secondLoad = loadEstimator.applyAsInt(pool.peekAvailable(second).ref());
+    return secondLoad < firstLoad ? second : first;
+  }
+
   /**
    * @return a new leasable if softMaxObjects has not been breached
    * @throws LeaseUnavailableException if softMaxObjects has been breached
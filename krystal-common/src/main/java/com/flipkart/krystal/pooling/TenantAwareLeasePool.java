@@ -0,0 +1,326 @@
+package com.flipkart.krystal.pooling;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import lombok.Builder;
+import lombok.Singular;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A pool which shares the leases of another pool among multiple tenants (for example, the clients
+ * of a server) with weighted fair sharing, so that a traffic spike from one tenant cannot take up
+ * all the leases and starve the others.
+ *
+ * <p>Every tenant known to the pool - the tenants with a configured {@link TenantPolicy} and the
+ * tenants which currently hold leases - is guaranteed a fair share of the pool's capacity,
+ * proportional to its {@link TenantPolicy#weight() weight}. A tenant within its fair share is
+ * always granted a lease as long as the pool has capacity. A tenant which has used up its fair
+ * share can borrow the leases which the other tenants are not using, but never the ones needed to
+ * honour the fair shares of the other tenants - so a tenant which is idle now can still get its
+ * share when its traffic arrives. This keeps the pool work conserving while isolating the tenants
+ * from each other. In addition, no tenant is granted more than its {@link TenantPolicy#maxLeases()
+ * maxLeases}.
+ *
+ * <p>Tenants without a configured policy together share the weight of a single tenant with the
+ * default policy, and a tenant which is new to the pool is granted a lease only if the leases
+ * reserved for the other tenants remain free. So a caller which keeps presenting new tenant ids
+ * cannot dilute or take up the fair shares of the configured tenants.
+ *
+ * <p>This pool never queues lease requests: like other pools, it throws a {@link
+ * LeaseUnavailableException} when a lease cannot be granted, so that callers can shed the request
+ * instead of holding on to it.
+ *
+ * <p>A typical usage is to share a {@link com.flipkart.krystal.concurrent.SingleThreadExecutorsPool}
+ * with a capacity equal to its {@link
+ * com.flipkart.krystal.concurrent.SingleThreadExecutorsPool#maxThreads() maxThreads}, leasing each
+ * executor for the tenant of the execution it will run.
+ *
+ * @param <T> The type of the object being pooled
+ */
+public final class TenantAwareLeasePool<T extends @NonNull Object> implements MultiLeasePool<T> {
+
+  /** The tenant to which leases which are not attributed to any tenant are attributed. */
+  public static final String DEFAULT_TENANT = "default";
+
+  private final MultiLeasePool<T> delegate;
+  private final int capacity;
+  private final TenantPolicy defaultPolicy;
+  private final ImmutableMap<String, TenantPolicy> tenantPolicies;
+
+  /** Guarded by {@code this} */
+  private final Map<String, TenantState> tenants = new HashMap<>();
+
+  /** Guarded by {@code this} */
+  private int activeLeases;
+
+  /**
+   * The number of free leases which must be left for the tenants sharing the pool to be able to
+   * lease up to their fair shares. Guarded by {@code this}
+   */
+  private int reserved;
+
+  /**
+   * @param delegate The pool from which the leases are acquired
+   * @param capacity The maximum number of leases which are active at any point of time across
+   *     tenants. This is the capacity which is shared fairly among the tenants, and should generally
+   *     be the maximum number of leases the delegate can grant.
+   * @param tenantPolicies The policies of the tenants known upfront. These tenants are guaranteed
+   *     their fair shares even when they are idle.
+   * @param defaultPolicy The policy of tenants which do not have a policy in {@code
+   *     tenantPolicies}. The weight of this policy is split among all such tenants sharing the
+   *     pool. Defaults to {@link TenantPolicy#DEFAULT}
+   */
+  @Builder
+  private TenantAwareLeasePool(
+      MultiLeasePool<T> delegate,
+      int capacity,
+      @Singular Map<String, TenantPolicy> tenantPolicies,
+      @Nullable TenantPolicy defaultPolicy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive. Found: " + capacity);
+    }
+    this.delegate = delegate;
+    this.capacity = capacity;
+    this.tenantPolicies = ImmutableMap.copyOf(tenantPolicies);
+    this.defaultPolicy = defaultPolicy != null ? defaultPolicy : TenantPolicy.DEFAULT;
+    this.tenantPolicies.forEach(
+        (tenantId, policy) -> tenants.put(tenantId, new TenantState(tenantId, policy, true)));
+    recomputeFairShares();
+  }
+
+  /** Leases an object for the {@link #DEFAULT_TENANT}. */
+  @Override
+  public Lease<T> lease() throws LeaseUnavailableException {
+    return lease(DEFAULT_TENANT);
+  }
+
+  /**
+   * Returns a lease for the given tenant.
+   *
+   * @param tenantId The tenant on whose behalf the lease is acquired. If null, the lease is
+   *     attributed to the {@link #DEFAULT_TENANT}
+   * @throws LeaseUnavailableException if the tenant has reached its {@link
+   *     TenantPolicy#maxLeases() maxLeases}, or the tenant has used up its fair share and the
+   *     remaining capacity is reserved for the fair shares of other tenants, or the delegate pool
+   *     cannot provide a lease
+   */
+  public Lease<T> lease(@Nullable String tenantId) throws LeaseUnavailableException {
+    String tenant = tenantId != null ? tenantId : DEFAULT_TENANT;
+    TenantState state;
+    Lease<T> lease;
+    synchronized (this) {
+      state = tenants.computeIfAbsent(tenant, _t -> new TenantState(tenant, defaultPolicy, false));
+      if (state.active >= state.policy.maxLeases()) {
+        throw reject(
+            state,
+            "Tenant %s has reached its limit of %s leases"
+                .formatted(tenant, state.policy.maxLeases()));
+      }
+      if (activeLeases >= capacity) {
+        throw reject(state, "No more leases available");
+      }
+      boolean wasSharing = isSharing(state);
+      if (!wasSharing) {
+        // The leases of a new tenant must not eat into the shares reserved for the other tenants,
+        // so the shares are computed as if it were already sharing the pool.
+        recomputeFairShares(state);
+      }
+      boolean borrowed = state.active >= state.fairShare;
+      if ((borrowed || !wasSharing) && capacity - activeLeases <= reserved - unusedShare(state)) {
+        throw reject(
+            state,
+            borrowed
+                ? "Tenant %s has used up its fair share of leases".formatted(tenant)
+                : "The leases available to tenant %s are reserved for other tenants"
+                    .formatted(tenant));
+      }
+      try {
+        lease = delegate.lease();
+      } catch (LeaseUnavailableException e) {
+        throw reject(state, e);
+      }
+      activeLeases++;
+      reserved -= unusedShare(state);
+      state.active++;
+      reserved += unusedShare(state);
+      state.peak = max(state.peak, state.active);
+      state.granted++;
+      if (borrowed) {
+        state.borrowed++;
+      }
+    }
+    return new TenantLease(lease, state);
+  }
+
+  /** Returns the stats of the delegate pool. */
+  @Override
+  public MultiLeasePoolStats stats() {
+    return delegate.stats();
+  }
+
+  /**
+   * Returns the lease stats of each tenant known to this pool - the tenants with a configured
+   * policy and the tenants which currently hold leases. The stats of other tenants are dropped when
+   * they release their last lease.
+   */
+  public synchronized ImmutableMap<String, TenantLeaseStats> tenantStats() {
+    return tenants.entrySet().stream()
+        .collect(
+            toImmutableMap(
+                Entry::getKey,
+                e -> {
+                  TenantState state = e.getValue();
+                  return new TenantLeaseStats(
+                      state.active,
+                      state.peak,
+                      state.fairShare,
+                      state.granted,
+                      state.borrowed,
+                      state.rejected);
+                }));
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  /** Must be called while holding the lock of this pool */
+  private LeaseUnavailableException reject(TenantState state, String message) {
+    return reject(state, new LeaseUnavailableException(message));
+  }
+
+  /** Must be called while holding the lock of this pool */
+  private LeaseUnavailableException reject(TenantState state, LeaseUnavailableException e) {
+    state.rejected++;
+    evictIfIdle(state);
+    return e;
+  }
+
+  private void recomputeFairShares() {
+    recomputeFairShares(null);
+  }
+
+  /**
+   * Recomputes the fair shares of the tenants sharing the pool, and the leases reserved for them.
+   * This is needed only when a tenant starts or stops sharing the pool - every other change to
+   * the reserved leases is applied incrementally. The tenants without a configured policy share
+   * the weight of the default policy equally among themselves. Must be called while holding the
+   * lock of this pool.
+   *
+   * @param joiningTenant A tenant which is to be considered as sharing the pool though it does not
+   *     hold any leases yet
+   */
+  private void recomputeFairShares(@Nullable TenantState joiningTenant) {
+    double configuredWeight = 0;
+    int adHocTenants = 0;
+    for (TenantState state : tenants.values()) {
+      if (state.configured) {
+        configuredWeight += state.policy.weight();
+      } else if (isSharing(state) || state == joiningTenant) {
+        adHocTenants++;
+      }
+    }
+    double adHocWeight = adHocTenants > 0 ? defaultPolicy.weight() / adHocTenants : 0;
+    double totalWeight = configuredWeight + (adHocTenants > 0 ? defaultPolicy.weight() : 0);
+    reserved = 0;
+    for (TenantState state : tenants.values()) {
+      if (isSharing(state) || state == joiningTenant) {
+        double weight = state.configured ? state.policy.weight() : adHocWeight;
+        //noinspection NumericCastThatLosesPrecision
+        int share = max(1, (int) (capacity * weight / totalWeight));
+        state.fairShare = min(share, state.policy.maxLeases());
+        reserved += unusedShare(state);
+      } else {
+        state.fairShare = 0;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of free leases which must be left for the given tenant to be able to lease
+   * up to its fair share.
+   */
+  private static int unusedShare(TenantState state) {
+    return max(0, state.fairShare - state.active);
+  }
+
+  /**
+   * A tenant shares the capacity of the pool if it is currently holding leases, or if it has been
+   * configured upfront.
+   */
+  private static boolean isSharing(TenantState state) {
+    return state.active > 0 || state.configured;
+  }
+
+  /**
+   * Tenants which are not configured upfront are forgotten as soon as they are idle, so that the
+   * state of the pool does not grow with the number of tenants ever seen. Must be called while
+   * holding the lock of this pool.
+   */
+  private void evictIfIdle(TenantState state) {
+    if (!isSharing(state)) {
+      tenants.remove(state.tenantId, state);
+      // The shares may have been computed with this tenant joining the pool
+      recomputeFairShares();
+    }
+  }
+
+  private synchronized void release(TenantState state) {
+    activeLeases--;
+    reserved -= unusedShare(state);
+    state.active--;
+    reserved += unusedShare(state);
+    evictIfIdle(state);
+  }
+
+  private static final class TenantState {
+    private final String tenantId;
+    private final TenantPolicy policy;
+    private final boolean configured;
+    private int active;
+    private int peak;
+    private int fairShare;
+    private long granted;
+    private long borrowed;
+    private long rejected;
+
+    private TenantState(String tenantId, TenantPolicy policy, boolean configured) {
+      this.tenantId = tenantId;
+      this.policy = policy;
+      this.configured = configured;
+    }
+  }
+
+  private final class TenantLease implements Lease<T> {
+    private final Lease<T> lease;
+    private @Nullable TenantState state;
+
+    private TenantLease(Lease<T> lease, TenantState state) {
+      this.lease = lease;
+      this.state = state;
+    }
+
+    @Override
+    public T get() {
+      return lease.get();
+    }
+
+    @Override
+    public void close() {
+      TenantState state = this.state;
+      if (state != null) {
+        this.state = null;
+        lease.close();
+        release(state);
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.flipkart.krystal.pooling;
+
+/**
+ * The lease stats of one tenant of a {@link TenantAwareLeasePool}.
+ *
+ * @param activeLeases The number of leases currently held by the tenant
+ * @param peakActiveLeases The highest number of leases held by the tenant at any point of time
+ * @param fairShare The number of leases the tenant is guaranteed given the tenants currently known
+ *     to the pool
+ * @param grantedLeases The total number of leases granted to the tenant
+ * @param borrowedLeases The number of granted leases which exceeded the tenant's fair share and
+ *     were granted because other tenants were not using theirs
+ * @param rejectedLeases The number of lease requests of the tenant which were rejected
+ */
+public record TenantLeaseStats(
+    int activeLeases,
+    int peakActiveLeases,
+    int fairShare,
+    long grantedLeases,
+    long borrowedLeases,
+    long rejectedLeases) {}
@@ -0,0 +1,26 @@
+package com.flipkart.krystal.pooling;
+
+import lombok.Builder;
+
+/**
+ * How a tenant shares the leases of a {@link TenantAwareLeasePool} with other tenants.
+ *
+ * @param weight The relative weight of the tenant. When leases are contended, each tenant is
+ *     guaranteed a share of the pool's capacity proportional to its weight. Defaults to 1.
+ * @param maxLeases The maximum number of leases the tenant can hold at any point of time, even if
+ *     the rest of the pool is idle. Defaults to no limit.
+ */
+@Builder(toBuilder = true)
+public record TenantPolicy(double weight, int maxLeases) {
+
+  public static final TenantPolicy DEFAULT = TenantPolicy.builder().build();
+
+  public TenantPolicy {
+    if (weight <= 0) {
+      weight = 1;
+    }
+    if (maxLeases <= 0) {
+      maxLeases = Integer.MAX_VALUE;
+    }
+  }
+}
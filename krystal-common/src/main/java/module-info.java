@@ -4,6 +4,7 @@ module flipkart.krystal.common {
   requires org.checkerframework.checker.qual;
   requires java.compiler;
   requires org.slf4j;
+  requires jdk.jfr;
 
   exports com.flipkart.krystal.data;
   exports com.flipkart.krystal.datatypes;
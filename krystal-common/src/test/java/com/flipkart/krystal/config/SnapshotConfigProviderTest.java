@@ -0,0 +1,85 @@
+package com.flipkart.krystal.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotConfigProviderTest {
+
+  @Test
+  void register_notifiedWithLatestSnapshot() {
+    SnapshotConfigProvider configProvider = new SnapshotConfigProvider(Map.of("a.size", 1));
+    RecordingListener listener = configProvider.register(new RecordingListener("a."));
+
+    assertThat(listener.received).hasSize(1);
+    assertThat(listener.received.get(0).<Integer>getConfig("a.size")).contains(1);
+  }
+
+  @Test
+  void update_onlyInterestedListenersNotified() {
+    SnapshotConfigProvider configProvider =
+        new SnapshotConfigProvider(Map.of("a.size", 1, "b.size", 1));
+    RecordingListener a = configProvider.register(new RecordingListener("a."));
+    RecordingListener b = configProvider.register(new RecordingListener("b."));
+
+    assertThat(configProvider.update(Map.of("a.size", 2, "b.size", 1))).containsExactly("a.size");
+
+    assertThat(a.received).hasSize(2);
+    assertThat(a.received.get(1).version()).isEqualTo(configProvider.snapshot().version());
+    assertThat(a.received.get(1).<Integer>getConfig("a.size")).contains(2);
+    assertThat(b.received).hasSize(1);
+  }
+
+  @Test
+  void update_noChange_snapshotRetained() {
+    SnapshotConfigProvider configProvider = new SnapshotConfigProvider(Map.of("a.size", 1));
+    ConfigSnapshot snapshot = configProvider.snapshot();
+
+    assertThat(configProvider.update(Map.of("a.size", 1))).isEmpty();
+    assertThat(configProvider.snapshot()).isSameAs(snapshot);
+  }
+
+  @Test
+  void fileConfigSource_reload_valuesTyped(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("krystal.properties");
+    Files.writeString(file, "a.enabled=true\na.size=10\na.type=SEMAPHORE\n");
+    SnapshotConfigProvider configProvider = new SnapshotConfigProvider();
+    try (FileConfigSource source = new FileConfigSource(file, configProvider)) {
+      source.start();
+      assertThat(configProvider.<Boolean>getConfig("a.enabled")).contains(true);
+      assertThat(configProvider.<Integer>getConfig("a.size")).contains(10);
+      assertThat(configProvider.<String>getConfig("a.type")).contains("SEMAPHORE");
+
+      Files.writeString(file, "a.size=20\n");
+      assertThat(source.reload()).isTrue();
+      assertThat(configProvider.<Integer>getConfig("a.size")).contains(20);
+      assertThat(configProvider.getConfig("a.enabled")).isEmpty();
+    }
+  }
+
+  private static final class RecordingListener implements ConfigListener {
+    private final String prefix;
+    private final List<ConfigSnapshot> received = new ArrayList<>();
+
+    private RecordingListener(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public void onConfigUpdate(ConfigProvider configProvider) {
+      received.add((ConfigSnapshot) configProvider);
+    }
+
+    @Override
+    public boolean isInterestedIn(String configKey) {
+      return configKey.startsWith(prefix);
+    }
+  }
+}
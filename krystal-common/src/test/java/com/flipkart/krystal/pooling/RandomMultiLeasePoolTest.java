@@ -3,7 +3,14 @@ package com.flipkart.krystal.pooling;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class RandomMultiLeasePoolTest {
 
@@ -79,6 +86,31 @@ class RandomMultiLeasePoolTest {
     assertThat(closeable.closed).isTrue();
   }
 
+  @Test
+  void lease_loadAware_leasesLessLoadedObject() throws LeaseUnavailableException {
+    RandomMultiLeasePool<AtomicInteger> pool =
+        new RandomMultiLeasePool<>(AtomicInteger::new, 1, 2, obj -> {}, AtomicInteger::get);
+    Lease<AtomicInteger> lease1 = pool.lease();
+    Lease<AtomicInteger> lease2 = pool.lease();
+    AtomicInteger busy = lease1.get();
+    AtomicInteger idle = lease2.get();
+    busy.set(5);
+    lease1.close();
+    lease2.close();
+
+    for (int i = 0; i < 10; i++) {
+      try (Lease<AtomicInteger> lease = pool.lease()) {
+        assertThat(lease.get()).isSameAs(idle);
+      }
+    }
+    assertThat(pool.stats().peakLoadAtLease()).isEqualTo(0);
+    idle.set(3);
+    try (Lease<AtomicInteger> lease = pool.lease()) {
+      assertThat(lease.get()).isSameAs(idle);
+    }
+    assertThat(pool.stats().peakLoadAtLease()).isEqualTo(3);
+  }
+
   @Test
   void lease_throwsExceptionWhenPoolIsClosed() {
     RandomMultiLeasePool<Object> pool = new RandomMultiLeasePool<>(Object::new, 3, 5, obj -> {});
@@ -88,4 +120,27 @@ class RandomMultiLeasePoolTest {
         .isInstanceOf(IllegalStateException.class)
         .hasMessage("Pool has already been closed.");
   }
+
+  @Test
+  void lease_emitsJfrEventsWhenEnabled(@TempDir Path tempDir) throws Exception {
+    RandomMultiLeasePool<Object> pool = new RandomMultiLeasePool<>(Object::new, 1, 1, obj -> {});
+    Path recordingFile = tempDir.resolve("lease.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("krystal.LeaseAcquire").withoutThreshold();
+      recording.start();
+      pool.lease();
+      assertThatThrownBy(pool::lease).isInstanceOf(LeaseUnavailableException.class);
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    List<RecordedEvent> events =
+        RecordingFile.readAllEvents(recordingFile).stream()
+            .filter(event -> event.getEventType().getName().equals("krystal.LeaseAcquire"))
+            .toList();
+    assertThat(events).hasSize(2);
+    assertThat(events.get(0).getString("poolType")).isEqualTo("RandomMultiLeasePool");
+    assertThat(events.get(0).getBoolean("objectCreated")).isTrue();
+    assertThat(events.get(1).getBoolean("leaseUnavailable")).isTrue();
+  }
 }
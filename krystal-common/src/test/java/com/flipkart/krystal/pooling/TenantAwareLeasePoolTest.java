@@ -0,0 +1,142 @@
+package com.flipkart.krystal.pooling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TenantAwareLeasePoolTest {
+
+  @Test
+  void lease_singleTenantCanBorrowTheWholePool() throws LeaseUnavailableException {
+    TenantAwareLeasePool<Object> pool = newPool(4).build();
+
+    for (int i = 0; i < 4; i++) {
+      pool.lease("noisy");
+    }
+    assertThatThrownBy(() -> pool.lease("noisy")).isInstanceOf(LeaseUnavailableException.class);
+    TenantLeaseStats stats = pool.tenantStats().get("noisy");
+    assertThat(stats.activeLeases()).isEqualTo(4);
+    assertThat(stats.borrowedLeases()).isEqualTo(0);
+    assertThat(stats.rejectedLeases()).isEqualTo(1);
+  }
+
+  @Test
+  void lease_configuredTenantsKeepTheirFairShareWhenIdle() throws LeaseUnavailableException {
+    TenantAwareLeasePool<Object> pool =
+        newPool(4)
+            .tenantPolicy("noisy", TenantPolicy.DEFAULT)
+            .tenantPolicy("quiet", TenantPolicy.DEFAULT)
+            .build();
+
+    pool.lease("noisy");
+    pool.lease("noisy");
+    assertThatThrownBy(() -> pool.lease("noisy"))
+        .isInstanceOf(LeaseUnavailableException.class)
+        .hasMessageContaining("fair share");
+
+    pool.lease("quiet");
+    pool.lease("quiet");
+    assertThat(pool.tenantStats().get("quiet").activeLeases()).isEqualTo(2);
+  }
+
+  @Test
+  void lease_sharesAreProportionalToWeights() throws LeaseUnavailableException {
+    TenantAwareLeasePool<Object> pool =
+        newPool(4)
+            .tenantPolicy("gold", TenantPolicy.builder().weight(3).build())
+            .tenantPolicy("bronze", TenantPolicy.builder().weight(1).build())
+            .build();
+
+    for (int i = 0; i < 3; i++) {
+      pool.lease("gold");
+    }
+    assertThatThrownBy(() -> pool.lease("gold")).isInstanceOf(LeaseUnavailableException.class);
+    pool.lease("bronze");
+    assertThat(pool.tenantStats().get("gold").fairShare()).isEqualTo(3);
+    assertThat(pool.tenantStats().get("bronze").fairShare()).isEqualTo(1);
+  }
+
+  @Test
+  void lease_newTenantGetsItsShareOfLeasesReturnedByABorrower() throws LeaseUnavailableException {
+    TenantAwareLeasePool<Object> pool = newPool(4).build();
+    List<Lease<Object>> noisyLeases = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      noisyLeases.add(pool.lease("noisy"));
+    }
+    noisyLeases.remove(0).close();
+    noisyLeases.remove(0).close();
+
+    // Both tenants are now sharing the pool, so the noisy tenant, which holds its fair share of 2
+    // leases, cannot take back the released leases.
+    pool.lease("quiet");
+    assertThatThrownBy(() -> pool.lease("noisy")).isInstanceOf(LeaseUnavailableException.class);
+    pool.lease("quiet");
+  }
+
+  @Test
+  void lease_tenantCannotExceedItsMaxLeases() throws LeaseUnavailableException {
+    TenantAwareLeasePool<Object> pool =
+        newPool(4).defaultPolicy(TenantPolicy.builder().maxLeases(1).build()).build();
+
+    Lease<Object> lease = pool.lease("capped");
+    assertThatThrownBy(() -> pool.lease("capped"))
+        .isInstanceOf(LeaseUnavailableException.class)
+        .hasMessageContaining("limit");
+    lease.close();
+    lease.close();
+    pool.lease("capped");
+    assertThat(pool.tenantStats().get("capped").activeLeases()).isEqualTo(1);
+  }
+
+  @Test
+  void release_idleAdHocTenantIsEvictedAndItsShareReturned() throws LeaseUnavailableException {
+    TenantAwareLeasePool<Object> pool =
+        newPool(4).tenantPolicy("configured", TenantPolicy.DEFAULT).build();
+    pool.lease("noisy");
+    Lease<Object> quietLease = pool.lease("quiet");
+    assertThat(pool.tenantStats()).containsOnlyKeys("configured", "noisy", "quiet");
+
+    quietLease.close();
+
+    assertThat(pool.tenantStats()).containsOnlyKeys("configured", "noisy");
+    assertThat(pool.tenantStats().get("noisy").fairShare()).isEqualTo(2);
+    assertThat(pool.tenantStats().get("configured").activeLeases()).isEqualTo(0);
+  }
+
+  @Test
+  void lease_adHocTenantsCannotTakeTheShareOfConfiguredTenants() {
+    TenantAwareLeasePool<Object> pool =
+        newPool(4).tenantPolicy("configured", TenantPolicy.DEFAULT).build();
+
+    // A caller presenting a new tenant id for each request shares the default policy's weight
+    // with the other ad hoc tenants, and cannot lease the configured tenant's share
+    int adHocLeases = 0;
+    for (int i = 0; i < 10; i++) {
+      try {
+        pool.lease("adHoc" + i);
+        adHocLeases++;
+      } catch (LeaseUnavailableException e) {
+        assertThat(e).hasMessageContaining("reserved for other tenants");
+      }
+    }
+    assertThat(adHocLeases).isEqualTo(2);
+    assertThat(pool.tenantStats().get("configured").fairShare()).isEqualTo(2);
+
+    assertThatCode(
+            () -> {
+              pool.lease("configured");
+              pool.lease("configured");
+            })
+        .doesNotThrowAnyException();
+  }
+
+  private static TenantAwareLeasePool.TenantAwareLeasePoolBuilder<Object> newPool(int capacity) {
+    return TenantAwareLeasePool.<Object>builder()
+        .delegate(new RandomMultiLeasePool<>(Object::new, 1, capacity, obj -> {}))
+        .capacity(capacity);
+  }
+}
@@ -1,8 +1,12 @@
 package com.flipkart.krystal.krystex;
 
+import com.flipkart.krystal.config.ConfigListener;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.SnapshotConfigProvider;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonId;
 import com.flipkart.krystal.krystex.kryon.KryonLogicId;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
@@ -19,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -48,8 +53,26 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
   private final Map<String, Map<String, OutputLogicDecorator>> sessionScopedDecorators =
       new LinkedHashMap<>();
 
+  /** Configures the session scoped decorators when they are created */
+  private volatile @Nullable ConfigProvider sessionScopedConfigProvider;
+
+  /**
+   * Session scoped decorators resolved per (kryon, dependantChain). Invalidated whenever a new
+   * session scoped decorator config is registered.
+   */
+  private final Map<KryonId, Map<DependantChain, ImmutableMap<String, OutputLogicDecorator>>>
+      sessionScopedDecoratorsCache = new ConcurrentHashMap<>();
+
   public ImmutableMap<String, OutputLogicDecorator> getSessionScopedLogicDecorators(
       KryonDefinition kryonDefinition, DependantChain dependants) {
+    return sessionScopedDecoratorsCache
+        .computeIfAbsent(kryonDefinition.kryonId(), _k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            dependants, _d -> resolveSessionScopedLogicDecorators(kryonDefinition, dependants));
+  }
+
+  private ImmutableMap<String, OutputLogicDecorator> resolveSessionScopedLogicDecorators(
+      KryonDefinition kryonDefinition, DependantChain dependants) {
     Map<String, OutputLogicDecorator> decorators = new LinkedHashMap<>();
     sessionScopedLogicDecoratorConfigs.forEach(
         (s, decoratorConfig) -> {
@@ -70,11 +93,12 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
                       .computeIfAbsent(
                           instanceId,
                           k ->
-                              decoratorConfig
-                                  .factory()
-                                  .apply(
-                                      new LogicDecoratorContext(
-                                          instanceId, logicExecutionContext))));
+                              bindConfig(
+                                  decoratorConfig
+                                      .factory()
+                                      .apply(
+                                          new LogicDecoratorContext(
+                                              instanceId, logicExecutionContext)))));
             }
           } catch (Exception e) {
             log.error(
@@ -111,5 +135,34 @@ public abstract sealed class OutputLogicDefinition<T> extends LogicDefinition<Ou
 
   public void registerSessionScopedLogicDecorator(OutputLogicDecoratorConfig decoratorConfig) {
     sessionScopedLogicDecoratorConfigs.put(decoratorConfig.decoratorType(), decoratorConfig);
+    sessionScopedDecoratorsCache.clear();
+  }
+
+  /**
+   * Registers a session scoped decorator config whose decorators are configured by the given
+   * config provider. If the provider is a {@link SnapshotConfigProvider}, the decorators are also
+   * reconfigured whenever the configs they are {@linkplain ConfigListener#isInterestedIn
+   * interested in} change.
+   */
+  public void registerSessionScopedLogicDecorator(
+      OutputLogicDecoratorConfig decoratorConfig, @Nullable ConfigProvider configProvider) {
+    if (configProvider != null) {
+      this.sessionScopedConfigProvider = configProvider;
+    }
+    registerSessionScopedLogicDecorator(decoratorConfig);
+  }
+
+  /**
+   * Session scoped decorators outlive the executors which use them, so they are registered for
+   * config updates once, when they are created.
+   */
+  private OutputLogicDecorator bindConfig(OutputLogicDecorator decorator) {
+    ConfigProvider configProvider = sessionScopedConfigProvider;
+    if (configProvider instanceof SnapshotConfigProvider snapshotConfigProvider) {
+      snapshotConfigProvider.register(decorator);
+    } else if (configProvider != null) {
+      decorator.onConfigUpdate(configProvider);
+    }
+    return decorator;
   }
 }
@@ -0,0 +1,37 @@
+package com.flipkart.krystal.krystex.commands;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import java.util.Set;
+
+/**
+ * Delivers some of the results of an incremental fan-out dependency to the dependant kryon before
+ * all the results of the dependency are available. The complete results are delivered later via a
+ * {@link CallbackBatch} as usual.
+ *
+ * @param dependencyName The incremental dependency
+ * @param requestId The request of the dependant kryon to which the results belong
+ * @param results The results which have become available
+ */
+public record PartialCallbackBatch(
+    KryonId kryonId,
+    String dependencyName,
+    RequestId requestId,
+    ImmutableMap<Facets, Errable<Object>> results,
+    DependantChain dependantChain)
+    implements BatchCommand {
+
+  @Override
+  public Set<RequestId> requestIds() {
+    return Set.of(requestId);
+  }
+
+  @Override
+  public Set<String> inputNames() {
+    return Set.of();
+  }
+}
@@ -0,0 +1,36 @@
+package com.flipkart.krystal.krystex.commands;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableMap;
+import java.util.Set;
+
+/**
+ * Delivers the results of the dependency executions triggered by one window of a streaming
+ * dependency value back to the dependant kryon.
+ *
+ * @param dependencyName The dependency which was resolved from the stream
+ * @param requestId The request of the dependant kryon to which the stream belongs
+ * @param results The results of the dependency for the elements of the window
+ */
+public record StreamResultsBatch(
+    KryonId kryonId,
+    String dependencyName,
+    RequestId requestId,
+    ImmutableMap<Facets, Errable<Object>> results,
+    DependantChain dependantChain)
+    implements BatchCommand {
+
+  @Override
+  public Set<RequestId> requestIds() {
+    return Set.of(requestId);
+  }
+
+  @Override
+  public Set<String> inputNames() {
+    return Set.of();
+  }
+}
@@ -0,0 +1,41 @@
+package com.flipkart.krystal.krystex.commands;
+
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Delivers the next window of elements of a streaming dependency value to the dependant kryon so
+ * that the dependency {@code dependencyName}, whose resolvers are bound to the stream, can be
+ * resolved and executed for these elements.
+ *
+ * @param dependencyName The dependency being resolved from the stream
+ * @param requestId The request of the dependant kryon to which the stream belongs
+ * @param elements The elements in this window
+ * @param completed true if the stream has completed (successfully or otherwise) and no more
+ *     windows will be delivered
+ * @param error The error with which the stream terminated, if any
+ */
+public record StreamWindowBatch(
+    KryonId kryonId,
+    String dependencyName,
+    RequestId requestId,
+    ImmutableList<Object> elements,
+    boolean completed,
+    Optional<Throwable> error,
+    DependantChain dependantChain)
+    implements BatchCommand {
+
+  @Override
+  public Set<RequestId> requestIds() {
+    return Set.of(requestId);
+  }
+
+  @Override
+  public Set<String> inputNames() {
+    return Set.of();
+  }
+}
@@ -0,0 +1,31 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A batch of requests dispatched by an input batcher to the output logic of a kryon - from the
+ * moment of dispatch until the responses of all the requests in the batch are available.
+ */
+@Name("krystal.InputBatchDispatch")
+@Label("Input Batch Dispatch")
+@Category({"Krystal", "Batching"})
+@Description("A batch of requests dispatched by an input batcher")
+@Enabled(false)
+@StackTrace(false)
+public final class InputBatchDispatchEvent extends Event {
+
+  @Label("Kryon Id")
+  public String kryonId = "";
+
+  @Label("Batcher Id")
+  public String batcherId = "";
+
+  @Label("Batch Size")
+  public int batchSize;
+}
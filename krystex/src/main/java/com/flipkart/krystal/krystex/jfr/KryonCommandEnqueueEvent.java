@@ -0,0 +1,31 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The time a kryon command spent in the command queue of a kryon executor - from the moment it was
+ * enqueued until the executor thread picked it up.
+ */
+@Name("krystal.KryonCommandEnqueue")
+@Label("Kryon Command Enqueue")
+@Category({"Krystal", "Kryon"})
+@Description("A kryon command waiting in the command queue of a kryon executor")
+@Enabled(false)
+@StackTrace(false)
+public final class KryonCommandEnqueueEvent extends Event {
+
+  @Label("Kryon Id")
+  public String kryonId = "";
+
+  @Label("Dependant Chain")
+  public String dependantChain = "";
+
+  @Label("Command Type")
+  public String commandType = "";
+}
@@ -0,0 +1,31 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The synchronous execution of a kryon command by a kryon executor. Asynchronous work triggered by
+ * the command (like IO calls) is not included.
+ */
+@Name("krystal.KryonCommandExecute")
+@Label("Kryon Command Execute")
+@Category({"Krystal", "Kryon"})
+@Description("A kryon command being executed by a kryon executor")
+@Enabled(false)
+@StackTrace(false)
+public final class KryonCommandExecuteEvent extends Event {
+
+  @Label("Kryon Id")
+  public String kryonId = "";
+
+  @Label("Dependant Chain")
+  public String dependantChain = "";
+
+  @Label("Command Type")
+  public String commandType = "";
+}
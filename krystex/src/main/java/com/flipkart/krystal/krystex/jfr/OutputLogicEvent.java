@@ -0,0 +1,35 @@
+package com.flipkart.krystal.krystex.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The execution of the output logic of a kryon for a batch of requests - from the moment the
+ * decorated output logic is invoked until the results of all the requests are available. This
+ * includes the time taken by the output logic decorators and any IO performed by the logic.
+ */
+@Name("krystal.OutputLogic")
+@Label("Output Logic")
+@Category({"Krystal", "Kryon"})
+@Description("The output logic of a kryon executing a batch of requests")
+@Enabled(false)
+@StackTrace(false)
+public final class OutputLogicEvent extends Event {
+
+  @Label("Kryon Id")
+  public String kryonId = "";
+
+  @Label("Dependant Chain")
+  public String dependantChain = "";
+
+  @Label("Batch Size")
+  public int batchSize;
+
+  @Label("Failed Requests")
+  public int failedRequests;
+}
@@ -17,6 +17,16 @@ public abstract sealed class AbstractDependantChain implements DependantChain
     return dependenciesInternPool
         .computeIfAbsent(kryonId, _n -> new ConcurrentHashMap<>())
         .computeIfAbsent(
-            dependencyName, depName -> new DefaultDependantChain(kryonId, depName, this));
+            dependencyName, depName -> new DefaultDependantChain(kryonId, depName, this, null));
+  }
+
+  @Override
+  public DependantChain extendStreamWindow(
+      KryonId kryonId, String dependencyName, int windowIndex) {
+    return dependenciesInternPool
+        .computeIfAbsent(kryonId, _n -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            "%s[window %s]".formatted(dependencyName, windowIndex),
+            depName -> new DefaultDependantChain(kryonId, depName, this, dependencyName));
   }
 }
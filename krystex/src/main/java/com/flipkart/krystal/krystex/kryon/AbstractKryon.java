@@ -1,5 +1,9 @@
 package com.flipkart.krystal.krystex.kryon;
 
+import static com.flipkart.krystal.krystex.kryon.KryonUtils.isCpuHeavy;
+import static com.flipkart.krystal.krystex.kryon.KryonUtils.offloadedOutputLogic;
+
+import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.commands.KryonCommand;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
@@ -7,6 +11,7 @@ import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
 import com.flipkart.krystal.krystex.request.RequestIdGenerator;
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NavigableSet;
@@ -28,6 +33,14 @@ abstract sealed class AbstractKryon<C extends KryonCommand, R extends KryonRespo
 
   protected final RequestIdGenerator requestIdGenerator;
 
+  /** Sorted output logic decorators resolved once per dependantChain. */
+  private final Map<DependantChain, NavigableSet<OutputLogicDecorator>> sortedDecorators =
+      new LinkedHashMap<>();
+
+  /** The output logic composed with all its decorators, once per dependantChain. */
+  private final Map<DependantChain, OutputLogic<Object>> decoratedOutputLogics =
+      new LinkedHashMap<>();
+
   AbstractKryon(
       KryonDefinition definition,
       KryonExecutor kryonExecutor,
@@ -44,6 +57,31 @@ abstract sealed class AbstractKryon<C extends KryonCommand, R extends KryonRespo
   }
 
   protected NavigableSet<OutputLogicDecorator> getSortedDecorators(DependantChain dependantChain) {
+    return sortedDecorators.computeIfAbsent(dependantChain, this::resolveSortedDecorators);
+  }
+
+  protected OutputLogic<Object> getDecoratedOutputLogic(DependantChain dependantChain) {
+    return decoratedOutputLogics.computeIfAbsent(
+        dependantChain,
+        _d -> {
+          OutputLogicDefinition<Object> outputLogicDefinition =
+              kryonDefinition.getOutputLogicDefinition();
+          OutputLogic<Object> logic;
+          if (isCpuHeavy(outputLogicDefinition)) {
+            logic =
+                offloadedOutputLogic(outputLogicDefinition, kryonExecutor.cpuHeavyLogicExecutor());
+          } else {
+            logic = outputLogicDefinition::execute;
+          }
+          for (OutputLogicDecorator outputLogicDecorator : getSortedDecorators(dependantChain)) {
+            logic = outputLogicDecorator.decorateLogic(logic, outputLogicDefinition);
+          }
+          return logic;
+        });
+  }
+
+  private NavigableSet<OutputLogicDecorator> resolveSortedDecorators(
+      DependantChain dependantChain) {
     OutputLogicDefinition<Object> outputLogicDefinition =
         kryonDefinition.getOutputLogicDefinition();
     Map<String, OutputLogicDecorator> decorators =
@@ -65,7 +103,7 @@ abstract sealed class AbstractKryon<C extends KryonCommand, R extends KryonRespo
                 // Reverse the ordering so that the ones with the highest index are applied first.
                 .reversed());
     sortedDecorators.addAll(decorators.values());
-    return sortedDecorators;
+    return Collections.unmodifiableNavigableSet(sortedDecorators);
   }
 
   @Override
@@ -3,6 +3,7 @@ package com.flipkart.krystal.krystex.kryon;
 import static com.flipkart.krystal.concurrent.Futures.linkFutures;
 import static com.flipkart.krystal.data.Errable.empty;
 import static com.flipkart.krystal.data.Errable.withError;
+import static com.flipkart.krystal.data.Errable.withValue;
 import static com.flipkart.krystal.krystex.kryon.KryonUtils.enqueueOrExecuteCommand;
 import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
 import static com.flipkart.krystal.krystex.resolution.ResolverCommand.skip;
@@ -15,18 +16,23 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
+import com.flipkart.krystal.annos.IncrementalDependencies;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.data.StreamWindow;
 import com.flipkart.krystal.except.SkippedExecutionException;
 import com.flipkart.krystal.krystex.LogicDefinition;
 import com.flipkart.krystal.krystex.OutputLogic;
-import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.commands.BatchCommand;
 import com.flipkart.krystal.krystex.commands.CallbackBatch;
 import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.PartialCallbackBatch;
+import com.flipkart.krystal.krystex.commands.StreamResultsBatch;
+import com.flipkart.krystal.krystex.commands.StreamWindowBatch;
+import com.flipkart.krystal.krystex.jfr.OutputLogicEvent;
 import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
 import com.flipkart.krystal.krystex.logicdecoration.LogicDecorationOrdering;
 import com.flipkart.krystal.krystex.logicdecoration.LogicExecutionContext;
@@ -49,19 +55,23 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow.Publisher;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import jdk.jfr.EventType;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 @Slf4j
 final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
 
+  private static final EventType OUTPUT_LOGIC_EVENT =
+      EventType.getEventType(OutputLogicEvent.class);
+
   private final Map<DependantChain, Set<String>> availableInputsByDepChain = new LinkedHashMap<>();
 
   private final Map<DependantChain, ForwardBatch> inputsValueCollector = new LinkedHashMap<>();
@@ -81,6 +91,13 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
   private final Set<DependantChain> flushedDependantChain = new LinkedHashSet<>();
   private final Map<DependantChain, Boolean> outputLogicExecuted = new LinkedHashMap<>();
 
+  /** Dependencies which are being resolved from streaming dependency values. */
+  private final Map<DependantChain, Map<String, StreamedDependency>> streamedDependencies =
+      new LinkedHashMap<>();
+
+  /** Incremental dependencies whose partial results have started arriving. */
+  private final Map<DependantChain, Set<String>> partialResultsReceived = new LinkedHashMap<>();
+
   BatchKryon(
       KryonDefinition kryonDefinition,
       KryonExecutor kryonExecutor,
@@ -140,6 +157,16 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
                   });
         }
         collectDependencyValues(callbackBatch);
+        completeIncrementalStreams(callbackBatch);
+      } else if (kryonCommand instanceof StreamWindowBatch streamWindowBatch) {
+        handleStreamWindow(streamWindowBatch);
+        return resultForDepChain;
+      } else if (kryonCommand instanceof StreamResultsBatch streamResultsBatch) {
+        handleStreamResults(streamResultsBatch);
+        return resultForDepChain;
+      } else if (kryonCommand instanceof PartialCallbackBatch partialCallbackBatch) {
+        handlePartialCallback(partialCallbackBatch);
+        return resultForDepChain;
       }
       triggerDependencies(
           dependantChain, getTriggerableDependencies(dependantChain, kryonCommand.inputNames()));
@@ -191,6 +218,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
 
   private void triggerDependencies(
       DependantChain dependantChain, Map<String, Set<ResolverDefinition>> triggerableDependencies) {
+    triggerableDependencies = triggerStreamedDependencies(dependantChain, triggerableDependencies);
     ForwardBatch forwardBatch = getForwardCommand(dependantChain);
     if (log.isDebugEnabled()) {
       log.debug(
@@ -200,15 +228,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
           kryonId,
           forwardBatch.dependantChain());
     }
-    Optional<MultiResolverDefinition> multiResolverOpt =
-        kryonDefinition
-            .multiResolverLogicId()
-            .map(
-                kryonLogicId ->
-                    kryonDefinition
-                        .kryonDefinitionRegistry()
-                        .logicDefinitionRegistry()
-                        .getMultiResolver(kryonLogicId));
+    Optional<MultiResolverDefinition> multiResolverOpt = getMultiResolver();
     ImmutableMap<RequestId, String> skippedRequests = forwardBatch.skippedRequests();
     ImmutableSet<RequestId> executableRequests = forwardBatch.executableRequests().keySet();
     Map<String, Map<Set<RequestId>, ResolverCommand>> commandsByDependency = new LinkedHashMap<>();
@@ -273,6 +293,17 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     }
   }
 
+  private Optional<MultiResolverDefinition> getMultiResolver() {
+    return kryonDefinition
+        .multiResolverLogicId()
+        .map(
+            kryonLogicId ->
+                kryonDefinition
+                    .kryonDefinitionRegistry()
+                    .logicDefinitionRegistry()
+                    .getMultiResolver(kryonLogicId));
+  }
+
   private ForwardBatch getForwardCommand(DependantChain dependantChain) {
     ForwardBatch forwardBatch = inputsValueCollector.get(dependantChain);
     if (forwardBatch == null) {
@@ -289,15 +320,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     if (executedDependencies.getOrDefault(dependantChain, Set.of()).contains(depName)) {
       return;
     }
-    KryonId depKryonId = kryonDefinition.dependencyKryons().get(depName);
-    if (depKryonId == null) {
-      throw new AssertionError(
-          """
-          Could not find kryon mapped to dependency name %s in kryon %s.
-          This should not happen and is mostly a bug in the framework.
-          """
-              .formatted(depName, kryonId));
-    }
+    KryonId depKryonId = getDepKryonId(depName);
     Map<RequestId, Facets> inputsByDepReq = new LinkedHashMap<>();
     Map<RequestId, String> skipReasonsByReq = new LinkedHashMap<>();
     Map<RequestId, Set<RequestId>> depReqsByIncomingReq = new LinkedHashMap<>();
@@ -339,6 +362,9 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
       }
     }
     executedDependencies.computeIfAbsent(dependantChain, _k -> new LinkedHashSet<>()).add(depName);
+    if (isIncremental(depName)) {
+      registerPartialResultsListener(depName, dependantChain, inputsByDepReq, depReqsByIncomingReq);
+    }
     if (log.isDebugEnabled()) {
       skipReasonsByReq.forEach(
           (execId, reason) -> {
@@ -354,10 +380,7 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
         kryonExecutor.executeCommand(
             new ForwardBatch(
                 depKryonId,
-                resolverDefinitions.stream()
-                    .map(ResolverDefinition::resolvedInputNames)
-                    .flatMap(Collection::stream)
-                    .collect(toImmutableSet()),
+                getResolvedInputNames(resolverDefinitions),
                 ImmutableMap.copyOf(inputsByDepReq),
                 dependantChain.extend(kryonId, depName),
                 ImmutableMap.copyOf(skipReasonsByReq)));
@@ -420,6 +443,514 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     flushDependencyIfNeeded(depName, dependantChain);
   }
 
+  private KryonId getDepKryonId(String depName) {
+    KryonId depKryonId = kryonDefinition.dependencyKryons().get(depName);
+    if (depKryonId == null) {
+      throw new AssertionError(
+          """
+          Could not find kryon mapped to dependency name %s in kryon %s.
+          This should not happen and is mostly a bug in the framework.
+          """
+              .formatted(depName, kryonId));
+    }
+    return depKryonId;
+  }
+
+  private static ImmutableSet<String> getResolvedInputNames(
+      Set<ResolverDefinition> resolverDefinitions) {
+    return resolverDefinitions.stream()
+        .map(ResolverDefinition::resolvedInputNames)
+        .flatMap(Collection::stream)
+        .collect(toImmutableSet());
+  }
+
+  private static Set<String> getBoundFrom(Set<ResolverDefinition> resolverDefinitions) {
+    return resolverDefinitions.stream()
+        .map(ResolverDefinition::boundFrom)
+        .flatMap(Collection::stream)
+        .collect(toSet());
+  }
+
+  /**
+   * Triggers the dependencies whose resolvers are bound to a dependency whose value is being
+   * streamed (i.e. is a {@link Publisher}). Such dependencies are resolved and executed window by
+   * window as the elements of the stream arrive, instead of waiting for the stream to complete.
+   *
+   * @return the triggerable dependencies which are not resolved from a stream
+   */
+  private Map<String, Set<ResolverDefinition>> triggerStreamedDependencies(
+      DependantChain dependantChain, Map<String, Set<ResolverDefinition>> triggerableDependencies) {
+    Map<String, CallbackBatch> depValues =
+        dependencyValuesCollector.getOrDefault(dependantChain, Map.of());
+    if (depValues.isEmpty()) {
+      return triggerableDependencies;
+    }
+    Map<String, Set<ResolverDefinition>> remaining = new LinkedHashMap<>();
+    triggerableDependencies.forEach(
+        (depName, resolverDefinitions) -> {
+          Optional<String> streamingDependency =
+              getBoundFrom(resolverDefinitions).stream()
+                  .filter(
+                      boundFrom ->
+                          Optional.ofNullable(depValues.get(boundFrom))
+                              .map(
+                                  callbackBatch ->
+                                      callbackBatch.resultsByRequest().values().stream()
+                                          .anyMatch(results -> getPublisher(results).isPresent()))
+                              .orElse(false))
+                  .findFirst();
+          if (streamingDependency.isPresent()) {
+            triggerStreamedDependency(
+                depName, streamingDependency.get(), dependantChain, resolverDefinitions);
+          } else {
+            remaining.put(depName, resolverDefinitions);
+          }
+        });
+    return remaining;
+  }
+
+  private static Optional<Publisher<?>> getPublisher(Results<Object> results) {
+    return results.values().values().stream()
+        .map(Errable::value)
+        .flatMap(Optional::stream)
+        .filter(value -> value instanceof Publisher<?>)
+        .<Publisher<?>>map(value -> (Publisher<?>) value)
+        .findFirst();
+  }
+
+  private void triggerStreamedDependency(
+      String depName,
+      String streamingDependency,
+      DependantChain dependantChain,
+      Set<ResolverDefinition> resolverDefinitions) {
+    if (executedDependencies.getOrDefault(dependantChain, Set.of()).contains(depName)) {
+      return;
+    }
+    StreamedDependency streamedDependency =
+        newStreamedDependency(depName, streamingDependency, dependantChain, resolverDefinitions);
+    for (RequestId requestId : getForwardCommand(dependantChain).executableRequests().keySet()) {
+      streamedDependency.registerRequest(requestId);
+      Facets facets = getInputsFor(dependantChain, requestId, getBoundFrom(resolverDefinitions));
+      Optional<Publisher<?>> publisher = getPublisher(facets.getDepValue(streamingDependency));
+      if (publisher.isPresent()) {
+        publisher
+            .get()
+            .subscribe(
+                streamedDependency.newSubscriber(
+                    requestId,
+                    kryonExecutor.streamWindowSize(),
+                    (streamRequestId, elements, completed, error) ->
+                        // Streams can emit in any thread
+                        kryonExecutor.enqueueKryonCommand(
+                            () ->
+                                new StreamWindowBatch(
+                                    kryonId,
+                                    depName,
+                                    streamRequestId,
+                                    elements,
+                                    completed,
+                                    error,
+                                    dependantChain))));
+      } else {
+        // The value for this request is not a stream. Resolve it as is.
+        resolveStreamWindow(streamedDependency, dependantChain, requestId, facets);
+      }
+    }
+    streamedDependency.markAllRequestsRegistered();
+    sendStreamResultsIfComplete(streamedDependency, dependantChain);
+  }
+
+  private StreamedDependency newStreamedDependency(
+      String depName,
+      String streamingDependency,
+      DependantChain dependantChain,
+      Set<ResolverDefinition> resolverDefinitions) {
+    executedDependencies.computeIfAbsent(dependantChain, _k -> new LinkedHashSet<>()).add(depName);
+    StreamedDependency streamedDependency =
+        new StreamedDependency(
+            depName, streamingDependency, ImmutableSet.copyOf(resolverDefinitions));
+    streamedDependencies
+        .computeIfAbsent(dependantChain, _k -> new LinkedHashMap<>())
+        .put(depName, streamedDependency);
+    getForwardCommand(dependantChain)
+        .skippedRequests()
+        .forEach(
+            (requestId, reason) ->
+                streamedDependency.addResults(
+                    requestId,
+                    Map.of(Facets.empty(), withError(new SkippedExecutionException(reason)))));
+    return streamedDependency;
+  }
+
+  private void handleStreamWindow(StreamWindowBatch streamWindowBatch) {
+    DependantChain dependantChain = streamWindowBatch.dependantChain();
+    RequestId requestId = streamWindowBatch.requestId();
+    StreamedDependency streamedDependency =
+        getStreamedDependency(dependantChain, streamWindowBatch.dependencyName());
+    if (!streamedDependency.isStreamOpen(requestId)) {
+      // The stream was cancelled after this window was emitted
+      return;
+    }
+    boolean skipped = false;
+    if (!streamWindowBatch.elements().isEmpty()) {
+      Facets facets =
+          getInputsFor(
+              dependantChain,
+              requestId,
+              getBoundFrom(streamedDependency.resolverDefinitions()));
+      String streamingDependency = streamedDependency.streamingDependency();
+      Facets streamFacets =
+          facets.getDepValue(streamingDependency).values().keySet().stream()
+              .findFirst()
+              .orElse(Facets.empty());
+      Map<String, FacetValue<Object>> windowFacets = new LinkedHashMap<>(facets.values());
+      windowFacets.put(
+          streamingDependency,
+          new Results<>(
+              ImmutableMap.of(
+                  streamFacets,
+                  withValue(
+                      new StreamWindow<>(
+                          streamWindowBatch.elements(),
+                          streamedDependency.nextStreamWindowIndex(requestId))))));
+      skipped =
+          resolveStreamWindow(
+              streamedDependency, dependantChain, requestId, new Facets(windowFacets));
+    }
+    Optional<Throwable> error = streamWindowBatch.error();
+    if (error.isPresent() && !skipped) {
+      streamedDependency.addResults(requestId, Map.of(Facets.empty(), withError(error.get())));
+    }
+    if (skipped) {
+      streamedDependency.cancelStream(requestId);
+    } else if (streamWindowBatch.completed()) {
+      streamedDependency.completeStream(requestId);
+    } else {
+      streamedDependency.requestNextWindow(requestId);
+    }
+    sendStreamResultsIfComplete(streamedDependency, dependantChain);
+  }
+
+  /**
+   * Resolves the streamed dependency for one window of the stream and dispatches the resolved
+   * requests to the dependency kryon in a dependant chain dedicated to this window.
+   *
+   * @return true if the resolver skipped the dependency
+   */
+  private boolean resolveStreamWindow(
+      StreamedDependency streamedDependency,
+      DependantChain dependantChain,
+      RequestId requestId,
+      Facets facets) {
+    String depName = streamedDependency.dependencyName();
+    ResolverCommand resolverCommand =
+        getMultiResolver()
+            .map(LogicDefinition::logic)
+            .map(
+                logic ->
+                    logic
+                        .resolve(
+                            List.of(
+                                new DependencyResolutionRequest(
+                                    depName, streamedDependency.resolverDefinitions())),
+                            facets)
+                        .get(depName))
+            .orElse(null);
+    if (resolverCommand == null) {
+      return false;
+    }
+    if (resolverCommand instanceof SkipDependency skipDependency) {
+      streamedDependency.addResults(
+          requestId,
+          Map.of(
+              Facets.empty(),
+              withError(new SkippedExecutionException(skipDependency.reason()))));
+      return true;
+    }
+    if (resolverCommand.getInputs().isEmpty()) {
+      return false;
+    }
+    Map<RequestId, Facets> inputsByDepReq = new LinkedHashMap<>();
+    for (Facets depFacets : resolverCommand.getInputs()) {
+      int index = streamedDependency.nextSubRequestIndex(requestId);
+      inputsByDepReq.put(
+          requestIdGenerator.newSubRequest(requestId, () -> "%s[%s]".formatted(depName, index)),
+          depFacets);
+    }
+    KryonId depKryonId = getDepKryonId(depName);
+    DependantChain windowChain = streamedDependency.nextWindowChain(dependantChain, kryonId);
+    boolean flushed = flushedDependantChain.contains(dependantChain);
+    streamedDependency.windowDispatched(windowChain, flushed);
+    CompletableFuture<BatchResponse> depResponse =
+        kryonExecutor.executeCommand(
+            new ForwardBatch(
+                depKryonId,
+                getResolvedInputNames(streamedDependency.resolverDefinitions()),
+                ImmutableMap.copyOf(inputsByDepReq),
+                windowChain,
+                ImmutableMap.of()));
+    depResponse.whenComplete(
+        (batchResponse, throwable) -> {
+          Map<Facets, Errable<Object>> results = new LinkedHashMap<>();
+          if (throwable != null) {
+            results.put(Facets.empty(), withError(throwable));
+          } else {
+            inputsByDepReq.forEach(
+                (depReqId, depFacets) ->
+                    results.put(
+                        depFacets, batchResponse.responses().getOrDefault(depReqId, empty())));
+          }
+          enqueueOrExecuteCommand(
+              () ->
+                  new StreamResultsBatch(
+                      kryonId, depName, requestId, ImmutableMap.copyOf(results), dependantChain),
+              depKryonId,
+              kryonDefinition,
+              kryonExecutor);
+        });
+    if (flushed) {
+      kryonExecutor.executeCommand(new Flush(depKryonId, windowChain));
+    }
+    return false;
+  }
+
+  private void handleStreamResults(StreamResultsBatch streamResultsBatch) {
+    StreamedDependency streamedDependency =
+        getStreamedDependency(
+            streamResultsBatch.dependantChain(), streamResultsBatch.dependencyName());
+    streamedDependency.windowCompleted(
+        streamResultsBatch.requestId(), streamResultsBatch.results());
+    sendStreamResultsIfComplete(streamedDependency, streamResultsBatch.dependantChain());
+  }
+
+  /**
+   * Once all the streams have completed and the dependency has responded for all the windows, the
+   * accumulated results are delivered to this kryon like any other dependency's results.
+   */
+  private void sendStreamResultsIfComplete(
+      StreamedDependency streamedDependency, DependantChain dependantChain) {
+    Optional<ImmutableMap<RequestId, Results<Object>>> finalResults =
+        streamedDependency.finalResultsIfComplete();
+    if (finalResults.isEmpty()) {
+      return;
+    }
+    if (!streamedDependency.anyWindowDispatched()) {
+      skipStreamedDependency(streamedDependency, dependantChain);
+    }
+    kryonExecutor.executeCommand(
+        new CallbackBatch(
+            kryonId, streamedDependency.dependencyName(), finalResults.get(), dependantChain));
+  }
+
+  /**
+   * If no window of the stream was dispatched, the dependency has not received any batch for this
+   * dependant chain. It is sent one in which all requests are skipped, and flushed, so that its
+   * decorators (like input batchers) which wait for all its dependant chains to flush are not left
+   * waiting for this one.
+   */
+  private void skipStreamedDependency(
+      StreamedDependency streamedDependency, DependantChain dependantChain) {
+    String depName = streamedDependency.dependencyName();
+    KryonId depKryonId = getDepKryonId(depName);
+    DependantChain depChain = dependantChain.extend(kryonId, depName);
+    String skipReason =
+        "No requests of dependency %s were resolved from %s"
+            .formatted(depName, streamedDependency.streamingDependency());
+    Map<RequestId, String> skipReasonsByReq = new LinkedHashMap<>();
+    for (RequestId requestId : getForwardCommand(dependantChain).requestIds()) {
+      skipReasonsByReq.put(
+          requestIdGenerator.newSubRequest(requestId, () -> "%s[skip]".formatted(depName)),
+          skipReason);
+    }
+    boolean flushed = flushedDependantChain.contains(dependantChain);
+    streamedDependency.skipDispatched(depChain, flushed);
+    kryonExecutor.executeCommand(
+        new ForwardBatch(
+            depKryonId,
+            getResolvedInputNames(streamedDependency.resolverDefinitions()),
+            ImmutableMap.of(),
+            depChain,
+            ImmutableMap.copyOf(skipReasonsByReq)));
+    if (flushed) {
+      kryonExecutor.executeCommand(new Flush(depKryonId, depChain));
+    }
+  }
+
+  private boolean isIncremental(String depName) {
+    return kryonDefinition
+        .tags()
+        .getAnnotationByType(IncrementalDependencies.class)
+        .map(incrementalDependencies -> List.of(incrementalDependencies.value()).contains(depName))
+        .orElse(false);
+  }
+
+  /**
+   * Registers a listener which delivers the result of each request of an incremental dependency
+   * to this kryon as soon as it is available.
+   */
+  private void registerPartialResultsListener(
+      String depName,
+      DependantChain dependantChain,
+      Map<RequestId, Facets> inputsByDepReq,
+      Map<RequestId, Set<RequestId>> depReqsByIncomingReq) {
+    Map<RequestId, RequestId> incomingReqsByDepReq = new LinkedHashMap<>();
+    depReqsByIncomingReq.forEach(
+        (incomingReqId, depReqIds) ->
+            depReqIds.forEach(depReqId -> incomingReqsByDepReq.put(depReqId, incomingReqId)));
+    ImmutableMap<RequestId, RequestId> incomingReqs = ImmutableMap.copyOf(incomingReqsByDepReq);
+    ImmutableMap<RequestId, Facets> depInputs = ImmutableMap.copyOf(inputsByDepReq);
+    kryonExecutor.registerPartialResultsListener(
+        dependantChain.extend(kryonId, depName),
+        (depReqId, result) -> {
+          RequestId incomingReqId = incomingReqs.get(depReqId);
+          Facets depFacets = depInputs.get(depReqId);
+          if (incomingReqId == null || depFacets == null) {
+            return;
+          }
+          // Results can be available in any thread
+          kryonExecutor.enqueueKryonCommand(
+              () ->
+                  new PartialCallbackBatch(
+                      kryonId,
+                      depName,
+                      incomingReqId,
+                      ImmutableMap.of(depFacets, result),
+                      dependantChain));
+        });
+  }
+
+  private void handlePartialCallback(PartialCallbackBatch partialCallbackBatch) {
+    DependantChain dependantChain = partialCallbackBatch.dependantChain();
+    String sourceDependency = partialCallbackBatch.dependencyName();
+    if (dependencyValuesCollector
+        .getOrDefault(dependantChain, Map.of())
+        .containsKey(sourceDependency)) {
+      // The complete results have already been received and resolved
+      return;
+    }
+    if (partialResultsReceived
+        .computeIfAbsent(dependantChain, _k -> new LinkedHashSet<>())
+        .add(sourceDependency)) {
+      startIncrementalResolution(sourceDependency, dependantChain);
+    }
+    for (StreamedDependency streamedDependency :
+        getDependenciesStreamedFrom(sourceDependency, dependantChain)) {
+      resolvePartialResults(
+          streamedDependency,
+          dependantChain,
+          partialCallbackBatch.requestId(),
+          partialCallbackBatch.results());
+      sendStreamResultsIfComplete(streamedDependency, dependantChain);
+    }
+  }
+
+  /**
+   * Starts resolving the dependencies whose resolvers are bound to the given incremental
+   * dependency from its partial results. Only those dependencies all of whose other bound facets
+   * are already available are resolved incrementally. The others are triggered as usual once the
+   * complete results are available.
+   */
+  private void startIncrementalResolution(String sourceDependency, DependantChain dependantChain) {
+    Set<String> availableInputs = availableInputsByDepChain.getOrDefault(dependantChain, Set.of());
+    Set<String> executedDeps = executedDependencies.getOrDefault(dependantChain, Set.of());
+    Map<String, Set<ResolverDefinition>> incrementallyResolvable = new LinkedHashMap<>();
+    kryonDefinition
+        .resolverDefinitionsByDependencies()
+        .forEach(
+            (depName, resolverDefinitions) -> {
+              Set<String> boundFrom = getBoundFrom(resolverDefinitions);
+              if (!executedDeps.contains(depName)
+                  && boundFrom.contains(sourceDependency)
+                  && boundFrom.stream()
+                      .allMatch(
+                          facet ->
+                              facet.equals(sourceDependency) || availableInputs.contains(facet))) {
+                incrementallyResolvable.put(depName, resolverDefinitions);
+              }
+            });
+    ImmutableSet<RequestId> executableRequests =
+        getForwardCommand(dependantChain).executableRequests().keySet();
+    incrementallyResolvable.forEach(
+        (depName, resolverDefinitions) -> {
+          StreamedDependency streamedDependency =
+              newStreamedDependency(depName, sourceDependency, dependantChain, resolverDefinitions);
+          for (RequestId requestId : executableRequests) {
+            streamedDependency.registerRequest(requestId);
+            streamedDependency.registerStream(requestId);
+          }
+          streamedDependency.markAllRequestsRegistered();
+        });
+  }
+
+  /**
+   * Resolves the dependencies which were being resolved incrementally from the partial results of
+   * the given dependency, for those results which had not yet arrived as partial results.
+   */
+  private void completeIncrementalStreams(CallbackBatch callbackBatch) {
+    DependantChain dependantChain = callbackBatch.dependantChain();
+    String sourceDependency = callbackBatch.dependencyName();
+    if (!partialResultsReceived.getOrDefault(dependantChain, Set.of()).contains(sourceDependency)) {
+      return;
+    }
+    for (StreamedDependency streamedDependency :
+        getDependenciesStreamedFrom(sourceDependency, dependantChain)) {
+      callbackBatch
+          .resultsByRequest()
+          .forEach(
+              (requestId, results) -> {
+                resolvePartialResults(
+                    streamedDependency, dependantChain, requestId, results.values());
+                streamedDependency.completeStream(requestId);
+              });
+      sendStreamResultsIfComplete(streamedDependency, dependantChain);
+    }
+  }
+
+  private void resolvePartialResults(
+      StreamedDependency streamedDependency,
+      DependantChain dependantChain,
+      RequestId requestId,
+      Map<Facets, Errable<Object>> sourceResults) {
+    if (!streamedDependency.isStreamOpen(requestId)) {
+      return;
+    }
+    ImmutableMap<Facets, Errable<Object>> unresolved =
+        streamedDependency.unresolvedSourceResults(requestId, sourceResults);
+    if (unresolved.isEmpty()) {
+      return;
+    }
+    Facets facets =
+        getInputsFor(
+            dependantChain, requestId, getBoundFrom(streamedDependency.resolverDefinitions()));
+    Map<String, FacetValue<Object>> windowFacets = new LinkedHashMap<>(facets.values());
+    windowFacets.put(streamedDependency.streamingDependency(), new Results<>(unresolved));
+    if (resolveStreamWindow(
+        streamedDependency, dependantChain, requestId, new Facets(windowFacets))) {
+      streamedDependency.cancelStream(requestId);
+    }
+  }
+
+  private List<StreamedDependency> getDependenciesStreamedFrom(
+      String sourceDependency, DependantChain dependantChain) {
+    return streamedDependencies.getOrDefault(dependantChain, Map.of()).values().stream()
+        .filter(
+            streamedDependency ->
+                streamedDependency.streamingDependency().equals(sourceDependency))
+        .toList();
+  }
+
+  private StreamedDependency getStreamedDependency(
+      DependantChain dependantChain, String dependencyName) {
+    StreamedDependency streamedDependency =
+        streamedDependencies.getOrDefault(dependantChain, Map.of()).get(dependencyName);
+    if (streamedDependency == null) {
+      throw new AssertionError(
+          "Could not find streamed dependency %s of kryon %s in dependant chain %s. This is a bug."
+              .formatted(dependencyName, kryonId, dependantChain));
+    }
+    return streamedDependency;
+  }
+
   private Optional<CompletableFuture<BatchResponse>> executeOutputLogicIfPossible(
       DependantChain dependantChain) {
 
@@ -445,24 +976,56 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     return Optional.empty();
   }
 
+  private void commitOutputLogicEvent(
+      OutputLogicEvent outputLogicEvent,
+      DependantChain dependantChain,
+      Map<RequestId, CompletableFuture<Errable<Object>>> results) {
+    outputLogicEvent.end();
+    if (outputLogicEvent.shouldCommit()) {
+      outputLogicEvent.kryonId = kryonId.value();
+      outputLogicEvent.dependantChain = dependantChain.toString();
+      outputLogicEvent.batchSize = results.size();
+      outputLogicEvent.failedRequests =
+          (int)
+              results.values().stream()
+                  .filter(result -> result.getNow(empty()).error().isPresent())
+                  .count();
+      outputLogicEvent.commit();
+    }
+  }
+
   private CompletableFuture<BatchResponse> executeOutputLogic(
       Set<RequestId> requestIds, DependantChain dependantChain) {
 
-    OutputLogicDefinition<Object> outputLogicDefinition =
-        kryonDefinition.getOutputLogicDefinition();
-
     Map<RequestId, OutputLogicFacets> outputLogicInputs = new LinkedHashMap<>();
 
     for (RequestId requestId : requestIds) {
       outputLogicInputs.put(requestId, getFacetsForOutputLogic(dependantChain, requestId));
     }
     CompletableFuture<BatchResponse> resultForBatch = new CompletableFuture<>();
+    // Allocated only when a recording has enabled the event
+    @Nullable OutputLogicEvent outputLogicEvent =
+        OUTPUT_LOGIC_EVENT.isEnabled() ? new OutputLogicEvent() : null;
+    if (outputLogicEvent != null) {
+      outputLogicEvent.begin();
+    }
     Map<RequestId, CompletableFuture<Errable<Object>>> results =
-        executeDecoratedOutputLogic(outputLogicDefinition, outputLogicInputs, dependantChain);
+        executeDecoratedOutputLogic(outputLogicInputs, dependantChain);
+    PartialResultsListener partialResultsListener =
+        kryonExecutor.partialResultsListener(dependantChain);
+    if (partialResultsListener != null) {
+      // The dependant wants to receive the results of individual requests as they complete
+      results.forEach(
+          (requestId, result) ->
+              result.thenAccept(errable -> partialResultsListener.onResult(requestId, errable)));
+    }
 
     allOf(results.values().toArray(CompletableFuture[]::new))
         .whenComplete(
             (unused, throwable) -> {
+              if (outputLogicEvent != null) {
+                commitOutputLogicEvent(outputLogicEvent, dependantChain, results);
+              }
               resultForBatch.complete(
                   new BatchResponse(
                       outputLogicInputs.keySet().stream()
@@ -480,16 +1043,8 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
   }
 
   private Map<RequestId, CompletableFuture<Errable<Object>>> executeDecoratedOutputLogic(
-      OutputLogicDefinition<Object> outputLogicDefinition,
-      Map<RequestId, OutputLogicFacets> inputs,
-      DependantChain dependantChain) {
-    NavigableSet<OutputLogicDecorator> sortedDecorators = getSortedDecorators(dependantChain);
-    OutputLogic<Object> logic = outputLogicDefinition::execute;
-
-    for (OutputLogicDecorator outputLogicDecorator : sortedDecorators) {
-      logic = outputLogicDecorator.decorateLogic(logic, outputLogicDefinition);
-    }
-    OutputLogic<Object> finalLogic = logic;
+      Map<RequestId, OutputLogicFacets> inputs, DependantChain dependantChain) {
+    OutputLogic<Object> finalLogic = getDecoratedOutputLogic(dependantChain);
     Map<RequestId, CompletableFuture<Errable<Object>>> resultsByRequest = new LinkedHashMap<>();
     inputs.forEach(
         (requestId, outputLogicFacets) -> {
@@ -520,6 +1075,16 @@ final class BatchKryon extends AbstractKryon<BatchCommand, BatchResponse> {
     if (!flushedDependantChain.contains(dependantChain)) {
       return;
     }
+    StreamedDependency streamedDependency =
+        streamedDependencies.getOrDefault(dependantChain, Map.of()).get(dependencyName);
+    if (streamedDependency != null) {
+      // Streamed dependencies are executed in dedicated dependant chains - one per window
+      KryonId depKryonId = getDepKryonId(dependencyName);
+      for (DependantChain depChain : streamedDependency.drainUnflushedChains()) {
+        kryonExecutor.executeCommand(new Flush(depKryonId, depChain));
+      }
+      return;
+    }
     if (executedDependencies.getOrDefault(dependantChain, Set.of()).contains(dependencyName)) {
       kryonExecutor.executeCommand(
           new Flush(
@@ -6,12 +6,21 @@ public final class DefaultDependantChain extends AbstractDependantChain {
   private final KryonId kryonId;
   private final String dependencyName;
   private final DependantChain dependantChain;
+
+  /** The streamed dependency of which this chain is a window. Null if this is not a window. */
+  private final @Nullable String streamedDependencyName;
+
   private int _hashCodeCache;
 
-  DefaultDependantChain(KryonId kryonId, String dependencyName, DependantChain dependantChain) {
+  DefaultDependantChain(
+      KryonId kryonId,
+      String dependencyName,
+      DependantChain dependantChain,
+      @Nullable String streamedDependencyName) {
     this.kryonId = kryonId;
     this.dependencyName = dependencyName;
     this.dependantChain = dependantChain;
+    this.streamedDependencyName = streamedDependencyName;
   }
 
   public KryonId kryonId() {
@@ -26,6 +35,15 @@ public final class DefaultDependantChain extends AbstractDependantChain {
     return dependantChain;
   }
 
+  @Override
+  public DependantChain withoutStreamWindows() {
+    DependantChain baseChain = dependantChain.withoutStreamWindows();
+    if (streamedDependencyName != null) {
+      return baseChain.extend(kryonId, streamedDependencyName);
+    }
+    return baseChain == dependantChain ? this : baseChain.extend(kryonId, dependencyName);
+  }
+
   @Override
   public boolean equals(@Nullable Object obj) {
     return super.equals(obj);
@@ -3,4 +3,17 @@ package com.flipkart.krystal.krystex.kryon;
 public sealed interface DependantChain permits AbstractDependantChain {
 
   DependantChain extend(KryonId kryonId, String dependencyName);
+
+  /**
+   * Extends this chain with a window of a streamed dependency. Each window of a stream is executed
+   * in its own dependant chain, since a kryon accepts only one batch per dependant chain.
+   */
+  DependantChain extendStreamWindow(KryonId kryonId, String dependencyName, int windowIndex);
+
+  /**
+   * Returns this chain with every window of a streamed dependency replaced by the dependency
+   * itself. Configs like input batchers are keyed by the dependant chains of the graph, which do
+   * not include the windows created at runtime.
+   */
+  DependantChain withoutStreamWindows();
 }
@@ -18,6 +18,11 @@ public final class DependantChainStart extends AbstractDependantChain {
 
   DependantChainStart() {}
 
+  @Override
+  public DependantChain withoutStreamWindows() {
+    return this;
+  }
+
   /**
    * @return A string representation that depicts the beginning of the DependantChain.
    */
@@ -44,7 +44,6 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
@@ -637,13 +636,7 @@ final class GranularKryon extends AbstractKryon<GranularCommand, GranuleResponse
 
   private CompletableFuture<@Nullable Object> executeDecoratedOutputLogic(
       Facets facets, OutputLogicDefinition<Object> outputLogicDefinition, RequestId requestId) {
-    SortedSet<OutputLogicDecorator> sortedDecorators =
-        getSortedDecorators(getDepChainFor(requestId));
-    OutputLogic<Object> logic = outputLogicDefinition::execute;
-
-    for (OutputLogicDecorator outputLogicDecorator : sortedDecorators) {
-      logic = outputLogicDecorator.decorateLogic(logic, outputLogicDefinition);
-    }
+    OutputLogic<Object> logic = getDecoratedOutputLogic(getDepChainFor(requestId));
     return Optional.ofNullable(logic.execute(ImmutableList.of(facets)).get(facets))
         .orElseThrow(
             () ->
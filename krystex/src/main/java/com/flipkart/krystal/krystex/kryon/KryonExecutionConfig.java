@@ -1,12 +1,23 @@
 package com.flipkart.krystal.krystex.kryon;
 
+import static com.flipkart.krystal.tags.ElementTags.emptyTags;
+
+import com.flipkart.krystal.tags.ElementTags;
 import com.google.common.collect.ImmutableSet;
 import java.util.concurrent.atomic.AtomicLong;
 import lombok.Builder;
 
+/**
+ * @param executionId The id of this execution
+ * @param disabledDependantChains Dependant chains which are not to be executed in this execution
+ * @param executionTags Metadata of this execution provided by the caller. Runtime components (like
+ *     admission controllers) can use these tags to alter how this execution is handled.
+ */
 @Builder(toBuilder = true)
 public record KryonExecutionConfig(
-    String executionId, ImmutableSet<DependantChain> disabledDependantChains) {
+    String executionId,
+    ImmutableSet<DependantChain> disabledDependantChains,
+    ElementTags executionTags) {
 
   private static final AtomicLong EXEC_COUNT = new AtomicLong();
 
@@ -17,5 +28,8 @@ public record KryonExecutionConfig(
     if (disabledDependantChains == null) {
       disabledDependantChains = ImmutableSet.of();
     }
+    if (executionTags == null) {
+      executionTags = emptyTags();
+    }
   }
 }
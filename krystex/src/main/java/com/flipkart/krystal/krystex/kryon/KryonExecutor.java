@@ -15,6 +15,8 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 
 import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.SnapshotConfigProvider;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.KrystalExecutor;
@@ -23,6 +25,8 @@ import com.flipkart.krystal.krystex.commands.Flush;
 import com.flipkart.krystal.krystex.commands.ForwardBatch;
 import com.flipkart.krystal.krystex.commands.ForwardGranule;
 import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.jfr.KryonCommandEnqueueEvent;
+import com.flipkart.krystal.krystex.jfr.KryonCommandExecuteEvent;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
@@ -37,6 +41,7 @@ import com.flipkart.krystal.krystex.request.IntReqGenerator;
 import com.flipkart.krystal.krystex.request.RequestId;
 import com.flipkart.krystal.krystex.request.RequestIdGenerator;
 import com.flipkart.krystal.krystex.request.StringReqGenerator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
@@ -48,11 +53,13 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import jdk.jfr.EventType;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -70,6 +77,13 @@ public final class KryonExecutor implements KrystalExecutor {
     BREADTH,
   }
 
+  // The JFR events are allocated only when a recording has enabled them, since commands are
+  // executed on the hot path
+  private static final EventType COMMAND_ENQUEUE_EVENT =
+      EventType.getEventType(KryonCommandEnqueueEvent.class);
+  private static final EventType COMMAND_EXECUTE_EVENT =
+      EventType.getEventType(KryonCommandExecuteEvent.class);
+
   private final KryonDefinitionRegistry kryonDefinitionRegistry;
   private final KryonExecutorConfig executorConfig;
   private final ExecutorService commandQueue;
@@ -100,6 +114,32 @@ public final class KryonExecutor implements KrystalExecutor {
               KryonDecorator>>
       requestScopedKryonDecorators = new LinkedHashMap<>();
 
+  /**
+   * Kryons wrapped with all the request scoped kryon decorators applicable to them. Since the
+   * applicability of a kryon decorator depends only on the kryonId and dependantChain, the
+   * decorator chain is resolved and applied once per (kryon, dependantChain) and then reused for
+   * every subsequent command.
+   */
+  private final Map<KryonId, Map<DependantChain, Kryon<KryonCommand, KryonResponse>>>
+      decoratedKryons = new LinkedHashMap<>();
+
+  /**
+   * Request scoped kryon decorators, in the order in which they decorate the kryon, resolved once
+   * per (kryon, dependantChain).
+   */
+  private final Map<KryonId, Map<DependantChain, ImmutableList<KryonDecorator>>>
+      kryonDecoratorsCache = new LinkedHashMap<>();
+
+  /** Request scoped output logic decorators resolved once per (kryon, dependantChain). */
+  private final Map<
+          KryonId,
+          Map<
+              DependantChain,
+              ImmutableMap<
+                  String, // DecoratorType
+                  OutputLogicDecorator>>>
+      requestScopedDecoratorsCache = new LinkedHashMap<>();
+
   private final KryonRegistry<?> kryonRegistry = new KryonRegistry<>();
   private final KryonExecutorMetrics kryonMetrics;
   private final Map<RequestId, KryonExecution> allExecutions = new LinkedHashMap<>();
@@ -108,6 +148,14 @@ public final class KryonExecutor implements KrystalExecutor {
   private final RequestIdGenerator preferredReqGenerator;
   private final Set<DependantChain> depChainsDisabledInAllExecutions = new LinkedHashSet<>();
 
+  /**
+   * Listeners which are notified of the results of individual requests of a kryon in a dependant
+   * chain as soon as they are available. Registered by dependants which consume their
+   * dependencies' results incrementally. Accessed only from the main thread.
+   */
+  private final Map<DependantChain, PartialResultsListener> partialResultsListeners =
+      new LinkedHashMap<>();
+
   private volatile boolean closed;
   private boolean shutdownRequested;
 
@@ -128,6 +176,15 @@ public final class KryonExecutor implements KrystalExecutor {
 
   private ImmutableMap<String, OutputLogicDecorator> getRequestScopedDecorators(
       LogicExecutionContext logicExecutionContext) {
+    return requestScopedDecoratorsCache
+        .computeIfAbsent(logicExecutionContext.kryonId(), _k -> new LinkedHashMap<>())
+        .computeIfAbsent(
+            logicExecutionContext.dependants(),
+            _d -> resolveRequestScopedDecorators(logicExecutionContext));
+  }
+
+  private ImmutableMap<String, OutputLogicDecorator> resolveRequestScopedDecorators(
+      LogicExecutionContext logicExecutionContext) {
     KryonId kryonId = logicExecutionContext.kryonId();
     KryonDefinition kryonDefinition = kryonDefinitionRegistry.get(kryonId);
     OutputLogicDefinition<?> outputLogicDefinition = kryonDefinition.getOutputLogicDefinition();
@@ -153,11 +210,12 @@ public final class KryonExecutor implements KrystalExecutor {
                           .computeIfAbsent(
                               instanceId,
                               _i ->
-                                  decoratorConfig
-                                      .factory()
-                                      .apply(
-                                          new LogicDecoratorContext(
-                                              instanceId, logicExecutionContext)));
+                                  bindConfig(
+                                      decoratorConfig
+                                          .factory()
+                                          .apply(
+                                              new LogicDecoratorContext(
+                                                  instanceId, logicExecutionContext))));
                   outputLogicDecorator.executeCommand(
                       new InitiateActiveDepChains(
                           kryonId,
@@ -171,6 +229,21 @@ public final class KryonExecutor implements KrystalExecutor {
     return ImmutableMap.copyOf(decorators);
   }
 
+  /**
+   * Provides the configs of the executor to a newly created decorator. Request scoped decorators
+   * live only as long as this executor, so they are not registered for config updates - they are
+   * configured with the latest snapshot of the configs.
+   */
+  private OutputLogicDecorator bindConfig(OutputLogicDecorator decorator) {
+    ConfigProvider configProvider = executorConfig.configProvider();
+    if (configProvider instanceof SnapshotConfigProvider snapshotConfigProvider) {
+      decorator.onConfigUpdate(snapshotConfigProvider.snapshot());
+    } else if (configProvider != null) {
+      decorator.onConfigUpdate(configProvider);
+    }
+    return decorator;
+  }
+
   @Override
   public <T> CompletableFuture<@Nullable T> executeKryon(
       KryonId kryonId, Facets facets, KryonExecutionConfig executionConfig) {
@@ -228,17 +301,50 @@ public final class KryonExecutor implements KrystalExecutor {
     if (!union(executorConfig.disabledDependantChains(), executionConfig.disabledDependantChains())
         .contains(dependantChain)) {
       createKryonIfAbsent(kryonId, kryonDefinition);
-      ImmutableMap<String, KryonId> dependencyKryons = kryonDefinition.dependencyKryons();
-      dependencyKryons.forEach(
-          (dependencyName, depKryonId) ->
-              createDependencyKryons(
-                  depKryonId, dependantChain.extend(kryonId, dependencyName), executionConfig));
-      dependantChainsPerKryon
+      if (executesDependenciesLocally(kryonId, dependantChain)) {
+        ImmutableMap<String, KryonId> dependencyKryons = kryonDefinition.dependencyKryons();
+        dependencyKryons.forEach(
+            (dependencyName, depKryonId) ->
+                createDependencyKryons(
+                    depKryonId, dependantChain.extend(kryonId, dependencyName), executionConfig));
+      }
+      if (dependantChainsPerKryon
           .computeIfAbsent(kryonId, _n -> new LinkedHashSet<>())
-          .add(dependantChain);
+          .add(dependantChain)) {
+        initiateActiveDepChainsOfResolvedDecorators(kryonId);
+      }
     }
   }
 
+  /**
+   * The dependencies of a kryon whose execution is taken over by one of its kryon decorators (for
+   * example, offloaded to another process) are never executed locally at this dependant chain.
+   */
+  private boolean executesDependenciesLocally(KryonId kryonId, DependantChain dependantChain) {
+    return getKryonDecorators(kryonId, dependantChain).stream()
+        .allMatch(KryonDecorator::executesDependenciesLocally);
+  }
+
+  /**
+   * Decorators are resolved once per (kryon, dependantChain) and cached, so decorators which were
+   * resolved before a new dependant chain of the kryon was seen are told about the new chain here.
+   */
+  private void initiateActiveDepChainsOfResolvedDecorators(KryonId kryonId) {
+    Map<DependantChain, ImmutableMap<String, OutputLogicDecorator>> resolvedDecorators =
+        requestScopedDecoratorsCache.get(kryonId);
+    if (resolvedDecorators == null) {
+      return;
+    }
+    InitiateActiveDepChains initiateActiveDepChains =
+        new InitiateActiveDepChains(
+            kryonId,
+            ImmutableSet.copyOf(dependantChainsPerKryon.getOrDefault(kryonId, ImmutableSet.of())));
+    resolvedDecorators.values().stream()
+        .flatMap(decorators -> decorators.values().stream())
+        .distinct()
+        .forEach(decorator -> decorator.executeCommand(initiateActiveDepChains));
+  }
+
   @SuppressWarnings("unchecked")
   private void createKryonIfAbsent(KryonId kryonId, KryonDefinition kryonDefinition) {
     if (isGranular()) {
@@ -277,10 +383,28 @@ public final class KryonExecutor implements KrystalExecutor {
    * when this method is used - ensuring that all further processing of the kryonCammand happens in
    * the main thread.
    */
-  <R extends KryonResponse> CompletableFuture<R> enqueueKryonCommand(
+  public <R extends KryonResponse> CompletableFuture<R> enqueueKryonCommand(
       Supplier<? extends KryonCommand> kryonCommand) {
+    if (!COMMAND_ENQUEUE_EVENT.isEnabled()) {
+      return enqueueCommand(
+              (Supplier<CompletableFuture<R>>) () -> _executeCommand(kryonCommand.get()))
+          .thenCompose(identity());
+    }
+    KryonCommandEnqueueEvent enqueueEvent = new KryonCommandEnqueueEvent();
+    enqueueEvent.begin();
     return enqueueCommand(
-            (Supplier<CompletableFuture<R>>) () -> _executeCommand(kryonCommand.get()))
+            (Supplier<CompletableFuture<R>>)
+                () -> {
+                  KryonCommand command = kryonCommand.get();
+                  enqueueEvent.end();
+                  if (enqueueEvent.shouldCommit()) {
+                    enqueueEvent.kryonId = command.kryonId().value();
+                    enqueueEvent.dependantChain = command.dependantChain().toString();
+                    enqueueEvent.commandType = command.getClass().getSimpleName();
+                    enqueueEvent.commit();
+                  }
+                  return _executeCommand(command);
+                })
         .thenCompose(identity());
   }
 
@@ -311,17 +435,28 @@ public final class KryonExecutor implements KrystalExecutor {
     } catch (Throwable e) {
       return failedFuture(e);
     }
-    KryonId kryonId = kryonCommand.kryonId();
-    @SuppressWarnings("unchecked")
-    Kryon<KryonCommand, R> kryon = (Kryon<KryonCommand, R>) kryonRegistry.get(kryonId);
-    for (KryonDecorator kryonDecorator : getSortedKryonDecorators(kryonId, kryonCommand)) {
-      @SuppressWarnings("unchecked")
-      Kryon<KryonCommand, R> decoratedKryon =
-          (Kryon<KryonCommand, R>)
-              kryonDecorator.decorateKryon(
-                  new KryonDecorationInput((Kryon<KryonCommand, KryonResponse>) kryon, this));
-      kryon = decoratedKryon;
+    if (!COMMAND_EXECUTE_EVENT.isEnabled()) {
+      return executeDecoratedKryon(kryonCommand);
+    }
+    KryonCommandExecuteEvent executeEvent = new KryonCommandExecuteEvent();
+    executeEvent.begin();
+    try {
+      return executeDecoratedKryon(kryonCommand);
+    } finally {
+      executeEvent.end();
+      if (executeEvent.shouldCommit()) {
+        executeEvent.kryonId = kryonCommand.kryonId().value();
+        executeEvent.dependantChain = kryonCommand.dependantChain().toString();
+        executeEvent.commandType = kryonCommand.getClass().getSimpleName();
+        executeEvent.commit();
+      }
     }
+  }
+
+  private <R extends KryonResponse> CompletableFuture<R> executeDecoratedKryon(
+      KryonCommand kryonCommand) {
+    Kryon<KryonCommand, R> kryon =
+        getDecoratedKryon(kryonCommand.kryonId(), kryonCommand.dependantChain());
     if (kryonCommand instanceof Flush flush) {
       kryon.executeCommand(flush);
       @SuppressWarnings("unchecked")
@@ -332,11 +467,38 @@ public final class KryonExecutor implements KrystalExecutor {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private <R extends KryonResponse> Kryon<KryonCommand, R> getDecoratedKryon(
+      KryonId kryonId, DependantChain dependantChain) {
+    return (Kryon<KryonCommand, R>)
+        decoratedKryons
+            .computeIfAbsent(kryonId, _k -> new LinkedHashMap<>())
+            .computeIfAbsent(
+                dependantChain,
+                _d -> {
+                  Kryon<KryonCommand, KryonResponse> kryon =
+                      (Kryon<KryonCommand, KryonResponse>) kryonRegistry.get(kryonId);
+                  for (KryonDecorator kryonDecorator :
+                      getKryonDecorators(kryonId, dependantChain)) {
+                    kryon = kryonDecorator.decorateKryon(new KryonDecorationInput(kryon, this));
+                  }
+                  return kryon;
+                });
+  }
+
+  private ImmutableList<KryonDecorator> getKryonDecorators(
+      KryonId kryonId, DependantChain dependantChain) {
+    return kryonDecoratorsCache
+        .computeIfAbsent(kryonId, _k -> new LinkedHashMap<>())
+        .computeIfAbsent(
+            dependantChain,
+            _d -> ImmutableList.copyOf(getSortedKryonDecorators(kryonId, dependantChain)));
+  }
+
   private TreeSet<KryonDecorator> getSortedKryonDecorators(
-      KryonId kryonId, KryonCommand kryonCommand) {
+      KryonId kryonId, DependantChain dependantChain) {
     Map<String, KryonDecoratorConfig> configs = executorConfig.requestScopedKryonDecoratorConfigs();
-    KryonExecutionContext executionContext =
-        new KryonExecutionContext(kryonId, kryonCommand.dependantChain());
+    KryonExecutionContext executionContext = new KryonExecutionContext(kryonId, dependantChain);
     TreeSet<KryonDecorator> sortedDecorators =
         new TreeSet<>(executorConfig.logicDecorationOrdering().encounterOrder().reversed());
     for (Entry<String, KryonDecoratorConfig> configsByType : configs.entrySet()) {
@@ -485,6 +647,32 @@ public final class KryonExecutor implements KrystalExecutor {
             });
   }
 
+  /**
+   * Returns the executor on whose single thread all the kryons of this executor are executed.
+   * Decorators which complete kryon responses on other threads (for example IO client threads)
+   * must complete them on this executor, since kryon state is not thread-safe.
+   */
+  public Executor commandExecutor() {
+    return commandQueue;
+  }
+
+  Executor cpuHeavyLogicExecutor() {
+    return executorConfig.cpuHeavyLogicExecutor();
+  }
+
+  int streamWindowSize() {
+    return executorConfig.streamWindowSize();
+  }
+
+  void registerPartialResultsListener(
+      DependantChain dependantChain, PartialResultsListener partialResultsListener) {
+    partialResultsListeners.put(dependantChain, partialResultsListener);
+  }
+
+  @Nullable PartialResultsListener partialResultsListener(DependantChain dependantChain) {
+    return partialResultsListeners.get(dependantChain);
+  }
+
   public KryonExecutorMetrics getKryonMetrics() {
     return kryonMetrics;
   }
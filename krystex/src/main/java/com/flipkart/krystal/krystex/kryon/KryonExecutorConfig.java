@@ -3,7 +3,10 @@ package com.flipkart.krystal.krystex.kryon;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy.DEPTH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.BATCH;
 
+import com.flipkart.krystal.annos.CpuHeavy;
 import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.SnapshotConfigProvider;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
@@ -13,10 +16,27 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.ForkJoinPool;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.Singular;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * @param cpuHeavyLogicExecutor The executor on which compute output logics tagged with {@link
+ *     CpuHeavy} are executed. Defaults to {@link ForkJoinPool#commonPool()}.
+ * @param streamWindowSize The maximum number of elements of a streaming dependency value ({@link
+ *     Publisher}) which are buffered and resolved together before being forwarded to the
+ *     dependencies resolved from the stream. Defaults to {@value #DEFAULT_STREAM_WINDOW_SIZE}.
+ * @param configProvider Configures the request scoped output logic decorators created by the
+ *     executor. Since these decorators live only as long as the executor, they are configured once,
+ *     when they are created - if this is a {@link SnapshotConfigProvider}, from its latest
+ *     snapshot. Decorators which must be reconfigured when configs change at runtime, like
+ *     bulkheads and circuit breakers, are session scoped and are bound to the configs of the graph
+ *     instead.
+ */
 public record KryonExecutorConfig(
     LogicDecorationOrdering logicDecorationOrdering,
     Map<String, List<OutputLogicDecoratorConfig>> requestScopedLogicDecoratorConfigs,
@@ -25,8 +45,13 @@ public record KryonExecutorConfig(
     GraphTraversalStrategy graphTraversalStrategy,
     @Singular Map<String, KryonDecoratorConfig> requestScopedKryonDecoratorConfigs,
     @NonNull SingleThreadExecutor singleThreadExecutor,
+    Executor cpuHeavyLogicExecutor,
+    int streamWindowSize,
+    @Nullable ConfigProvider configProvider,
     boolean debug) {
 
+  public static final int DEFAULT_STREAM_WINDOW_SIZE = 64;
+
   @Builder(toBuilder = true)
   public KryonExecutorConfig {
     if (kryonExecStrategy == null) {
@@ -47,5 +72,11 @@ public record KryonExecutorConfig(
     if (requestScopedLogicDecoratorConfigs == null) {
       requestScopedLogicDecoratorConfigs = ImmutableMap.of();
     }
+    if (cpuHeavyLogicExecutor == null) {
+      cpuHeavyLogicExecutor = ForkJoinPool.commonPool();
+    }
+    if (streamWindowSize <= 0) {
+      streamWindowSize = DEFAULT_STREAM_WINDOW_SIZE;
+    }
   }
 }
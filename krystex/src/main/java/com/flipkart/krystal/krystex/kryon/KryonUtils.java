@@ -1,10 +1,23 @@
 package com.flipkart.krystal.krystex.kryon;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.function.Function.identity;
+
+import com.flipkart.krystal.annos.CpuHeavy;
+import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.ComputeLogicDefinition;
 import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class KryonUtils {
 
@@ -18,12 +31,52 @@ public final class KryonUtils {
     if (depOutputLogic instanceof IOLogicDefinition<Object>) {
       kryonExecutor.enqueueKryonCommand(commandGenerator);
     } else if (depOutputLogic instanceof ComputeLogicDefinition<Object>) {
-      kryonExecutor.executeCommand(commandGenerator.get());
+      if (isCpuHeavy(depOutputLogic)) {
+        // The output logic was offloaded to the cpuHeavyLogicExecutor, so we are not in the
+        // executor's thread
+        kryonExecutor.enqueueKryonCommand(commandGenerator);
+      } else {
+        kryonExecutor.executeCommand(commandGenerator.get());
+      }
     } else {
       throw new UnsupportedOperationException(
           "Unknown logicDefinition type %s".formatted(depOutputLogic.getClass()));
     }
   }
 
+  static boolean isCpuHeavy(OutputLogicDefinition<?> outputLogicDefinition) {
+    return outputLogicDefinition instanceof ComputeLogicDefinition<?>
+        && outputLogicDefinition.tags().getAnnotationByType(CpuHeavy.class).isPresent();
+  }
+
+  /**
+   * Returns an output logic which executes the given output logic definition in the provided
+   * executor. Useful for executing CPU heavy computations outside the executor's event loop thread.
+   */
+  static <T> OutputLogic<T> offloadedOutputLogic(
+      OutputLogicDefinition<T> outputLogicDefinition, Executor executor) {
+    return inputs -> {
+      CompletableFuture<ImmutableMap<Facets, CompletableFuture<@Nullable T>>> offloadedResults =
+          supplyAsync(() -> outputLogicDefinition.execute(inputs), executor);
+      return inputs.stream()
+          .distinct()
+          .collect(
+              toImmutableMap(
+                  identity(),
+                  facets ->
+                      offloadedResults.thenCompose(
+                          results ->
+                              Optional.ofNullable(results.get(facets))
+                                  .orElseGet(
+                                      () ->
+                                          failedFuture(
+                                              new IllegalStateException(
+                                                  "Output logic %s did not return a future for inputs %s"
+                                                      .formatted(
+                                                          outputLogicDefinition.kryonLogicId(),
+                                                          facets)))))));
+    };
+  }
+
   private KryonUtils() {}
 }
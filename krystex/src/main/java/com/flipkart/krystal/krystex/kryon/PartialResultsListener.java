@@ -0,0 +1,13 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.krystex.request.RequestId;
+
+/**
+ * Is notified of the result of a single request of a kryon as soon as it is available, without
+ * waiting for the other requests in the same batch. Can be called from any thread.
+ */
+@FunctionalInterface
+interface PartialResultsListener {
+  void onResult(RequestId requestId, Errable<Object> result);
+}
@@ -0,0 +1,306 @@
+package com.flipkart.krystal.krystex.kryon;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.flipkart.krystal.annos.IncrementalDependencies;
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.Results;
+import com.flipkart.krystal.data.StreamWindow;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+/**
+ * The state of a dependency of a {@link BatchKryon} which is being resolved from a streaming
+ * dependency value (see {@link StreamWindow}) or from the partial results of an incremental
+ * dependency (see {@link IncrementalDependencies}), in one dependant chain. All methods except
+ * those of {@link WindowSubscriber} are called only from the executor's main thread.
+ */
+final class StreamedDependency {
+
+  private final String dependencyName;
+  private final String streamingDependency;
+  private final ImmutableSet<ResolverDefinition> resolverDefinitions;
+
+  /** Results of the dependency accumulated across windows, per request of the dependant. */
+  private final Map<RequestId, Map<Facets, Errable<Object>>> results = new LinkedHashMap<>();
+
+  private final Map<RequestId, WindowSubscriber> subscribers = new LinkedHashMap<>();
+  private final Set<RequestId> streams = new LinkedHashSet<>();
+  private final Set<RequestId> completedStreams = new LinkedHashSet<>();
+
+  /** Results of the streaming dependency which have already been resolved, per request. */
+  private final Map<RequestId, Set<Facets>> resolvedSourceResults = new LinkedHashMap<>();
+
+  private final Map<RequestId, Integer> subRequestCounts = new LinkedHashMap<>();
+  private final Map<RequestId, Integer> streamWindowCounts = new LinkedHashMap<>();
+  /** Chains of the dependency which received a batch before the dependant was flushed */
+  private final List<DependantChain> unflushedChains = new ArrayList<>();
+  private int windowCount;
+  private int windowsInFlight;
+  private boolean allRequestsRegistered;
+  private boolean callbackSent;
+
+  StreamedDependency(
+      String dependencyName,
+      String streamingDependency,
+      ImmutableSet<ResolverDefinition> resolverDefinitions) {
+    this.dependencyName = dependencyName;
+    this.streamingDependency = streamingDependency;
+    this.resolverDefinitions = resolverDefinitions;
+  }
+
+  String dependencyName() {
+    return dependencyName;
+  }
+
+  String streamingDependency() {
+    return streamingDependency;
+  }
+
+  ImmutableSet<ResolverDefinition> resolverDefinitions() {
+    return resolverDefinitions;
+  }
+
+  void registerRequest(RequestId requestId) {
+    results.computeIfAbsent(requestId, _r -> new LinkedHashMap<>());
+  }
+
+  /**
+   * Marks that all requests of the dependant chain have been registered. Until then, the results
+   * are not considered complete even if the registered requests have completed.
+   */
+  void markAllRequestsRegistered() {
+    this.allRequestsRegistered = true;
+  }
+
+  WindowSubscriber newSubscriber(
+      RequestId requestId, int windowSize, WindowListener windowListener) {
+    WindowSubscriber subscriber = new WindowSubscriber(requestId, windowSize, windowListener);
+    subscribers.put(requestId, subscriber);
+    streams.add(requestId);
+    return subscriber;
+  }
+
+  /** Registers a stream for the request which is fed by partial results instead of a publisher. */
+  void registerStream(RequestId requestId) {
+    streams.add(requestId);
+  }
+
+  /** Returns true if the stream of the request has been registered and has not completed yet. */
+  boolean isStreamOpen(RequestId requestId) {
+    return streams.contains(requestId) && !completedStreams.contains(requestId);
+  }
+
+  /**
+   * Returns those of the given results of the streaming dependency which have not been resolved
+   * yet, and marks them as resolved.
+   */
+  ImmutableMap<Facets, Errable<Object>> unresolvedSourceResults(
+      RequestId requestId, Map<Facets, Errable<Object>> sourceResults) {
+    Set<Facets> resolved = resolvedSourceResults.computeIfAbsent(requestId, _r -> new HashSet<>());
+    ImmutableMap.Builder<Facets, Errable<Object>> unresolved = ImmutableMap.builder();
+    sourceResults.forEach(
+        (facets, result) -> {
+          if (resolved.add(facets)) {
+            unresolved.put(facets, result);
+          }
+        });
+    return unresolved.build();
+  }
+
+  void requestNextWindow(RequestId requestId) {
+    WindowSubscriber subscriber = subscribers.get(requestId);
+    if (subscriber != null) {
+      subscriber.requestNextWindow();
+    }
+  }
+
+  /** Stops consuming the stream of the given request - for example, when the resolver skips. */
+  void cancelStream(RequestId requestId) {
+    WindowSubscriber subscriber = subscribers.get(requestId);
+    if (subscriber != null) {
+      subscriber.cancel();
+    }
+    completeStream(requestId);
+  }
+
+  void completeStream(RequestId requestId) {
+    completedStreams.add(requestId);
+  }
+
+  /** Returns the number of sub-requests created so far for the given request and increments it. */
+  int nextSubRequestIndex(RequestId requestId) {
+    return subRequestCounts.merge(requestId, 1, Integer::sum) - 1;
+  }
+
+  /** Returns the index of the next window of the stream of the given request and increments it. */
+  int nextStreamWindowIndex(RequestId requestId) {
+    return streamWindowCounts.merge(requestId, 1, Integer::sum) - 1;
+  }
+
+  /** Returns the dependant chain for the next window and increments the window count. */
+  DependantChain nextWindowChain(DependantChain dependantChain, KryonId kryonId) {
+    return dependantChain.extendStreamWindow(kryonId, dependencyName, windowCount++);
+  }
+
+  void windowDispatched(DependantChain windowChain, boolean flushed) {
+    windowsInFlight++;
+    if (!flushed) {
+      unflushedChains.add(windowChain);
+    }
+  }
+
+  /** Returns true if at least one window of the stream has been dispatched to the dependency. */
+  boolean anyWindowDispatched() {
+    return windowCount > 0;
+  }
+
+  /**
+   * Records that the dependency was sent a batch in its own dependant chain, in which all requests
+   * are skipped, because no window of the stream was dispatched to it.
+   */
+  void skipDispatched(DependantChain dependencyChain, boolean flushed) {
+    if (!flushed) {
+      unflushedChains.add(dependencyChain);
+    }
+  }
+
+  /** Returns the chains of the dependency which were dispatched before the dependant flushed. */
+  ImmutableList<DependantChain> drainUnflushedChains() {
+    ImmutableList<DependantChain> chains = ImmutableList.copyOf(unflushedChains);
+    unflushedChains.clear();
+    return chains;
+  }
+
+  void addResults(RequestId requestId, Map<Facets, Errable<Object>> windowResults) {
+    results.computeIfAbsent(requestId, _r -> new LinkedHashMap<>()).putAll(windowResults);
+  }
+
+  void windowCompleted(RequestId requestId, Map<Facets, Errable<Object>> windowResults) {
+    windowsInFlight--;
+    addResults(requestId, windowResults);
+  }
+
+  /**
+   * Returns the accumulated results if all streams have completed and all windows have responded,
+   * and the results have not already been returned. The results of all the windows are held until
+   * then, since they are delivered to the dependant together.
+   */
+  Optional<ImmutableMap<RequestId, Results<Object>>> finalResultsIfComplete() {
+    if (callbackSent
+        || !allRequestsRegistered
+        || windowsInFlight > 0
+        || !completedStreams.containsAll(streams)) {
+      return Optional.empty();
+    }
+    callbackSent = true;
+    ImmutableMap<RequestId, Results<Object>> finalResults =
+        results.entrySet().stream()
+            .collect(
+                toImmutableMap(
+                    Map.Entry::getKey, e -> new Results<>(ImmutableMap.copyOf(e.getValue()))));
+    // The results are owned by the dependant once they are delivered
+    results.clear();
+    resolvedSourceResults.clear();
+    return Optional.of(finalResults);
+  }
+
+  /** Receives the windows of a stream. Can be called from any thread. */
+  @FunctionalInterface
+  interface WindowListener {
+    void onWindow(
+        RequestId requestId,
+        ImmutableList<Object> elements,
+        boolean completed,
+        Optional<Throwable> error);
+  }
+
+  /**
+   * Consumes a stream in windows of at most {@code windowSize} elements. The next window is
+   * requested only after the previous one has been processed by the kryon, so that at most one
+   * window is buffered per stream.
+   */
+  static final class WindowSubscriber implements Subscriber<Object> {
+
+    private final RequestId requestId;
+    private final int windowSize;
+    private final WindowListener windowListener;
+    private @MonotonicNonNull Subscription subscription;
+    private List<Object> buffer = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    private WindowSubscriber(
+        RequestId requestId, int windowSize, WindowListener windowListener) {
+      this.requestId = requestId;
+      this.windowSize = windowSize;
+      this.windowListener = windowListener;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      if (cancelled) {
+        subscription.cancel();
+      } else {
+        subscription.request(windowSize);
+      }
+    }
+
+    @Override
+    public void onNext(Object item) {
+      buffer.add(item);
+      if (buffer.size() >= windowSize) {
+        emit(false, Optional.empty());
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      emit(true, Optional.of(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+      emit(true, Optional.empty());
+    }
+
+    private void emit(boolean completed, Optional<Throwable> error) {
+      if (cancelled) {
+        return;
+      }
+      ImmutableList<Object> elements = ImmutableList.copyOf(buffer);
+      buffer = new ArrayList<>();
+      windowListener.onWindow(requestId, elements, completed, error);
+    }
+
+    private void requestNextWindow() {
+      Subscription subscription = this.subscription;
+      if (subscription != null && !cancelled) {
+        subscription.request(windowSize);
+      }
+    }
+
+    private void cancel() {
+      cancelled = true;
+      Subscription subscription = this.subscription;
+      if (subscription != null) {
+        subscription.cancel();
+      }
+    }
+  }
+}
@@ -13,4 +13,15 @@ import com.flipkart.krystal.krystex.kryon.KryonResponse;
 @FunctionalInterface
 public non-sealed interface KryonDecorator extends Decorator {
   Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput);
+
+  /**
+   * Returns false if the kryons decorated by this decorator do not execute their dependencies in
+   * the local executor - for example because the whole execution of the kryon is offloaded to
+   * another process. The dependant chains through such kryons are then not considered active for
+   * their dependency kryons, so that decorators which wait for all the active dependant chains of a
+   * kryon to be flushed (like input batchers) do not wait for them.
+   */
+  default boolean executesDependenciesLocally() {
+    return true;
+  }
 }
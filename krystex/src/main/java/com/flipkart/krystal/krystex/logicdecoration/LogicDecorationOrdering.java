@@ -39,6 +39,20 @@ public class LogicDecorationOrdering {
         key -> ofNullable(decoratorTypeIndices.get(key.decoratorType())).orElse(Integer.MIN_VALUE));
   }
 
+  /**
+   * Returns an ordering in which the given decorator type decorates the logic after (i.e. inside)
+   * all the decorator types of this ordering.
+   */
+  public LogicDecorationOrdering withInnermost(String decoratorType) {
+    ImmutableSet.Builder<String> orderedDecoratorIds = ImmutableSet.builder();
+    decoratorTypeIndices.entrySet().stream()
+        .sorted(Map.Entry.comparingByValue())
+        .map(Map.Entry::getKey)
+        .filter(id -> !id.equals(decoratorType))
+        .forEach(orderedDecoratorIds::add);
+    return new LogicDecorationOrdering(orderedDecoratorIds.add(decoratorType).build());
+  }
+
   public static LogicDecorationOrdering none() {
     return EMPTY;
   }
@@ -1,14 +1,10 @@
 package com.flipkart.krystal.krystex.logicdecorators.resilience4j;
 
-import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.function.Function.identity;
 
 import com.flipkart.krystal.data.Facets;
-import com.flipkart.krystal.krystex.OutputLogic;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import io.github.resilience4j.decorators.Decorators;
-import io.github.resilience4j.decorators.Decorators.DecorateCompletionStage;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -16,18 +12,6 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 final class R4JUtils {
 
-  @SuppressWarnings("RedundantTypeArguments") // To avoid nullChecker errors
-  static DecorateCompletionStage<ImmutableMap<Facets, CompletableFuture<@Nullable Object>>>
-      decorateAsyncExecute(OutputLogic<Object> logicToDecorate, ImmutableList<Facets> facetsList) {
-    return Decorators.<ImmutableMap<Facets, CompletableFuture<@Nullable Object>>>ofCompletionStage(
-        () -> {
-          var result = logicToDecorate.execute(facetsList);
-          return allOf(result.values().toArray(CompletableFuture[]::new))
-              .<ImmutableMap<Facets, CompletableFuture<@Nullable Object>>>handle(
-                  (unused, throwable) -> result);
-        });
-  }
-
   static ImmutableMap<Facets, CompletableFuture<@Nullable Object>> extractResponseMap(
       ImmutableList<Facets> facetsList,
       CompletionStage<ImmutableMap<Facets, CompletableFuture<@Nullable Object>>>
@@ -33,7 +33,7 @@ public final class Resilience4JBulkhead implements OutputLogicDecorator {
 
   private final String instanceId;
 
-  private @Nullable BulkheadAdapter adaptedBulkhead;
+  private volatile @Nullable BulkheadAdapter adaptedBulkhead;
 
   /**
    * @param instanceId The tag because of which this logic decorator was applied.
@@ -45,13 +45,15 @@ public final class Resilience4JBulkhead implements OutputLogicDecorator {
   @Override
   public OutputLogic<Object> decorateLogic(
       OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
-    BulkheadAdapter bulkhead = this.adaptedBulkhead;
-    if (bulkhead != null) {
-      return inputsList ->
-          extractResponseMap(inputsList, bulkhead.decorate(logicToDecorate, inputsList));
-    } else {
-      return logicToDecorate;
-    }
+    // The bulkhead is read on every call so that config updates apply to already decorated logics
+    return inputsList -> {
+      BulkheadAdapter bulkhead = this.adaptedBulkhead;
+      if (bulkhead != null) {
+        return extractResponseMap(inputsList, bulkhead.decorate(logicToDecorate, inputsList));
+      } else {
+        return logicToDecorate.execute(inputsList);
+      }
+    };
   }
 
   @Override
@@ -59,6 +61,11 @@ public final class Resilience4JBulkhead implements OutputLogicDecorator {
     updateBulkhead(configProvider);
   }
 
+  @Override
+  public boolean isInterestedIn(String configKey) {
+    return configKey.startsWith(getBulkheadId() + ".");
+  }
+
   @Override
   public String getId() {
     return instanceId;
@@ -116,8 +123,8 @@ public final class Resilience4JBulkhead implements OutputLogicDecorator {
   }
 
   private final class BulkheadAdapter {
-    private @Nullable Bulkhead bulkhead;
-    private @Nullable ThreadPoolBulkhead threadPoolBulkhead;
+    private volatile @Nullable Bulkhead bulkhead;
+    private volatile @Nullable ThreadPoolBulkhead threadPoolBulkhead;
 
     private BulkheadAdapter(BulkheadAdapterConfig config) {
       BulkheadConfig bulkheadConfig = config.bulkheadConfig();
@@ -1,47 +1,79 @@
 package com.flipkart.krystal.krystex.logicdecorators.resilience4j;
 
-import static com.flipkart.krystal.krystex.logicdecorators.resilience4j.R4JUtils.decorateAsyncExecute;
-import static com.flipkart.krystal.krystex.logicdecorators.resilience4j.R4JUtils.extractResponseMap;
+import static io.github.resilience4j.circuitbreaker.CallNotPermittedException.createCallNotPermittedException;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.internal.CircuitBreakerStateMachine;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * A circuit breaker which is aware of batching: the outcome of every {@link Facets} in a batch is
+ * recorded individually, and when a circuit is open, only the facets which map to that circuit
+ * are short-circuited (with a {@link
+ * io.github.resilience4j.circuitbreaker.CallNotPermittedException}) while the rest of the batch is
+ * executed.
+ *
+ * <p>The circuit breaker can be partitioned into shards by setting {@code
+ * <instanceId>.circuit_breaker.shards}. Every facets is mapped to a shard by the hash of its shard
+ * key, so that repeated failures of a poisoned key only open the circuit of its shard and do not
+ * cut the throughput of the keys in other shards. The shard key of a facets is the facets itself
+ * unless a shard key extractor is provided.
+ */
 public final class Resilience4JCircuitBreaker implements OutputLogicDecorator {
 
   public static final String DECORATOR_TYPE = Resilience4JCircuitBreaker.class.getName();
 
   private final String instanceId;
+  private final Function<Facets, ?> shardKeyExtractor;
 
-  private @Nullable CircuitBreaker circuitBreaker;
+  private volatile @Nullable CircuitBreakers circuitBreakers;
 
   /**
    * @param instanceId The tag because of which this logic decorator was applied.
    */
   public Resilience4JCircuitBreaker(String instanceId) {
+    this(instanceId, Function.identity());
+  }
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   * @param shardKeyExtractor Extracts the key (for example, the id of the entity being fetched)
+   *     which determines the shard of a facets when the circuit breaker is sharded.
+   */
+  public Resilience4JCircuitBreaker(String instanceId, Function<Facets, ?> shardKeyExtractor) {
     this.instanceId = instanceId;
+    this.shardKeyExtractor = shardKeyExtractor;
   }
 
   @Override
   public OutputLogic<Object> decorateLogic(
       OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
-    CircuitBreaker circuitBreaker = this.circuitBreaker;
-    if (circuitBreaker != null) {
-      return inputsList ->
-          extractResponseMap(
-              inputsList,
-              decorateAsyncExecute(logicToDecorate, inputsList)
-                  .withCircuitBreaker(circuitBreaker)
-                  .get());
-    } else {
-      return logicToDecorate;
-    }
+    // The circuit breakers are read on every call so that config updates apply to already
+    // decorated logics
+    return inputsList -> {
+      CircuitBreakers circuitBreakers = this.circuitBreakers;
+      if (circuitBreakers != null) {
+        return execute(logicToDecorate, inputsList, circuitBreakers);
+      } else {
+        return logicToDecorate.execute(inputsList);
+      }
+    };
   }
 
   @Override
@@ -49,15 +81,94 @@ public final class Resilience4JCircuitBreaker implements OutputLogicDecorator {
     updateCircuitBreaker(configProvider);
   }
 
+  @Override
+  public boolean isInterestedIn(String configKey) {
+    return configKey.startsWith(instanceId + ".circuit_breaker.");
+  }
+
   @Override
   public String getId() {
     return instanceId;
   }
 
+  private ImmutableMap<Facets, CompletableFuture<@Nullable Object>> execute(
+      OutputLogic<Object> logicToDecorate,
+      ImmutableList<Facets> facetsList,
+      CircuitBreakers circuitBreakers) {
+    ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> responses =
+        ImmutableMap.builderWithExpectedSize(facetsList.size());
+    ImmutableList.Builder<Facets> permitted = ImmutableList.builder();
+    ImmutableMap.Builder<Facets, CircuitBreaker> permittedBreakers = ImmutableMap.builder();
+    for (Facets facets : facetsList) {
+      CircuitBreaker circuitBreaker = circuitBreakers.forFacets(facets, shardKeyExtractor);
+      if (circuitBreaker.tryAcquirePermission()) {
+        permitted.add(facets);
+        permittedBreakers.put(facets, circuitBreaker);
+      } else {
+        responses.put(facets, failedFuture(createCallNotPermittedException(circuitBreaker)));
+      }
+    }
+    ImmutableList<Facets> permittedFacets = permitted.build();
+    if (permittedFacets.isEmpty()) {
+      return responses.build();
+    }
+    ImmutableMap<Facets, CircuitBreaker> breakers = permittedBreakers.build();
+    long start = System.nanoTime();
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results;
+    try {
+      results = logicToDecorate.execute(permittedFacets);
+    } catch (Throwable e) {
+      long duration = System.nanoTime() - start;
+      breakers.forEach(
+          (facets, circuitBreaker) -> {
+            circuitBreaker.onError(duration, NANOSECONDS, e);
+            responses.put(facets, failedFuture(e));
+          });
+      return responses.build();
+    }
+    for (Map.Entry<Facets, CompletableFuture<@Nullable Object>> result : results.entrySet()) {
+      CircuitBreaker circuitBreaker = breakers.get(result.getKey());
+      if (circuitBreaker != null) {
+        result
+            .getValue()
+            .whenComplete(
+                (value, error) -> {
+                  long duration = System.nanoTime() - start;
+                  if (error == null) {
+                    circuitBreaker.onSuccess(duration, NANOSECONDS);
+                  } else {
+                    circuitBreaker.onError(duration, NANOSECONDS, error);
+                  }
+                });
+      }
+      responses.put(result.getKey(), result.getValue());
+    }
+    breakers.forEach(
+        (facets, circuitBreaker) -> {
+          if (!results.containsKey(facets)) {
+            // There is no outcome to record, but the permission must be returned - otherwise a
+            // half-open circuit runs out of trial calls and never closes again.
+            circuitBreaker.releasePermission();
+          }
+        });
+    return responses.build();
+  }
+
+  @VisibleForTesting
+  ImmutableList<CircuitBreaker> circuitBreakerShards() {
+    CircuitBreakers circuitBreakers = this.circuitBreakers;
+    return circuitBreakers == null ? ImmutableList.of() : circuitBreakers.shards();
+  }
+
   private void init(ConfigProvider configProvider) {
-    this.circuitBreaker =
+    this.circuitBreakers =
         getCircuitBreakerConfig(configProvider)
-            .map(config -> new CircuitBreakerStateMachine(instanceId + ".circuit_breaker", config))
+            .map(
+                config ->
+                    new CircuitBreakers(
+                        config,
+                        shardCount(configProvider),
+                        instanceId + ".circuit_breaker"))
             .orElse(null);
   }
 
@@ -70,13 +181,52 @@ public final class Resilience4JCircuitBreaker implements OutputLogicDecorator {
     return Optional.of(CircuitBreakerConfig.ofDefaults());
   }
 
+  private int shardCount(ConfigProvider configProvider) {
+    return Math.max(
+        1,
+        configProvider
+            .<Number>getConfig(instanceId + ".circuit_breaker.shards")
+            .map(Number::intValue)
+            .orElse(1));
+  }
+
   private void updateCircuitBreaker(ConfigProvider configProvider) {
-    CircuitBreaker circuitBreaker = this.circuitBreaker;
+    CircuitBreakers circuitBreakers = this.circuitBreakers;
     Optional<CircuitBreakerConfig> newConfig = getCircuitBreakerConfig(configProvider);
-    if (!Optional.ofNullable(circuitBreaker)
-        .map(CircuitBreaker::getCircuitBreakerConfig)
-        .equals(newConfig)) {
+    if (!Optional.ofNullable(circuitBreakers)
+            .map(CircuitBreakers::circuitBreakerConfig)
+            .equals(newConfig)
+        || (circuitBreakers != null
+            && circuitBreakers.shards().size() != shardCount(configProvider))) {
       init(configProvider);
     }
   }
+
+  private record CircuitBreakers(
+      CircuitBreakerConfig circuitBreakerConfig, ImmutableList<CircuitBreaker> shards) {
+
+    private CircuitBreakers(CircuitBreakerConfig config, int shardCount, String name) {
+      this(config, createShards(config, shardCount, name));
+    }
+
+    private static ImmutableList<CircuitBreaker> createShards(
+        CircuitBreakerConfig config, int shardCount, String name) {
+      if (shardCount == 1) {
+        return ImmutableList.of(new CircuitBreakerStateMachine(name, config));
+      }
+      ImmutableList.Builder<CircuitBreaker> shards = ImmutableList.builder();
+      for (int i = 0; i < shardCount; i++) {
+        shards.add(new CircuitBreakerStateMachine(name + ".shard_" + i, config));
+      }
+      return shards.build();
+    }
+
+    private CircuitBreaker forFacets(Facets facets, Function<Facets, ?> shardKeyExtractor) {
+      if (shards.size() == 1) {
+        return shards.get(0);
+      }
+      return shards.get(
+          Math.floorMod(Objects.hashCode(shardKeyExtractor.apply(facets)), shards.size()));
+    }
+  }
 }
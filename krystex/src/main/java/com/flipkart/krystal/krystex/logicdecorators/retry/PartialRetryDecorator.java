@@ -0,0 +1,348 @@
+package com.flipkart.krystal.krystex.logicdecorators.retry;
+
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Retries the failed elements of a batch - and only the failed elements - when a batched output
+ * logic (generally an IO call) fails for some of the facets it was called with.
+ *
+ * <p>Retries are scheduled with exponential backoff and jitter. Failed elements whose retries fall
+ * due within the same jitter window - whether they failed in the same batch or in different
+ * batches - are merged and retried together in one call to the logic. Every retry is charged to a
+ * {@link RetryBudget}, and elements are failed without retry once the budget is exhausted.
+ *
+ * <p>A retry is executed on the {@link ForkJoinPool} (like the {@code SingleThreadExecutor} of a
+ * {@code KryonExecutor}) which executed the batch it retries, so that the retry runs on the same
+ * thread as the rest of the caller's kryons. Retries of batches executed on different pools are
+ * never merged. If the pool has shut down by the time a retry is due, the retry fails with a
+ * {@link RejectedExecutionException}. Batches executed outside a {@link ForkJoinPool} are retried
+ * on a timer thread. Since retries are executed directly, this decorator should be the innermost
+ * decorator of the logic - retries must not go through decorators (like input batchers) which
+ * would hold them back until the next flush.
+ *
+ * <p>This decorator is configured with the following configs:
+ *
+ * <ul>
+ *   <li>{@code <instanceId>.retry.enabled}: Defaults to true
+ *   <li>{@code <instanceId>.retry.max_attempts}: The maximum number of times the logic is called
+ *       for a facets, including the first call. Defaults to {@value #DEFAULT_MAX_ATTEMPTS}
+ *   <li>{@code <instanceId>.retry.initial_backoff_ms}: Defaults to {@value
+ *       #DEFAULT_INITIAL_BACKOFF_MS}
+ *   <li>{@code <instanceId>.retry.max_backoff_ms}: Defaults to {@value #DEFAULT_MAX_BACKOFF_MS}
+ *   <li>{@code <instanceId>.retry.backoff_multiplier}: Defaults to {@value
+ *       #DEFAULT_BACKOFF_MULTIPLIER}
+ *   <li>{@code <instanceId>.retry.jitter}: The fraction by which a backoff is randomly increased or
+ *       decreased. Defaults to {@value #DEFAULT_JITTER}
+ * </ul>
+ */
+public final class PartialRetryDecorator implements OutputLogicDecorator {
+
+  public static final String DECORATOR_TYPE = PartialRetryDecorator.class.getName();
+
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+  public static final long DEFAULT_INITIAL_BACKOFF_MS = 20;
+  public static final long DEFAULT_MAX_BACKOFF_MS = 1000;
+  public static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+  public static final double DEFAULT_JITTER = 0.5;
+
+  /** Executes the retries of batches which were not executed on a {@link ForkJoinPool} */
+  private static final Executor TIMER_THREAD = Runnable::run;
+
+  private static final ScheduledExecutorService RETRY_TIMER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "krystal-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final String instanceId;
+  private final RetryBudget retryBudget;
+  private volatile RetryConfig retryConfig = RetryConfig.DEFAULT;
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   */
+  public PartialRetryDecorator(String instanceId) {
+    this(instanceId, new RetryBudget());
+  }
+
+  /**
+   * @param instanceId The tag because of which this logic decorator was applied.
+   * @param retryBudget The budget to which the retries of this decorator are charged. Can be
+   *     shared with other decorators.
+   */
+  public PartialRetryDecorator(String instanceId, RetryBudget retryBudget) {
+    this.instanceId = instanceId;
+    this.retryBudget = retryBudget;
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    return new RetryingLogic(logicToDecorate);
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {
+    String prefix = configPrefix();
+    this.retryConfig =
+        new RetryConfig(
+            configProvider.<Boolean>getConfig(prefix + "enabled").orElse(true),
+            configProvider
+                .<Number>getConfig(prefix + "max_attempts")
+                .map(Number::intValue)
+                .orElse(DEFAULT_MAX_ATTEMPTS),
+            MILLISECONDS.toNanos(
+                configProvider
+                    .<Number>getConfig(prefix + "initial_backoff_ms")
+                    .map(Number::longValue)
+                    .orElse(DEFAULT_INITIAL_BACKOFF_MS)),
+            MILLISECONDS.toNanos(
+                configProvider
+                    .<Number>getConfig(prefix + "max_backoff_ms")
+                    .map(Number::longValue)
+                    .orElse(DEFAULT_MAX_BACKOFF_MS)),
+            configProvider
+                .<Number>getConfig(prefix + "backoff_multiplier")
+                .map(Number::doubleValue)
+                .orElse(DEFAULT_BACKOFF_MULTIPLIER),
+            configProvider
+                .<Number>getConfig(prefix + "jitter")
+                .map(Number::doubleValue)
+                .orElse(DEFAULT_JITTER));
+  }
+
+  @Override
+  public boolean isInterestedIn(String configKey) {
+    return configKey.startsWith(configPrefix());
+  }
+
+  @Override
+  public String getId() {
+    return instanceId;
+  }
+
+  private String configPrefix() {
+    return instanceId + ".retry.";
+  }
+
+  private static boolean isCancellation(Throwable error) {
+    return error instanceof CancellationException
+        || (error instanceof CompletionException
+            && error.getCause() instanceof CancellationException);
+  }
+
+  private record RetryConfig(
+      boolean enabled,
+      int maxAttempts,
+      long initialBackoffNanos,
+      long maxBackoffNanos,
+      double backoffMultiplier,
+      double jitter) {
+
+    private static final RetryConfig DEFAULT =
+        new RetryConfig(
+            true,
+            DEFAULT_MAX_ATTEMPTS,
+            MILLISECONDS.toNanos(DEFAULT_INITIAL_BACKOFF_MS),
+            MILLISECONDS.toNanos(DEFAULT_MAX_BACKOFF_MS),
+            DEFAULT_BACKOFF_MULTIPLIER,
+            DEFAULT_JITTER);
+
+    /** Returns the backoff before the given retry (1 for the first retry). */
+    private long backoffNanos(int retryNumber) {
+      return (long)
+          Math.min(
+              maxBackoffNanos,
+              initialBackoffNanos * Math.pow(Math.max(1, backoffMultiplier), retryNumber - 1));
+    }
+  }
+
+  /**
+   * @param attempt The number of the attempt in which the facets will be executed next (2 for the
+   *     first retry)
+   * @param dispatcher The executor on which the retry is executed - the pool which executed the
+   *     original batch
+   */
+  private record PendingRetry(
+      Facets facets,
+      int attempt,
+      CompletableFuture<@Nullable Object> response,
+      Executor dispatcher) {}
+
+  private final class RetryingLogic implements OutputLogic<Object> {
+
+    private final OutputLogic<Object> logic;
+
+    /**
+     * Dispatcher -> Due time (System.nanoTime()) -> the retries which will be executed together on
+     * the dispatcher at that time
+     */
+    private final Map<Executor, TreeMap<Long, List<PendingRetry>>> scheduledRetries =
+        new HashMap<>();
+
+    private RetryingLogic(OutputLogic<Object> logic) {
+      this.logic = logic;
+    }
+
+    @Override
+    public ImmutableMap<Facets, CompletableFuture<@Nullable Object>> execute(
+        ImmutableList<Facets> facetsList) {
+      if (!retryConfig.enabled()) {
+        return logic.execute(facetsList);
+      }
+      ForkJoinPool pool = ForkJoinTask.getPool();
+      Executor dispatcher = pool != null ? pool : TIMER_THREAD;
+      retryBudget.onRequests(facetsList.size());
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results = executeSafely(facetsList);
+      ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> responses =
+          ImmutableMap.builderWithExpectedSize(results.size());
+      results.forEach(
+          (facets, result) -> {
+            CompletableFuture<@Nullable Object> response = new CompletableFuture<>();
+            handleResult(facets, 1, result, response, dispatcher);
+            responses.put(facets, response);
+          });
+      return responses.build();
+    }
+
+    private ImmutableMap<Facets, CompletableFuture<@Nullable Object>> executeSafely(
+        ImmutableList<Facets> facetsList) {
+      try {
+        return logic.execute(facetsList);
+      } catch (Throwable e) {
+        ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> failed =
+            ImmutableMap.builderWithExpectedSize(facetsList.size());
+        facetsList.forEach(facets -> failed.put(facets, failedFuture(e)));
+        return failed.build();
+      }
+    }
+
+    private void handleResult(
+        Facets facets,
+        int attempt,
+        CompletableFuture<@Nullable Object> result,
+        CompletableFuture<@Nullable Object> response,
+        Executor dispatcher) {
+      result.whenComplete(
+          (value, error) -> {
+            if (error == null) {
+              response.complete(value);
+              return;
+            }
+            RetryConfig config = retryConfig;
+            if (!config.enabled()
+                || attempt >= config.maxAttempts()
+                || isCancellation(error)
+                || !retryBudget.tryAcquire()) {
+              response.completeExceptionally(error);
+              return;
+            }
+            scheduleRetry(new PendingRetry(facets, attempt + 1, response, dispatcher), config);
+          });
+    }
+
+    private synchronized void scheduleRetry(PendingRetry retry, RetryConfig config) {
+      long now = System.nanoTime();
+      long backoff = config.backoffNanos(retry.attempt() - 1);
+      double jitter = Math.min(1, Math.max(0, config.jitter()));
+      long earliest = now + (long) (backoff * (1 - jitter));
+      long latest = now + (long) (backoff * (1 + jitter));
+      TreeMap<Long, List<PendingRetry>> retriesOfDispatcher =
+          scheduledRetries.computeIfAbsent(retry.dispatcher(), _d -> new TreeMap<>());
+      // Joining a retry scheduled within this retry's jitter window only picks another value
+      // from the same window
+      Entry<Long, List<PendingRetry>> scheduled = retriesOfDispatcher.ceilingEntry(earliest);
+      if (scheduled != null && scheduled.getKey() <= latest) {
+        scheduled.getValue().add(retry);
+        return;
+      }
+      long dueAt =
+          earliest + (long) (ThreadLocalRandom.current().nextDouble() * (latest - earliest));
+      List<PendingRetry> retries = new ArrayList<>();
+      retries.add(retry);
+      retriesOfDispatcher.put(dueAt, retries);
+      Executor dispatcher = retry.dispatcher();
+      RETRY_TIMER.schedule(() -> dispatch(dispatcher, dueAt), dueAt - now, NANOSECONDS);
+    }
+
+    private void dispatch(Executor dispatcher, long dueAt) {
+      try {
+        dispatcher.execute(() -> retry(dispatcher, dueAt));
+      } catch (RejectedExecutionException e) {
+        // The executor has shut down. The retries must not run on the timer thread, as that would
+        // break the thread confinement of the logic.
+        List<PendingRetry> retries = removeScheduledRetries(dispatcher, dueAt);
+        if (retries != null) {
+          retries.forEach(retry -> retry.response().completeExceptionally(e));
+        }
+      }
+    }
+
+    private synchronized @Nullable List<PendingRetry> removeScheduledRetries(
+        Executor dispatcher, long dueAt) {
+      TreeMap<Long, List<PendingRetry>> retriesOfDispatcher = scheduledRetries.get(dispatcher);
+      if (retriesOfDispatcher == null) {
+        return null;
+      }
+      List<PendingRetry> retries = retriesOfDispatcher.remove(dueAt);
+      if (retriesOfDispatcher.isEmpty()) {
+        scheduledRetries.remove(dispatcher);
+      }
+      return retries;
+    }
+
+    private void retry(Executor dispatcher, long dueAt) {
+      List<PendingRetry> retries = removeScheduledRetries(dispatcher, dueAt);
+      if (retries == null) {
+        return;
+      }
+      Map<Facets, List<PendingRetry>> retriesByFacets = new LinkedHashMap<>();
+      for (PendingRetry retry : retries) {
+        retriesByFacets.computeIfAbsent(retry.facets(), _f -> new ArrayList<>()).add(retry);
+      }
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+          executeSafely(ImmutableList.copyOf(retriesByFacets.keySet()));
+      retriesByFacets.forEach(
+          (facets, pendingRetries) -> {
+            CompletableFuture<@Nullable Object> result = results.get(facets);
+            if (result == null) {
+              result = failedFuture(new IllegalStateException("No result for facets " + facets));
+            }
+            for (PendingRetry pendingRetry : pendingRetries) {
+              handleResult(
+                  facets, pendingRetry.attempt(), result, pendingRetry.response(), dispatcher);
+            }
+          });
+    }
+  }
+}
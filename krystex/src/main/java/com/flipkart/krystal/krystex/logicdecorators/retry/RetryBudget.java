@@ -0,0 +1,56 @@
+package com.flipkart.krystal.krystex.logicdecorators.retry;
+
+/**
+ * Limits retries to a fraction of the requests executed, so that retries can never multiply the
+ * load on a struggling downstream.
+ *
+ * <p>This is a token bucket: every request executed for the first time deposits {@code
+ * retryRatio} tokens into the bucket (which holds at most {@code maxTokens} tokens), and every
+ * retry withdraws one token. Retries are denied when the bucket is empty. A budget can be shared
+ * by multiple {@link PartialRetryDecorator}s to enforce a global limit across all of them.
+ */
+public final class RetryBudget {
+
+  public static final double DEFAULT_RETRY_RATIO = 0.1;
+  public static final int DEFAULT_MAX_TOKENS = 100;
+
+  private final double retryRatio;
+  private final double maxTokens;
+  private double tokens;
+
+  public RetryBudget() {
+    this(DEFAULT_RETRY_RATIO, DEFAULT_MAX_TOKENS);
+  }
+
+  /**
+   * @param retryRatio The number of retries permitted per request executed
+   * @param maxTokens The maximum number of retries which can be accumulated for a burst of
+   *     failures. The bucket starts full.
+   */
+  public RetryBudget(double retryRatio, int maxTokens) {
+    if (retryRatio < 0 || maxTokens < 0) {
+      throw new IllegalArgumentException("retryRatio and maxTokens must not be negative");
+    }
+    this.retryRatio = retryRatio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  /** Deposits tokens for the given number of requests executed for the first time. */
+  public synchronized void onRequests(int count) {
+    tokens = Math.min(maxTokens, tokens + count * retryRatio);
+  }
+
+  /** Withdraws a token for one retry. Returns false if the budget is exhausted. */
+  public synchronized boolean tryAcquire() {
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+
+  public synchronized double availableTokens() {
+    return tokens;
+  }
+}
@@ -9,12 +9,16 @@ module flipkart.krystal.krystex {
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.logicdecorators.observability to
       flipkart.krystal.vajramexecutor.krystex;
+  exports com.flipkart.krystal.krystex.logicdecorators.retry to
+      flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.request to
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.resolution to
       flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.commands to
       flipkart.krystal.vajramexecutor.krystex;
+  exports com.flipkart.krystal.krystex.jfr to
+      flipkart.krystal.vajramexecutor.krystex;
   exports com.flipkart.krystal.krystex.kryondecoration;
   exports com.flipkart.krystal.krystex.caching;
 
@@ -25,6 +29,7 @@ module flipkart.krystal.krystex {
   requires static io.github.resilience4j.circuitbreaker;
   requires static lombok;
   requires static org.slf4j;
+  requires jdk.jfr;
   requires flipkart.krystal.common;
   requires com.fasterxml.jackson.databind;
   requires com.fasterxml.jackson.datatype.jsr310;
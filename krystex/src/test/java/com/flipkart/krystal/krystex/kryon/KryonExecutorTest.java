@@ -1,16 +1,24 @@
 package com.flipkart.krystal.krystex.kryon;
 
+import static com.flipkart.krystal.annos.CpuHeavy.CpuHeavyTags.cpuHeavy;
 import static com.flipkart.krystal.annos.ExternalInvocation.ExternalInvocations.externalInvocation;
+import static com.flipkart.krystal.annos.IncrementalDependencies.IncrementalDependenciesTags.incrementalDependencies;
+import static com.flipkart.krystal.concurrent.Futures.linkFutures;
 import static com.flipkart.krystal.data.Errable.computeErrableFrom;
 import static com.flipkart.krystal.data.Errable.withValue;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy.BREADTH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy.DEPTH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.BATCH;
 import static com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy.GRANULAR;
+import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
+import static com.flipkart.krystal.krystex.resolution.ResolverCommand.skip;
 import static com.flipkart.krystal.tags.ElementTags.emptyTags;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Collections.emptySet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.function.Function.identity;
@@ -21,37 +29,69 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.flipkart.krystal.concurrent.SingleThreadExecutor;
 import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.data.StreamWindow;
 import com.flipkart.krystal.krystex.ComputeLogicDefinition;
 import com.flipkart.krystal.krystex.IOLogicDefinition;
 import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.caching.RequestLevelCache;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.GraphTraversalStrategy;
 import com.flipkart.krystal.krystex.kryon.KryonExecutor.KryonExecStrategy;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig.KryonExecutorConfigBuilder;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
+import com.flipkart.krystal.krystex.logicdecoration.InitiateActiveDepChains;
+import com.flipkart.krystal.krystex.logicdecoration.LogicDecoratorCommand;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.krystex.resolution.DependencyResolutionRequest;
+import com.flipkart.krystal.krystex.resolution.MultiResolverDefinition;
+import com.flipkart.krystal.krystex.resolution.ResolverCommand;
+import com.flipkart.krystal.krystex.resolution.ResolverDefinition;
 import com.flipkart.krystal.pooling.Lease;
 import com.flipkart.krystal.pooling.LeaseUnavailableException;
 import com.flipkart.krystal.tags.ElementTags;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow.Publisher;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -451,6 +491,669 @@ class KryonExecutorTest {
     assertThat(numberOfExecutions.sum()).isEqualTo(1);
   }
 
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void kryonDecorators_resolvedOncePerKryonAndDependantChain(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    LongAdder shouldDecorateCalls = new LongAdder();
+    this.kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            KryonExecutorConfig.builder()
+                .singleThreadExecutor(executorLease.get())
+                .kryonExecStrategy(kryonExecStrategy)
+                .graphTraversalStrategy(graphTraversalStrategy)
+                .requestScopedKryonDecoratorConfig(
+                    "countingDecorator",
+                    new KryonDecoratorConfig(
+                        "countingDecorator",
+                        _c -> {
+                          shouldDecorateCalls.increment();
+                          return true;
+                        },
+                        _c -> "countingDecorator",
+                        _c -> decorationInput -> decorationInput.kryon()))
+                .build(),
+            "test");
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic("n1_logic", emptySet(), dependencyValues -> "dependency_value")
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("dep"),
+                    dependencyValues ->
+                        dependencyValues
+                                .getDepValue("dep")
+                                .values()
+                                .values()
+                                .iterator()
+                                .next()
+                                .value()
+                                .orElseThrow()
+                            + ":computed_value")
+                .kryonLogicId(),
+            ImmutableMap.of("dep", n1.kryonId()),
+            ImmutableList.of(),
+            null,
+            ElementTags.of(externalInvocation(true)));
+
+    CompletableFuture<Object> future1 =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    CompletableFuture<Object> future2 =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r2").build());
+    kryonExecutor.close();
+    assertThat(future1).succeedsWithin(TIMEOUT).isEqualTo("dependency_value:computed_value");
+    assertThat(future2).succeedsWithin(TIMEOUT).isEqualTo("dependency_value:computed_value");
+    // One evaluation for n2 (at the start of the dependant chain) and one for n1 (as n2's 'dep')
+    assertThat(shouldDecorateCalls.sum()).isEqualTo(2);
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void kryonDecorator_dependenciesNotExecutedLocally_notActiveForSharedBatcher(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    // Stands in for a decorator which offloads the execution of n2 to another process
+    KryonDecorator offloadingDecorator =
+        new KryonDecorator() {
+          @Override
+          public Kryon<KryonCommand, KryonResponse> decorateKryon(
+              KryonDecorationInput decorationInput) {
+            Kryon<KryonCommand, KryonResponse> kryon = decorationInput.kryon();
+            return new Kryon<>() {
+              @Override
+              public void executeCommand(Flush flushCommand) {}
+
+              @Override
+              public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+                if (kryonCommand instanceof ForwardBatch forwardBatch) {
+                  ImmutableMap<RequestId, Errable<Object>> responses =
+                      forwardBatch.executableRequests().keySet().stream()
+                          .collect(toImmutableMap(identity(), _r -> Errable.<Object>withValue(42)));
+                  return completedFuture(new BatchResponse(responses));
+                }
+                return kryon.executeCommand(kryonCommand);
+              }
+
+              @Override
+              public KryonDefinition getKryonDefinition() {
+                return kryon.getKryonDefinition();
+              }
+            };
+          }
+
+          @Override
+          public boolean executesDependenciesLocally() {
+            return false;
+          }
+        };
+    this.kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            getKryonExecutorConfig(kryonExecStrategy, graphTraversalStrategy)
+                .requestScopedKryonDecoratorConfig(
+                    "offloadingDecorator",
+                    new KryonDecoratorConfig(
+                        "offloadingDecorator",
+                        context -> context.kryonId().value().equals("n2"),
+                        _c -> "offloadingDecorator",
+                        _c -> offloadingDecorator))
+                .build(),
+            "test");
+    OutputLogicDefinition<Integer> n3Logic =
+        newComputeLogic("n3_logic", Set.of("x"), facets -> facets.getInputValueOrThrow("x"));
+    SharedBatcher sharedBatcher = new SharedBatcher();
+    n3Logic.registerRequestScopedDecorator(
+        List.of(
+            new OutputLogicDecoratorConfig(
+                "sharedBatcher", _c -> true, _c -> "sharedBatcher", _c -> sharedBatcher)));
+    KryonDefinition n3 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n3",
+            Set.of("x"),
+            n3Logic.kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    // n3 is in the subtree of the offloaded n2, which is never executed locally
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic("n2_logic", Set.of("x"), facets -> 0).kryonLogicId(),
+            ImmutableMap.of("x", n3.kryonId()),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonLogicId multiResolverId = new KryonLogicId(new KryonId("n1"), "n1_resolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            emptySet(),
+            (resolutionRequests, facets) ->
+                ImmutableMap.of("local", multiExecuteWith(ImmutableList.of(singleFacet("x", 1)))),
+            emptyTags()));
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic(
+                    "n1_logic",
+                    Set.of("remote", "local"),
+                    facets ->
+                        Stream.of("remote", "local")
+                            .flatMap(
+                                depName ->
+                                    facets.getDepValue(depName).values().values().stream())
+                            .mapToInt(errable -> (Integer) errable.value().orElseThrow())
+                            .sum())
+                .kryonLogicId(),
+            ImmutableMap.of("remote", n2.kryonId(), "local", n3.kryonId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of(), "local", ImmutableSet.of("x"))),
+            multiResolverId,
+            ElementTags.of(externalInvocation(true)));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n1.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    // The batch of n3 in the local chain is dispatched without waiting for the chain through n2
+    assertThat(future).succeedsWithin(TIMEOUT).isEqualTo(43);
+  }
+
+  @ParameterizedTest
+  @MethodSource("executorConfigsToTest")
+  void cpuHeavyComputeLogic_executedOutsideExecutorThread(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    Set<Thread> executorThreads = ConcurrentHashMap.newKeySet();
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic(
+                    "n1_logic",
+                    emptySet(),
+                    dependencyValues -> Thread.currentThread().getName(),
+                    ElementTags.of(cpuHeavy()))
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("dep"),
+                    dependencyValues -> {
+                      executorThreads.add(Thread.currentThread());
+                      return dependencyValues
+                          .getDepValue("dep")
+                          .values()
+                          .values()
+                          .iterator()
+                          .next()
+                          .value()
+                          .orElseThrow();
+                    })
+                .kryonLogicId(),
+            ImmutableMap.of("dep", n1.kryonId()),
+            ImmutableList.of(),
+            null,
+            ElementTags.of(externalInvocation(true)));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    assertThat(future)
+        .succeedsWithin(TIMEOUT)
+        .asString()
+        .startsWith("ForkJoinPool.commonPool-worker");
+    // The dependant is resumed in the executor's event loop thread
+    assertThat(executorThreads).hasSize(1);
+    assertThat(executorThreads.iterator().next().getName())
+        .doesNotStartWith("ForkJoinPool.commonPool");
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void streamingDependency_fanOutResolvedInWindows(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor =
+        new KryonExecutor(
+            kryonDefinitionRegistry,
+            getKryonExecutorConfig(kryonExecStrategy, graphTraversalStrategy)
+                .streamWindowSize(4)
+                .build(),
+            "test");
+    List<Integer> elements = IntStream.range(0, 10).boxed().toList();
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic(
+                    "n1_logic",
+                    emptySet(),
+                    dependencyValues ->
+                        (Publisher<Integer>)
+                            subscriber ->
+                                // Emit from a thread other than the executor's thread
+                                runAsync(
+                                    () -> new StreamWindow<>(elements, 0).subscribe(subscriber)))
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonDefinition n3 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n3",
+            Set.of("x"),
+            newComputeLogic(
+                    "n3_logic",
+                    Set.of("x"),
+                    facets -> facets.<Integer>getInputValueOrThrow("x") * 2)
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    List<Integer> windowSizes = new CopyOnWriteArrayList<>();
+    KryonLogicId multiResolverId = new KryonLogicId(new KryonId("n2"), "n2_resolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            Set.of("stream"),
+            (resolutionRequests, facets) -> {
+              Publisher<Integer> window =
+                  facets
+                      .<Publisher<Integer>>getDepValue("stream")
+                      .values()
+                      .values()
+                      .iterator()
+                      .next()
+                      .value()
+                      .orElseThrow();
+              ImmutableList<Integer> windowElements = StreamWindow.elementsOf(window);
+              windowSizes.add(windowElements.size());
+              return ImmutableMap.of(
+                  "items",
+                  multiExecuteWith(
+                      windowElements.stream()
+                          .map(e -> singleFacet("x", e))
+                          .collect(toImmutableList())));
+            },
+            emptyTags()));
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("items"),
+                    dependencyValues ->
+                        dependencyValues.getDepValue("items").values().values().stream()
+                            .map(errable -> (Integer) errable.value().orElseThrow())
+                            .sorted()
+                            .toList())
+                .kryonLogicId(),
+            ImmutableMap.of("stream", n1.kryonId(), "items", n3.kryonId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of("stream"), "items", ImmutableSet.of("x"))),
+            multiResolverId,
+            ElementTags.of(externalInvocation(true)));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    assertThat(future)
+        .succeedsWithin(TIMEOUT)
+        .isEqualTo(List.of(0, 2, 4, 6, 8, 10, 12, 14, 16, 18));
+    // The resolver is invoked once per window of the stream
+    assertThat(windowSizes).containsExactly(4, 4, 2);
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void streamingDependency_emptyStream_sharedBatcherOfStreamedDependencyFlushed(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            emptySet(),
+            newComputeLogic(
+                    "n1_logic",
+                    emptySet(),
+                    dependencyValues ->
+                        (Publisher<Integer>)
+                            subscriber ->
+                                runAsync(
+                                    () -> new StreamWindow<>(List.of(), 0).subscribe(subscriber)))
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    OutputLogicDefinition<Integer> n3Logic =
+        newComputeLogic("n3_logic", Set.of("x"), facets -> facets.getInputValueOrThrow("x"));
+    SharedBatcher sharedBatcher = new SharedBatcher();
+    n3Logic.registerRequestScopedDecorator(
+        List.of(
+            new OutputLogicDecoratorConfig(
+                "sharedBatcher", _c -> true, _c -> "sharedBatcher", _c -> sharedBatcher)));
+    KryonDefinition n3 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n3",
+            Set.of("x"),
+            n3Logic.kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonLogicId multiResolverId = new KryonLogicId(new KryonId("n2"), "n2_resolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            Set.of("stream"),
+            (resolutionRequests, facets) -> {
+              ImmutableMap.Builder<String, ResolverCommand> resolverCommands =
+                  ImmutableMap.builder();
+              for (DependencyResolutionRequest request : resolutionRequests) {
+                if (request.dependencyName().equals("direct")) {
+                  resolverCommands.put(
+                      "direct", multiExecuteWith(ImmutableList.of(singleFacet("x", 1))));
+                } else {
+                  Publisher<Integer> window =
+                      facets
+                          .<Publisher<Integer>>getDepValue("stream")
+                          .values()
+                          .values()
+                          .iterator()
+                          .next()
+                          .value()
+                          .orElseThrow();
+                  resolverCommands.put(
+                      "items",
+                      multiExecuteWith(
+                          StreamWindow.elementsOf(window).stream()
+                              .map(e -> singleFacet("x", e))
+                              .collect(toImmutableList())));
+                }
+              }
+              return resolverCommands.build();
+            },
+            emptyTags()));
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("items", "direct"),
+                    dependencyValues ->
+                        dependencyValues.getDepValue("direct").values().values().stream()
+                            .map(errable -> (Integer) errable.value().orElseThrow())
+                            .toList())
+                .kryonLogicId(),
+            ImmutableMap.of("stream", n1.kryonId(), "items", n3.kryonId(), "direct", n3.kryonId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of("stream"), "items", ImmutableSet.of("x")),
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of(), "direct", ImmutableSet.of("x"))),
+            multiResolverId,
+            ElementTags.of(externalInvocation(true)));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    // The batch of the direct dependency is dispatched only once the streamed dependency, to which
+    // no window was dispatched, is flushed as well
+    assertThat(future).succeedsWithin(TIMEOUT).isEqualTo(List.of(1));
+  }
+
+  @Test
+  void withoutStreamWindows_windowChainsMappedToTheStreamedDependency() {
+    DependantChain start = kryonDefinitionRegistry.getDependantChainsStart();
+    KryonId n1 = new KryonId("n1");
+    KryonId n2 = new KryonId("n2");
+    DependantChain streamChain = start.extend(n1, "items");
+    DependantChain windowChain = start.extendStreamWindow(n1, "items", 1);
+    DependantChain nestedWindowChain = windowChain.extend(n2, "dep");
+
+    assertThat(windowChain).isNotSameAs(streamChain);
+    assertThat(windowChain.withoutStreamWindows()).isSameAs(streamChain);
+    assertThat(nestedWindowChain.withoutStreamWindows()).isSameAs(streamChain.extend(n2, "dep"));
+    assertThat(streamChain.withoutStreamWindows()).isSameAs(streamChain);
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void incrementalDependency_dependantsResolvedBeforeAllResultsAvailable(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    // Counted down by the dependency resolved from the fast results of the incremental dependency
+    CountDownLatch fastResultsResolved = new CountDownLatch(2);
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            Set.of("x"),
+            newIoLogic(
+                    "n1_logic",
+                    Set.of("x"),
+                    facets -> {
+                      int x = facets.getInputValueOrThrow("x");
+                      if (x < 2) {
+                        return completedFuture(x * 10);
+                      }
+                      // The slow request completes only after the fast results have been consumed
+                      return supplyAsync(
+                          () -> {
+                            try {
+                              fastResultsResolved.await(5, SECONDS);
+                            } catch (InterruptedException e) {
+                              throw new RuntimeException(e);
+                            }
+                            return x * 10;
+                          });
+                    })
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonDefinition n3 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n3",
+            Set.of("y"),
+            newComputeLogic(
+                    "n3_logic",
+                    Set.of("y"),
+                    facets -> {
+                      fastResultsResolved.countDown();
+                      return facets.<Integer>getInputValueOrThrow("y") + 1;
+                    })
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonLogicId multiResolverId = new KryonLogicId(new KryonId("n2"), "n2_resolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            Set.of("a"),
+            (resolutionRequests, facets) -> {
+              ImmutableMap.Builder<String, ResolverCommand> resolverCommands =
+                  ImmutableMap.builder();
+              for (DependencyResolutionRequest request : resolutionRequests) {
+                if (request.dependencyName().equals("a")) {
+                  resolverCommands.put(
+                      "a",
+                      multiExecuteWith(
+                          Stream.of(0, 1, 2)
+                              .map(x -> singleFacet("x", x))
+                              .collect(toImmutableList())));
+                } else {
+                  resolverCommands.put(
+                      "b",
+                      multiExecuteWith(
+                          facets.getDepValue("a").values().values().stream()
+                              .map(errable -> singleFacet("y", errable.value().orElseThrow()))
+                              .collect(toImmutableList())));
+                }
+              }
+              return resolverCommands.build();
+            },
+            emptyTags()));
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("b"),
+                    dependencyValues ->
+                        dependencyValues.getDepValue("b").values().values().stream()
+                            .map(errable -> (Integer) errable.value().orElseThrow())
+                            .sorted()
+                            .toList())
+                .kryonLogicId(),
+            ImmutableMap.of("a", n1.kryonId(), "b", n3.kryonId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of(), "a", ImmutableSet.of("x")),
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of("a"), "b", ImmutableSet.of("y"))),
+            multiResolverId,
+            ElementTags.of(externalInvocation(true), incrementalDependencies("a")));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    assertThat(future).succeedsWithin(TIMEOUT).isEqualTo(List.of(1, 11, 21));
+    assertThat(fastResultsResolved.getCount()).isZero();
+  }
+
+  @ParameterizedTest
+  @MethodSource("batchExecutorConfigsToTest")
+  void incrementalDependency_allPartialResultsSkipped_sharedBatcherOfDependantFlushed(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    this.kryonExecutor = getKryonExecutor(kryonExecStrategy, graphTraversalStrategy);
+    KryonDefinition n1 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n1",
+            Set.of("x"),
+            newIoLogic(
+                    "n1_logic",
+                    Set.of("x"),
+                    facets -> completedFuture(facets.<Integer>getInputValueOrThrow("x") * 10))
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    OutputLogicDefinition<Integer> n3Logic =
+        newComputeLogic(
+            "n3_logic", Set.of("y"), facets -> facets.<Integer>getInputValueOrThrow("y") + 1);
+    SharedBatcher sharedBatcher = new SharedBatcher();
+    n3Logic.registerRequestScopedDecorator(
+        List.of(
+            new OutputLogicDecoratorConfig(
+                "sharedBatcher", _c -> true, _c -> "sharedBatcher", _c -> sharedBatcher)));
+    KryonDefinition n3 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n3",
+            Set.of("y"),
+            n3Logic.kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            emptyTags());
+    KryonLogicId multiResolverId = new KryonLogicId(new KryonId("n2"), "n2_resolver");
+    logicDefinitionRegistry.addMultiResolver(
+        new MultiResolverDefinition(
+            multiResolverId,
+            Set.of("a"),
+            (resolutionRequests, facets) -> {
+              ImmutableMap.Builder<String, ResolverCommand> resolverCommands =
+                  ImmutableMap.builder();
+              for (DependencyResolutionRequest request : resolutionRequests) {
+                String depName = request.dependencyName();
+                if (depName.equals("a")) {
+                  resolverCommands.put(
+                      "a",
+                      multiExecuteWith(
+                          Stream.of(0, 1)
+                              .map(x -> singleFacet("x", x))
+                              .collect(toImmutableList())));
+                } else if (depName.equals("direct")) {
+                  resolverCommands.put(
+                      "direct", multiExecuteWith(ImmutableList.of(singleFacet("y", 5))));
+                } else {
+                  // None of the partial results of "a" resolve to a request of "b"
+                  resolverCommands.put("b", skip("Nothing to resolve"));
+                }
+              }
+              return resolverCommands.build();
+            },
+            emptyTags()));
+    KryonDefinition n2 =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "n2",
+            emptySet(),
+            newComputeLogic(
+                    "n2_logic",
+                    Set.of("b", "direct"),
+                    dependencyValues ->
+                        dependencyValues.getDepValue("direct").values().values().stream()
+                            .map(errable -> (Integer) errable.value().orElseThrow())
+                            .toList())
+                .kryonLogicId(),
+            ImmutableMap.of("a", n1.kryonId(), "b", n3.kryonId(), "direct", n3.kryonId()),
+            ImmutableList.of(
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of(), "a", ImmutableSet.of("x")),
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of("a"), "b", ImmutableSet.of("y")),
+                new ResolverDefinition(
+                    multiResolverId, ImmutableSet.of(), "direct", ImmutableSet.of("y"))),
+            multiResolverId,
+            ElementTags.of(externalInvocation(true), incrementalDependencies("a")));
+
+    CompletableFuture<Object> future =
+        kryonExecutor.executeKryon(
+            n2.kryonId(), Facets.empty(), KryonExecutionConfig.builder().executionId("r1").build());
+    kryonExecutor.close();
+    // The batch of the direct dependency is dispatched only once the incrementally resolved
+    // dependency, all of whose partial results were skipped, is flushed as well
+    assertThat(future).succeedsWithin(TIMEOUT).isEqualTo(List.of(6));
+  }
+
   @ParameterizedTest
   @MethodSource("executorConfigsToTest")
   void close_preventsNewExecutionRequests(
@@ -547,6 +1250,108 @@ class KryonExecutorTest {
             "java.util.concurrent.RejectedExecutionException: Kryon Executor shutdown requested.");
   }
 
+  @Test
+  void executeKryon_jfrEventsEnabled_commandAndOutputLogicEventsRecorded(@TempDir Path tempDir)
+      throws Exception {
+    this.kryonExecutor = getKryonExecutor(BATCH, BREADTH);
+    KryonDefinition kryonDefinition =
+        kryonDefinitionRegistry.newKryonDefinition(
+            "kryon",
+            emptySet(),
+            newComputeLogic("kryonLogic", emptySet(), dependencyValues -> "computed_value")
+                .kryonLogicId(),
+            ImmutableMap.of(),
+            ImmutableList.of(),
+            null,
+            ElementTags.of(externalInvocation(true)));
+    Path recordingFile = tempDir.resolve("kryon.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("krystal.KryonCommandEnqueue").withoutThreshold();
+      recording.enable("krystal.KryonCommandExecute").withoutThreshold();
+      recording.enable("krystal.OutputLogic").withoutThreshold();
+      recording.start();
+      CompletableFuture<Object> future =
+          kryonExecutor.executeKryon(
+              kryonDefinition.kryonId(),
+              Facets.empty(),
+              KryonExecutionConfig.builder().executionId("req_1").build());
+      kryonExecutor.close();
+      assertThat(future).succeedsWithin(TIMEOUT).isEqualTo("computed_value");
+      // Let the executor finish the commands which completed the future
+      executorLease.get().submit(() -> {}).get(TIMEOUT.getSeconds(), SECONDS);
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+    assertThat(events)
+        .filteredOn(event -> event.getEventType().getName().equals("krystal.KryonCommandEnqueue"))
+        .anySatisfy(event -> assertThat(event.getString("kryonId")).isEqualTo("kryon"));
+    assertThat(events)
+        .filteredOn(event -> event.getEventType().getName().equals("krystal.KryonCommandExecute"))
+        .anySatisfy(event -> assertThat(event.getString("kryonId")).isEqualTo("kryon"));
+    assertThat(events)
+        .filteredOn(event -> event.getEventType().getName().equals("krystal.OutputLogic"))
+        .singleElement()
+        .satisfies(
+            event -> {
+              assertThat(event.getString("kryonId")).isEqualTo("kryon");
+              assertThat(event.getInt("batchSize")).isEqualTo(1);
+              assertThat(event.getInt("failedRequests")).isEqualTo(0);
+            });
+  }
+
+  /**
+   * Executes the requests received in all the dependant chains of a kryon together, once all those
+   * chains have been flushed - the way a shared input batcher does.
+   */
+  private static final class SharedBatcher implements OutputLogicDecorator {
+    private final List<Runnable> pendingBatches = new ArrayList<>();
+    private final Set<DependantChain> flushedChains = new LinkedHashSet<>();
+    private ImmutableSet<DependantChain> activeChains = ImmutableSet.of();
+
+    @Override
+    public OutputLogic<Object> decorateLogic(
+        OutputLogic<Object> logicToDecorate,
+        OutputLogicDefinition<Object> originalLogicDefinition) {
+      return inputs -> {
+        ImmutableMap<Facets, CompletableFuture<Object>> results =
+            inputs.stream()
+                .distinct()
+                .collect(toImmutableMap(identity(), _f -> new CompletableFuture<>()));
+        pendingBatches.add(
+            () ->
+                logicToDecorate
+                    .execute(inputs)
+                    .forEach((facets, result) -> linkFutures(result, results.get(facets))));
+        return ImmutableMap.copyOf(results);
+      };
+    }
+
+    @Override
+    public void executeCommand(LogicDecoratorCommand logicDecoratorCommand) {
+      if (logicDecoratorCommand instanceof InitiateActiveDepChains initiateActiveDepChains) {
+        activeChains = initiateActiveDepChains.dependantsChains();
+      } else if (logicDecoratorCommand instanceof FlushCommand flushCommand) {
+        flushedChains.add(flushCommand.dependantsChain().withoutStreamWindows());
+        if (flushedChains.containsAll(activeChains)) {
+          pendingBatches.forEach(Runnable::run);
+          pendingBatches.clear();
+          flushedChains.clear();
+        }
+      }
+    }
+
+    @Override
+    public String getId() {
+      return "sharedBatcher";
+    }
+  }
+
+  private static Facets singleFacet(String facetName, Object value) {
+    return new Facets(ImmutableMap.<String, FacetValue<Object>>of(facetName, withValue(value)));
+  }
+
   /* So that bad testcases do not hang indefinitely.*/
   private static <T> T timedGet(CompletableFuture<T> future)
       throws InterruptedException, ExecutionException, TimeoutException {
@@ -555,6 +1360,11 @@ class KryonExecutorTest {
 
   private <T> OutputLogicDefinition<T> newComputeLogic(
       String kryonId, Set<String> inputs, Function<Facets, T> logic) {
+    return newComputeLogic(kryonId, inputs, logic, emptyTags());
+  }
+
+  private <T> OutputLogicDefinition<T> newComputeLogic(
+      String kryonId, Set<String> inputs, Function<Facets, T> logic, ElementTags tags) {
     ComputeLogicDefinition<T> def =
         new ComputeLogicDefinition<>(
             new KryonLogicId(new KryonId(kryonId), kryonId),
@@ -565,7 +1375,7 @@ class KryonExecutorTest {
                     .entrySet()
                     .stream()
                     .collect(toImmutableMap(Entry::getKey, e -> e.getValue().toFuture())),
-            emptyTags());
+            tags);
 
     logicDefinitionRegistry.addOutputLogic(def);
     return def;
@@ -588,20 +1398,25 @@ class KryonExecutorTest {
 
   private KryonExecutor getKryonExecutor(
       KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
-    var config =
-        KryonExecutorConfig.builder()
-            .singleThreadExecutor(executorLease.get())
-            .kryonExecStrategy(kryonExecStrategy)
-            .graphTraversalStrategy(graphTraversalStrategy)
-            .requestScopedKryonDecoratorConfig(
+    return new KryonExecutor(
+        kryonDefinitionRegistry,
+        getKryonExecutorConfig(kryonExecStrategy, graphTraversalStrategy).build(),
+        "test");
+  }
+
+  private KryonExecutorConfigBuilder getKryonExecutorConfig(
+      KryonExecStrategy kryonExecStrategy, GraphTraversalStrategy graphTraversalStrategy) {
+    return KryonExecutorConfig.builder()
+        .singleThreadExecutor(executorLease.get())
+        .kryonExecStrategy(kryonExecStrategy)
+        .graphTraversalStrategy(graphTraversalStrategy)
+        .requestScopedKryonDecoratorConfig(
+            RequestLevelCache.DECORATOR_TYPE,
+            new KryonDecoratorConfig(
                 RequestLevelCache.DECORATOR_TYPE,
-                new KryonDecoratorConfig(
-                    RequestLevelCache.DECORATOR_TYPE,
-                    _c -> true,
-                    _c -> RequestLevelCache.DECORATOR_TYPE,
-                    _c -> requestLevelCache))
-            .build();
-    return new KryonExecutor(kryonDefinitionRegistry, config, "test");
+                _c -> true,
+                _c -> RequestLevelCache.DECORATOR_TYPE,
+                _c -> requestLevelCache));
   }
 
   public static Stream<Arguments> executorConfigsToTest() {
@@ -611,4 +1426,9 @@ class KryonExecutorTest {
         Arguments.of(GRANULAR, DEPTH),
         Arguments.of(GRANULAR, BREADTH));
   }
+
+  /** Streaming dependencies are supported only by the {@link KryonExecStrategy#BATCH} strategy. */
+  public static Stream<Arguments> batchExecutorConfigsToTest() {
+    return Stream.of(Arguments.of(BATCH, DEPTH), Arguments.of(BATCH, BREADTH));
+  }
 }
@@ -0,0 +1,136 @@
+package com.flipkart.krystal.krystex.logicdecorators.resilience4j;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static com.flipkart.krystal.tags.ElementTags.emptyTags;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.config.MapConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class Resilience4JCircuitBreakerTest {
+
+  private static final int POISONED_KEY = 1;
+
+  private final List<ImmutableList<Facets>> calls = new ArrayList<>();
+
+  /** Fails the poisoned key and succeeds for all other keys */
+  private final OutputLogic<Object> logic =
+      facetsList -> {
+        calls.add(facetsList);
+        ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+            ImmutableMap.builder();
+        for (Facets facets : facetsList) {
+          int key = facets.getInputValueOrThrow("key");
+          results.put(
+              facets,
+              key == POISONED_KEY
+                  ? failedFuture(new IllegalStateException("Poisoned key"))
+                  : completedFuture("result:" + key));
+        }
+        return results.build();
+      };
+
+  @Test
+  void shardedCircuitBreaker_poisonedKey_onlyItsShardShortCircuited() {
+    Resilience4JCircuitBreaker circuitBreaker =
+        new Resilience4JCircuitBreaker("test", facets -> facets.getInputValueOrThrow("key"));
+    circuitBreaker.onConfigUpdate(
+        new MapConfigProvider(
+            Map.of("test.circuit_breaker.enabled", true, "test.circuit_breaker.shards", 2)));
+    OutputLogic<Object> decorated = circuitBreaker.decorateLogic(logic, logicDefinition());
+
+    // Enough failures for the default config to open the circuit of the poisoned key's shard.
+    // The healthy key of the same batch keeps succeeding meanwhile.
+    for (int i = 0; i < 100; i++) {
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+          decorated.execute(ImmutableList.of(facets(POISONED_KEY), facets(2)));
+      assertThat(results.get(facets(2))).isCompletedWithValue("result:2");
+    }
+    calls.clear();
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+        decorated.execute(ImmutableList.of(facets(POISONED_KEY), facets(2), facets(4)));
+
+    assertThat(results.get(facets(POISONED_KEY)))
+        .failsWithin(ofSeconds(1))
+        .withThrowableOfType(Exception.class)
+        .withCauseInstanceOf(CallNotPermittedException.class);
+    assertThat(results.get(facets(2))).isCompletedWithValue("result:2");
+    assertThat(results.get(facets(4))).isCompletedWithValue("result:4");
+    assertThat(calls).containsExactly(ImmutableList.of(facets(2), facets(4)));
+  }
+
+  @Test
+  void halfOpenCircuit_resultsMissingFromLogic_permissionsReleased() {
+    Resilience4JCircuitBreaker circuitBreaker = new Resilience4JCircuitBreaker("test");
+    circuitBreaker.onConfigUpdate(
+        new MapConfigProvider(Map.of("test.circuit_breaker.enabled", true)));
+    CircuitBreaker breaker = circuitBreaker.circuitBreakerShards().get(0);
+    breaker.transitionToOpenState();
+    breaker.transitionToHalfOpenState();
+    // Returns no results at all
+    OutputLogic<Object> decorated =
+        circuitBreaker.decorateLogic(
+            facetsList -> {
+              calls.add(facetsList);
+              return ImmutableMap.of();
+            },
+            logicDefinition());
+    int permittedCallsInHalfOpenState =
+        breaker.getCircuitBreakerConfig().getPermittedNumberOfCallsInHalfOpenState();
+    ImmutableList<Facets> batch =
+        IntStream.range(0, permittedCallsInHalfOpenState)
+            .mapToObj(Resilience4JCircuitBreakerTest::facets)
+            .collect(toImmutableList());
+
+    decorated.execute(batch);
+    decorated.execute(batch);
+
+    assertThat(calls).containsExactly(batch, batch);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+  }
+
+  @Test
+  void notConfigured_logicNotDecorated() {
+    Resilience4JCircuitBreaker circuitBreaker = new Resilience4JCircuitBreaker("test");
+    OutputLogic<Object> decorated = circuitBreaker.decorateLogic(logic, logicDefinition());
+
+    for (int i = 0; i < 200; i++) {
+      decorated.execute(ImmutableList.of(facets(POISONED_KEY)));
+    }
+
+    assertThat(calls).hasSize(200);
+  }
+
+  private static IOLogicDefinition<Object> logicDefinition() {
+    return new IOLogicDefinition<>(
+        new KryonLogicId(new KryonId("kryon"), "kryon:logic"),
+        Set.of("key"),
+        facetsList -> ImmutableMap.of(),
+        emptyTags());
+  }
+
+  private static Facets facets(int key) {
+    return new Facets(ImmutableMap.of("key", withValue(key)));
+  }
+}
@@ -0,0 +1,187 @@
+package com.flipkart.krystal.krystex.logicdecorators.retry;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static com.flipkart.krystal.tags.ElementTags.emptyTags;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.config.MapConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.IOLogicDefinition;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PartialRetryDecoratorTest {
+
+  /** The facets which fail when they are executed for the first time */
+  private final Set<Facets> failOnce = ConcurrentHashMap.newKeySet();
+
+  private final List<ImmutableList<Facets>> calls = new CopyOnWriteArrayList<>();
+  private OutputLogic<Object> logic;
+
+  @BeforeEach
+  void setUp() {
+    logic =
+        facetsList -> {
+          calls.add(facetsList);
+          ImmutableMap.Builder<Facets, CompletableFuture<@Nullable Object>> results =
+              ImmutableMap.builder();
+          for (Facets facets : facetsList) {
+            results.put(
+                facets,
+                failOnce.remove(facets)
+                    ? failedFuture(new IllegalStateException("Transient failure"))
+                    : completedFuture("result:" + facets.getInputValueOrThrow("input")));
+          }
+          return results.build();
+        };
+  }
+
+  @Test
+  void partialFailure_onlyFailedElementsRetried() {
+    PartialRetryDecorator decorator = newDecorator(new RetryBudget(), 1, 0.0);
+    OutputLogic<Object> decorated = decorator.decorateLogic(logic, logicDefinition());
+    failOnce.add(facets(2));
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> results =
+        decorated.execute(ImmutableList.of(facets(1), facets(2), facets(3)));
+
+    assertThat(results.get(facets(1))).succeedsWithin(ofSeconds(1)).isEqualTo("result:1");
+    assertThat(results.get(facets(2))).succeedsWithin(ofSeconds(1)).isEqualTo("result:2");
+    assertThat(results.get(facets(3))).succeedsWithin(ofSeconds(1)).isEqualTo("result:3");
+    assertThat(calls)
+        .containsExactly(
+            ImmutableList.of(facets(1), facets(2), facets(3)), ImmutableList.of(facets(2)));
+  }
+
+  @Test
+  void failuresOfDifferentBatches_retriedTogether() {
+    PartialRetryDecorator decorator = newDecorator(new RetryBudget(), 100, 0.5);
+    OutputLogic<Object> decorated = decorator.decorateLogic(logic, logicDefinition());
+    failOnce.addAll(List.of(facets(1), facets(2)));
+
+    CompletableFuture<@Nullable Object> first =
+        decorated.execute(ImmutableList.of(facets(1))).get(facets(1));
+    CompletableFuture<@Nullable Object> second =
+        decorated.execute(ImmutableList.of(facets(2))).get(facets(2));
+
+    assertThat(first).succeedsWithin(ofSeconds(1)).isEqualTo("result:1");
+    assertThat(second).succeedsWithin(ofSeconds(1)).isEqualTo("result:2");
+    assertThat(calls).hasSize(3);
+    assertThat(calls.get(2)).containsExactlyInAnyOrder(facets(1), facets(2));
+  }
+
+  @Test
+  void budgetExhausted_failureNotRetried() {
+    PartialRetryDecorator decorator = newDecorator(new RetryBudget(0, 0), 1, 0.0);
+    OutputLogic<Object> decorated = decorator.decorateLogic(logic, logicDefinition());
+    failOnce.add(facets(1));
+
+    CompletableFuture<@Nullable Object> result =
+        decorated.execute(ImmutableList.of(facets(1))).get(facets(1));
+
+    assertThat(result)
+        .failsWithin(ofSeconds(1))
+        .withThrowableOfType(Exception.class)
+        .withRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(calls).hasSize(1);
+  }
+
+  @Test
+  void retry_executedOnThePoolOfTheOriginalBatch() throws Exception {
+    SingleThreadExecutor executor1 = new SingleThreadExecutor("retry-test-1");
+    SingleThreadExecutor executor2 = new SingleThreadExecutor("retry-test-2");
+    try {
+      List<Thread> callingThreads = new CopyOnWriteArrayList<>();
+      OutputLogic<Object> recordingLogic =
+          facetsList -> {
+            callingThreads.add(Thread.currentThread());
+            return logic.execute(facetsList);
+          };
+      PartialRetryDecorator decorator = newDecorator(new RetryBudget(), 100, 0.5);
+      OutputLogic<Object> decorated = decorator.decorateLogic(recordingLogic, logicDefinition());
+      failOnce.addAll(List.of(facets(1), facets(2)));
+      Thread thread1 = executor1.submit(Thread::currentThread).get();
+      Thread thread2 = executor2.submit(Thread::currentThread).get();
+
+      CompletableFuture<@Nullable Object> first =
+          executor1
+              .submit(() -> decorated.execute(ImmutableList.of(facets(1))).get(facets(1)))
+              .get();
+      CompletableFuture<@Nullable Object> second =
+          executor2
+              .submit(() -> decorated.execute(ImmutableList.of(facets(2))).get(facets(2)))
+              .get();
+
+      assertThat(first).succeedsWithin(ofSeconds(1)).isEqualTo("result:1");
+      assertThat(second).succeedsWithin(ofSeconds(1)).isEqualTo("result:2");
+      // Retries of different pools are not merged
+      assertThat(calls).hasSize(4);
+      assertThat(callingThreads).containsOnly(thread1, thread2);
+      assertThat(callingThreads).filteredOn(thread -> thread == thread1).hasSize(2);
+      assertThat(callingThreads).filteredOn(thread -> thread == thread2).hasSize(2);
+    } finally {
+      executor1.shutdown();
+      executor2.shutdown();
+    }
+  }
+
+  @Test
+  void retry_poolShutDown_retryFailedWithoutExecuting() throws Exception {
+    SingleThreadExecutor executor = new SingleThreadExecutor("retry-test");
+    PartialRetryDecorator decorator = newDecorator(new RetryBudget(), 100, 0.0);
+    OutputLogic<Object> decorated = decorator.decorateLogic(logic, logicDefinition());
+    failOnce.add(facets(1));
+
+    CompletableFuture<@Nullable Object> result =
+        executor
+            .submit(() -> decorated.execute(ImmutableList.of(facets(1))).get(facets(1)))
+            .get();
+    executor.shutdown();
+
+    assertThat(result)
+        .failsWithin(ofSeconds(1))
+        .withThrowableOfType(Exception.class)
+        .withRootCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(calls).hasSize(1);
+  }
+
+  private static PartialRetryDecorator newDecorator(
+      RetryBudget retryBudget, int initialBackoffMs, double jitter) {
+    PartialRetryDecorator decorator = new PartialRetryDecorator("test", retryBudget);
+    decorator.onConfigUpdate(
+        new MapConfigProvider(
+            Map.of(
+                "test.retry.initial_backoff_ms", initialBackoffMs,
+                "test.retry.jitter", jitter)));
+    return decorator;
+  }
+
+  private static IOLogicDefinition<Object> logicDefinition() {
+    return new IOLogicDefinition<>(
+        new KryonLogicId(new KryonId("kryon"), "kryon:logic"),
+        Set.of("input"),
+        facetsList -> ImmutableMap.of(),
+        emptyTags());
+  }
+
+  private static Facets facets(int input) {
+    return new Facets(ImmutableMap.of("input", withValue(input)));
+  }
+}
@@ -0,0 +1,239 @@
+package com.flipkart.krystal.lattice.client;
+
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.krystex.kryondecoration.KryonExecutionContext;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Offloads the execution of selected kryons - along with their whole dependency subtree - to a
+ * worker process: a lattice server hosting the same vajram graph, and listening for {@link
+ * RemoteVajramClient}s.
+ *
+ * <p>When a kryon decorated by this decorator receives a {@link ForwardBatch}, the batch is not
+ * executed locally. The facets of its requests are converted into the generated requests of the
+ * vajram and sent to the worker as one batch, and the {@link BatchResponse} is assembled from the
+ * worker's responses. The kryon which triggered the dependency receives the response like it would
+ * from a local kryon. {@link Flush} commands are not forwarded, since the worker executes each
+ * batch as soon as it receives it. Since the dependencies of an offloaded kryon are never executed
+ * locally, the local executor does not consider the dependant chains through it as active (see
+ * {@link #executesDependenciesLocally()}), so that local input batchers of vajrams which also
+ * appear in the offloaded subtree do not wait for those chains to be flushed.
+ *
+ * <p>The vajrams of the offloaded kryons must allow external invocation and have generated request
+ * codecs. Inputs which are injected (and not provided by clients) are injected by the worker.
+ *
+ * @see #config(RemoteVajramClient, VajramKryonGraph, Predicate)
+ */
+public final class RemoteExecutionDecorator implements KryonDecorator {
+
+  public static final String DECORATOR_TYPE = RemoteExecutionDecorator.class.getName();
+
+  private final RemoteVajramClient client;
+  private final VajramKryonGraph vajramKryonGraph;
+  private final Map<KryonId, OffloadTarget> offloadTargets = new ConcurrentHashMap<>();
+
+  public RemoteExecutionDecorator(RemoteVajramClient client, VajramKryonGraph vajramKryonGraph) {
+    this.client = client;
+    this.vajramKryonGraph = vajramKryonGraph;
+  }
+
+  /**
+   * Returns the config with which this decorator is registered in a {@link
+   * com.flipkart.krystal.krystex.kryon.KryonExecutorConfig} (via {@code
+   * requestScopedKryonDecoratorConfig(DECORATOR_TYPE, config)}).
+   *
+   * @param shouldOffload Selects the kryons to offload. See {@link #dependantChains} and {@link
+   *     #vajramsTaggedWith}.
+   */
+  public static KryonDecoratorConfig config(
+      RemoteVajramClient client,
+      VajramKryonGraph vajramKryonGraph,
+      Predicate<KryonExecutionContext> shouldOffload) {
+    // The decorator is stateless but for the offload targets it caches, so it is shared across
+    // executors.
+    RemoteExecutionDecorator decorator = new RemoteExecutionDecorator(client, vajramKryonGraph);
+    return new KryonDecoratorConfig(
+        DECORATOR_TYPE, shouldOffload, _c -> DECORATOR_TYPE, _c -> decorator);
+  }
+
+  /**
+   * Selects the kryons executed at the given dependant chains. Use {@link
+   * VajramKryonGraph#computeDependantChain} to compute them.
+   */
+  public static Predicate<KryonExecutionContext> dependantChains(
+      DependantChain... dependantChains) {
+    ImmutableSet<DependantChain> chains = ImmutableSet.copyOf(dependantChains);
+    return context -> chains.contains(context.dependantChain());
+  }
+
+  /** Selects the kryons of all the vajrams tagged with the given annotation, wherever they run. */
+  public static Predicate<KryonExecutionContext> vajramsTaggedWith(
+      VajramKryonGraph vajramKryonGraph, Class<? extends Annotation> tag) {
+    return context ->
+        vajramKryonGraph
+            .getVajramDefinition(vajramID(context.kryonId().value()))
+            .flatMap(vajramDefinition -> vajramDefinition.vajramTags().getAnnotationByType(tag))
+            .isPresent();
+  }
+
+  @Override
+  public String decoratorType() {
+    return DECORATOR_TYPE;
+  }
+
+  @Override
+  public boolean executesDependenciesLocally() {
+    return false;
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    return new RemoteExecutingKryon(
+        decorationInput.kryon(), decorationInput.kryonExecutor().commandExecutor());
+  }
+
+  private OffloadTarget offloadTarget(KryonId kryonId) {
+    return offloadTargets.computeIfAbsent(
+        kryonId,
+        _k -> {
+          VajramDefinition vajramDefinition =
+              vajramKryonGraph
+                  .getVajramDefinition(vajramID(kryonId.value()))
+                  .orElseThrow(
+                      () ->
+                          new IllegalArgumentException(
+                              "Cannot offload %s since it is not a vajram".formatted(kryonId)));
+          return new OffloadTarget(
+              client.remoteVajram(vajramDefinition), requestFactory(vajramDefinition));
+        });
+  }
+
+  /** Returns the static {@code from(Facets)} method of the generated request class. */
+  private static MethodHandle requestFactory(VajramDefinition vajramDefinition) {
+    String requestClassName = vajramDefinition.vajramDefClass().getName() + "Request";
+    try {
+      Class<?> requestClass =
+          Class.forName(
+              requestClassName, true, vajramDefinition.vajramDefClass().getClassLoader());
+      return MethodHandles.publicLookup()
+          .findStatic(requestClass, "from", MethodType.methodType(requestClass, Facets.class));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException(
+          "Could not load the generated request class %s of vajram %s"
+              .formatted(requestClassName, vajramDefinition.vajramId()),
+          e);
+    }
+  }
+
+  private record OffloadTarget(
+      RemoteVajram<VajramRequest<Object>, Object> remoteVajram, MethodHandle requestFactory) {}
+
+  private class RemoteExecutingKryon implements Kryon<KryonCommand, KryonResponse> {
+
+    private final Kryon<KryonCommand, KryonResponse> kryon;
+    private final Executor commandExecutor;
+
+    private RemoteExecutingKryon(
+        Kryon<KryonCommand, KryonResponse> kryon, Executor commandExecutor) {
+      this.kryon = kryon;
+      this.commandExecutor = commandExecutor;
+    }
+
+    @Override
+    public void executeCommand(Flush flushCommand) {
+      // The worker executes batches as soon as they arrive, and no dependency of this kryon is
+      // executed locally - there is nothing to flush.
+    }
+
+    @Override
+    public KryonDefinition getKryonDefinition() {
+      return kryon.getKryonDefinition();
+    }
+
+    @Override
+    public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+      if (kryonCommand instanceof ForwardBatch forwardBatch) {
+        return offload(forwardBatch);
+      } else {
+        return kryon.executeCommand(kryonCommand);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<KryonResponse> offload(ForwardBatch forwardBatch) {
+      OffloadTarget target;
+      try {
+        target = offloadTarget(forwardBatch.kryonId());
+      } catch (Throwable e) {
+        return CompletableFuture.failedFuture(e);
+      }
+      List<RequestId> requestIds = new ArrayList<>();
+      List<VajramRequest<Object>> requests = new ArrayList<>();
+      List<Entry<RequestId, CompletableFuture<@Nullable Object>>> responses = new ArrayList<>();
+      for (Entry<RequestId, Facets> entry : forwardBatch.executableRequests().entrySet()) {
+        try {
+          requests.add((VajramRequest<Object>) target.requestFactory().invoke(entry.getValue()));
+          requestIds.add(entry.getKey());
+        } catch (Throwable e) {
+          responses.add(Map.entry(entry.getKey(), CompletableFuture.failedFuture(e)));
+        }
+      }
+      ImmutableList<CompletableFuture<@Nullable Object>> remoteResponses =
+          target.remoteVajram().execute(requests);
+      for (int i = 0; i < requestIds.size(); i++) {
+        responses.add(Map.entry(requestIds.get(i), remoteResponses.get(i)));
+      }
+      // The remote responses complete on the client's reader thread. The batch response is
+      // completed on the executor's thread since the dependant kryon may process it right away.
+      return allOf(responses.stream().map(Entry::getValue).toArray(CompletableFuture[]::new))
+          .handleAsync(
+              (_r, _t) ->
+                  new BatchResponse(
+                      responses.stream()
+                          .collect(
+                              toImmutableMap(
+                                  Entry::getKey,
+                                  entry ->
+                                      entry
+                                          .getValue()
+                                          .<Errable<Object>>handle(Errable::errableFrom)
+                                          .join()))),
+              commandExecutor);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.flipkart.krystal.lattice.client;
+
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Thrown when a vajram invoked in a remote lattice server does not respond successfully. */
+public final class RemoteInvocationException extends RuntimeException {
+
+  private final ResponseStatus status;
+
+  public RemoteInvocationException(
+      ResponseStatus status, String message, @Nullable Throwable cause) {
+    super(message, cause);
+    this.status = status;
+  }
+
+  /**
+   * Returns the status of the remote response. Connection failures are reported with status {@link
+   * ResponseStatus#UNAVAILABLE}.
+   */
+  public ResponseStatus status() {
+    return status;
+  }
+}
@@ -0,0 +1,171 @@
+package com.flipkart.krystal.lattice.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The binary protocol with which batches of vajram requests are sent to a lattice server over a
+ * persistent TCP connection.
+ *
+ * <p>Every message is a frame: a 4 byte big-endian length of the rest of the frame, a 1 byte frame
+ * kind, and an 8 byte stream id chosen by the client. Many batches can be in flight on one
+ * connection at the same time - the server responds to each batch with a frame carrying the same
+ * stream id, in whichever order the batches complete.
+ *
+ * <ul>
+ *   <li>{@link RequestFrame}: the id of the vajram, followed by the count of requests and each
+ *       request as a length-prefixed protobuf encoding of the vajram's generated request class.
+ *   <li>{@link ResponseFrame}: the count of responses, and for each request of the batch - in the
+ *       same order - a {@link ResponseStatus} and a length-prefixed payload. The payload of a
+ *       successful response is the json encoding of the vajram's response. The payload of a failed
+ *       response is a UTF-8 error message.
+ * </ul>
+ */
+public final class RemoteProtocol {
+
+  public static final byte REQUEST = 1;
+  public static final byte RESPONSE = 2;
+
+  /** Frames larger than this are rejected, so that a corrupt length cannot exhaust the heap. */
+  public static final int MAX_FRAME_SIZE = 64 << 20;
+
+  public enum ResponseStatus {
+    OK,
+    /** The request could not be decoded, or addresses a vajram which the server does not expose. */
+    INVALID_REQUEST,
+    /** The server could not execute the request for want of resources. Safe to retry. */
+    UNAVAILABLE,
+    FAILED
+  }
+
+  public sealed interface Frame permits RequestFrame, ResponseFrame {
+    long streamId();
+  }
+
+  public record RequestFrame(long streamId, String vajramId, ImmutableList<byte[]> requests)
+      implements Frame {}
+
+  public record ResponseFrame(long streamId, ImmutableList<Response> responses) implements Frame {}
+
+  public record Response(ResponseStatus status, byte[] payload) {
+
+    public static Response error(ResponseStatus status, String message) {
+      return new Response(status, message.getBytes(UTF_8));
+    }
+
+    public String errorMessage() {
+      return new String(payload, UTF_8);
+    }
+  }
+
+  /**
+   * Serializes the frame, including its length prefix. Frames are serialized before they are
+   * written so that writers sharing a connection hold its lock only for the duration of the write.
+   *
+   * @throws IOException if the frame exceeds {@link #MAX_FRAME_SIZE}
+   */
+  public static byte[] toBytes(Frame frame) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(0); // Placeholder for the length
+      if (frame instanceof RequestFrame requestFrame) {
+        out.writeByte(REQUEST);
+        out.writeLong(requestFrame.streamId());
+        out.writeUTF(requestFrame.vajramId());
+        out.writeInt(requestFrame.requests().size());
+        for (byte[] request : requestFrame.requests()) {
+          out.writeInt(request.length);
+          out.write(request);
+        }
+      } else if (frame instanceof ResponseFrame responseFrame) {
+        out.writeByte(RESPONSE);
+        out.writeLong(responseFrame.streamId());
+        out.writeInt(responseFrame.responses().size());
+        for (Response response : responseFrame.responses()) {
+          out.writeByte(response.status().ordinal());
+          out.writeInt(response.payload().length);
+          out.write(response.payload());
+        }
+      }
+    }
+    byte[] serialized = bytes.toByteArray();
+    int length = serialized.length - Integer.BYTES;
+    if (length > MAX_FRAME_SIZE) {
+      throw new IOException(
+          "Frame of %s bytes exceeds the maximum size %s".formatted(length, MAX_FRAME_SIZE));
+    }
+    ByteBuffer.wrap(serialized).putInt(0, length);
+    return serialized;
+  }
+
+  /**
+   * Reads the next frame from the stream, blocking until it is fully available.
+   *
+   * @throws java.io.EOFException if the stream ends before the next frame
+   * @throws IOException if the frame is malformed
+   */
+  public static Frame read(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length <= 0 || length > MAX_FRAME_SIZE) {
+      throw new IOException("Invalid frame length " + length);
+    }
+    byte[] frame = new byte[length];
+    in.readFully(frame);
+    DataInputStream body = new DataInputStream(new ByteArrayInputStream(frame));
+    byte kind = body.readByte();
+    long streamId = body.readLong();
+    switch (kind) {
+      case REQUEST -> {
+        String vajramId = body.readUTF();
+        int count = readCount(body);
+        ImmutableList.Builder<byte[]> requests = ImmutableList.builderWithExpectedSize(count);
+        for (int i = 0; i < count; i++) {
+          requests.add(readBytes(body));
+        }
+        return new RequestFrame(streamId, vajramId, requests.build());
+      }
+      case RESPONSE -> {
+        int count = readCount(body);
+        ImmutableList.Builder<Response> responses = ImmutableList.builderWithExpectedSize(count);
+        ResponseStatus[] statuses = ResponseStatus.values();
+        for (int i = 0; i < count; i++) {
+          int status = body.readUnsignedByte();
+          if (status >= statuses.length) {
+            throw new IOException("Unknown response status " + status);
+          }
+          responses.add(new Response(statuses[status], readBytes(body)));
+        }
+        return new ResponseFrame(streamId, responses.build());
+      }
+      default -> throw new IOException("Unknown frame kind " + kind);
+    }
+  }
+
+  private static int readCount(DataInputStream body) throws IOException {
+    int count = body.readInt();
+    // Every element takes at least 4 bytes, so larger counts can only come from corrupt frames
+    if (count < 0 || count > body.available() / Integer.BYTES) {
+      throw new IOException("Invalid element count " + count);
+    }
+    return count;
+  }
+
+  private static byte[] readBytes(DataInputStream body) throws IOException {
+    int length = body.readInt();
+    if (length < 0 || length > body.available()) {
+      throw new IOException("Invalid length " + length);
+    }
+    byte[] bytes = new byte[length];
+    body.readFully(bytes);
+    return bytes;
+  }
+
+  private RemoteProtocol() {}
+}
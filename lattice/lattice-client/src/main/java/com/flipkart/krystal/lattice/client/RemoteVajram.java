@@ -0,0 +1,109 @@
+package com.flipkart.krystal.lattice.client;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.wire.VajramRequestCodec;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A handle to a vajram hosted by a remote lattice server. Obtained via {@link
+ * RemoteVajramClient#remoteVajram}.
+ *
+ * <p>This is meant to be called from the output logic of a local {@link
+ * com.flipkart.krystal.vajram.IOVajram} which stands in for the remote vajram, so that the remote
+ * vajram can be depended on like any other vajram, and the batches formed by the local input
+ * batchers are sent to the remote server as they are:
+ *
+ * <pre>{@code
+ * @Output
+ * static Map<FormulaBatchFacets, CompletableFuture<Integer>> callRemote(
+ *     BatchedFacets<FormulaBatchFacets, FormulaCommonFacets> batchedFacets) {
+ *   return batchedFacets.commonFacets().remoteFormula().execute(
+ *       batchedFacets,
+ *       facets -> FormulaRequest.builder().a(facets.a()).p(facets.p()).q(facets.q()).build());
+ * }
+ * }</pre>
+ *
+ * @param <R> The generated request class of the remote vajram
+ * @param <T> The response type of the remote vajram
+ */
+public final class RemoteVajram<R extends VajramRequest<T>, T> {
+
+  private final RemoteVajramClient client;
+  private final String vajramId;
+  private final VajramRequestCodec<R> codec;
+  private final JavaType responseType;
+
+  RemoteVajram(
+      RemoteVajramClient client,
+      String vajramId,
+      VajramRequestCodec<R> codec,
+      JavaType responseType) {
+    this.client = client;
+    this.vajramId = vajramId;
+    this.codec = codec;
+    this.responseType = responseType;
+  }
+
+  /**
+   * Sends the requests to the remote vajram as one batch. Does not wait for the network.
+   *
+   * @return The responses, in the order of the requests
+   */
+  public ImmutableList<CompletableFuture<@Nullable T>> execute(List<R> requests) {
+    List<byte[]> encoded = new ArrayList<>(requests.size());
+    List<@Nullable CompletableFuture<@Nullable T>> encodingFailures =
+        new ArrayList<>(requests.size());
+    for (R request : requests) {
+      try {
+        encoded.add(codec.toProto(request));
+        encodingFailures.add(null);
+      } catch (RuntimeException e) {
+        encodingFailures.add(
+            CompletableFuture.failedFuture(
+                new RemoteInvocationException(
+                    ResponseStatus.INVALID_REQUEST, "Could not encode request " + request, e)));
+      }
+    }
+    ImmutableList<CompletableFuture<@Nullable T>> sent =
+        client.<T>invoke(vajramId, ImmutableList.copyOf(encoded), responseType);
+    if (sent.size() == requests.size()) {
+      return sent;
+    }
+    ImmutableList.Builder<CompletableFuture<@Nullable T>> responses =
+        ImmutableList.builderWithExpectedSize(requests.size());
+    int sentIndex = 0;
+    for (CompletableFuture<@Nullable T> encodingFailure : encodingFailures) {
+      responses.add(encodingFailure != null ? encodingFailure : sent.get(sentIndex++));
+    }
+    return responses.build();
+  }
+
+  /**
+   * Sends a request for each element of the batch to the remote vajram, as one batch.
+   *
+   * @param requestMapper Creates the request of the remote vajram corresponding to an element of
+   *     the batch
+   */
+  public <B> ImmutableMap<B, CompletableFuture<@Nullable T>> execute(
+      BatchedFacets<B, ?> batchedFacets, Function<? super B, R> requestMapper) {
+    List<B> batch = new ArrayList<>(new LinkedHashSet<>(batchedFacets.batch()));
+    ImmutableList<CompletableFuture<@Nullable T>> responses =
+        execute(batch.stream().map(requestMapper).toList());
+    ImmutableMap.Builder<B, CompletableFuture<@Nullable T>> result =
+        ImmutableMap.builderWithExpectedSize(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      result.put(batch.get(i), responses.get(i));
+    }
+    return result.build();
+  }
+}
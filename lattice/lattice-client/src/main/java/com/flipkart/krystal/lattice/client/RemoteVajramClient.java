@@ -0,0 +1,322 @@
+package com.flipkart.krystal.lattice.client;
+
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.FAILED;
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.INVALID_REQUEST;
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.OK;
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.UNAVAILABLE;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.Frame;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.RequestFrame;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.Response;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseFrame;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus;
+import com.flipkart.krystal.vajram.Vajram;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.flipkart.krystal.vajram.wire.VajramRequestCodec;
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A client which invokes vajrams hosted by a lattice server in another process, over a single
+ * persistent TCP connection speaking the {@link RemoteProtocol}.
+ *
+ * <p>Each call to {@link RemoteVajram#execute} sends all the given requests as one batch, so that
+ * batches formed by the input batchers of the local graph reach the remote server intact, where
+ * they are executed together. Calls never wait for the network: batches are queued to a writer
+ * thread which pipelines them onto the connection without waiting for the responses of earlier
+ * batches, and a reader thread completes the response futures as the server responds, in any
+ * order.
+ *
+ * <p>The connection is opened lazily. If it breaks, the batches in flight on it fail with a {@link
+ * RemoteInvocationException} of status {@link ResponseStatus#UNAVAILABLE}, and a new connection is
+ * opened for the next batch.
+ */
+@Slf4j
+public final class RemoteVajramClient implements AutoCloseable {
+
+  public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+  private static final AtomicLong CLIENT_COUNT = new AtomicLong();
+
+  private final InetSocketAddress address;
+  private final ObjectMapper objectMapper;
+  private final int connectTimeoutMillis;
+  private final String name = "lattice-client-" + CLIENT_COUNT.getAndIncrement();
+  private final AtomicLong streamIds = new AtomicLong();
+
+  private @Nullable Connection connection;
+  private boolean closed;
+
+  /**
+   * @param address The address at which the lattice server listens for the {@link RemoteProtocol}
+   * @param objectMapper Decodes the responses of the remote vajrams. Defaults to an {@link
+   *     ObjectMapper} which supports {@link java.util.Optional}s
+   * @param connectTimeout Defaults to {@link #DEFAULT_CONNECT_TIMEOUT}
+   */
+  @Builder
+  private RemoteVajramClient(
+      @NonNull InetSocketAddress address,
+      @Nullable ObjectMapper objectMapper,
+      @Nullable Duration connectTimeout) {
+    this.address = address;
+    this.objectMapper =
+        objectMapper == null ? new ObjectMapper().registerModule(new Jdk8Module()) : objectMapper;
+    this.connectTimeoutMillis =
+        (int) (connectTimeout == null ? DEFAULT_CONNECT_TIMEOUT : connectTimeout).toMillis();
+  }
+
+  /**
+   * Returns a handle to invoke the vajram with the given id in the remote server.
+   *
+   * @param codec The generated codec of the request class of the vajram
+   * @param responseType The class into which the json responses of the vajram are decoded
+   */
+  public <R extends VajramRequest<T>, T> RemoteVajram<R, T> remoteVajram(
+      String vajramId, VajramRequestCodec<R> codec, Class<T> responseType) {
+    return new RemoteVajram<>(
+        this, vajramId, codec, objectMapper.getTypeFactory().constructType(responseType));
+  }
+
+  /**
+   * Returns a handle to invoke the given vajram in the remote server. The codec of the vajram's
+   * request is the one generated by the vajram codegen, and the response type is inferred from the
+   * vajram's class.
+   *
+   * @throws IllegalArgumentException if the vajram does not have a generated request codec
+   */
+  @SuppressWarnings("unchecked")
+  public RemoteVajram<VajramRequest<Object>, Object> remoteVajram(
+      VajramDefinition vajramDefinition) {
+    Class<? extends Vajram<?>> vajramDefClass = vajramDefinition.vajramDefClass();
+    String codecClassName = vajramDefClass.getName() + "RequestCodec";
+    VajramRequestCodec<VajramRequest<Object>> codec;
+    try {
+      codec =
+          (VajramRequestCodec<VajramRequest<Object>>)
+              Class.forName(codecClassName, true, vajramDefClass.getClassLoader())
+                  .getConstructor()
+                  .newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException(
+          "Could not load the generated request codec %s of vajram %s"
+              .formatted(codecClassName, vajramDefinition.vajramId()),
+          e);
+    }
+    Type responseType =
+        TypeToken.of(vajramDefClass).resolveType(Vajram.class.getTypeParameters()[0]).getType();
+    return new RemoteVajram<>(
+        this,
+        vajramDefinition.vajramId().vajramId(),
+        codec,
+        objectMapper.getTypeFactory().constructType(responseType));
+  }
+
+  /** Fails all the batches in flight and closes the connection. */
+  @Override
+  public void close() {
+    Connection current;
+    synchronized (this) {
+      closed = true;
+      current = connection;
+      connection = null;
+    }
+    if (current != null) {
+      current.fail(new IOException("The client was closed"));
+    }
+  }
+
+  /** Sends the encoded requests as one batch to the remote vajram. */
+  <T> ImmutableList<CompletableFuture<@Nullable T>> invoke(
+      String vajramId, ImmutableList<byte[]> requests, JavaType responseType) {
+    ImmutableList.Builder<CompletableFuture<@Nullable T>> responses =
+        ImmutableList.builderWithExpectedSize(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      responses.add(new CompletableFuture<>());
+    }
+    PendingBatch<T> batch = new PendingBatch<>(responses.build(), responseType);
+    if (requests.isEmpty()) {
+      return batch.responses();
+    }
+    long streamId = streamIds.incrementAndGet();
+    byte[] frame;
+    try {
+      frame = RemoteProtocol.toBytes(new RequestFrame(streamId, vajramId, requests));
+    } catch (IOException e) {
+      batch.fail(INVALID_REQUEST, e);
+      return batch.responses();
+    }
+    Connection current;
+    synchronized (this) {
+      if (closed) {
+        batch.fail(UNAVAILABLE, new IOException("The client is closed"));
+        return batch.responses();
+      }
+      if (connection == null) {
+        connection = new Connection();
+      }
+      current = connection;
+    }
+    current.send(streamId, frame, batch);
+    return batch.responses();
+  }
+
+  private synchronized void connectionBroken(Connection broken) {
+    if (connection == broken) {
+      connection = null;
+    }
+  }
+
+  private record PendingBatch<T>(
+      ImmutableList<CompletableFuture<@Nullable T>> responses, JavaType responseType) {
+
+    void complete(ImmutableList<Response> received, ObjectMapper objectMapper) {
+      if (received.size() != responses.size()) {
+        fail(
+            FAILED,
+            new IOException(
+                "Expected %s responses, received %s".formatted(responses.size(), received.size())));
+        return;
+      }
+      for (int i = 0; i < responses.size(); i++) {
+        Response response = received.get(i);
+        if (response.status() != OK) {
+          responses
+              .get(i)
+              .completeExceptionally(
+                  new RemoteInvocationException(
+                      response.status(), response.errorMessage(), null));
+          continue;
+        }
+        try {
+          responses.get(i).complete(objectMapper.readValue(response.payload(), responseType));
+        } catch (IOException e) {
+          responses
+              .get(i)
+              .completeExceptionally(
+                  new RemoteInvocationException(FAILED, "Could not decode the response", e));
+        }
+      }
+    }
+
+    void fail(ResponseStatus status, Throwable cause) {
+      RemoteInvocationException exception =
+          new RemoteInvocationException(status, String.valueOf(cause.getMessage()), cause);
+      responses.forEach(response -> response.completeExceptionally(exception));
+    }
+  }
+
+  /** A connection to the server, with a writer thread and a reader thread of its own. */
+  private final class Connection {
+
+    private final Socket socket = new Socket();
+    private final Map<Long, PendingBatch<?>> inFlight = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<byte[]> outbox = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile @Nullable Throwable failure;
+
+    private Connection() {
+      this.writer = new Thread(this::write, name + "-writer");
+      writer.setDaemon(true);
+      writer.start();
+    }
+
+    void send(long streamId, byte[] frame, PendingBatch<?> batch) {
+      inFlight.put(streamId, batch);
+      outbox.add(frame);
+      Throwable failed = failure;
+      if (failed != null) {
+        // The connection broke concurrently and might have failed the in flight batches before
+        // this one was added.
+        failInFlight(failed);
+      }
+    }
+
+    private void write() {
+      try {
+        socket.connect(address, connectTimeoutMillis);
+        socket.setTcpNoDelay(true);
+        Thread reader = new Thread(this::read, name + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+        OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 1 << 16);
+        while (failure == null) {
+          out.write(outbox.take());
+          // Write all the batches which were queued meanwhile before flushing
+          for (byte[] frame = outbox.poll(); frame != null; frame = outbox.poll()) {
+            out.write(frame);
+          }
+          out.flush();
+        }
+      } catch (Throwable e) {
+        fail(e);
+      }
+    }
+
+    private void read() {
+      try {
+        DataInputStream in =
+            new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+        while (failure == null) {
+          Frame frame = RemoteProtocol.read(in);
+          if (!(frame instanceof ResponseFrame responseFrame)) {
+            throw new IOException("Server sent a frame which is not a response");
+          }
+          PendingBatch<?> batch = inFlight.remove(responseFrame.streamId());
+          if (batch == null) {
+            log.warn("Received a response for unknown stream {}", responseFrame.streamId());
+            continue;
+          }
+          batch.complete(responseFrame.responses(), objectMapper);
+        }
+      } catch (Throwable e) {
+        fail(e);
+      }
+    }
+
+    synchronized void fail(Throwable cause) {
+      if (failure != null) {
+        return;
+      }
+      failure = cause;
+      connectionBroken(this);
+      writer.interrupt();
+      try {
+        socket.close();
+      } catch (IOException e) {
+        log.debug("Could not close the connection to {}", address, e);
+      }
+      failInFlight(cause);
+    }
+
+    private void failInFlight(Throwable cause) {
+      for (Long streamId : inFlight.keySet()) {
+        PendingBatch<?> batch = inFlight.remove(streamId);
+        if (batch != null) {
+          batch.fail(UNAVAILABLE, cause);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.flipkart.krystal.lattice.server;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Thrown when an http request cannot be decoded into a request of the vajram it addresses. */
+final class InvalidRequestException extends Exception {
+
+  InvalidRequestException(String message, @Nullable Throwable cause) {
+    super(message, cause);
+  }
+}
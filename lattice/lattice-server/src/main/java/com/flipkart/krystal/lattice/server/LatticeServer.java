@@ -0,0 +1,327 @@
+package com.flipkart.krystal.lattice.server;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.lattice.client.RemoteProtocol;
+import com.flipkart.krystal.lattice.client.RemoteVajramClient;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.pooling.TenantAwareLeasePool;
+import com.flipkart.krystal.pooling.TenantLeaseStats;
+import com.flipkart.krystal.pooling.TenantPolicy;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An embedded http server which exposes every vajram marked {@code @ExternalInvocation(allow =
+ * true)} in a {@link VajramKryonGraph} as an API.
+ *
+ * <p>A vajram is invoked by a {@code POST} to {@code /<vajramId>} with a json object of its client
+ * inputs as the body. Vajrams having a generated request codec can also be invoked with a protobuf
+ * body, sent with the content type {@value #PROTOBUF_CONTENT_TYPE}. The response of the vajram is
+ * returned as the json body of the http response. Invalid requests fail with status 400, requests
+ * to unknown vajrams with 404, protobuf requests to vajrams without a codec with 415, requests
+ * which cannot be executed for want of an executor with 503, and failed executions with 500.
+ *
+ * <p>Http handler threads never wait for the execution of a vajram. They decode the request and
+ * hand it over to a dispatcher which coalesces all the requests arriving together - from any
+ * number of callers - into one vajram executor. This way the {@link InputBatcherConfig input
+ * batchers} registered with the graph batch the IO calls of concurrent callers together.
+ *
+ * <p>Callers can identify their tenant with the {@value #TENANT_HEADER} header. The executors
+ * pool is shared fairly among tenants (see {@link TenantAwareLeasePool}), so that a traffic spike
+ * from one tenant is shed instead of starving the others. Requests without the header belong to
+ * the {@link TenantAwareLeasePool#DEFAULT_TENANT default tenant}.
+ */
+@Slf4j
+public final class LatticeServer implements AutoCloseable {
+
+  public static final int DEFAULT_PORT = 8080;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+  public static final String PROTOBUF_CONTENT_TYPE = "application/x-protobuf";
+  public static final String TENANT_HEADER = "X-Krystal-Tenant";
+
+  private static final AtomicLong EXECUTOR_COUNT = new AtomicLong();
+
+  private final ImmutableMap<String, VajramEndpoint> endpoints;
+  private final ObjectMapper objectMapper;
+  private final TenantAwareLeasePool<SingleThreadExecutor> tenantLeasePool;
+  private final RequestCoalescer requestCoalescer;
+  private final ExecutorService handlerExecutor;
+  private final HttpServer httpServer;
+  private final @Nullable RemoteProtocolListener remoteListener;
+
+  /**
+   * Creates a server and binds it to its address. The server accepts requests once it is {@link
+   * #start() started}.
+   *
+   * @param vajramKryonGraph The graph whose externally invocable vajrams are exposed
+   * @param executorsPool The pool from which the threads of the vajram executors are leased
+   * @param address The address to bind to. Defaults to port {@value #DEFAULT_PORT} on all
+   *     interfaces
+   * @param objectMapper Decodes requests and encodes responses. Defaults to an {@link ObjectMapper}
+   *     which supports {@link java.util.Optional}s
+   * @param executorConfigFactory Creates the config of each vajram executor. Defaults to a config
+   *     with the default {@link KryonExecutorConfig}
+   * @param maxBatchSize The maximum number of requests coalesced into one vajram executor. Defaults
+   *     to {@value #DEFAULT_MAX_BATCH_SIZE}
+   * @param batchWindow The maximum duration for which a request waits for more requests to be
+   *     coalesced with. By default, requests are dispatched as soon as the dispatcher is free, and
+   *     only the requests which arrive while it is busy are coalesced.
+   * @param handlerThreads The number of threads which decode requests and write responses.
+   *     Defaults to the number of available processors.
+   * @param remoteAddress If set, the server also listens at this address for batches of requests
+   *     sent by {@link RemoteVajramClient}s over the {@link RemoteProtocol}. Only vajrams having a
+   *     generated request codec can be invoked this way. These requests belong to the default
+   *     tenant.
+   * @param tenantPolicies The policies of the tenants known upfront. See {@link
+   *     TenantAwareLeasePool}
+   * @param defaultTenantPolicy The policy of the tenants which are not in {@code tenantPolicies}.
+   *     Defaults to {@link TenantPolicy#DEFAULT}
+   */
+  @Builder
+  private LatticeServer(
+      @NonNull VajramKryonGraph vajramKryonGraph,
+      @NonNull SingleThreadExecutorsPool executorsPool,
+      @Nullable InetSocketAddress address,
+      @Nullable ObjectMapper objectMapper,
+      @Nullable Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory,
+      int maxBatchSize,
+      @Nullable Duration batchWindow,
+      int handlerThreads,
+      @Nullable InetSocketAddress remoteAddress,
+      @Singular Map<String, TenantPolicy> tenantPolicies,
+      @Nullable TenantPolicy defaultTenantPolicy)
+      throws IOException {
+    if (address == null) {
+      address = new InetSocketAddress(DEFAULT_PORT);
+    }
+    if (objectMapper == null) {
+      objectMapper = new ObjectMapper().registerModule(new Jdk8Module());
+    }
+    if (executorConfigFactory == null) {
+      executorConfigFactory =
+          executor ->
+              KrystexVajramExecutorConfig.builder()
+                  .requestId("lattice-" + EXECUTOR_COUNT.getAndIncrement())
+                  .kryonExecutorConfigBuilder(
+                      KryonExecutorConfig.builder().singleThreadExecutor(executor))
+                  .build();
+    }
+    if (maxBatchSize <= 0) {
+      maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    }
+    if (handlerThreads <= 0) {
+      handlerThreads = Runtime.getRuntime().availableProcessors();
+    }
+    ObjectMapper mapper = objectMapper;
+    this.objectMapper = mapper;
+    this.endpoints =
+        vajramKryonGraph.vajramDefinitions().values().stream()
+            .filter(LatticeServer::isExternallyInvocable)
+            .map(vajramDefinition -> VajramEndpoint.create(vajramDefinition, mapper))
+            .collect(toImmutableMap(endpoint -> endpoint.vajramId().vajramId(), e -> e));
+    this.tenantLeasePool =
+        TenantAwareLeasePool.<SingleThreadExecutor>builder()
+            .delegate(executorsPool)
+            .capacity(executorsPool.maxThreads())
+            .tenantPolicies(tenantPolicies)
+            .defaultPolicy(defaultTenantPolicy)
+            .build();
+    this.requestCoalescer =
+        new RequestCoalescer(
+            vajramKryonGraph,
+            tenantLeasePool,
+            executorConfigFactory,
+            maxBatchSize,
+            batchWindow == null ? 0 : batchWindow.toNanos());
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.handlerExecutor =
+        Executors.newFixedThreadPool(
+            handlerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "lattice-http-handler-" + threadIndex.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.httpServer = HttpServer.create(address, 0);
+    httpServer.setExecutor(handlerExecutor);
+    httpServer.createContext("/", this::handle);
+    this.remoteListener =
+        remoteAddress == null
+            ? null
+            : new RemoteProtocolListener(
+                remoteAddress, endpoints, requestCoalescer, mapper, handlerExecutor);
+  }
+
+  public void start() {
+    requestCoalescer.start();
+    httpServer.start();
+    if (remoteListener != null) {
+      remoteListener.start();
+      log.info("Lattice server listening for remote vajram clients on {}", remoteAddress());
+    }
+    log.info("Lattice server listening on {}. Exposed vajrams: {}", address(), endpoints.keySet());
+  }
+
+  /** Returns the address the server is bound to. */
+  public InetSocketAddress address() {
+    return httpServer.getAddress();
+  }
+
+  /**
+   * Returns the address at which the server listens for {@link RemoteVajramClient}s.
+   *
+   * @throws IllegalStateException if the server was not built with a remote address
+   */
+  public InetSocketAddress remoteAddress() {
+    if (remoteListener == null) {
+      throw new IllegalStateException("The server does not listen for remote vajram clients");
+    }
+    return remoteListener.address();
+  }
+
+  /** Returns the lease stats of the tenants of this server. */
+  public ImmutableMap<String, TenantLeaseStats> tenantStats() {
+    return tenantLeasePool.tenantStats();
+  }
+
+  /**
+   * Stops accepting new requests, and waits for the requests already received to be responded to.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    requestCoalescer.close();
+    httpServer.stop((int) TimeUnit.MINUTES.toSeconds(1));
+    if (remoteListener != null) {
+      try {
+        remoteListener.close();
+      } catch (IOException e) {
+        log.warn("Could not close the listener for remote vajram clients", e);
+      }
+    }
+    handlerExecutor.shutdown();
+  }
+
+  private void handle(HttpExchange exchange) {
+    try {
+      String path = exchange.getRequestURI().getPath();
+      VajramEndpoint endpoint = endpoints.get(path.startsWith("/") ? path.substring(1) : path);
+      if (endpoint == null) {
+        sendError(exchange, 404, "No vajram is exposed at " + path);
+        return;
+      }
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", "POST");
+        sendError(exchange, 405, "Vajrams can only be invoked with POST");
+        return;
+      }
+      byte[] body;
+      try (InputStream requestBody = exchange.getRequestBody()) {
+        body = requestBody.readAllBytes();
+      }
+      boolean proto = isProto(exchange.getRequestHeaders().getFirst("Content-Type"));
+      if (proto && !endpoint.supportsProto()) {
+        sendError(exchange, 415, "Vajram %s does not accept protobuf".formatted(path));
+        return;
+      }
+      VajramRequest<Object> request;
+      try {
+        request = proto ? endpoint.decodeProto(body) : endpoint.decodeJson(body);
+      } catch (InvalidRequestException e) {
+        sendError(exchange, 400, e.getMessage());
+        return;
+      }
+      requestCoalescer
+          .submit(
+              endpoint.vajramId(),
+              request,
+              exchange.getRequestHeaders().getFirst(TENANT_HEADER))
+          .whenCompleteAsync((result, error) -> respond(exchange, result, error), handlerExecutor);
+    } catch (Throwable e) {
+      log.error("Could not handle request to {}", exchange.getRequestURI(), e);
+      sendError(exchange, 500, "Internal error");
+    }
+  }
+
+  private void respond(HttpExchange exchange, @Nullable Object result, @Nullable Throwable error) {
+    if (error instanceof CompletionException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    if (error instanceof LeaseUnavailableException
+        || error instanceof RejectedExecutionException) {
+      sendError(exchange, 503, String.valueOf(error.getMessage()));
+    } else if (error != null) {
+      sendError(exchange, 500, String.valueOf(error));
+    } else {
+      try {
+        send(exchange, 200, objectMapper.writeValueAsBytes(result));
+      } catch (IOException e) {
+        sendError(exchange, 500, "Could not encode the response");
+      }
+    }
+  }
+
+  private void sendError(HttpExchange exchange, int status, @Nullable String message) {
+    try {
+      send(
+          exchange,
+          status,
+          objectMapper.writeValueAsBytes(Map.of("error", String.valueOf(message))));
+    } catch (IOException e) {
+      log.debug("Could not send error response to {}", exchange.getRemoteAddress(), e);
+      exchange.close();
+    }
+  }
+
+  private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(status, body.length);
+      responseBody.write(body);
+    }
+  }
+
+  private static boolean isProto(@Nullable String contentType) {
+    return contentType != null && contentType.startsWith(PROTOBUF_CONTENT_TYPE);
+  }
+
+  private static boolean isExternallyInvocable(VajramDefinition vajramDefinition) {
+    return vajramDefinition
+        .vajramTags()
+        .getAnnotationByType(ExternalInvocation.class)
+        .map(ExternalInvocation::allow)
+        .orElse(false);
+  }
+}
@@ -0,0 +1,195 @@
+package com.flipkart.krystal.lattice.server;
+
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.FAILED;
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.INVALID_REQUEST;
+import static com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus.UNAVAILABLE;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.krystal.lattice.client.RemoteProtocol;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.Frame;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.RequestFrame;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.Response;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseFrame;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Serves batches of vajram requests sent by {@link
+ * com.flipkart.krystal.lattice.client.RemoteVajramClient}s over the {@link RemoteProtocol}.
+ *
+ * <p>Each connection has a thread which reads its frames. All the requests of a frame are handed
+ * to the {@link RequestCoalescer} together - so they are executed in the same vajram executor,
+ * along with any other requests arriving at the same time - and the thread moves on to the next
+ * frame without waiting for them. The response frame of a batch is written by a handler thread
+ * once all its requests complete.
+ */
+@Slf4j
+final class RemoteProtocolListener implements AutoCloseable {
+
+  private final ImmutableMap<String, VajramEndpoint> endpoints;
+  private final RequestCoalescer requestCoalescer;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService handlerExecutor;
+  private final ServerSocket serverSocket;
+  private final Thread acceptor;
+  private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+  private volatile boolean closed;
+
+  RemoteProtocolListener(
+      InetSocketAddress address,
+      ImmutableMap<String, VajramEndpoint> endpoints,
+      RequestCoalescer requestCoalescer,
+      ObjectMapper objectMapper,
+      ExecutorService handlerExecutor)
+      throws IOException {
+    this.endpoints = endpoints;
+    this.requestCoalescer = requestCoalescer;
+    this.objectMapper = objectMapper;
+    this.handlerExecutor = handlerExecutor;
+    this.serverSocket = new ServerSocket();
+    serverSocket.bind(address);
+    this.acceptor = new Thread(this::accept, "lattice-remote-acceptor");
+    acceptor.setDaemon(true);
+  }
+
+  void start() {
+    acceptor.start();
+  }
+
+  InetSocketAddress address() {
+    return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+  }
+
+  /** Stops accepting connections and closes the open ones. */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    serverSocket.close();
+    for (Socket connection : connections) {
+      connection.close();
+    }
+  }
+
+  private void accept() {
+    int connectionCount = 0;
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        connections.add(socket);
+        Thread reader =
+            new Thread(() -> serve(socket), "lattice-remote-connection-" + connectionCount++);
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        if (!closed) {
+          log.error("Could not accept connection", e);
+        }
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket) {
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+      OutputStream out = socket.getOutputStream();
+      while (!closed) {
+        Frame frame = RemoteProtocol.read(in);
+        if (!(frame instanceof RequestFrame requestFrame)) {
+          throw new IOException("Client sent a frame which is not a request");
+        }
+        handle(requestFrame, out);
+      }
+    } catch (EOFException | SocketException e) {
+      log.debug("Connection from {} closed", socket.getRemoteSocketAddress());
+    } catch (IOException e) {
+      log.warn("Closing connection from {}", socket.getRemoteSocketAddress(), e);
+    } finally {
+      connections.remove(socket);
+    }
+  }
+
+  private void handle(RequestFrame frame, OutputStream out) {
+    VajramEndpoint endpoint = endpoints.get(frame.vajramId());
+    List<CompletableFuture<@Nullable Object>> responses = new ArrayList<>(frame.requests().size());
+    for (byte[] body : frame.requests()) {
+      CompletableFuture<@Nullable Object> response;
+      if (endpoint == null || !endpoint.supportsProto()) {
+        response =
+            CompletableFuture.failedFuture(
+                new InvalidRequestException(
+                    "No vajram is exposed with id " + frame.vajramId(), null));
+      } else {
+        try {
+          VajramRequest<Object> request = endpoint.decodeProto(body);
+          response = requestCoalescer.submit(endpoint.vajramId(), request, null);
+        } catch (InvalidRequestException e) {
+          response = CompletableFuture.failedFuture(e);
+        }
+      }
+      responses.add(response);
+    }
+    allOf(responses.toArray(CompletableFuture[]::new))
+        .whenCompleteAsync(
+            (_r, _t) -> respond(frame.streamId(), responses, out), handlerExecutor);
+  }
+
+  private void respond(
+      long streamId, List<CompletableFuture<@Nullable Object>> responses, OutputStream out) {
+    ImmutableList.Builder<Response> frameResponses =
+        ImmutableList.builderWithExpectedSize(responses.size());
+    for (CompletableFuture<@Nullable Object> response : responses) {
+      frameResponses.add(toResponse(response));
+    }
+    try {
+      byte[] frame = RemoteProtocol.toBytes(new ResponseFrame(streamId, frameResponses.build()));
+      synchronized (out) {
+        out.write(frame);
+        out.flush();
+      }
+    } catch (IOException e) {
+      log.debug("Could not respond to stream {}", streamId, e);
+    }
+  }
+
+  private Response toResponse(CompletableFuture<@Nullable Object> response) {
+    try {
+      return new Response(ResponseStatus.OK, objectMapper.writeValueAsBytes(response.join()));
+    } catch (CompletionException e) {
+      Throwable error = e.getCause() != null ? e.getCause() : e;
+      if (error instanceof InvalidRequestException) {
+        return Response.error(INVALID_REQUEST, String.valueOf(error.getMessage()));
+      } else if (error instanceof LeaseUnavailableException
+          || error instanceof RejectedExecutionException) {
+        return Response.error(UNAVAILABLE, String.valueOf(error.getMessage()));
+      }
+      return Response.error(FAILED, String.valueOf(error));
+    } catch (IOException e) {
+      return Response.error(FAILED, "Could not encode the response");
+    }
+  }
+}
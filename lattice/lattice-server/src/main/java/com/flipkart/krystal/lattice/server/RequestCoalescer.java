@@ -0,0 +1,201 @@
+package com.flipkart.krystal.lattice.server;
+
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.pooling.TenantAwareLeasePool;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Coalesces concurrently arriving requests into shared vajram executors. A single dispatcher
+ * thread drains all the pending requests - of any of the exposed vajrams - and submits them to one
+ * {@link KrystexVajramExecutor} before flushing it, so that the input batchers registered with the
+ * graph batch the IO calls of all these requests together.
+ *
+ * <p>The dispatcher does not wait for a batch to complete before dispatching the next one. The
+ * number of batches in flight is bounded by the size of the executors pool - requests which
+ * arrive when no executor is available fail with a {@link LeaseUnavailableException}.
+ *
+ * <p>Requests of different tenants are never coalesced into the same executor. The executor of
+ * each tenant's requests is leased on behalf of the tenant, so that the pool can isolate the
+ * tenants from each other's traffic.
+ */
+@Slf4j
+final class RequestCoalescer implements AutoCloseable {
+
+  private record PendingRequest(
+      VajramID vajramId,
+      VajramRequest<Object> request,
+      @Nullable String tenantId,
+      CompletableFuture<@Nullable Object> response) {}
+
+  private final VajramKryonGraph vajramKryonGraph;
+  private final TenantAwareLeasePool<SingleThreadExecutor> executorsPool;
+  private final Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory;
+  private final int maxBatchSize;
+  private final long batchWindowNanos;
+  private final LinkedBlockingQueue<PendingRequest> pendingRequests = new LinkedBlockingQueue<>();
+  private final Thread dispatcherThread;
+  private volatile boolean closed;
+
+  RequestCoalescer(
+      VajramKryonGraph vajramKryonGraph,
+      TenantAwareLeasePool<SingleThreadExecutor> executorsPool,
+      Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory,
+      int maxBatchSize,
+      long batchWindowNanos) {
+    this.vajramKryonGraph = vajramKryonGraph;
+    this.executorsPool = executorsPool;
+    this.executorConfigFactory = executorConfigFactory;
+    this.maxBatchSize = maxBatchSize;
+    this.batchWindowNanos = batchWindowNanos;
+    this.dispatcherThread = new Thread(this::run, "lattice-request-coalescer");
+    dispatcherThread.setDaemon(true);
+  }
+
+  void start() {
+    dispatcherThread.start();
+  }
+
+  /**
+   * @param tenantId The tenant on whose behalf the request is executed. If null, the request is
+   *     attributed to the {@link TenantAwareLeasePool#DEFAULT_TENANT default tenant}
+   */
+  CompletableFuture<@Nullable Object> submit(
+      VajramID vajramId, VajramRequest<Object> request, @Nullable String tenantId) {
+    if (closed) {
+      return CompletableFuture.failedFuture(
+          new RejectedExecutionException("The server is shutting down"));
+    }
+    CompletableFuture<@Nullable Object> response = new CompletableFuture<>();
+    pendingRequests.add(new PendingRequest(vajramId, request, tenantId, response));
+    if (closed && !dispatcherThread.isAlive()) {
+      // The coalescer was closed after the check above, and the dispatcher (as well as close())
+      // might have finished draining the queue before this request was added to it.
+      failPendingRequests();
+    }
+    return response;
+  }
+
+  /** Stops accepting requests after dispatching the requests which are already pending. */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    dispatcherThread.join(TimeUnit.MINUTES.toMillis(1));
+    if (!dispatcherThread.isAlive()) {
+      failPendingRequests();
+    }
+  }
+
+  private void failPendingRequests() {
+    List<PendingRequest> remaining = new ArrayList<>();
+    pendingRequests.drainTo(remaining);
+    remaining.forEach(
+        request ->
+            request
+                .response()
+                .completeExceptionally(
+                    new RejectedExecutionException("The server is shutting down")));
+  }
+
+  private void run() {
+    List<PendingRequest> batch = new ArrayList<>();
+    while (!closed || !pendingRequests.isEmpty()) {
+      try {
+        PendingRequest first = pendingRequests.poll(100, MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + batchWindowNanos;
+        pendingRequests.drainTo(batch, maxBatchSize - batch.size());
+        long remaining;
+        while (batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+          PendingRequest next = pendingRequests.poll(remaining, NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          pendingRequests.drainTo(batch, maxBatchSize - batch.size());
+        }
+      } catch (InterruptedException e) {
+        batch.forEach(request -> request.response().completeExceptionally(e));
+        return;
+      }
+      Map<@Nullable String, List<PendingRequest>> batchesByTenant = new LinkedHashMap<>();
+      for (PendingRequest request : batch) {
+        batchesByTenant.computeIfAbsent(request.tenantId(), _t -> new ArrayList<>()).add(request);
+      }
+      batchesByTenant.forEach(
+          (tenantId, tenantBatch) -> {
+            try {
+              dispatch(tenantId, tenantBatch);
+            } catch (Throwable e) {
+              log.error("Could not dispatch a batch of {} requests", tenantBatch.size(), e);
+              tenantBatch.forEach(request -> request.response().completeExceptionally(e));
+            }
+          });
+      batch.clear();
+    }
+  }
+
+  private void dispatch(@Nullable String tenantId, List<PendingRequest> batch) {
+    Lease<SingleThreadExecutor> lease;
+    try {
+      lease = executorsPool.lease(tenantId);
+    } catch (LeaseUnavailableException e) {
+      batch.forEach(request -> request.response().completeExceptionally(e));
+      return;
+    }
+    List<CompletableFuture<@Nullable Object>> responses = new ArrayList<>(batch.size());
+    try (KrystexVajramExecutor vajramExecutor =
+        vajramKryonGraph.createExecutor(executorConfigFactory.apply(lease.get()))) {
+      for (int i = 0; i < batch.size(); i++) {
+        PendingRequest pendingRequest = batch.get(i);
+        CompletableFuture<@Nullable Object> response;
+        try {
+          response =
+              vajramExecutor.execute(
+                  pendingRequest.vajramId(),
+                  pendingRequest.request(),
+                  KryonExecutionConfig.builder().executionId("request-" + i).build());
+        } catch (Throwable e) {
+          response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete(
+            (result, error) -> {
+              if (error != null) {
+                pendingRequest.response().completeExceptionally(error);
+              } else {
+                pendingRequest.response().complete(result);
+              }
+            });
+        responses.add(response);
+      }
+    } catch (Throwable e) {
+      lease.close();
+      throw e;
+    }
+    allOf(responses.toArray(CompletableFuture[]::new)).whenComplete((_r, _t) -> lease.close());
+  }
+}
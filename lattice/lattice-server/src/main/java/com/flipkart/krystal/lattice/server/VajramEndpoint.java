@@ -0,0 +1,192 @@
+package com.flipkart.krystal.lattice.server;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.flipkart.krystal.vajram.facets.InputDef;
+import com.flipkart.krystal.vajram.facets.InputSource;
+import com.flipkart.krystal.vajram.wire.VajramRequestCodec;
+import com.flipkart.krystal.vajram.wire.WireFormatException;
+import com.google.common.collect.ImmutableMap;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An API exposing a single vajram. Decodes the body of an http request into the vajram's generated
+ * {@link VajramRequest}. Only the inputs which can be provided by clients ({@link
+ * InputSource#CLIENT}) are accepted.
+ *
+ * <p>If the vajram has a generated {@link VajramRequestCodec}, json bodies are decoded by it
+ * without any reflection, and protobuf bodies are accepted too. Otherwise json bodies are decoded
+ * via jackson, and protobuf bodies are not supported.
+ */
+final class VajramEndpoint {
+
+  private final VajramID vajramId;
+  private final ImmutableMap<String, InputDef<?>> clientInputs;
+  private final ImmutableMap<String, JavaType> inputTypes;
+
+  /** The static {@code from(Facets)} method of the generated request class of the vajram. */
+  private final MethodHandle requestFactory;
+
+  private final ObjectMapper objectMapper;
+  private final @Nullable VajramRequestCodec<?> codec;
+
+  private VajramEndpoint(
+      VajramID vajramId,
+      ImmutableMap<String, InputDef<?>> clientInputs,
+      ImmutableMap<String, JavaType> inputTypes,
+      MethodHandle requestFactory,
+      ObjectMapper objectMapper,
+      @Nullable VajramRequestCodec<?> codec) {
+    this.vajramId = vajramId;
+    this.clientInputs = clientInputs;
+    this.inputTypes = inputTypes;
+    this.requestFactory = requestFactory;
+    this.objectMapper = objectMapper;
+    this.codec = codec;
+  }
+
+  static VajramEndpoint create(VajramDefinition vajramDefinition, ObjectMapper objectMapper) {
+    ImmutableMap<String, InputDef<?>> clientInputs =
+        vajramDefinition.vajram().getFacetDefinitions().stream()
+            .filter(facet -> facet instanceof InputDef<?>)
+            .<InputDef<?>>map(facet -> (InputDef<?>) facet)
+            .filter(input -> input.sources().contains(InputSource.CLIENT))
+            .collect(toImmutableMap(InputDef::name, identity()));
+    ImmutableMap.Builder<String, JavaType> inputTypes = ImmutableMap.builder();
+    String requestClassName = vajramDefinition.vajramDefClass().getName() + "Request";
+    try {
+      for (InputDef<?> input : clientInputs.values()) {
+        inputTypes.put(
+            input.name(),
+            objectMapper.getTypeFactory().constructType(input.type().javaReflectType()));
+      }
+      Class<?> requestClass =
+          Class.forName(
+              requestClassName, true, vajramDefinition.vajramDefClass().getClassLoader());
+      MethodHandle requestFactory =
+          MethodHandles.publicLookup()
+              .findStatic(requestClass, "from", MethodType.methodType(requestClass, Facets.class));
+      return new VajramEndpoint(
+          vajramDefinition.vajramId(),
+          clientInputs,
+          inputTypes.build(),
+          requestFactory,
+          objectMapper,
+          loadCodec(requestClass));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          "Could not load the generated request class %s of vajram %s"
+              .formatted(requestClassName, vajramDefinition.vajramId()),
+          e);
+    }
+  }
+
+  private static @Nullable VajramRequestCodec<?> loadCodec(Class<?> requestClass)
+      throws ReflectiveOperationException {
+    Class<?> codecClass;
+    try {
+      codecClass =
+          Class.forName(requestClass.getName() + "Codec", true, requestClass.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    return (VajramRequestCodec<?>) codecClass.getConstructor().newInstance();
+  }
+
+  VajramID vajramId() {
+    return vajramId;
+  }
+
+  boolean supportsProto() {
+    return codec != null;
+  }
+
+  /**
+   * @throws InvalidRequestException if the body is not a valid protobuf encoding of the request of
+   *     the vajram, or if a mandatory input is missing
+   * @throws IllegalStateException if the vajram does not have a generated codec
+   */
+  @SuppressWarnings("unchecked")
+  VajramRequest<Object> decodeProto(byte[] body) throws InvalidRequestException {
+    if (codec == null) {
+      throw new IllegalStateException("Vajram %s does not support protobuf".formatted(vajramId));
+    }
+    try {
+      return (VajramRequest<Object>) codec.fromProto(body);
+    } catch (WireFormatException e) {
+      throw new InvalidRequestException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @throws InvalidRequestException if the body is not a json object of the client inputs of the
+   *     vajram, or if a mandatory input is missing
+   */
+  @SuppressWarnings("unchecked")
+  VajramRequest<Object> decodeJson(byte[] body) throws InvalidRequestException {
+    if (codec != null) {
+      try {
+        return (VajramRequest<Object>) codec.fromJson(body);
+      } catch (WireFormatException e) {
+        throw new InvalidRequestException(e.getMessage(), e);
+      }
+    }
+    JsonNode json;
+    try {
+      json = body.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+    } catch (Exception e) {
+      throw new InvalidRequestException("Request body is not valid json", e);
+    }
+    if (!json.isObject()) {
+      throw new InvalidRequestException("Request body must be a json object", null);
+    }
+    Map<String, FacetValue<Object>> facetValues = new HashMap<>();
+    for (Iterator<Map.Entry<String, JsonNode>> fields = json.fields(); fields.hasNext(); ) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JavaType inputType = inputTypes.get(field.getKey());
+      if (inputType == null) {
+        throw new InvalidRequestException(
+            "%s is not an input of vajram %s".formatted(field.getKey(), vajramId.vajramId()),
+            null);
+      }
+      if (field.getValue().isNull()) {
+        continue;
+      }
+      try {
+        facetValues.put(
+            field.getKey(),
+            Errable.withValue(objectMapper.convertValue(field.getValue(), inputType)));
+      } catch (IllegalArgumentException e) {
+        throw new InvalidRequestException(
+            "Invalid value for input %s".formatted(field.getKey()), e);
+      }
+    }
+    for (InputDef<?> input : clientInputs.values()) {
+      if (input.isMandatory() && !facetValues.containsKey(input.name())) {
+        throw new InvalidRequestException(
+            "Mandatory input %s is missing".formatted(input.name()), null);
+      }
+    }
+    try {
+      return (VajramRequest<Object>) requestFactory.invoke(new Facets(facetValues));
+    } catch (Throwable e) {
+      throw new InvalidRequestException("Could not create request of " + vajramId.vajramId(), e);
+    }
+  }
+}
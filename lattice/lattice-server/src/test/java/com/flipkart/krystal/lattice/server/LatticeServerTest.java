@@ -0,0 +1,155 @@
+package com.flipkart.krystal.lattice.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.pooling.TenantPolicy;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.samples.calculator.Formula;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaRequest;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaRequestCodec;
+import com.flipkart.krystal.vajram.samples.calculator.adder.Adder;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LatticeServerTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private VajramKryonGraph graph;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    EXEC_POOL.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    graph =
+        VajramKryonGraph.builder().loadFromPackage(Formula.class.getPackageName()).build();
+    graph.registerInputBatchers(
+        graph.getVajramId(Adder.class),
+        InputBatcherConfig.simple(() -> new InputBatcherImpl<>(100)));
+    Adder.CALL_COUNTER.reset();
+  }
+
+  @Test
+  void concurrentRequests_coalescedIntoOneExecutor_ioBatchedAcrossCallers() throws Exception {
+    try (LatticeServer server = newServer(Duration.ofSeconds(5))) {
+      server.start();
+      List<CompletableFuture<HttpResponse<String>>> responses =
+          IntStream.range(0, 20)
+              .mapToObj(
+                  i -> post(server, "Formula", "{\"a\": %s, \"p\": 2, \"q\": 3}".formatted(i * 5)))
+              .toList();
+      for (int i = 0; i < responses.size(); i++) {
+        HttpResponse<String> response = responses.get(i).join();
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(String.valueOf(i));
+      }
+      assertThat(Adder.CALL_COUNTER.sum()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void invalidRequests_rejectedWithClientErrors() throws Exception {
+    try (LatticeServer server = newServer(null)) {
+      server.start();
+      assertThat(post(server, "Formula", "{\"a\": 1, \"p\": 2}").join().statusCode())
+          .isEqualTo(400);
+      assertThat(post(server, "Formula", "{\"a\": \"x\", \"p\": 2, \"q\": 3}").join().statusCode())
+          .isEqualTo(400);
+      // Adder is not marked for external invocation
+      assertThat(post(server, "Adder", "{\"numberOne\": 1}").join().statusCode()).isEqualTo(404);
+    }
+  }
+
+  @Test
+  void protoRequest_decodedByGeneratedCodec() throws Exception {
+    try (LatticeServer server = newServer(null)) {
+      server.start();
+      byte[] body =
+          new FormulaRequestCodec().toProto(FormulaRequest.builder().a(100).p(2).q(3).build());
+      HttpResponse<String> response =
+          httpClient
+              .sendAsync(
+                  HttpRequest.newBuilder(uri(server, "Formula"))
+                      .header("Content-Type", LatticeServer.PROTOBUF_CONTENT_TYPE)
+                      .POST(BodyPublishers.ofByteArray(body))
+                      .build(),
+                  BodyHandlers.ofString())
+              .join();
+      assertThat(response.statusCode()).isEqualTo(200);
+      assertThat(response.body()).isEqualTo("20");
+    }
+  }
+
+  @Test
+  void tenantHeader_executorLeasedOnBehalfOfTenant() throws Exception {
+    try (LatticeServer server =
+        newServerBuilder(null)
+            .tenantPolicy("gold", TenantPolicy.builder().weight(3).build())
+            .tenantPolicy("bronze", TenantPolicy.DEFAULT)
+            .build()) {
+      server.start();
+      HttpResponse<String> response =
+          httpClient
+              .sendAsync(
+                  HttpRequest.newBuilder(uri(server, "Formula"))
+                      .header(LatticeServer.TENANT_HEADER, "gold")
+                      .POST(BodyPublishers.ofString("{\"a\": 100, \"p\": 2, \"q\": 3}"))
+                      .build(),
+                  BodyHandlers.ofString())
+              .join();
+      assertThat(response.statusCode()).isEqualTo(200);
+      assertThat(server.tenantStats().get("gold").grantedLeases()).isEqualTo(1);
+      assertThat(server.tenantStats().get("gold").fairShare()).isEqualTo(3);
+      assertThat(server.tenantStats().get("bronze").grantedLeases()).isEqualTo(0);
+    }
+  }
+
+  private LatticeServer newServer(Duration batchWindow) throws Exception {
+    return newServerBuilder(batchWindow).build();
+  }
+
+  private LatticeServer.LatticeServerBuilder newServerBuilder(Duration batchWindow) {
+    return LatticeServer.builder()
+        .vajramKryonGraph(graph)
+        .executorsPool(EXEC_POOL)
+        .address(new InetSocketAddress("localhost", 0))
+        .maxBatchSize(20)
+        .batchWindow(batchWindow);
+  }
+
+  private CompletableFuture<HttpResponse<String>> post(
+      LatticeServer server, String vajramId, String body) {
+    return httpClient.sendAsync(
+        HttpRequest.newBuilder(uri(server, vajramId)).POST(BodyPublishers.ofString(body)).build(),
+        BodyHandlers.ofString());
+  }
+
+  private static URI uri(LatticeServer server, String vajramId) {
+    return URI.create("http://localhost:%s/%s".formatted(server.address().getPort(), vajramId));
+  }
+}
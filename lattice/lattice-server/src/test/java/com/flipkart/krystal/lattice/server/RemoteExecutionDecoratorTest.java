@@ -0,0 +1,168 @@
+package com.flipkart.krystal.lattice.server;
+
+import static com.flipkart.krystal.lattice.client.RemoteExecutionDecorator.dependantChains;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
+import com.flipkart.krystal.lattice.client.RemoteExecutionDecorator;
+import com.flipkart.krystal.lattice.client.RemoteVajramClient;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.vajram.samples.calculator.A2MinusB2;
+import com.flipkart.krystal.vajram.samples.calculator.A2MinusB2Request;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class RemoteExecutionDecoratorTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    EXEC_POOL.close();
+  }
+
+  @Test
+  void dependencyAtDependantChain_executedByWorker() throws Exception {
+    AtomicInteger workerExecutions = new AtomicInteger();
+    // The worker hosts its own instance of the same graph
+    try (LatticeServer worker =
+        LatticeServer.builder()
+            .vajramKryonGraph(newGraph())
+            .executorsPool(EXEC_POOL)
+            .address(new InetSocketAddress("localhost", 0))
+            .remoteAddress(new InetSocketAddress("localhost", 0))
+            .executorConfigFactory(
+                executor -> {
+                  workerExecutions.incrementAndGet();
+                  return KrystexVajramExecutorConfig.builder()
+                      .requestId("worker-" + workerExecutions.get())
+                      .kryonExecutorConfigBuilder(
+                          KryonExecutorConfig.builder().singleThreadExecutor(executor))
+                      .build();
+                })
+            .build()) {
+      worker.start();
+      VajramKryonGraph graph = newGraph();
+      DependantChain twoA = graph.computeDependantChain("A2MinusB2", "twoA");
+      CompletableFuture<Integer> result;
+      try (RemoteVajramClient client =
+              RemoteVajramClient.builder().address(worker.remoteAddress()).build();
+          Lease<SingleThreadExecutor> lease = EXEC_POOL.lease()) {
+        KrystexVajramExecutorConfig config =
+            KrystexVajramExecutorConfig.builder()
+                .requestId("local")
+                .kryonExecutorConfigBuilder(
+                    KryonExecutorConfig.builder()
+                        .singleThreadExecutor(lease.get())
+                        .requestScopedKryonDecoratorConfig(
+                            RemoteExecutionDecorator.DECORATOR_TYPE,
+                            RemoteExecutionDecorator.config(client, graph, dependantChains(twoA))))
+                .build();
+        try (KrystexVajramExecutor executor = graph.createExecutor(config)) {
+          result =
+              executor.execute(
+                  graph.getVajramId(A2MinusB2.class),
+                  A2MinusB2Request.builder().a(5).b(3).build());
+        }
+        // 2*5 - 2*3
+        assertThat(result.get(5, SECONDS)).isEqualTo(4);
+      }
+      // Only twoA is offloaded. twoB, which also depends on Multiplier, is executed locally.
+      assertThat(workerExecutions.get()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void remoteResponse_processedOnExecutorThread() throws Exception {
+    try (LatticeServer worker =
+        LatticeServer.builder()
+            .vajramKryonGraph(newGraph())
+            .executorsPool(EXEC_POOL)
+            .address(new InetSocketAddress("localhost", 0))
+            .remoteAddress(new InetSocketAddress("localhost", 0))
+            .build()) {
+      worker.start();
+      VajramKryonGraph graph = newGraph();
+      DependantChain twoA = graph.computeDependantChain("A2MinusB2", "twoA");
+      // A2MinusB2 is a compute vajram, so its output logic runs on the thread which delivers the
+      // last of its dependency responses - the offloaded twoA's, since it is the slowest.
+      CompletableFuture<Thread> outputLogicThread = new CompletableFuture<>();
+      OutputLogicDecorator threadRecorder =
+          new OutputLogicDecorator() {
+            @Override
+            public OutputLogic<Object> decorateLogic(
+                OutputLogic<Object> logicToDecorate,
+                OutputLogicDefinition<Object> originalLogicDefinition) {
+              return facetsList -> {
+                outputLogicThread.complete(Thread.currentThread());
+                return logicToDecorate.execute(facetsList);
+              };
+            }
+
+            @Override
+            public String getId() {
+              return "threadRecorder";
+            }
+          };
+      try (RemoteVajramClient client =
+              RemoteVajramClient.builder().address(worker.remoteAddress()).build();
+          Lease<SingleThreadExecutor> lease = EXEC_POOL.lease()) {
+        Thread executorThread = lease.get().submit(Thread::currentThread).get();
+        KrystexVajramExecutorConfig config =
+            KrystexVajramExecutorConfig.builder()
+                .requestId("local")
+                .kryonExecutorConfigBuilder(
+                    KryonExecutorConfig.builder()
+                        .singleThreadExecutor(lease.get())
+                        .requestScopedKryonDecoratorConfig(
+                            RemoteExecutionDecorator.DECORATOR_TYPE,
+                            RemoteExecutionDecorator.config(client, graph, dependantChains(twoA)))
+                        .requestScopedLogicDecoratorConfigs(
+                            Map.of(
+                                "threadRecorder",
+                                List.of(
+                                    new OutputLogicDecoratorConfig(
+                                        "threadRecorder",
+                                        context -> context.kryonId().value().equals("A2MinusB2"),
+                                        context -> "threadRecorder",
+                                        context -> threadRecorder)))))
+                .build();
+        CompletableFuture<Integer> result;
+        try (KrystexVajramExecutor executor = graph.createExecutor(config)) {
+          result =
+              executor.execute(
+                  graph.getVajramId(A2MinusB2.class),
+                  A2MinusB2Request.builder().a(5).b(3).build());
+        }
+        assertThat(result.get(5, SECONDS)).isEqualTo(4);
+        assertThat(outputLogicThread.get(5, SECONDS)).isSameAs(executorThread);
+      }
+    }
+  }
+
+  private static VajramKryonGraph newGraph() {
+    return VajramKryonGraph.builder().loadFromPackage(A2MinusB2.class.getPackageName()).build();
+  }
+}
@@ -0,0 +1,120 @@
+package com.flipkart.krystal.lattice.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.lattice.client.RemoteInvocationException;
+import com.flipkart.krystal.lattice.client.RemoteProtocol.ResponseStatus;
+import com.flipkart.krystal.lattice.client.RemoteVajram;
+import com.flipkart.krystal.lattice.client.RemoteVajramClient;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.samples.calculator.Formula;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaRequest;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaRequestCodec;
+import com.flipkart.krystal.vajram.samples.calculator.adder.Adder;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RemoteVajramClientTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  private LatticeServer server;
+  private RemoteVajramClient client;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    EXEC_POOL.close();
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    VajramKryonGraph graph =
+        VajramKryonGraph.builder().loadFromPackage(Formula.class.getPackageName()).build();
+    graph.registerInputBatchers(
+        graph.getVajramId(Adder.class),
+        InputBatcherConfig.simple(() -> new InputBatcherImpl<>(100)));
+    Adder.CALL_COUNTER.reset();
+    server =
+        LatticeServer.builder()
+            .vajramKryonGraph(graph)
+            .executorsPool(EXEC_POOL)
+            .address(new InetSocketAddress("localhost", 0))
+            .remoteAddress(new InetSocketAddress("localhost", 0))
+            .build();
+    server.start();
+    client = RemoteVajramClient.builder().address(server.remoteAddress()).build();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void batch_executedTogetherInRemoteServer() {
+    RemoteVajram<FormulaRequest, Integer> formula =
+        client.remoteVajram("Formula", new FormulaRequestCodec(), Integer.class);
+    ImmutableList<CompletableFuture<Integer>> responses =
+        formula.execute(
+            IntStream.range(0, 20)
+                .mapToObj(i -> FormulaRequest.builder().a(i * 5).p(2).q(3).build())
+                .toList());
+    for (int i = 0; i < responses.size(); i++) {
+      assertThat(responses.get(i).join()).isEqualTo(i);
+    }
+    assertThat(Adder.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+
+  @Test
+  void pipelinedBatches_eachMappedBackToItsFacets() {
+    RemoteVajram<FormulaRequest, Integer> formula =
+        client.remoteVajram("Formula", new FormulaRequestCodec(), Integer.class);
+    List<ImmutableMap<Integer, CompletableFuture<Integer>>> batches =
+        IntStream.range(0, 5)
+            .mapToObj(
+                batch ->
+                    formula.execute(
+                        new BatchedFacets<>(
+                            ImmutableList.of(batch * 10, batch * 10 + 1, batch * 10 + 2), "common"),
+                        (Integer a) -> FormulaRequest.builder().a(a * 5).p(2).q(3).build()))
+            .toList();
+    for (ImmutableMap<Integer, CompletableFuture<Integer>> batch : batches) {
+      batch.forEach((a, response) -> assertThat(response.join()).isEqualTo(a));
+    }
+  }
+
+  @Test
+  void unknownVajram_failsWithInvalidRequest() {
+    RemoteVajram<FormulaRequest, Integer> adder =
+        client.remoteVajram("Adder", new FormulaRequestCodec(), Integer.class);
+    CompletableFuture<Integer> response =
+        adder.execute(List.of(FormulaRequest.builder().a(1).p(2).q(3).build())).get(0);
+    assertThatThrownBy(response::join)
+        .isInstanceOf(CompletionException.class)
+        .cause()
+        .isInstanceOfSatisfying(
+            RemoteInvocationException.class,
+            e -> assertThat(e.status()).isEqualTo(ResponseStatus.INVALID_REQUEST));
+  }
+}
@@ -0,0 +1,98 @@
+package com.flipkart.krystal.lattice.server;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.pooling.TenantAwareLeasePool;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.VajramRequest;
+import com.flipkart.krystal.vajram.samples.calculator.Formula;
+import com.flipkart.krystal.vajram.samples.calculator.FormulaRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    EXEC_POOL.close();
+  }
+
+  @Test
+  void submit_racingClose_allResponsesCompleted() throws Exception {
+    VajramKryonGraph graph =
+        VajramKryonGraph.builder().loadFromPackage(Formula.class.getPackageName()).build();
+    VajramID formulaId = graph.getVajramId(Formula.class);
+    @SuppressWarnings("unchecked")
+    VajramRequest<Object> request =
+        (VajramRequest<Object>)
+            (VajramRequest<?>) FormulaRequest.builder().a(100).p(2).q(3).build();
+    RequestCoalescer requestCoalescer =
+        new RequestCoalescer(
+            graph,
+            TenantAwareLeasePool.<SingleThreadExecutor>builder()
+                .delegate(EXEC_POOL)
+                .capacity(EXEC_POOL.maxThreads())
+                .build(),
+            executor ->
+                KrystexVajramExecutorConfig.builder()
+                    .requestId("coalescer-test")
+                    .kryonExecutorConfigBuilder(
+                        KryonExecutorConfig.builder().singleThreadExecutor(executor))
+                    .build(),
+            20,
+            0);
+    requestCoalescer.start();
+
+    Queue<CompletableFuture<@Nullable Object>> responses = new ConcurrentLinkedQueue<>();
+    ExecutorService submitterThreads = Executors.newFixedThreadPool(4);
+    try {
+      CountDownLatch started = new CountDownLatch(4);
+      List<CompletableFuture<?>> submitters = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        submitters.add(
+            CompletableFuture.runAsync(
+                () -> {
+                  started.countDown();
+                  for (int j = 0; j < 500; j++) {
+                    responses.add(requestCoalescer.submit(formulaId, request, null));
+                  }
+                },
+                submitterThreads));
+      }
+      started.await();
+      requestCoalescer.close();
+      CompletableFuture.allOf(submitters.toArray(CompletableFuture[]::new)).get(10, SECONDS);
+    } finally {
+      submitterThreads.shutdown();
+    }
+
+    // Every request is either executed or rejected - none is left pending forever
+    CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+        .handle((unused, throwable) -> null)
+        .get(30, SECONDS);
+    assertThat(requestCoalescer.submit(formulaId, request, null)).isCompletedExceptionally();
+  }
+}
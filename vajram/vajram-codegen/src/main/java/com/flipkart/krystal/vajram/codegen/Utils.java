@@ -68,7 +68,9 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.SimpleTypeVisitor14;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import lombok.Getter;
 
 public class Utils {
@@ -126,6 +128,24 @@ public class Utils {
     }
   }
 
+  void generateResourceFile(
+      String packageName, String fileName, String content, TypeElement vajramDefinition) {
+    try {
+      FileObject resourceFile =
+          processingEnv
+              .getFiler()
+              .createResource(
+                  StandardLocation.CLASS_OUTPUT, packageName, fileName, vajramDefinition);
+      note("Successfully Create resource file %s".formatted(fileName));
+      try (PrintWriter out = new PrintWriter(resourceFile.openWriter())) {
+        out.print(content);
+      }
+    } catch (Exception e) {
+      error(
+          "Error creating resource file: %s. Error: %s".formatted(fileName, e), vajramDefinition);
+    }
+  }
+
   public VajramInfo computeVajramInfo(TypeElement vajramClass) {
     VajramInfoLite vajramInfoLite = getVajramInfoLite(vajramClass);
     Optional<Element> facetsClass =
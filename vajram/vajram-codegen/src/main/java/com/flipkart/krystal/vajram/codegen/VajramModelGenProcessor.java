@@ -73,6 +73,7 @@ public class VajramModelGenProcessor extends AbstractProcessor {
               + getFacetUtilClassName(vajramCodeGenerator.getVajramName()),
           vajramCodeGenerator.codeGenInputUtil(),
           vajramClass);
+      new WireCodecGenerator(vajramInfo, processingEnv, util).generate();
     }
     return false;
   }
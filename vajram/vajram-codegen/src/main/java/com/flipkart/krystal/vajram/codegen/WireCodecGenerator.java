@@ -0,0 +1,529 @@
+package com.flipkart.krystal.vajram.codegen;
+
+import static com.flipkart.krystal.vajram.codegen.Utils.getRequestClassName;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.codegen.models.InputModel;
+import com.flipkart.krystal.vajram.codegen.models.VajramInfo;
+import com.flipkart.krystal.vajram.facets.InputSource;
+import com.flipkart.krystal.vajram.wire.JsonReader;
+import com.flipkart.krystal.vajram.wire.JsonWriter;
+import com.flipkart.krystal.vajram.wire.ProtoReader;
+import com.flipkart.krystal.vajram.wire.ProtoWriter;
+import com.flipkart.krystal.vajram.wire.VajramRequestCodec;
+import com.flipkart.krystal.vajram.wire.WireFormatException;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Generates, for vajrams which allow external invocation, a {@code .proto} schema describing the
+ * vajram's request and a {@link VajramRequestCodec} which reads and writes the request in the
+ * protobuf binary format and in json without any reflection.
+ *
+ * <p>Protobuf field numbers are assigned to client inputs in their order of declaration, starting
+ * from 1. Reordering the inputs of a vajram hence breaks compatibility with existing clients of the
+ * proto schema.
+ *
+ * <p>Only inputs of type {@code boolean}, {@code int}, {@code long}, {@code float}, {@code double},
+ * {@link String} and {@link List}s of these are supported. No codec is generated for vajrams having
+ * client inputs of any other type.
+ */
+final class WireCodecGenerator {
+
+  static final String CODEC_SUFFIX = "Codec";
+
+  private final VajramInfo vajramInfo;
+  private final ProcessingEnvironment processingEnv;
+  private final Utils util;
+  private final String vajramName;
+  private final ClassName requestType;
+  private final ClassName requestBuilderType;
+
+  WireCodecGenerator(VajramInfo vajramInfo, ProcessingEnvironment processingEnv, Utils util) {
+    this.vajramInfo = vajramInfo;
+    this.processingEnv = processingEnv;
+    this.util = util;
+    this.vajramName = vajramInfo.vajramId().vajramId();
+    this.requestType = ClassName.get(vajramInfo.packageName(), getRequestClassName(vajramName));
+    this.requestBuilderType = requestType.nestedClass("Builder");
+  }
+
+  static String getCodecClassName(String vajramName) {
+    return getRequestClassName(vajramName) + CODEC_SUFFIX;
+  }
+
+  /** Generates the proto schema and the codec source, if the vajram supports them. */
+  void generate() {
+    TypeElement vajramClass = vajramInfo.vajramClass();
+    ExternalInvocation externalInvocation = vajramClass.getAnnotation(ExternalInvocation.class);
+    if (externalInvocation == null || !externalInvocation.allow()) {
+      return;
+    }
+    Optional<ImmutableList<WireField>> wireFields = wireFields();
+    if (wireFields.isEmpty()) {
+      return;
+    }
+    util.generateResourceFile(
+        vajramInfo.packageName(),
+        getRequestClassName(vajramName) + ".proto",
+        protoSchema(wireFields.get()),
+        vajramClass);
+    util.generateSourceFile(
+        vajramInfo.packageName() + '.' + getCodecClassName(vajramName),
+        codec(wireFields.get()),
+        vajramClass);
+  }
+
+  private Optional<ImmutableList<WireField>> wireFields() {
+    ImmutableList.Builder<WireField> wireFields = ImmutableList.builder();
+    int fieldNumber = 0;
+    for (InputModel<?> input : vajramInfo.inputs()) {
+      if (!input.sources().contains(InputSource.CLIENT)) {
+        continue;
+      }
+      fieldNumber++;
+      TypeMirror type = input.type().javaModelType(processingEnv);
+      Optional<WireScalar> scalar = WireScalar.of(type);
+      boolean repeated = false;
+      if (scalar.isEmpty() && isList(type)) {
+        scalar = WireScalar.of(((DeclaredType) type).getTypeArguments().get(0));
+        repeated = true;
+      }
+      if (scalar.isEmpty()) {
+        util.note(
+            "Skipping wire codec generation for vajram %s since input %s has unsupported type %s"
+                .formatted(vajramName, input.name(), type));
+        return Optional.empty();
+      }
+      wireFields.add(
+          new WireField(
+              input.name(),
+              fieldNumber,
+              scalar.get(),
+              repeated,
+              input.isMandatory(),
+              input.documentation()));
+    }
+    return Optional.of(wireFields.build());
+  }
+
+  private static boolean isList(TypeMirror type) {
+    return type instanceof DeclaredType declaredType
+        && declaredType.asElement() instanceof TypeElement typeElement
+        && typeElement.getQualifiedName().contentEquals(List.class.getName())
+        && declaredType.getTypeArguments().size() == 1;
+  }
+
+  private String protoSchema(ImmutableList<WireField> wireFields) {
+    StringBuilder proto =
+        new StringBuilder()
+            .append("// Generated from ")
+            .append(vajramInfo.vajramClass().getQualifiedName())
+            .append(". Do not edit.\n")
+            .append("syntax = \"proto3\";\n\n")
+            .append("package ")
+            .append(vajramInfo.packageName())
+            .append(";\n\n")
+            .append("message ")
+            .append(requestType.simpleName())
+            .append(" {\n");
+    for (WireField field : wireFields) {
+      for (String docLine : field.documentation().strip().lines().toList()) {
+        if (!docLine.isBlank()) {
+          proto.append("  // ").append(docLine.strip()).append('\n');
+        }
+      }
+      if (field.mandatory()) {
+        proto.append("  // Mandatory\n");
+      }
+      proto
+          .append("  ")
+          .append(field.repeated() ? "repeated" : "optional")
+          .append(' ')
+          .append(field.scalar().protoType)
+          .append(' ')
+          .append(field.name())
+          .append(" = ")
+          .append(field.number())
+          .append(";\n");
+    }
+    return proto.append("}\n").toString();
+  }
+
+  private String codec(ImmutableList<WireField> wireFields) {
+    return JavaFile.builder(
+            vajramInfo.packageName(),
+            util.classBuilder(getCodecClassName(vajramName))
+                .addModifiers(PUBLIC, FINAL)
+                .addSuperinterface(
+                    ParameterizedTypeName.get(ClassName.get(VajramRequestCodec.class), requestType))
+                .addMethod(fromProto(wireFields))
+                .addMethod(toProto(wireFields))
+                .addMethod(fromJson(wireFields))
+                .addMethod(toJson(wireFields))
+                .addMethod(build(wireFields))
+                .build())
+        .indent("  ")
+        .build()
+        .toString();
+  }
+
+  /*Generates:
+    public FormulaRequest fromProto(byte[] bytes) {
+      FormulaRequest.Builder builder = FormulaRequest.builder();
+      List<Integer> _numbers = null;
+      ProtoReader reader = new ProtoReader(bytes);
+      for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+        switch (ProtoReader.fieldNumber(tag)) {
+          case 1 -> builder.a(reader.readInt32(tag));
+          case 2 -> {
+            if (_numbers == null) {
+              _numbers = new ArrayList<>();
+            }
+            reader.readInt32s(tag, _numbers);
+          }
+          default -> reader.skipField(tag);
+        }
+      }
+      if (_numbers != null) {
+        builder.numbers(_numbers);
+      }
+      return build(builder);
+    }
+  */
+  private MethodSpec fromProto(ImmutableList<WireField> wireFields) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("fromProto")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(requestType)
+            .addParameter(byte[].class, "bytes")
+            .addStatement("$T builder = $T.builder()", requestBuilderType, requestType);
+    for (WireField field : wireFields) {
+      if (field.repeated()) {
+        // proto3 does not distinguish an empty repeated field from an absent one, so mandatory
+        // repeated fields are decoded as empty lists when absent.
+        if (field.mandatory()) {
+          method.addStatement(
+              "$T $L = new $T<>()", field.listType(), field.localName(), ArrayList.class);
+        } else {
+          method.addStatement("$T $L = null", field.listType(), field.localName());
+        }
+      }
+    }
+    method
+        .addStatement("$T reader = new $T(bytes)", ProtoReader.class, ProtoReader.class)
+        .beginControlFlow(
+            "for (int tag = reader.readTag(); tag != 0; tag = reader.readTag())")
+        .beginControlFlow("switch ($T.fieldNumber(tag))", ProtoReader.class);
+    for (WireField field : wireFields) {
+      if (field.repeated() && field.mandatory()) {
+        method.addStatement(
+            "case $L -> reader.read$Ls(tag, $L)",
+            field.number(),
+            field.scalar().protoSuffix,
+            field.localName());
+      } else if (field.repeated()) {
+        method
+            .beginControlFlow("case $L ->", field.number())
+            .beginControlFlow("if ($L == null)", field.localName())
+            .addStatement("$L = new $T<>()", field.localName(), ArrayList.class)
+            .endControlFlow()
+            .addStatement(
+                "reader.read$Ls(tag, $L)", field.scalar().protoSuffix, field.localName())
+            .endControlFlow();
+      } else {
+        method.addStatement(
+            "case $L -> builder.$L(reader.read$L(tag))",
+            field.number(),
+            field.name(),
+            field.scalar().protoSuffix);
+      }
+    }
+    method.addStatement("default -> reader.skipField(tag)").endControlFlow().endControlFlow();
+    for (WireField field : wireFields) {
+      if (field.repeated() && field.mandatory()) {
+        method.addStatement("builder.$L($L)", field.name(), field.localName());
+      } else if (field.repeated()) {
+        method
+            .beginControlFlow("if ($L != null)", field.localName())
+            .addStatement("builder.$L($L)", field.name(), field.localName())
+            .endControlFlow();
+      }
+    }
+    return method.addStatement("return build(builder)").build();
+  }
+
+  /*Generates:
+    public byte[] toProto(FormulaRequest request) {
+      ProtoWriter writer = new ProtoWriter();
+      writer.writeInt32(1, request.a());
+      request.numbers().ifPresent(value -> writer.writeInt32s(2, value));
+      return writer.toByteArray();
+    }
+  */
+  private MethodSpec toProto(ImmutableList<WireField> wireFields) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("toProto")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(byte[].class)
+            .addParameter(requestType, "request")
+            .addStatement("$T writer = new $T()", ProtoWriter.class, ProtoWriter.class);
+    for (WireField field : wireFields) {
+      String writeMethod = "write" + field.scalar().protoSuffix + (field.repeated() ? "s" : "");
+      if (field.mandatory()) {
+        method.addStatement(
+            "writer.$L($L, request.$L())", writeMethod, field.number(), field.name());
+      } else {
+        method.addStatement(
+            "request.$L().ifPresent(value -> writer.$L($L, value))",
+            field.name(),
+            writeMethod,
+            field.number());
+      }
+    }
+    return method.addStatement("return writer.toByteArray()").build();
+  }
+
+  /*Generates:
+    public FormulaRequest fromJson(byte[] json) {
+      FormulaRequest.Builder builder = FormulaRequest.builder();
+      JsonReader reader = new JsonReader(json);
+      reader.beginObject();
+      while (reader.hasNext()) {
+        switch (reader.nextName()) {
+          case "a" -> {
+            if (!reader.skipNull()) {
+              builder.a(reader.nextInt());
+            }
+          }
+          case "numbers" -> {
+            if (!reader.skipNull()) {
+              List<Integer> _numbers = new ArrayList<>();
+              reader.beginArray();
+              while (reader.hasNext()) {
+                _numbers.add(reader.nextInt());
+              }
+              reader.endArray();
+              builder.numbers(_numbers);
+            }
+          }
+          default -> reader.skipValue();
+        }
+      }
+      reader.endObject();
+      reader.endDocument();
+      return build(builder);
+    }
+  */
+  private MethodSpec fromJson(ImmutableList<WireField> wireFields) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("fromJson")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(requestType)
+            .addParameter(byte[].class, "json")
+            .addStatement("$T builder = $T.builder()", requestBuilderType, requestType)
+            .addStatement("$T reader = new $T(json)", JsonReader.class, JsonReader.class)
+            .addStatement("reader.beginObject()")
+            .beginControlFlow("while (reader.hasNext())")
+            .beginControlFlow("switch (reader.nextName())");
+    for (WireField field : wireFields) {
+      method
+          .beginControlFlow("case $S ->", field.name())
+          .beginControlFlow("if (!reader.skipNull())");
+      if (field.repeated()) {
+        method
+            .addStatement(
+                "$T $L = new $T<>()", field.listType(), field.localName(), ArrayList.class)
+            .addStatement("reader.beginArray()")
+            .beginControlFlow("while (reader.hasNext())")
+            .addStatement("$L.add(reader.$L())", field.localName(), field.scalar().jsonReadMethod)
+            .endControlFlow()
+            .addStatement("reader.endArray()")
+            .addStatement("builder.$L($L)", field.name(), field.localName());
+      } else {
+        method.addStatement("builder.$L(reader.$L())", field.name(), field.scalar().jsonReadMethod);
+      }
+      method.endControlFlow().endControlFlow();
+    }
+    return method
+        .addStatement("default -> reader.skipValue()")
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("reader.endObject()")
+        .addStatement("reader.endDocument()")
+        .addStatement("return build(builder)")
+        .build();
+  }
+
+  /*Generates:
+    public byte[] toJson(FormulaRequest request) {
+      JsonWriter writer = new JsonWriter();
+      writer.beginObject();
+      writer.name("a").value(request.a());
+      request.numbers().ifPresent(values -> {
+        writer.name("numbers").beginArray();
+        for (Integer value : values) {
+          writer.value(value);
+        }
+        writer.endArray();
+      });
+      writer.endObject();
+      return writer.toByteArray();
+    }
+  */
+  private MethodSpec toJson(ImmutableList<WireField> wireFields) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("toJson")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(byte[].class)
+            .addParameter(requestType, "request")
+            .addStatement("$T writer = new $T()", JsonWriter.class, JsonWriter.class)
+            .addStatement("writer.beginObject()");
+    for (WireField field : wireFields) {
+      if (!field.repeated()) {
+        if (field.mandatory()) {
+          method.addStatement("writer.name($S).value(request.$L())", field.name(), field.name());
+        } else {
+          method.addStatement(
+              "request.$L().ifPresent(value -> writer.name($S).value(value))",
+              field.name(),
+              field.name());
+        }
+        continue;
+      }
+      String values;
+      if (field.mandatory()) {
+        values = "request.%s()".formatted(field.name());
+      } else {
+        values = "values";
+        method.beginControlFlow("request.$L().ifPresent(values ->", field.name());
+      }
+      method
+          .addStatement("writer.name($S).beginArray()", field.name())
+          .beginControlFlow("for ($T value : $L)", field.scalar().boxedType, values)
+          .addStatement("writer.value(value)")
+          .endControlFlow()
+          .addStatement("writer.endArray()");
+      if (!field.mandatory()) {
+        method.endControlFlow(")");
+      }
+    }
+    return method
+        .addStatement("writer.endObject()")
+        .addStatement("return writer.toByteArray()")
+        .build();
+  }
+
+  private MethodSpec build(ImmutableList<WireField> wireFields) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("build")
+            .addModifiers(PRIVATE, STATIC)
+            .returns(requestType)
+            .addParameter(requestBuilderType, "builder");
+    for (WireField field : wireFields) {
+      if (field.mandatory()) {
+        method
+            .beginControlFlow("if (builder.$L() == null)", field.name())
+            .addStatement(
+                "throw new $T($S)",
+                WireFormatException.class,
+                "Mandatory input '%s' of vajram %s is missing".formatted(field.name(), vajramName))
+            .endControlFlow();
+      }
+    }
+    return method.addStatement("return builder.build()").build();
+  }
+
+  private record WireField(
+      String name,
+      int number,
+      WireScalar scalar,
+      boolean repeated,
+      boolean mandatory,
+      String documentation) {
+
+    /** Name of the local variable holding the elements of a repeated field while decoding. */
+    String localName() {
+      return "_" + name;
+    }
+
+    TypeName listType() {
+      return ParameterizedTypeName.get(ClassName.get(List.class), scalar.boxedType);
+    }
+  }
+
+  private enum WireScalar {
+    BOOL("bool", "Bool", TypeName.BOOLEAN, "nextBoolean"),
+    INT32("int32", "Int32", TypeName.INT, "nextInt"),
+    INT64("int64", "Int64", TypeName.LONG, "nextLong"),
+    FLOAT("float", "Float", TypeName.FLOAT, "nextFloat"),
+    DOUBLE("double", "Double", TypeName.DOUBLE, "nextDouble"),
+    STRING("string", "String", ClassName.get(String.class), "nextString");
+
+    private final String protoType;
+
+    /** Suffix of the {@link ProtoReader} and {@link ProtoWriter} methods for this type. */
+    private final String protoSuffix;
+
+    private final TypeName boxedType;
+    private final String jsonReadMethod;
+
+    WireScalar(String protoType, String protoSuffix, TypeName javaType, String jsonReadMethod) {
+      this.protoType = protoType;
+      this.protoSuffix = protoSuffix;
+      this.boxedType = javaType.box();
+      this.jsonReadMethod = jsonReadMethod;
+    }
+
+    private static Optional<WireScalar> of(TypeMirror type) {
+      TypeKind kind = type.getKind();
+      if (kind.isPrimitive()) {
+        return ofPrimitive(kind);
+      }
+      if (!(type instanceof DeclaredType declaredType)
+          || !(declaredType.asElement() instanceof TypeElement typeElement)) {
+        return Optional.empty();
+      }
+      return switch (typeElement.getQualifiedName().toString()) {
+        case "java.lang.Boolean" -> Optional.of(BOOL);
+        case "java.lang.Integer" -> Optional.of(INT32);
+        case "java.lang.Long" -> Optional.of(INT64);
+        case "java.lang.Float" -> Optional.of(FLOAT);
+        case "java.lang.Double" -> Optional.of(DOUBLE);
+        case "java.lang.String" -> Optional.of(STRING);
+        default -> Optional.empty();
+      };
+    }
+
+    private static Optional<WireScalar> ofPrimitive(TypeKind kind) {
+      return switch (kind) {
+        case BOOLEAN -> Optional.of(BOOL);
+        case INT -> Optional.of(INT32);
+        case LONG -> Optional.of(INT64);
+        case FLOAT -> Optional.of(FLOAT);
+        case DOUBLE -> Optional.of(DOUBLE);
+        default -> Optional.empty();
+      };
+    }
+  }
+}
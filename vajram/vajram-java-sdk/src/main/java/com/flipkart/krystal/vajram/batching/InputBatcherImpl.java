@@ -17,7 +17,7 @@ public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
   private static final int DEFAULT_BATCH_SIZE = 1;
   private @Nullable Consumer<ImmutableList<BatchedFacets<I, C>>> batchingListener;
   private final Map<C, List<I>> unBatchedRequests = new HashMap<>();
-  private int minBatchSize = DEFAULT_BATCH_SIZE;
+  private volatile int minBatchSize = DEFAULT_BATCH_SIZE;
 
   public InputBatcherImpl() {}
 
@@ -66,4 +66,9 @@ public final class InputBatcherImpl<I, C> implements InputBatcher<I, C> {
     this.minBatchSize =
         configProvider.<Integer>getConfig("min_batch_size").orElse(DEFAULT_BATCH_SIZE);
   }
+
+  @Override
+  public boolean isInterestedIn(String configKey) {
+    return "min_batch_size".equals(configKey);
+  }
 }
@@ -2,13 +2,26 @@ package com.flipkart.krystal.vajram.das;
 
 import com.flipkart.krystal.vajram.exec.VajramDefinition;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.Collection;
 
+/**
+ * @param alternateMatches Vajrams which serve the same data as the vajram matched to an access
+ *     spec (See {@link AlternateProviderOf}), keyed by the access spec.
+ */
 public record AccessSpecMatchingResult<T extends DataAccessSpec>(
     ImmutableMap<T, VajramDefinition> exactMatches,
     ImmutableMap<T, VajramDefinition> superSetMatches,
-    ImmutableCollection<T> unsuccessfulMatches) {
+    ImmutableCollection<T> unsuccessfulMatches,
+    ImmutableMap<T, ImmutableList<VajramDefinition>> alternateMatches) {
+
+  public AccessSpecMatchingResult(
+      ImmutableMap<T, VajramDefinition> exactMatches,
+      ImmutableMap<T, VajramDefinition> superSetMatches,
+      ImmutableCollection<T> unsuccessfulMatches) {
+    this(exactMatches, superSetMatches, unsuccessfulMatches, ImmutableMap.of());
+  }
 
   public ImmutableMap<T, VajramDefinition> successfulMatches() {
     return ImmutableMap.<T, VajramDefinition>builder()
@@ -0,0 +1,22 @@
+package com.flipkart.krystal.vajram.das;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a vajram serves the same data as another vajram - for example a cache-backed
+ * vajram serving the same data as the vajram which calls the source of truth. Dependencies on the
+ * other vajram are then routed, batch by batch, to either of the vajrams by a routing policy.
+ *
+ * <p>The vajram must have exactly the same inputs and response type as the vajram it is an
+ * alternate of.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AlternateProviderOf {
+
+  /** The id of the vajram whose data this vajram serves. */
+  String value();
+}
@@ -1,12 +1,103 @@
 package com.flipkart.krystal.vajram.das;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A GraphQL selection of fields of a type - for example {@code Order { id status total }}. The
+ * fields are served by the vajrams tagged with {@link GraphQlFields} for the type. A selection can
+ * span many vajrams, in which case the results of the vajrams are merged using {@link
+ * #adapt(Collection)}.
+ *
+ * <p>Only flat selections are supported - a field whose value is itself an object is served as a
+ * whole by the vajram which declares it.
+ */
+public record GraphQl(String typeName, ImmutableSet<String> fields) implements DataAccessSpec {
+
+  public GraphQl {
+    checkArgument(!typeName.isBlank(), "GraphQL type name cannot be blank");
+    checkArgument(!fields.isEmpty(), "GraphQL selection of type %s has no fields", typeName);
+  }
+
+  public static GraphQl graphQl(String typeName, String... fields) {
+    return new GraphQl(typeName, ImmutableSet.copyOf(fields));
+  }
 
-public final class GraphQl implements DataAccessSpec {
+  /**
+   * Parses a query of the form {@code TypeName { field1 field2 ... }}. Fields may be separated by
+   * whitespace or commas.
+   *
+   * @throws IllegalArgumentException if the query is malformed or has nested selections
+   */
+  public static GraphQl parse(String query) {
+    int open = query.indexOf('{');
+    int close = query.lastIndexOf('}');
+    if (open < 0 || close < open || !query.substring(close + 1).isBlank()) {
+      throw new IllegalArgumentException("Malformed GraphQL query: " + query);
+    }
+    String selection = query.substring(open + 1, close);
+    if (selection.indexOf('{') >= 0 || selection.indexOf('}') >= 0) {
+      throw new IllegalArgumentException("Nested GraphQL selections are not supported: " + query);
+    }
+    ImmutableSet.Builder<String> fields = ImmutableSet.builder();
+    for (String field : selection.split("[\\s,]+")) {
+      if (!field.isEmpty()) {
+        fields.add(field);
+      }
+    }
+    return new GraphQl(query.substring(0, open).strip(), fields.build());
+  }
+
+  /**
+   * Returns a subset of this selection with the given fields.
+   *
+   * @throws IllegalArgumentException if any of the fields is not part of this selection
+   */
+  public GraphQl select(Collection<String> subset) {
+    checkArgument(fields.containsAll(subset), "%s is not a subset of %s", subset, this);
+    return new GraphQl(typeName, ImmutableSet.copyOf(subset));
+  }
 
+  /**
+   * Merges the partial results of the vajrams serving this selection. Each result must be a map
+   * from field names to values. The merged result has exactly the selected fields - in the order
+   * of the selection - each taken from the first result containing it. Fields which no result
+   * contains are mapped to {@code null}, as in GraphQL responses.
+   *
+   * @throws IllegalArgumentException if any of the results is not a map
+   */
   @Override
   public <T> T adapt(Collection<T> dataObjects) {
-    // TODO merge multiple graphQL results of the same type to a single result.
-    throw new UnsupportedOperationException();
+    Map<String, @Nullable Object> merged = new LinkedHashMap<>();
+    for (String field : fields) {
+      merged.put(field, null);
+    }
+    for (String field : fields) {
+      for (T dataObject : dataObjects) {
+        if (!(dataObject instanceof Map<?, ?> result)) {
+          throw new IllegalArgumentException(
+              "GraphQL results must be maps of field names to values. Found: %s"
+                  .formatted(dataObject == null ? null : dataObject.getClass()));
+        }
+        if (result.containsKey(field)) {
+          merged.put(field, result.get(field));
+          break;
+        }
+      }
+    }
+    @SuppressWarnings("unchecked")
+    T adapted = (T) Collections.unmodifiableMap(merged);
+    return adapted;
+  }
+
+  @Override
+  public String toString() {
+    return "%s { %s }".formatted(typeName, String.join(" ", fields));
   }
 }
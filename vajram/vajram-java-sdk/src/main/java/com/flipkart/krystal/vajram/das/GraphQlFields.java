@@ -0,0 +1,26 @@
+package com.flipkart.krystal.vajram.das;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a vajram serves some fields of a GraphQL type, so that {@link GraphQl} access
+ * specs selecting those fields are matched to it.
+ *
+ * <p>The response of the vajram must be a {@link java.util.Map} from field names to values, and
+ * must contain at least the declared fields. All the vajrams serving a type must have the same
+ * inputs - the facets which identify an object of the type - so that the fields of an object can
+ * be fetched from all of them with the same facets.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GraphQlFields {
+
+  /** The name of the GraphQL type. */
+  String type();
+
+  /** The fields of the type served by the vajram. */
+  String[] fields();
+}
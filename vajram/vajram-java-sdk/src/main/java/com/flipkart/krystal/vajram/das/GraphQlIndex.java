@@ -1,17 +1,92 @@
 package com.flipkart.krystal.vajram.das;
 
+import static java.util.Comparator.comparingInt;
+
 import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Indexes vajrams by the GraphQL fields they serve (See {@link GraphQlFields}).
+ *
+ * <p>A selection is matched to as few vajrams as possible: the vajram serving the most of the
+ * unmatched fields is picked first, so that sibling fields served by the same vajram are fetched
+ * with a single request to it. Among vajrams serving equally many of those fields, the one serving
+ * the fewest fields overall is preferred so that as little unselected data as possible is fetched.
+ */
 public final class GraphQlIndex implements AccessSpecIndex<GraphQl> {
 
+  /** GraphQL type name -> field name -> vajrams serving the field */
+  private final Map<String, Map<String, List<VajramDefinition>>> fieldProviders =
+      new LinkedHashMap<>();
+
+  private final Map<VajramDefinition, ImmutableSet<String>> servedFields = new LinkedHashMap<>();
+
   @Override
   public AccessSpecMatchingResult<GraphQl> getVajrams(GraphQl accessSpec) {
-    // TODO implement GraphQL matching logic and Data structures
-    throw new UnsupportedOperationException();
+    Map<String, List<VajramDefinition>> providers =
+        fieldProviders.getOrDefault(accessSpec.typeName(), Map.of());
+    Set<String> unmatched = new LinkedHashSet<>();
+    Set<String> remaining = new LinkedHashSet<>();
+    for (String field : accessSpec.fields()) {
+      (providers.containsKey(field) ? remaining : unmatched).add(field);
+    }
+    Map<GraphQl, VajramDefinition> exactMatches = new LinkedHashMap<>();
+    Map<GraphQl, VajramDefinition> superSetMatches = new LinkedHashMap<>();
+    while (!remaining.isEmpty()) {
+      Set<VajramDefinition> candidates = new LinkedHashSet<>();
+      for (String field : remaining) {
+        candidates.addAll(providers.getOrDefault(field, List.of()));
+      }
+      Comparator<VajramDefinition> preference =
+          Comparator.<VajramDefinition>comparingInt(v -> -servedOf(v, remaining).size())
+              .thenComparing(comparingInt(v -> served(v).size()));
+      VajramDefinition chosen = candidates.stream().min(preference).orElseThrow();
+      List<String> covered = servedOf(chosen, remaining);
+      GraphQl subSelection = accessSpec.select(covered);
+      if (served(chosen).size() == covered.size()) {
+        exactMatches.put(subSelection, chosen);
+      } else {
+        superSetMatches.put(subSelection, chosen);
+      }
+      covered.forEach(remaining::remove);
+    }
+    return new AccessSpecMatchingResult<>(
+        ImmutableMap.copyOf(exactMatches),
+        ImmutableMap.copyOf(superSetMatches),
+        unmatched.isEmpty() ? ImmutableList.of() : ImmutableList.of(accessSpec.select(unmatched)));
   }
 
   @Override
   public void add(VajramDefinition vajram) {
-    // TODO Implement vajram addition
+    vajram
+        .vajramTags()
+        .<GraphQlFields>getAnnotationByType(GraphQlFields.class)
+        .ifPresent(
+            graphQlFields -> {
+              servedFields.put(vajram, ImmutableSet.copyOf(graphQlFields.fields()));
+              Map<String, List<VajramDefinition>> providers =
+                  fieldProviders.computeIfAbsent(graphQlFields.type(), _t -> new LinkedHashMap<>());
+              for (String field : graphQlFields.fields()) {
+                providers.computeIfAbsent(field, _f -> new ArrayList<>()).add(vajram);
+              }
+            });
+  }
+
+  private List<String> servedOf(VajramDefinition vajram, Set<String> fields) {
+    ImmutableSet<String> served = served(vajram);
+    return fields.stream().filter(served::contains).toList();
+  }
+
+  private ImmutableSet<String> served(VajramDefinition vajram) {
+    return servedFields.getOrDefault(vajram, ImmutableSet.of());
   }
 }
@@ -1,14 +1,20 @@
 package com.flipkart.krystal.vajram.das;
 
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+
 import com.flipkart.krystal.vajram.VajramID;
 import com.flipkart.krystal.vajram.exec.VajramDefinition;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public final class VajramIDIndex implements AccessSpecIndex<VajramID> {
   private final Map<VajramID, VajramDefinition> vajrams = new HashMap<>();
+  private final Map<VajramID, List<VajramDefinition>> alternates = new HashMap<>();
 
   @Override
   public AccessSpecMatchingResult<VajramID> getVajrams(VajramID vajramID) {
@@ -17,13 +23,27 @@ public final class VajramIDIndex implements AccessSpecIndex<VajramID> {
       return new AccessSpecMatchingResult<>(
           ImmutableMap.of(), ImmutableMap.of(), ImmutableSet.of(vajramID));
     } else {
+      List<VajramDefinition> alternateVajrams = alternates.getOrDefault(vajramID, List.of());
       return new AccessSpecMatchingResult<>(
-          ImmutableMap.of(vajramID, matchingVajram), ImmutableMap.of(), ImmutableSet.of());
+          ImmutableMap.of(vajramID, matchingVajram),
+          ImmutableMap.of(),
+          ImmutableSet.of(),
+          alternateVajrams.isEmpty()
+              ? ImmutableMap.of()
+              : ImmutableMap.of(vajramID, ImmutableList.copyOf(alternateVajrams)));
     }
   }
 
   @Override
   public void add(VajramDefinition vajramDefinition) {
     vajrams.put(vajramDefinition.vajramId(), vajramDefinition);
+    vajramDefinition
+        .vajramTags()
+        .<AlternateProviderOf>getAnnotationByType(AlternateProviderOf.class)
+        .ifPresent(
+            alternateProviderOf ->
+                alternates
+                    .computeIfAbsent(vajramID(alternateProviderOf.value()), _v -> new ArrayList<>())
+                    .add(vajramDefinition));
   }
 }
@@ -0,0 +1,270 @@
+package com.flipkart.krystal.vajram.wire;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Reads a json document token by token, without building an intermediate tree.
+ *
+ * <p>Typical usage:
+ *
+ * <pre>{@code
+ * JsonReader reader = new JsonReader(bytes);
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *   switch (reader.nextName()) {
+ *     case "name" -> builder.name(reader.nextString());
+ *     default -> reader.skipValue();
+ *   }
+ * }
+ * reader.endObject();
+ * reader.endDocument();
+ * }</pre>
+ */
+public final class JsonReader {
+
+  private final String json;
+  private int position;
+
+  /** True if a value has been read at the current nesting level, so a comma must come next. */
+  private boolean expectSeparator;
+
+  public JsonReader(byte[] json) {
+    this.json = new String(json, UTF_8);
+  }
+
+  public void beginObject() {
+    consume('{');
+    expectSeparator = false;
+  }
+
+  public void endObject() {
+    consume('}');
+    expectSeparator = true;
+  }
+
+  public void beginArray() {
+    consume('[');
+    expectSeparator = false;
+  }
+
+  public void endArray() {
+    consume(']');
+    expectSeparator = true;
+  }
+
+  /** Returns true if the current object or array has more elements. */
+  public boolean hasNext() {
+    char next = peek();
+    if (next == '}' || next == ']') {
+      return false;
+    }
+    if (expectSeparator) {
+      consume(',');
+      expectSeparator = false;
+    }
+    return true;
+  }
+
+  public String nextName() {
+    String name = readString();
+    consume(':');
+    expectSeparator = false;
+    return name;
+  }
+
+  public String nextString() {
+    String value = readString();
+    expectSeparator = true;
+    return value;
+  }
+
+  public boolean nextBoolean() {
+    boolean value;
+    if (json.startsWith("true", skipWhitespace())) {
+      position += 4;
+      value = true;
+    } else if (json.startsWith("false", position)) {
+      position += 5;
+      value = false;
+    } else {
+      throw unexpected("a boolean");
+    }
+    expectSeparator = true;
+    return value;
+  }
+
+  public long nextLong() {
+    String number = readNumber();
+    try {
+      return Long.parseLong(number);
+    } catch (NumberFormatException e) {
+      throw new WireFormatException("%s is not an integer".formatted(number), e);
+    }
+  }
+
+  public int nextInt() {
+    long value = nextLong();
+    if (value != (int) value) {
+      throw new WireFormatException("%s is out of the range of int".formatted(value));
+    }
+    return (int) value;
+  }
+
+  public double nextDouble() {
+    String number = readNumber();
+    try {
+      return Double.parseDouble(number);
+    } catch (NumberFormatException e) {
+      throw new WireFormatException("%s is not a number".formatted(number), e);
+    }
+  }
+
+  public float nextFloat() {
+    return (float) nextDouble();
+  }
+
+  /** Consumes the next value if it is {@code null}, and returns whether it was. */
+  public boolean skipNull() {
+    if (!json.startsWith("null", skipWhitespace())) {
+      return false;
+    }
+    position += 4;
+    expectSeparator = true;
+    return true;
+  }
+
+  /** Skips the next value, including all the values nested in it. */
+  public void skipValue() {
+    switch (peek()) {
+      case '{' -> {
+        beginObject();
+        while (hasNext()) {
+          nextName();
+          skipValue();
+        }
+        endObject();
+      }
+      case '[' -> {
+        beginArray();
+        while (hasNext()) {
+          skipValue();
+        }
+        endArray();
+      }
+      case '"' -> nextString();
+      case 't', 'f' -> nextBoolean();
+      case 'n' -> {
+        if (!skipNull()) {
+          throw unexpected("a value");
+        }
+      }
+      default -> nextDouble();
+    }
+  }
+
+  /** Verifies that nothing but whitespace follows the document. */
+  public void endDocument() {
+    if (skipWhitespace() != json.length()) {
+      throw unexpected("the end of the document");
+    }
+  }
+
+  private String readString() {
+    consume('"');
+    @Nullable StringBuilder value = null;
+    int start = position;
+    while (true) {
+      if (position >= json.length()) {
+        throw new WireFormatException("Unterminated string");
+      }
+      char c = json.charAt(position++);
+      if (c == '"') {
+        break;
+      }
+      if (c != '\\') {
+        if (value != null) {
+          value.append(c);
+        }
+        continue;
+      }
+      if (value == null) {
+        value = new StringBuilder(json.substring(start, position - 1));
+      }
+      if (position >= json.length()) {
+        throw new WireFormatException("Unterminated string");
+      }
+      char escaped = json.charAt(position++);
+      switch (escaped) {
+        case '"', '\\', '/' -> value.append(escaped);
+        case 'b' -> value.append('\b');
+        case 'f' -> value.append('\f');
+        case 'n' -> value.append('\n');
+        case 'r' -> value.append('\r');
+        case 't' -> value.append('\t');
+        case 'u' -> {
+          if (position + 4 > json.length()) {
+            throw new WireFormatException("Unterminated unicode escape");
+          }
+          try {
+            value.append((char) Integer.parseInt(json, position, position + 4, 16));
+          } catch (NumberFormatException e) {
+            throw new WireFormatException("Invalid unicode escape at position " + position, e);
+          }
+          position += 4;
+        }
+        default ->
+            throw new WireFormatException(
+                "Invalid escape \\%s at position %s".formatted(escaped, position - 1));
+      }
+    }
+    return value == null ? json.substring(start, position - 1) : value.toString();
+  }
+
+  private String readNumber() {
+    int start = skipWhitespace();
+    while (position < json.length() && isNumberChar(json.charAt(position))) {
+      position++;
+    }
+    if (position == start) {
+      throw unexpected("a number");
+    }
+    expectSeparator = true;
+    return json.substring(start, position);
+  }
+
+  private static boolean isNumberChar(char c) {
+    return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+  }
+
+  private void consume(char expected) {
+    if (peek() != expected) {
+      throw unexpected("'" + expected + "'");
+    }
+    position++;
+  }
+
+  private char peek() {
+    if (skipWhitespace() >= json.length()) {
+      throw new WireFormatException("Unexpected end of the document");
+    }
+    return json.charAt(position);
+  }
+
+  /** Skips whitespace and returns the resulting position. */
+  private int skipWhitespace() {
+    while (position < json.length()) {
+      char c = json.charAt(position);
+      if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+        break;
+      }
+      position++;
+    }
+    return position;
+  }
+
+  private WireFormatException unexpected(String expected) {
+    return new WireFormatException("Expected %s at position %s".formatted(expected, position));
+  }
+}
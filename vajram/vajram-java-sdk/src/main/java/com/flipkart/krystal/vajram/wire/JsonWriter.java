@@ -0,0 +1,127 @@
+package com.flipkart.krystal.vajram.wire;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/** Writes a json document token by token, inserting separators between values as needed. */
+public final class JsonWriter {
+
+  private final StringBuilder json = new StringBuilder(64);
+
+  /** True if a value has been written at the current nesting level since it was opened. */
+  private boolean needsSeparator;
+
+  public JsonWriter beginObject() {
+    separate();
+    json.append('{');
+    needsSeparator = false;
+    return this;
+  }
+
+  public JsonWriter endObject() {
+    json.append('}');
+    needsSeparator = true;
+    return this;
+  }
+
+  public JsonWriter beginArray() {
+    separate();
+    json.append('[');
+    needsSeparator = false;
+    return this;
+  }
+
+  public JsonWriter endArray() {
+    json.append(']');
+    needsSeparator = true;
+    return this;
+  }
+
+  public JsonWriter name(String name) {
+    separate();
+    writeString(name);
+    json.append(':');
+    needsSeparator = false;
+    return this;
+  }
+
+  public JsonWriter value(String value) {
+    separate();
+    writeString(value);
+    needsSeparator = true;
+    return this;
+  }
+
+  public JsonWriter value(boolean value) {
+    separate();
+    json.append(value);
+    needsSeparator = true;
+    return this;
+  }
+
+  public JsonWriter value(long value) {
+    separate();
+    json.append(value);
+    needsSeparator = true;
+    return this;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the value is NaN or infinite, since json cannot represent
+   *     them
+   */
+  public JsonWriter value(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new IllegalArgumentException(value + " cannot be written as a json number");
+    }
+    separate();
+    json.append(value);
+    needsSeparator = true;
+    return this;
+  }
+
+  public JsonWriter nullValue() {
+    separate();
+    json.append("null");
+    needsSeparator = true;
+    return this;
+  }
+
+  public byte[] toByteArray() {
+    return json.toString().getBytes(UTF_8);
+  }
+
+  @Override
+  public String toString() {
+    return json.toString();
+  }
+
+  private void separate() {
+    if (needsSeparator) {
+      json.append(',');
+    }
+  }
+
+  private void writeString(String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        case '\b' -> json.append("\\b");
+        case '\f' -> json.append("\\f");
+        default -> {
+          if (c < 0x20) {
+            json.append("\\u%04x".formatted((int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+}
@@ -0,0 +1,215 @@
+package com.flipkart.krystal.vajram.wire;
+
+import static com.flipkart.krystal.vajram.wire.ProtoWriter.FIXED32;
+import static com.flipkart.krystal.vajram.wire.ProtoWriter.FIXED64;
+import static com.flipkart.krystal.vajram.wire.ProtoWriter.LENGTH_DELIMITED;
+import static com.flipkart.krystal.vajram.wire.ProtoWriter.VARINT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.List;
+
+/**
+ * Reads fields in the protobuf binary wire format. Repeated numeric fields are accepted both packed
+ * and unpacked, as required by the protobuf spec.
+ *
+ * <p>Typical usage:
+ *
+ * <pre>{@code
+ * ProtoReader reader = new ProtoReader(bytes);
+ * for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+ *   switch (ProtoReader.fieldNumber(tag)) {
+ *     case 1 -> builder.name(reader.readString(tag));
+ *     default -> reader.skipField(tag);
+ *   }
+ * }
+ * }</pre>
+ */
+public final class ProtoReader {
+
+  private final byte[] buffer;
+  private int position;
+
+  public ProtoReader(byte[] buffer) {
+    this.buffer = buffer;
+  }
+
+  public static int fieldNumber(int tag) {
+    return tag >>> 3;
+  }
+
+  public static int wireType(int tag) {
+    return tag & 0x7;
+  }
+
+  /** Returns the tag of the next field, or 0 if there are no more fields. */
+  public int readTag() {
+    if (position == buffer.length) {
+      return 0;
+    }
+    int tag = (int) readRawVarint();
+    if (fieldNumber(tag) == 0) {
+      throw new WireFormatException("Invalid field number 0 at position " + position);
+    }
+    return tag;
+  }
+
+  public boolean readBool(int tag) {
+    checkWireType(tag, VARINT);
+    return readRawVarint() != 0;
+  }
+
+  public int readInt32(int tag) {
+    checkWireType(tag, VARINT);
+    return (int) readRawVarint();
+  }
+
+  public long readInt64(int tag) {
+    checkWireType(tag, VARINT);
+    return readRawVarint();
+  }
+
+  public float readFloat(int tag) {
+    checkWireType(tag, FIXED32);
+    return Float.intBitsToFloat(readRawFixed32());
+  }
+
+  public double readDouble(int tag) {
+    checkWireType(tag, FIXED64);
+    return Double.longBitsToDouble(readRawFixed64());
+  }
+
+  public String readString(int tag) {
+    checkWireType(tag, LENGTH_DELIMITED);
+    int end = readLengthDelimitedEnd();
+    String value = new String(buffer, position, end - position, UTF_8);
+    position = end;
+    return value;
+  }
+
+  public void readBools(int tag, List<Boolean> target) {
+    if (wireType(tag) != LENGTH_DELIMITED) {
+      target.add(readBool(tag));
+      return;
+    }
+    for (int end = readLengthDelimitedEnd(); position < end; ) {
+      target.add(readRawVarint() != 0);
+    }
+  }
+
+  public void readInt32s(int tag, List<Integer> target) {
+    if (wireType(tag) != LENGTH_DELIMITED) {
+      target.add(readInt32(tag));
+      return;
+    }
+    for (int end = readLengthDelimitedEnd(); position < end; ) {
+      target.add((int) readRawVarint());
+    }
+  }
+
+  public void readInt64s(int tag, List<Long> target) {
+    if (wireType(tag) != LENGTH_DELIMITED) {
+      target.add(readInt64(tag));
+      return;
+    }
+    for (int end = readLengthDelimitedEnd(); position < end; ) {
+      target.add(readRawVarint());
+    }
+  }
+
+  public void readFloats(int tag, List<Float> target) {
+    if (wireType(tag) != LENGTH_DELIMITED) {
+      target.add(readFloat(tag));
+      return;
+    }
+    for (int end = readLengthDelimitedEnd(); position < end; ) {
+      target.add(Float.intBitsToFloat(readRawFixed32()));
+    }
+  }
+
+  public void readDoubles(int tag, List<Double> target) {
+    if (wireType(tag) != LENGTH_DELIMITED) {
+      target.add(readDouble(tag));
+      return;
+    }
+    for (int end = readLengthDelimitedEnd(); position < end; ) {
+      target.add(Double.longBitsToDouble(readRawFixed64()));
+    }
+  }
+
+  public void readStrings(int tag, List<String> target) {
+    target.add(readString(tag));
+  }
+
+  /** Skips a field which is not known to the reader. */
+  public void skipField(int tag) {
+    switch (wireType(tag)) {
+      case VARINT -> readRawVarint();
+      case FIXED64 -> skip(Long.BYTES);
+      case LENGTH_DELIMITED -> position = readLengthDelimitedEnd();
+      case FIXED32 -> skip(Integer.BYTES);
+      default ->
+          throw new WireFormatException(
+              "Unsupported wire type %s at position %s".formatted(wireType(tag), position));
+    }
+  }
+
+  private int readLengthDelimitedEnd() {
+    long length = readRawVarint();
+    if (length < 0 || length > buffer.length - position) {
+      throw truncated();
+    }
+    return position + (int) length;
+  }
+
+  private void checkWireType(int tag, int wireType) {
+    if (wireType(tag) != wireType) {
+      throw new WireFormatException(
+          "Field %s has wire type %s, expected %s"
+              .formatted(fieldNumber(tag), wireType(tag), wireType));
+    }
+  }
+
+  private long readRawVarint() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position == buffer.length) {
+        throw truncated();
+      }
+      byte b = buffer[position++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new WireFormatException("Malformed varint at position " + position);
+  }
+
+  private int readRawFixed32() {
+    skip(Integer.BYTES);
+    int value = 0;
+    for (int i = 0; i < Integer.BYTES; i++) {
+      value |= (buffer[position - Integer.BYTES + i] & 0xFF) << (8 * i);
+    }
+    return value;
+  }
+
+  private long readRawFixed64() {
+    skip(Long.BYTES);
+    long value = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      value |= (buffer[position - Long.BYTES + i] & 0xFFL) << (8 * i);
+    }
+    return value;
+  }
+
+  private void skip(int bytes) {
+    if (bytes > buffer.length - position) {
+      throw truncated();
+    }
+    position += bytes;
+  }
+
+  private WireFormatException truncated() {
+    return new WireFormatException("Message is truncated at position " + position);
+  }
+}
@@ -0,0 +1,179 @@
+package com.flipkart.krystal.vajram.wire;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes fields in the protobuf binary wire format into a growable buffer. Repeated numeric fields
+ * are written packed, as is the default in proto3.
+ */
+public final class ProtoWriter {
+
+  public static final int VARINT = 0;
+  public static final int FIXED64 = 1;
+  public static final int LENGTH_DELIMITED = 2;
+  public static final int FIXED32 = 5;
+
+  private byte[] buffer;
+  private int position;
+
+  public ProtoWriter() {
+    this(64);
+  }
+
+  public ProtoWriter(int initialCapacity) {
+    this.buffer = new byte[Math.max(initialCapacity, 16)];
+  }
+
+  public void writeBool(int fieldNumber, boolean value) {
+    writeTag(fieldNumber, VARINT);
+    writeRawVarint(value ? 1 : 0);
+  }
+
+  /** Negative values take 10 bytes, as specified for the {@code int32} type. */
+  public void writeInt32(int fieldNumber, int value) {
+    writeTag(fieldNumber, VARINT);
+    writeRawVarint(value);
+  }
+
+  public void writeInt64(int fieldNumber, long value) {
+    writeTag(fieldNumber, VARINT);
+    writeRawVarint(value);
+  }
+
+  public void writeFloat(int fieldNumber, float value) {
+    writeTag(fieldNumber, FIXED32);
+    writeRawFixed32(Float.floatToRawIntBits(value));
+  }
+
+  public void writeDouble(int fieldNumber, double value) {
+    writeTag(fieldNumber, FIXED64);
+    writeRawFixed64(Double.doubleToRawLongBits(value));
+  }
+
+  public void writeString(int fieldNumber, String value) {
+    byte[] bytes = value.getBytes(UTF_8);
+    writeTag(fieldNumber, LENGTH_DELIMITED);
+    writeRawVarint(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  public void writeBools(int fieldNumber, List<Boolean> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    writeTag(fieldNumber, LENGTH_DELIMITED);
+    writeRawVarint(values.size());
+    for (boolean value : values) {
+      writeRawVarint(value ? 1 : 0);
+    }
+  }
+
+  public void writeInt32s(int fieldNumber, List<Integer> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    int size = 0;
+    for (int value : values) {
+      size += varintSize(value);
+    }
+    writeTag(fieldNumber, LENGTH_DELIMITED);
+    writeRawVarint(size);
+    for (int value : values) {
+      writeRawVarint(value);
+    }
+  }
+
+  public void writeInt64s(int fieldNumber, List<Long> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    int size = 0;
+    for (long value : values) {
+      size += varintSize(value);
+    }
+    writeTag(fieldNumber, LENGTH_DELIMITED);
+    writeRawVarint(size);
+    for (long value : values) {
+      writeRawVarint(value);
+    }
+  }
+
+  public void writeFloats(int fieldNumber, List<Float> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    writeTag(fieldNumber, LENGTH_DELIMITED);
+    writeRawVarint(values.size() * Integer.BYTES);
+    for (float value : values) {
+      writeRawFixed32(Float.floatToRawIntBits(value));
+    }
+  }
+
+  public void writeDoubles(int fieldNumber, List<Double> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    writeTag(fieldNumber, LENGTH_DELIMITED);
+    writeRawVarint(values.size() * Long.BYTES);
+    for (double value : values) {
+      writeRawFixed64(Double.doubleToRawLongBits(value));
+    }
+  }
+
+  public void writeStrings(int fieldNumber, List<String> values) {
+    for (String value : values) {
+      writeString(fieldNumber, value);
+    }
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, position);
+  }
+
+  private void writeTag(int fieldNumber, int wireType) {
+    writeRawVarint((fieldNumber << 3) | wireType);
+  }
+
+  private void writeRawVarint(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeRawFixed32(int value) {
+    ensureCapacity(Integer.BYTES);
+    for (int i = 0; i < Integer.BYTES; i++) {
+      buffer[position++] = (byte) (value >>> (8 * i));
+    }
+  }
+
+  private void writeRawFixed64(long value) {
+    ensureCapacity(Long.BYTES);
+    for (int i = 0; i < Long.BYTES; i++) {
+      buffer[position++] = (byte) (value >>> (8 * i));
+    }
+  }
+
+  private static int varintSize(long value) {
+    int size = 1;
+    while ((value & ~0x7FL) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  private void ensureCapacity(int bytes) {
+    if (position + bytes > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.flipkart.krystal.vajram.wire;
+
+import com.flipkart.krystal.vajram.VajramRequest;
+
+/**
+ * Serializes and deserializes the requests of a vajram in the protobuf and json wire formats.
+ *
+ * <p>Implementations are generated by the vajram code generator for vajrams which allow external
+ * invocation, along with the {@code .proto} schema of the request. Generated codecs read and write
+ * the fields of the generated request class directly - without reflection or intermediate maps.
+ *
+ * @param <R> The generated request class of the vajram
+ */
+public interface VajramRequestCodec<R extends VajramRequest<?>> {
+
+  /**
+   * @throws WireFormatException if the bytes are not a valid protobuf encoding of the request, or
+   *     if a mandatory input is missing
+   */
+  R fromProto(byte[] bytes);
+
+  byte[] toProto(R request);
+
+  /**
+   * Decodes a json object of the inputs of the request. Unknown fields are ignored, and null
+   * values are treated as absent.
+   *
+   * @throws WireFormatException if the bytes are not a valid json object of the inputs of the
+   *     request, or if a mandatory input is missing
+   */
+  R fromJson(byte[] json);
+
+  byte[] toJson(R request);
+}
@@ -0,0 +1,13 @@
+package com.flipkart.krystal.vajram.wire;
+
+/** Thrown when a serialized vajram request is malformed or is missing mandatory inputs. */
+public class WireFormatException extends RuntimeException {
+
+  public WireFormatException(String message) {
+    super(message);
+  }
+
+  public WireFormatException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -7,6 +7,7 @@ module flipkart.krystal.vajram {
   exports com.flipkart.krystal.vajram.exec;
   exports com.flipkart.krystal.vajram.exception;
   exports com.flipkart.krystal.vajram.facets.resolution.sdk;
+  exports com.flipkart.krystal.vajram.wire;
 
   requires com.google.common;
   requires static lombok;
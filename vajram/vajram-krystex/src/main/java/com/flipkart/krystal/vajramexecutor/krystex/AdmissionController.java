@@ -0,0 +1,244 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.annos.AdmissionPriority.Priority.SHEDDABLE;
+import static java.util.Comparator.comparing;
+
+import com.flipkart.krystal.annos.AdmissionPriority.Priority;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * Limits the number of executions which are in progress in a process at any point of time. This
+ * allows the process to degrade gracefully under overload by shedding low priority executions
+ * instead of slowing down every execution.
+ *
+ * <p>An execution is admitted right away if fewer than {@code maxConcurrentExecutions} executions
+ * are in progress. Else, the calling thread waits in a bounded queue until a permit is released by
+ * another execution. Waiting executions are admitted in the order of their {@link Priority} (and in
+ * FIFO order within a priority). An execution is rejected with a {@link
+ * RejectedExecutionException} if
+ *
+ * <ul>
+ *   <li>it has {@link Priority#SHEDDABLE} priority and no permit is available right away
+ *   <li>the queue is full and it does not have a higher priority than the lowest priority waiting
+ *       execution. If it does, the lowest priority waiting execution is rejected instead.
+ *   <li>it could not be admitted within {@code targetQueueingDelay}
+ * </ul>
+ *
+ * <p>A single instance of this class is meant to be shared by all executors in the process.
+ */
+public final class AdmissionController {
+
+  private static final Comparator<Waiter> ADMISSION_ORDER =
+      comparing(Waiter::priority).thenComparingLong(Waiter::sequence);
+
+  private final int maxConcurrentExecutions;
+  private final int maxQueueSize;
+  private final Duration targetQueueingDelay;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Waiting executions - the first one is the next to be admitted. */
+  private final NavigableSet<Waiter> waiters = new TreeSet<>(ADMISSION_ORDER);
+
+  private int activeExecutions;
+  private long sequence;
+
+  /**
+   * @param maxConcurrentExecutions Number of executions which can be in progress without queueing
+   * @param maxQueueSize Maximum number of executions which can wait to be admitted
+   * @param targetQueueingDelay Maximum time an execution waits to be admitted before being rejected
+   */
+  @Builder
+  public AdmissionController(
+      int maxConcurrentExecutions, int maxQueueSize, @NonNull Duration targetQueueingDelay) {
+    if (maxConcurrentExecutions <= 0) {
+      throw new IllegalArgumentException("maxConcurrentExecutions must be positive");
+    }
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("maxQueueSize must not be negative");
+    }
+    this.maxConcurrentExecutions = maxConcurrentExecutions;
+    this.maxQueueSize = maxQueueSize;
+    this.targetQueueingDelay = targetQueueingDelay;
+  }
+
+  /**
+   * Returns a builder whose concurrency limit is the capacity of the given pool - one execution per
+   * thread of the pool.
+   */
+  public static AdmissionControllerBuilder forExecutorsPool(SingleThreadExecutorsPool pool) {
+    return builder().maxConcurrentExecutions(pool.maxThreads());
+  }
+
+  /**
+   * Admits a new execution with the given priority, waiting if needed.
+   *
+   * @return a permit which must be closed when the execution completes
+   * @throws RejectedExecutionException if the execution could not be admitted
+   */
+  public Permit admit(Priority priority) {
+    lock.lock();
+    try {
+      if (activeExecutions < maxConcurrentExecutions) {
+        // If there are waiters, all permits have been taken, so we are not jumping the queue here.
+        activeExecutions++;
+        return new Permit();
+      }
+      if (priority == SHEDDABLE) {
+        throw new RejectedExecutionException(
+            "Shedding %s execution since the concurrency limit %s has been reached"
+                .formatted(priority, maxConcurrentExecutions));
+      }
+      if (waiters.size() >= maxQueueSize) {
+        Waiter lowest = waiters.isEmpty() ? null : waiters.last();
+        if (lowest == null || lowest.priority().compareTo(priority) <= 0) {
+          throw new RejectedExecutionException(
+              "Rejecting %s execution since the admission queue is full".formatted(priority));
+        }
+        waiters.pollLast();
+        lowest.evicted = true;
+        lowest.condition.signal();
+      }
+      return awaitAdmission(new Waiter(priority, sequence++, lock.newCondition()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Admits an execution which is a follow-up of an already admitted execution (for example, a
+   * second vajram executed by the same executor). Such executions are never queued or rejected
+   * since the work they belong to has already been admitted and queueing them behind new work
+   * could cause the already admitted work to never complete. Follow-ups still count against the
+   * concurrency limit: while the limit is exceeded, released permits are not handed over to waiting
+   * executions.
+   */
+  public Permit admitFollowUp() {
+    lock.lock();
+    try {
+      activeExecutions++;
+      return new Permit();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the number of executions which have been admitted and whose permits are not closed. */
+  public int activeExecutions() {
+    lock.lock();
+    try {
+      return activeExecutions;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the number of executions waiting to be admitted. */
+  public int queuedExecutions() {
+    lock.lock();
+    try {
+      return waiters.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Must be called while holding the lock. */
+  private Permit awaitAdmission(Waiter waiter) {
+    waiters.add(waiter);
+    long remainingNanos = targetQueueingDelay.toNanos();
+    try {
+      while (!waiter.admitted && !waiter.evicted) {
+        if (remainingNanos <= 0) {
+          waiters.remove(waiter);
+          throw new RejectedExecutionException(
+              "Rejecting %s execution since it could not be admitted within %s"
+                  .formatted(waiter.priority(), targetQueueingDelay));
+        }
+        remainingNanos = waiter.condition.awaitNanos(remainingNanos);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      waiters.remove(waiter);
+      if (waiter.admitted) {
+        // The permit was handed over to us just before the interruption. Pass it on.
+        releasePermit();
+      }
+      throw new RejectedExecutionException("Interrupted while waiting for admission", e);
+    }
+    if (waiter.evicted) {
+      throw new RejectedExecutionException(
+          "Shedding %s execution in favour of a higher priority execution"
+              .formatted(waiter.priority()));
+    }
+    return new Permit();
+  }
+
+  private void releasePermit() {
+    lock.lock();
+    try {
+      // If follow-ups have taken the executions above the limit, the permit is not handed over
+      // until the executions in progress are back within the limit.
+      Waiter next = activeExecutions > maxConcurrentExecutions ? null : waiters.pollFirst();
+      if (next == null) {
+        activeExecutions--;
+      } else {
+        // Hand over the permit directly so that newly arriving executions cannot steal it.
+        next.admitted = true;
+        next.condition.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Represents an admitted execution. Closing the permit allows another execution to proceed. */
+  public final class Permit implements AutoCloseable {
+
+    private boolean closed;
+
+    private Permit() {}
+
+    @Override
+    public void close() {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+      }
+      releasePermit();
+    }
+  }
+
+  private static final class Waiter {
+    private final Priority priority;
+    private final long sequence;
+    private final Condition condition;
+    private boolean admitted;
+    private boolean evicted;
+
+    private Waiter(Priority priority, long sequence, Condition condition) {
+      this.priority = priority;
+      this.sequence = sequence;
+      this.condition = condition;
+    }
+
+    private Priority priority() {
+      return priority;
+    }
+
+    private long sequence() {
+      return sequence;
+    }
+  }
+}
@@ -55,6 +55,8 @@ public record InputBatcherConfig(
    *
    * <p>{@code [Start]>vajramId_1:dep_1>vajramId_2:dep_2>....>vajramId_n:dep_n}
    *
+   * <p>The windows of a streamed dependency share the batcher of the dependency's own chain.
+   *
    * @param inputBatcherSupplier Supplies the {@link InputBatcher} corresponding to an {@link
    *     InputBatchingDecorator}. This supplier is guaranteed to be called exactly once for every
    *     unique {@link InputBatchingDecorator} instance.
@@ -64,7 +66,7 @@ public record InputBatcherConfig(
     return new InputBatcherConfig(
         logicExecutionContext ->
             generateInstanceId(
-                    logicExecutionContext.dependants(),
+                    logicExecutionContext.dependants().withoutStreamWindows(),
                     logicExecutionContext.kryonDefinitionRegistry())
                 .toString(),
         batcherContext -> batcherContext.vajram().getBatchFacetsConvertor().isPresent(),
@@ -86,10 +88,15 @@ public record InputBatcherConfig(
                       .logicDecoratorContext()
                       .logicExecutionContext()
                       .dependants()
-                      .equals(dependantChain));
+                      .withoutStreamWindows()
+                      .equals(dependantChain.withoutStreamWindows()));
         });
   }
 
+  /**
+   * Creates an InputBatcherConfig in which one batcher is shared by all the given dependant chains
+   * - including the windows of streamed dependencies in those chains.
+   */
   public static InputBatcherConfig sharedBatcher(
       Supplier<InputBatcher<FacetValuesAdaptor, FacetValuesAdaptor>> inputBatcherSupplier,
       String instanceId,
@@ -106,7 +113,11 @@ public record InputBatcherConfig(
         batcherContext ->
             batcherContext.vajram().getBatchFacetsConvertor().isPresent()
                 && dependantChains.contains(
-                    batcherContext.logicDecoratorContext().logicExecutionContext().dependants()),
+                    batcherContext
+                        .logicDecoratorContext()
+                        .logicExecutionContext()
+                        .dependants()
+                        .withoutStreamWindows()),
         batcherContext -> {
           @SuppressWarnings("unchecked")
           Optional<FacetsConverter<FacetValuesAdaptor, FacetValuesAdaptor>> facetsConvertor =
@@ -120,7 +131,7 @@ public record InputBatcherConfig(
               instanceId,
               inputBatcherSupplier.get(),
               facetsConvertor.get(),
-              dependantChains::contains);
+              dependantChain -> dependantChains.contains(dependantChain.withoutStreamWindows()));
         });
   }
 
@@ -3,6 +3,7 @@ package com.flipkart.krystal.vajramexecutor.krystex;
 import static com.flipkart.krystal.concurrent.Futures.linkFutures;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.failedFuture;
 import static java.util.function.Function.identity;
 
@@ -11,6 +12,7 @@ import com.flipkart.krystal.config.NestedConfig;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.jfr.InputBatchDispatchEvent;
 import com.flipkart.krystal.krystex.kryon.DependantChain;
 import com.flipkart.krystal.krystex.logicdecoration.FlushCommand;
 import com.flipkart.krystal.krystex.logicdecoration.InitiateActiveDepChains;
@@ -33,6 +35,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
+import jdk.jfr.EventType;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class InputBatchingDecorator<
@@ -41,6 +44,8 @@ public final class InputBatchingDecorator<
     implements OutputLogicDecorator {
 
   public static final String DECORATOR_TYPE = InputBatchingDecorator.class.getName();
+  private static final EventType DISPATCH_EVENT =
+      EventType.getEventType(InputBatchDispatchEvent.class);
   private final String instanceId;
   private final InputBatcher<I, C> inputBatcher;
   private final FacetsConverter<I, C> facetsConverter;
@@ -49,6 +54,9 @@ public final class InputBatchingDecorator<
   private ImmutableSet<DependantChain> activeDependantChains = ImmutableSet.of();
   private final Set<DependantChain> flushedDependantChains = new LinkedHashSet<>();
 
+  /** Streamed dependencies at least one of whose windows has been flushed. */
+  private final Set<DependantChain> flushedStreamedChains = new LinkedHashSet<>();
+
   public InputBatchingDecorator(
       String instanceId,
       InputBatcher<I, C> inputBatcher,
@@ -64,7 +72,9 @@ public final class InputBatchingDecorator<
   public OutputLogic<Object> decorateLogic(
       OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
     inputBatcher.onBatching(
-        requests -> requests.forEach(request -> batchFacetsList(logicToDecorate, request)));
+        requests ->
+            requests.forEach(
+                request -> batchFacetsList(logicToDecorate, originalLogicDefinition, request)));
     return facetsList -> {
       List<UnBatchedFacets<I, C>> requests =
           facetsList.stream()
@@ -86,7 +96,7 @@ public final class InputBatchingDecorator<
               futureCache.computeIfAbsent(
                   request.toFacetValues(), e -> new CompletableFuture<@Nullable Object>()));
       for (BatchedFacets<I, C> batchedFacets : batchedFacetsList) {
-        batchFacetsList(logicToDecorate, batchedFacets);
+        batchFacetsList(logicToDecorate, originalLogicDefinition, batchedFacets);
       }
       return requests.stream()
           .map(UnBatchedFacets::toFacetValues)
@@ -111,7 +121,16 @@ public final class InputBatchingDecorator<
       allActiveDepChains.removeIf(isApplicableToDependantChain.negate());
       this.activeDependantChains = ImmutableSet.copyOf(allActiveDepChains);
     } else if (logicDecoratorCommand instanceof FlushCommand flushCommand) {
-      flushedDependantChains.add(flushCommand.dependantsChain());
+      // The windows of a streamed dependency are batched as part of the dependency's own chain
+      DependantChain flushedChain = flushCommand.dependantsChain().withoutStreamWindows();
+      if (flushedChain != flushCommand.dependantsChain()
+          && !flushedStreamedChains.add(flushedChain)) {
+        // A later window of the stream. The other chains of this batcher flushed along with the
+        // first window, and will not flush again - so the window is batched by itself.
+        inputBatcher.batch();
+        return;
+      }
+      flushedDependantChains.add(flushedChain);
       if (flushedDependantChains.containsAll(activeDependantChains)) {
         inputBatcher.batch();
         flushedDependantChains.clear();
@@ -121,7 +140,9 @@ public final class InputBatchingDecorator<
 
   @SuppressWarnings("UnnecessaryTypeArgument") // To Handle nullChecker errors
   private void batchFacetsList(
-      OutputLogic<Object> logicToDecorate, BatchedFacets<I, C> batchedFacets) {
+      OutputLogic<Object> logicToDecorate,
+      OutputLogicDefinition<Object> logicDefinition,
+      BatchedFacets<I, C> batchedFacets) {
     ImmutableList<UnBatchedFacets<I, C>> requests =
         batchedFacets.batch().stream()
             .map(each -> new UnBatchedFacets<>(each, batchedFacets.commonFacets()))
@@ -129,11 +150,20 @@ public final class InputBatchingDecorator<
     ImmutableMap<Facets, CompletableFuture<@Nullable Object>> result;
     ImmutableList<Facets> facetsList =
         requests.stream().map(UnBatchedFacets::toFacetValues).collect(toImmutableList());
+    // Allocated only when a recording has enabled the event
+    @Nullable InputBatchDispatchEvent dispatchEvent =
+        DISPATCH_EVENT.isEnabled() ? new InputBatchDispatchEvent() : null;
+    if (dispatchEvent != null) {
+      dispatchEvent.begin();
+    }
     try {
       result = logicToDecorate.execute(facetsList);
     } catch (Throwable e) {
       result = facetsList.stream().collect(toImmutableMap(identity(), i -> failedFuture(e)));
     }
+    if (dispatchEvent != null) {
+      commitOnCompletion(dispatchEvent, logicDefinition, result);
+    }
 
     result.forEach(
         (inputs, resultFuture) -> {
@@ -145,10 +175,36 @@ public final class InputBatchingDecorator<
         });
   }
 
+  private void commitOnCompletion(
+      InputBatchDispatchEvent dispatchEvent,
+      OutputLogicDefinition<Object> logicDefinition,
+      ImmutableMap<Facets, CompletableFuture<@Nullable Object>> result) {
+    allOf(result.values().toArray(CompletableFuture[]::new))
+        .whenComplete(
+            (_r, _t) -> {
+              dispatchEvent.end();
+              if (dispatchEvent.shouldCommit()) {
+                dispatchEvent.kryonId = logicDefinition.kryonLogicId().kryonId().value();
+                dispatchEvent.batcherId = instanceId;
+                dispatchEvent.batchSize = result.size();
+                dispatchEvent.commit();
+              }
+            });
+  }
+
   @Override
   public void onConfigUpdate(ConfigProvider configProvider) {
-    inputBatcher.onConfigUpdate(
-        new NestedConfig(String.format("input_batching.%s.", instanceId), configProvider));
+    inputBatcher.onConfigUpdate(new NestedConfig(configPrefix(), configProvider));
+  }
+
+  @Override
+  public boolean isInterestedIn(String configKey) {
+    return configKey.startsWith(configPrefix())
+        && inputBatcher.isInterestedIn(configKey.substring(configPrefix().length()));
+  }
+
+  private String configPrefix() {
+    return String.format("input_batching.%s.", instanceId);
   }
 
   @Override
@@ -2,6 +2,8 @@ package com.flipkart.krystal.vajramexecutor.krystex;
 
 import static com.flipkart.krystal.vajram.VajramID.vajramID;
 
+import com.flipkart.krystal.annos.AdmissionPriority;
+import com.flipkart.krystal.annos.AdmissionPriority.Priority;
 import com.flipkart.krystal.data.Facets;
 import com.flipkart.krystal.krystex.KrystalExecutor;
 import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
@@ -11,9 +13,13 @@ import com.flipkart.krystal.krystex.kryondecoration.KryonExecutionContext;
 import com.flipkart.krystal.vajram.VajramID;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajram.exec.VajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.AdmissionController.Permit;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.KryonInputInjector;
 import com.flipkart.krystal.vajramexecutor.krystex.inputinjection.VajramInjectionProvider;
+import com.flipkart.krystal.vajramexecutor.krystex.routing.ProviderRoutingDecorator;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.Builder;
 import lombok.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -22,12 +28,17 @@ public class KrystexVajramExecutor implements VajramExecutor {
 
   private final VajramKryonGraph vajramKryonGraph;
   private final KrystalExecutor krystalExecutor;
+  private final @Nullable AdmissionController admissionController;
+
+  /** Completes when the first execution of this executor has been admitted. Guarded by this. */
+  private @Nullable CompletableFuture<@Nullable Void> admission;
 
   @Builder
   public KrystexVajramExecutor(
       @NonNull VajramKryonGraph vajramKryonGraph,
       @NonNull KrystexVajramExecutorConfig executorConfig) {
     this.vajramKryonGraph = vajramKryonGraph;
+    this.admissionController = executorConfig.admissionController();
     VajramInjectionProvider inputInjectionProvider = executorConfig.inputInjectionProvider();
     if (inputInjectionProvider != null) {
       executorConfig
@@ -42,6 +53,21 @@ public class KrystexVajramExecutor implements VajramExecutor {
                   /* factory= */ decoratorContext ->
                       new KryonInputInjector(vajramKryonGraph, inputInjectionProvider)));
     }
+    if (vajramKryonGraph.hasAlternateProviders()) {
+      ProviderRoutingDecorator providerRoutingDecorator =
+          new ProviderRoutingDecorator(vajramKryonGraph);
+      executorConfig
+          .kryonExecutorConfigBuilder()
+          .requestScopedKryonDecoratorConfig(
+              ProviderRoutingDecorator.DECORATOR_TYPE,
+              new KryonDecoratorConfig(
+                  ProviderRoutingDecorator.DECORATOR_TYPE,
+                  /* shouldDecorate= */ executionContext ->
+                      vajramKryonGraph.getProviderRouter(executionContext.kryonId()).isPresent(),
+                  /* instanceIdGenerator= */ executionContext ->
+                      ProviderRoutingDecorator.DECORATOR_TYPE,
+                  /* factory= */ decoratorContext -> providerRoutingDecorator));
+    }
     this.krystalExecutor =
         new KryonExecutor(
             vajramKryonGraph.kryonDefinitionRegistry(),
@@ -71,10 +97,97 @@ public class KrystexVajramExecutor implements VajramExecutor {
     return executeWithFacets(vajramId, vajramRequest.toFacetValues(), executionConfig);
   }
 
+  /**
+   * @throws RejectedExecutionException if an {@link AdmissionController} has been configured and
+   *     it rejects the execution
+   */
   public <T> CompletableFuture<@Nullable T> executeWithFacets(
       VajramID vajramId, Facets facets, KryonExecutionConfig executionConfig) {
-    return krystalExecutor.executeKryon(
-        vajramKryonGraph.getKryonId(vajramId), facets, executionConfig);
+    AdmissionController admissionController = this.admissionController;
+    if (admissionController == null) {
+      return krystalExecutor.executeKryon(
+          vajramKryonGraph.getKryonId(vajramId), facets, executionConfig);
+    }
+    Permit permit = admit(admissionController, vajramId, executionConfig);
+    CompletableFuture<@Nullable T> result;
+    try {
+      result =
+          krystalExecutor.executeKryon(
+              vajramKryonGraph.getKryonId(vajramId), facets, executionConfig);
+    } catch (Throwable e) {
+      permit.close();
+      throw e;
+    }
+    result.whenComplete((unused, throwable) -> permit.close());
+    return result;
+  }
+
+  /**
+   * Only the first execution of this executor goes through admission control. Subsequent
+   * executions are part of the same unit of work (generally a request) and are admitted as
+   * follow-ups so that an admitted request is never shed halfway. Executions which arrive while the
+   * first one is waiting for admission wait for its outcome - without holding the monitor of this
+   * executor.
+   */
+  private Permit admit(
+      AdmissionController admissionController,
+      VajramID vajramId,
+      KryonExecutionConfig executionConfig) {
+    CompletableFuture<@Nullable Void> admission;
+    boolean first;
+    synchronized (this) {
+      CompletableFuture<@Nullable Void> current = this.admission;
+      first = current == null;
+      if (current == null) {
+        current = new CompletableFuture<>();
+        this.admission = current;
+      }
+      admission = current;
+    }
+    if (!first) {
+      try {
+        admission.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RejectedExecutionException rejected) {
+          throw rejected;
+        }
+        throw e;
+      }
+      return admissionController.admitFollowUp();
+    }
+    Permit permit;
+    try {
+      permit = admissionController.admit(getAdmissionPriority(vajramId, executionConfig));
+    } catch (Throwable e) {
+      synchronized (this) {
+        // Let a later execution go through admission control again
+        this.admission = null;
+      }
+      admission.completeExceptionally(e);
+      throw e;
+    }
+    admission.complete(null);
+    return permit;
+  }
+
+  /**
+   * The priority passed in the execution metadata overrides the priority of the vajram. If neither
+   * is present, the execution has {@link Priority#DEFAULT} priority.
+   */
+  private Priority getAdmissionPriority(VajramID vajramId, KryonExecutionConfig executionConfig) {
+    return executionConfig
+        .executionTags()
+        .<AdmissionPriority>getAnnotationByType(AdmissionPriority.class)
+        .or(
+            () ->
+                vajramKryonGraph
+                    .getVajramDefinition(vajramId)
+                    .flatMap(
+                        v ->
+                            v.vajramTags()
+                                .<AdmissionPriority>getAnnotationByType(AdmissionPriority.class)))
+        .map(AdmissionPriority::value)
+        .orElse(Priority.DEFAULT);
   }
 
   public KrystalExecutor getKrystalExecutor() {
@@ -7,11 +7,17 @@ import lombok.NonNull;
 import org.checkerframework.checker.calledmethods.qual.CalledMethods;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * @param admissionController If present, the first execution of the executor is admitted by this
+ *     controller (which might block the calling thread or reject the execution), and all
+ *     executions of the executor hold a permit of this controller until they complete.
+ */
 public record KrystexVajramExecutorConfig(
     String requestId,
     @NonNull @CalledMethods("singleThreadExecutor")
         KryonExecutorConfigBuilder kryonExecutorConfigBuilder,
-    @Nullable VajramInjectionProvider inputInjectionProvider) {
+    @Nullable VajramInjectionProvider inputInjectionProvider,
+    @Nullable AdmissionController admissionController) {
 
   @Builder
   public KrystexVajramExecutorConfig {}
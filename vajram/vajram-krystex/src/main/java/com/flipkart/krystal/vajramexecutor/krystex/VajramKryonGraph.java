@@ -2,6 +2,7 @@ package com.flipkart.krystal.vajramexecutor.krystex;
 
 import static com.flipkart.krystal.data.Errable.withValue;
 import static com.flipkart.krystal.krystex.resolution.ResolverCommand.multiExecuteWith;
+import static com.flipkart.krystal.tags.ElementTags.emptyTags;
 import static com.flipkart.krystal.vajram.VajramID.vajramID;
 import static com.flipkart.krystal.vajram.VajramLoader.loadVajramsFromClassPath;
 import static com.flipkart.krystal.vajram.facets.MultiExecute.executeFanoutWith;
@@ -16,6 +17,8 @@ import static java.util.concurrent.CompletableFuture.failedFuture;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.config.SnapshotConfigProvider;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.data.FacetValue;
 import com.flipkart.krystal.data.Facets;
@@ -41,6 +44,7 @@ import com.flipkart.krystal.vajram.Vajram;
 import com.flipkart.krystal.vajram.VajramDefinitionException;
 import com.flipkart.krystal.vajram.VajramID;
 import com.flipkart.krystal.vajram.das.AccessSpecMatchingResult;
+import com.flipkart.krystal.vajram.das.AlternateProviderOf;
 import com.flipkart.krystal.vajram.das.DataAccessSpec;
 import com.flipkart.krystal.vajram.das.VajramIndex;
 import com.flipkart.krystal.vajram.exec.VajramDefinition;
@@ -55,6 +59,9 @@ import com.flipkart.krystal.vajram.facets.resolution.InputResolverUtil.Resolutio
 import com.flipkart.krystal.vajram.facets.resolution.ResolutionRequest;
 import com.flipkart.krystal.vajram.facets.resolution.SimpleInputResolver;
 import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig.BatcherContext;
+import com.flipkart.krystal.vajramexecutor.krystex.routing.FallbackOnErrorRouting;
+import com.flipkart.krystal.vajramexecutor.krystex.routing.ProviderRouter;
+import com.flipkart.krystal.vajramexecutor.krystex.routing.ProviderRoutingPolicy;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -96,14 +103,35 @@ public final class VajramKryonGraph implements VajramExecutableGraph<KrystexVajr
 
   private final VajramIndex vajramIndex = new VajramIndex();
 
+  /**
+   * Router kryons of the vajrams which have alternate providers. Populated lazily as kryons are
+   * created, and read by the executors' threads.
+   */
+  private final Map<KryonId, ProviderRouter> providerRouters = new ConcurrentHashMap<>();
+
+  private final Map<VajramID, ProviderRoutingPolicy> providerRoutingPolicies =
+      new ConcurrentHashMap<>();
+
+  private volatile boolean hasAlternateProviders;
+
   /** LogicDecorator Id -> LogicDecoratorConfig */
   private final ImmutableMap<String, OutputLogicDecoratorConfig> sessionScopedDecoratorConfigs;
 
+  private final @Nullable ConfigProvider configProvider;
+
+  /**
+   * @param configProvider Configures the session scoped output logic decorators of the graph. If
+   *     this is a {@link SnapshotConfigProvider}, the decorators are also reconfigured whenever the
+   *     configs they are interested in change - for example, to change the limits of a bulkhead
+   *     without a restart.
+   */
   @Builder
   private VajramKryonGraph(
       Set<String> packagePrefixes,
-      Map<String, OutputLogicDecoratorConfig> sessionScopedDecoratorConfigs) {
+      Map<String, OutputLogicDecoratorConfig> sessionScopedDecoratorConfigs,
+      @Nullable ConfigProvider configProvider) {
     this.sessionScopedDecoratorConfigs = ImmutableMap.copyOf(sessionScopedDecoratorConfigs);
+    this.configProvider = configProvider;
     LogicDefinitionRegistry logicDefinitionRegistry = new LogicDefinitionRegistry();
     this.kryonDefinitionRegistry = new KryonDefinitionRegistry(logicDefinitionRegistry);
     this.logicRegistryDecorator = new LogicDefRegistryDecorator(logicDefinitionRegistry);
@@ -214,6 +242,9 @@ public final class VajramKryonGraph implements VajramExecutableGraph<KrystexVajr
     }
     vajramDefinitions.put(vajramID, vajramDefinition);
     vajramIndex.add(vajramDefinition);
+    if (vajramDefinition.vajramTags().getAnnotationByType(AlternateProviderOf.class).isPresent()) {
+      hasAlternateProviders = true;
+    }
     vajramDataByClass.putIfAbsent(vajramDefinition.vajramDefClass(), vajramDefinition);
   }
 
@@ -257,11 +288,7 @@ public final class VajramKryonGraph implements VajramExecutableGraph<KrystexVajr
     OutputLogicDefinition<?> outputLogicDefinition =
         createKryonOutputLogic(kryonId, vajramDefinition);
 
-    ImmutableSet<String> inputNames =
-        vajramDefinition.vajram().getFacetDefinitions().stream()
-            .filter(vajramFacetDefinition -> vajramFacetDefinition instanceof InputDef<?>)
-            .map(VajramFacetDefinition::name)
-            .collect(toImmutableSet());
+    ImmutableSet<String> inputNames = inputNames(vajramDefinition);
 
     KryonDefinition kryonDefinition =
         kryonDefinitionRegistry.newKryonDefinition(
@@ -555,7 +582,9 @@ public final class VajramKryonGraph implements VajramExecutableGraph<KrystexVajr
             vajramDefinition.outputLogicTags());
     sessionScopedDecoratorConfigs
         .values()
-        .forEach(outputLogic::registerSessionScopedLogicDecorator);
+        .forEach(
+            decoratorConfig ->
+                outputLogic.registerSessionScopedLogicDecorator(decoratorConfig, configProvider));
     return outputLogic;
   }
 
@@ -606,16 +635,85 @@ public final class VajramKryonGraph implements VajramExecutableGraph<KrystexVajr
       ImmutableMap<DataAccessSpec, VajramDefinition> dependencyVajrams =
           accessSpecMatchingResult.successfulMatches();
       if (dependencyVajrams.size() > 1) {
-        throw new UnsupportedOperationException("");
+        throw new VajramDefinitionException(
+            "Dependency %s of vajram %s is served by different vajrams %s. Query such data with a planner instead."
+                .formatted(dependencyName, vajramDefinition.vajramId(), dependencyVajrams));
       }
-      VajramDefinition dependencyVajram = dependencyVajrams.values().iterator().next();
-
+      Entry<DataAccessSpec, VajramDefinition> dependencyVajram =
+          dependencyVajrams.entrySet().iterator().next();
+      ImmutableList<VajramDefinition> alternates =
+          accessSpecMatchingResult
+              .alternateMatches()
+              .getOrDefault(dependencyVajram.getKey(), ImmutableList.of());
       depNameToProviderKryon.put(
-          dependencyName, _getVajramExecutionGraph(dependencyVajram.vajramId()));
+          dependencyName,
+          alternates.isEmpty()
+              ? _getVajramExecutionGraph(dependencyVajram.getValue().vajramId())
+              : getProviderRouterKryon(dependencyVajram.getValue(), alternates));
     }
     return ImmutableMap.copyOf(depNameToProviderKryon);
   }
 
+  /**
+   * Creates, if necessary, the {@link ProviderRouter} kryon which stands in for the given vajram
+   * and routes its batches between it and its alternates.
+   */
+  private KryonId getProviderRouterKryon(
+      VajramDefinition primary, ImmutableList<VajramDefinition> alternates) {
+    KryonId routerKryonId = new KryonId("providers(%s)".formatted(primary.vajramId().vajramId()));
+    if (providerRouters.containsKey(routerKryonId)) {
+      return routerKryonId;
+    }
+    ImmutableSet<String> inputNames = inputNames(primary);
+    ImmutableList.Builder<VajramID> providers = ImmutableList.builder();
+    Map<String, KryonId> providerKryons = new LinkedHashMap<>();
+    for (VajramDefinition provider :
+        ImmutableList.<VajramDefinition>builder().add(primary).addAll(alternates).build()) {
+      if (!inputNames(provider).equals(inputNames)) {
+        throw new VajramDefinitionException(
+            "Vajram %s cannot be an alternate provider of %s since their inputs %s and %s differ"
+                .formatted(
+                    provider.vajramId(), primary.vajramId(), inputNames(provider), inputNames));
+      }
+      providers.add(provider.vajramId());
+      providerKryons.put(
+          provider.vajramId().vajramId(), _getVajramExecutionGraph(provider.vajramId()));
+    }
+    providerRouters.put(routerKryonId, new ProviderRouter(routerKryonId, providers.build()));
+    OutputLogicDefinition<Object> outputLogic =
+        logicRegistryDecorator.newOutputLogic(
+            // IO, so that dependants process the responses of the router in their own thread
+            true,
+            new KryonLogicId(routerKryonId, "%s:outputLogic".formatted(routerKryonId.value())),
+            inputNames,
+            inputsList ->
+                inputsList.stream()
+                    .collect(
+                        toImmutableMap(
+                            identity(),
+                            _i ->
+                                failedFuture(
+                                    new UnsupportedOperationException(
+                                        "Provider routing is supported only with the BATCH kryon exec strategy")))),
+            emptyTags());
+    kryonDefinitionRegistry.newKryonDefinition(
+        routerKryonId.value(),
+        inputNames,
+        outputLogic.kryonLogicId(),
+        ImmutableMap.copyOf(providerKryons),
+        ImmutableList.of(),
+        null,
+        emptyTags());
+    return routerKryonId;
+  }
+
+  private static ImmutableSet<String> inputNames(VajramDefinition vajramDefinition) {
+    return vajramDefinition.vajram().getFacetDefinitions().stream()
+        .filter(vajramFacetDefinition -> vajramFacetDefinition instanceof InputDef<?>)
+        .map(VajramFacetDefinition::name)
+        .collect(toImmutableSet());
+  }
+
   private record InputResolverCreationResult(
       ImmutableList<ResolverDefinition> resolverDefinitions, KryonLogicId multiResolver) {}
 
@@ -623,6 +721,32 @@ public final class VajramKryonGraph implements VajramExecutableGraph<KrystexVajr
     return Optional.ofNullable(vajramDefinitions.get(vajramId));
   }
 
+  /**
+   * Sets the policy with which the batches of dependencies on the given vajram are routed between
+   * it and its alternate providers. Defaults to {@link FallbackOnErrorRouting}.
+   */
+  public void registerProviderRouting(VajramID vajramId, ProviderRoutingPolicy routingPolicy) {
+    providerRoutingPolicies.put(vajramId, routingPolicy);
+  }
+
+  public ProviderRoutingPolicy getProviderRoutingPolicy(VajramID vajramId) {
+    return providerRoutingPolicies.computeIfAbsent(vajramId, _v -> new FallbackOnErrorRouting());
+  }
+
+  public Optional<ProviderRouter> getProviderRouter(KryonId kryonId) {
+    return Optional.ofNullable(providerRouters.get(kryonId));
+  }
+
+  /** Returns true if any vajram of this graph is an alternate provider of another vajram. */
+  boolean hasAlternateProviders() {
+    return hasAlternateProviders;
+  }
+
+  /** Returns the vajrams of this graph which serve the given access spec. */
+  public <T extends DataAccessSpec> AccessSpecMatchingResult<T> getVajrams(T accessSpec) {
+    return vajramIndex.getVajrams(accessSpec);
+  }
+
   public VajramID getVajramId(Class<? extends Vajram<?>> vajramDefClass) {
     VajramDefinition vajramDefinition = vajramDataByClass.get(vajramDefClass);
     if (vajramDefinition == null) {
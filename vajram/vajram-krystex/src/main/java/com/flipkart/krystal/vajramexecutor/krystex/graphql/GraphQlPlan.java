@@ -0,0 +1,91 @@
+package com.flipkart.krystal.vajramexecutor.krystex.graphql;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.stream.Collectors.toMap;
+
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.das.GraphQl;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The execution plan of a {@link GraphQl} query.
+ *
+ * @param query The planned query
+ * @param fetches The vajram serving each subset of the fields of the query. The subsets are
+ *     disjoint and together make up all the fields of the query.
+ */
+public record GraphQlPlan(GraphQl query, ImmutableMap<GraphQl, VajramID> fetches) {
+
+  private static final AtomicLong EXECUTION_COUNT = new AtomicLong();
+
+  /**
+   * Executes the query for each of the given objects in the given executor. Each object is
+   * identified by the facets with which the vajrams serving its type are invoked.
+   *
+   * <p>All fetches are submitted to the same executor without flushing it, so that the input
+   * batchers of the vajrams batch the fetches of all the objects together, exactly as if the
+   * vajrams were dependencies of a hand-written vajram. Objects which are identified by the same
+   * facets are fetched only once. The results complete once the executor is flushed (or closed).
+   *
+   * @return The result of each object - in the same order as the objects - with the selected
+   *     fields merged from the responses of all the vajrams serving the query.
+   */
+  public ImmutableList<CompletableFuture<Map<String, @Nullable Object>>> execute(
+      KrystexVajramExecutor executor, List<? extends Map<String, ?>> objects) {
+    Map<Map<String, ?>, CompletableFuture<Map<String, @Nullable Object>>> results =
+        new HashMap<>();
+    ImmutableList.Builder<CompletableFuture<Map<String, @Nullable Object>>> responses =
+        ImmutableList.builderWithExpectedSize(objects.size());
+    for (Map<String, ?> object : objects) {
+      CompletableFuture<Map<String, @Nullable Object>> result = results.get(object);
+      if (result == null) {
+        result = fetch(executor, object);
+        results.put(object, result);
+      }
+      responses.add(result);
+    }
+    return responses.build();
+  }
+
+  private CompletableFuture<Map<String, @Nullable Object>> fetch(
+      KrystexVajramExecutor executor, Map<String, ?> object) {
+    Map<String, FacetValue<Object>> facetValues =
+        object.entrySet().stream().collect(toMap(Entry::getKey, e -> withValue(e.getValue())));
+    Facets facets = new Facets(facetValues);
+    long executionNumber = EXECUTION_COUNT.incrementAndGet();
+    List<CompletableFuture<@Nullable Object>> partialResults = new ArrayList<>(fetches.size());
+    for (VajramID vajramId : fetches.values()) {
+      partialResults.add(
+          executor.executeWithFacets(
+              vajramId,
+              facets,
+              KryonExecutionConfig.builder()
+                  .executionId("graphql:%s:%s".formatted(executionNumber, vajramId.vajramId()))
+                  .build()));
+    }
+    return allOf(partialResults.toArray(CompletableFuture[]::new))
+        .thenApply(
+            _unused -> {
+              List<@Nullable Object> partials = new ArrayList<>(partialResults.size());
+              partialResults.forEach(partialResult -> partials.add(partialResult.join()));
+              @SuppressWarnings("unchecked")
+              Map<String, @Nullable Object> merged =
+                  (Map<String, @Nullable Object>) query.<@Nullable Object>adapt(partials);
+              return merged;
+            });
+  }
+}
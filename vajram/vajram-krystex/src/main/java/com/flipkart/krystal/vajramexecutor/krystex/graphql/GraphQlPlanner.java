@@ -0,0 +1,50 @@
+package com.flipkart.krystal.vajramexecutor.krystex.graphql;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.flipkart.krystal.vajram.das.AccessSpecMatchingResult;
+import com.flipkart.krystal.vajram.das.GraphQl;
+import com.flipkart.krystal.vajram.das.GraphQlFields;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plans the execution of {@link GraphQl} queries over the vajrams of a graph. The fields of a
+ * query are mapped to the vajrams serving them (See {@link GraphQlFields}) using the graph's
+ * vajram index, such that sibling fields served by the same vajram are fetched with one request to
+ * it.
+ *
+ * <p>Plans are cached per query, so planning a query which has been planned before is cheap.
+ */
+public final class GraphQlPlanner {
+
+  private final VajramKryonGraph vajramKryonGraph;
+  private final Map<GraphQl, GraphQlPlan> plans = new ConcurrentHashMap<>();
+
+  public GraphQlPlanner(VajramKryonGraph vajramKryonGraph) {
+    this.vajramKryonGraph = vajramKryonGraph;
+  }
+
+  /**
+   * @throws IllegalArgumentException if some of the fields of the query are not served by any
+   *     vajram of the graph
+   */
+  public GraphQlPlan plan(GraphQl query) {
+    return plans.computeIfAbsent(query, this::createPlan);
+  }
+
+  private GraphQlPlan createPlan(GraphQl query) {
+    AccessSpecMatchingResult<GraphQl> matchingResult = vajramKryonGraph.getVajrams(query);
+    if (matchingResult.hasUnsuccessfulMatches()) {
+      throw new IllegalArgumentException(
+          "No vajrams serve the GraphQL selections %s"
+              .formatted(matchingResult.unsuccessfulMatches()));
+    }
+    return new GraphQlPlan(
+        query,
+        matchingResult.successfulMatches().entrySet().stream()
+            .collect(toImmutableMap(Entry::getKey, e -> e.getValue().vajramId())));
+  }
+}
@@ -0,0 +1,52 @@
+package com.flipkart.krystal.vajramexecutor.krystex.replay;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The outcome of a {@link TrafficReplayer#replay() replay}.
+ *
+ * <p>Latencies are measured from the time at which each execution was scheduled to start - not the
+ * time at which it actually started - so that a build which cannot keep up with the replayed rate
+ * reports the queueing delay it causes, instead of hiding it by slowing down the replay.
+ *
+ * @param executions The number of executions replayed
+ * @param failures The number of executions which failed or could not be started
+ * @param elapsed The time from the start of the replay until the last execution completed
+ * @param throughput The number of executions completed per second
+ */
+public record ReplayReport(
+    int executions,
+    int failures,
+    Duration elapsed,
+    double throughput,
+    Duration p50,
+    Duration p90,
+    Duration p99,
+    Duration p999,
+    Duration max) {
+
+  static ReplayReport of(long[] latencyNanos, int failures, long elapsedNanos) {
+    long[] sorted = latencyNanos.clone();
+    Arrays.sort(sorted);
+    return new ReplayReport(
+        sorted.length,
+        failures,
+        Duration.ofNanos(elapsedNanos),
+        elapsedNanos == 0 ? 0 : sorted.length * 1e9 / elapsedNanos,
+        percentile(sorted, 0.5),
+        percentile(sorted, 0.9),
+        percentile(sorted, 0.99),
+        percentile(sorted, 0.999),
+        sorted.length == 0 ? Duration.ZERO : Duration.ofNanos(sorted[sorted.length - 1]));
+  }
+
+  private static Duration percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return Duration.ZERO;
+    }
+    //noinspection NumericCastThatLosesPrecision
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return Duration.ofNanos(sorted[Math.max(0, index)]);
+  }
+}
@@ -0,0 +1,133 @@
+package com.flipkart.krystal.vajramexecutor.krystex.replay;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.FacetValue;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedCall;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedExecution;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Traffic recorded by a {@link TrafficRecorder}: the top level executions of a vajram graph and the
+ * responses of the IO vajrams invoked by them.
+ *
+ * <p>The log is a gzipped stream of length-prefixed {@link TrafficRecord}s, each serialized with
+ * java serialization, so the inputs and responses of the recorded vajrams must be {@link
+ * java.io.Serializable}. Only read logs from trusted sources, since reading a log deserializes the
+ * objects in it.
+ */
+public final class TrafficLog {
+
+  static final int MAGIC = 0x4B52544C;
+
+  private final ImmutableList<RecordedExecution> executions;
+  private final ImmutableList<RecordedCall> calls;
+
+  public TrafficLog(
+      ImmutableList<RecordedExecution> executions, ImmutableList<RecordedCall> calls) {
+    this.executions = executions;
+    this.calls = calls;
+  }
+
+  /**
+   * Reads the log at the given path. A log whose last record is truncated (for example because the
+   * recording process crashed) is read up to the last complete record.
+   */
+  public static TrafficLog read(Path path) throws IOException {
+    ImmutableList.Builder<RecordedExecution> executions = ImmutableList.builder();
+    ImmutableList.Builder<RecordedCall> calls = ImmutableList.builder();
+    try (DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException(path + " is not a traffic log");
+      }
+      while (true) {
+        byte[] bytes;
+        try {
+          bytes = new byte[in.readInt()];
+          in.readFully(bytes);
+        } catch (EOFException e) {
+          break;
+        }
+        TrafficRecord record = decode(bytes);
+        if (record instanceof RecordedExecution execution) {
+          executions.add(execution);
+        } else if (record instanceof RecordedCall call) {
+          calls.add(call);
+        }
+      }
+    }
+    return new TrafficLog(executions.build(), calls.build());
+  }
+
+  /** The recorded top level executions, in the order in which they were submitted */
+  public ImmutableList<RecordedExecution> executions() {
+    return executions;
+  }
+
+  /** The recorded responses of IO vajrams, in the order in which they completed */
+  public ImmutableList<RecordedCall> calls() {
+    return calls;
+  }
+
+  static byte[] encode(TrafficRecord record) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(record);
+    }
+    return bytes.toByteArray();
+  }
+
+  static void write(DataOutputStream out, byte[] encodedRecord) throws IOException {
+    out.writeInt(encodedRecord.length);
+    out.write(encodedRecord);
+  }
+
+  private static TrafficRecord decode(byte[] bytes) throws IOException {
+    try (InputStream in = new ByteArrayInputStream(bytes);
+        ObjectInputStream objectIn = new ObjectInputStream(in)) {
+      return (TrafficRecord) objectIn.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Could not decode traffic record", e);
+    }
+  }
+
+  /**
+   * Returns the values of the inputs present in the given facets, the way they are recorded in
+   * {@link TrafficRecord#inputs()}.
+   */
+  public static ImmutableMap<String, Object> inputsOf(Facets facets) {
+    ImmutableMap.Builder<String, Object> inputs = ImmutableMap.builder();
+    for (Entry<String, FacetValue<Object>> entry : facets.values().entrySet()) {
+      if (entry.getValue() instanceof Errable<Object> errable && errable.value().isPresent()) {
+        inputs.put(entry.getKey(), errable.value().get());
+      }
+    }
+    return inputs.build();
+  }
+
+  /** Returns the facets to invoke a vajram with the given recorded inputs. */
+  static Facets toFacets(ImmutableMap<String, Object> inputs) {
+    Map<String, FacetValue<Object>> values = new LinkedHashMap<>();
+    inputs.forEach((name, value) -> values.put(name, Errable.withValue(value)));
+    return new Facets(values);
+  }
+}
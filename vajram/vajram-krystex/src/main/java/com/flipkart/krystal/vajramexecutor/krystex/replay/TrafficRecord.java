@@ -0,0 +1,40 @@
+package com.flipkart.krystal.vajramexecutor.krystex.replay;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.Serializable;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** An entry of a {@link TrafficLog}. */
+public sealed interface TrafficRecord extends Serializable {
+
+  /** The id of the kryon (the vajram id) which was invoked */
+  String kryonId();
+
+  /** The values of the inputs with which the kryon was invoked. Absent inputs are omitted. */
+  ImmutableMap<String, Object> inputs();
+
+  /**
+   * A top level execution of a vajram (via {@link
+   * com.flipkart.krystal.krystex.KrystalExecutor#executeKryon}).
+   *
+   * @param offsetNanos The time at which the execution was submitted, relative to the start of the
+   *     recording
+   */
+  record RecordedExecution(String kryonId, ImmutableMap<String, Object> inputs, long offsetNanos)
+      implements TrafficRecord {}
+
+  /**
+   * An invocation of an IO vajram, along with its response.
+   *
+   * @param value The response of the vajram if it succeeded
+   * @param errorMessage The message of the error with which the vajram failed, if it failed
+   * @param latencyNanos The time taken by the batch of the invocation to complete
+   */
+  record RecordedCall(
+      String kryonId,
+      ImmutableMap<String, Object> inputs,
+      @Nullable Object value,
+      @Nullable String errorMessage,
+      long latencyNanos)
+      implements TrafficRecord {}
+}
@@ -0,0 +1,264 @@
+package com.flipkart.krystal.vajramexecutor.krystex.replay;
+
+import static com.flipkart.krystal.concurrent.Futures.propagateCancellation;
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficLog.inputsOf;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.DependantChainStart;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedCall;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedExecution;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records the traffic of a vajram graph into a {@link TrafficLog}, so that it can be replayed
+ * against another build with a {@link TrafficReplayer}.
+ *
+ * <p>Two kinds of traffic are recorded: the inputs of the top level executions of vajrams, and the
+ * inputs, responses and latencies of the IO vajrams. Recording never blocks the kryon executors:
+ * records are handed over to a writer thread via a bounded queue, and are dropped (see {@link
+ * #droppedRecords()}) if the writer falls behind, or if they are not serializable.
+ *
+ * <p>The same recorder is shared by all the executors whose traffic is being recorded, so that
+ * their traffic lands in one log.
+ *
+ * @see #config()
+ */
+@Slf4j
+public final class TrafficRecorder implements KryonDecorator, AutoCloseable {
+
+  public static final String DECORATOR_TYPE = TrafficRecorder.class.getName();
+
+  private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+  private final VajramKryonGraph vajramKryonGraph;
+  private final DataOutputStream out;
+  private final BlockingQueue<TrafficRecord> queue;
+  private final Thread writer;
+  private final long startNanos = System.nanoTime();
+  private final LongAdder recordedRecords = new LongAdder();
+  private final LongAdder droppedRecords = new LongAdder();
+  private volatile boolean closed;
+
+  /**
+   * @param vajramKryonGraph The graph whose traffic is recorded
+   * @param path The file into which the traffic is recorded. The file is overwritten if it exists.
+   * @param queueCapacity The number of records which can wait to be written before new records are
+   *     dropped. Defaults to 10000
+   */
+  @Builder
+  private TrafficRecorder(
+      @NonNull VajramKryonGraph vajramKryonGraph, @NonNull Path path, int queueCapacity)
+      throws IOException {
+    this.vajramKryonGraph = vajramKryonGraph;
+    this.queue =
+        new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : DEFAULT_QUEUE_CAPACITY);
+    this.out =
+        new DataOutputStream(
+            new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(path)), 1 << 16));
+    out.writeInt(TrafficLog.MAGIC);
+    this.writer = new Thread(this::write, "krystal-traffic-recorder");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Returns the config with which this recorder is registered in a {@link
+   * com.flipkart.krystal.krystex.kryon.KryonExecutorConfig} (via {@code
+   * requestScopedKryonDecoratorConfig(DECORATOR_TYPE, config)}). The recorder decorates the kryons
+   * of IO vajrams, and the kryons executed at the top level.
+   */
+  public KryonDecoratorConfig config() {
+    return new KryonDecoratorConfig(
+        DECORATOR_TYPE,
+        context ->
+            context.dependantChain() instanceof DependantChainStart
+                || isIOVajram(context.kryonId()),
+        _c -> DECORATOR_TYPE,
+        _c -> this);
+  }
+
+  @Override
+  public String decoratorType() {
+    return DECORATOR_TYPE;
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    return new RecordingKryon(decorationInput.kryon());
+  }
+
+  /** The number of records written to the log so far */
+  public long recordedRecords() {
+    return recordedRecords.sum();
+  }
+
+  /** The number of records which were not written to the log */
+  public long droppedRecords() {
+    return droppedRecords.sum();
+  }
+
+  /** Writes the records which have already been recorded to the log, and closes it. */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(10));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean isIOVajram(KryonId kryonId) {
+    return vajramKryonGraph
+        .getVajramDefinition(vajramID(kryonId.value()))
+        .map(vajramDefinition -> vajramDefinition.vajram() instanceof IOVajram<?>)
+        .orElse(false);
+  }
+
+  private void record(TrafficRecord record) {
+    if (closed || !queue.offer(record)) {
+      droppedRecords.increment();
+    }
+  }
+
+  private void write() {
+    try (out) {
+      while (!closed || !queue.isEmpty()) {
+        TrafficRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (record == null) {
+          continue;
+        }
+        byte[] encoded;
+        try {
+          encoded = TrafficLog.encode(record);
+        } catch (IOException e) {
+          // Most likely an input or response which is not serializable
+          log.debug("Could not serialize traffic record of {}", record.kryonId(), e);
+          droppedRecords.increment();
+          continue;
+        }
+        TrafficLog.write(out, encoded);
+        recordedRecords.increment();
+      }
+    } catch (IOException e) {
+      log.error("Could not write traffic log. Stopping recording.", e);
+      closed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private final class RecordingKryon implements Kryon<KryonCommand, KryonResponse> {
+
+    private final Kryon<KryonCommand, KryonResponse> kryon;
+    private final boolean isIOVajram;
+
+    private RecordingKryon(Kryon<KryonCommand, KryonResponse> kryon) {
+      this.kryon = kryon;
+      this.isIOVajram = isIOVajram(kryon.getKryonDefinition().kryonId());
+    }
+
+    @Override
+    public void executeCommand(Flush flushCommand) {
+      kryon.executeCommand(flushCommand);
+    }
+
+    @Override
+    public KryonDefinition getKryonDefinition() {
+      return kryon.getKryonDefinition();
+    }
+
+    @Override
+    public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+      if (closed || !(kryonCommand instanceof ForwardBatch forwardBatch)) {
+        return kryon.executeCommand(kryonCommand);
+      }
+      KryonId kryonId = forwardBatch.kryonId();
+      long batchStart = System.nanoTime();
+      if (forwardBatch.dependantChain() instanceof DependantChainStart) {
+        for (Facets facets : forwardBatch.executableRequests().values()) {
+          record(
+              new RecordedExecution(kryonId.value(), inputsOf(facets), batchStart - startNanos));
+        }
+      }
+      CompletableFuture<KryonResponse> response = kryon.executeCommand(forwardBatch);
+      if (!isIOVajram) {
+        return response;
+      }
+      // The calls are recorded before the dependants receive the response, so that the recording
+      // of an execution is complete by the time the execution completes.
+      CompletableFuture<KryonResponse> recorded = new CompletableFuture<>();
+      propagateCancellation(recorded, response);
+      response.whenComplete(
+          (kryonResponse, throwable) -> {
+            recordCalls(forwardBatch, kryonResponse, throwable, batchStart);
+            if (throwable != null) {
+              recorded.completeExceptionally(throwable);
+            } else {
+              recorded.complete(kryonResponse);
+            }
+          });
+      return recorded;
+    }
+
+    private void recordCalls(
+        ForwardBatch forwardBatch,
+        @Nullable KryonResponse kryonResponse,
+        @Nullable Throwable throwable,
+        long batchStart) {
+      long latencyNanos = System.nanoTime() - batchStart;
+      List<RecordedCall> calls = new ArrayList<>();
+      for (Entry<RequestId, Facets> entry : forwardBatch.executableRequests().entrySet()) {
+        Errable<Object> result;
+        if (kryonResponse instanceof BatchResponse batchResponse) {
+          result = batchResponse.responses().getOrDefault(entry.getKey(), Errable.empty());
+        } else {
+          result =
+              Errable.withError(
+                  throwable != null ? throwable : new IllegalStateException("No response"));
+        }
+        calls.add(
+            new RecordedCall(
+                forwardBatch.kryonId().value(),
+                inputsOf(entry.getValue()),
+                result.value().orElse(null),
+                result.error().map(e -> String.valueOf(e.getMessage())).orElse(null),
+                latencyNanos));
+      }
+      calls.forEach(TrafficRecorder.this::record);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.flipkart.krystal.vajramexecutor.krystex.replay;
+
+import static com.flipkart.krystal.vajram.VajramID.vajramID;
+import static java.util.concurrent.CompletableFuture.allOf;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedExecution;
+import com.flipkart.krystal.vajramexecutor.krystex.testharness.VajramPrimer;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Replays the executions recorded in a {@link TrafficLog} against a vajram graph - typically of a
+ * new build - to detect performance regressions under production-like load.
+ *
+ * <p>Each recorded execution is executed in a new {@link KrystexVajramExecutor}, like a request of
+ * a server. The IO vajrams are not invoked: they are served the responses recorded in the log,
+ * with the recorded latencies, by a {@link VajramPrimer}. Executions are started at a configured
+ * rate, or at the pace at which they were recorded, regardless of how long earlier executions
+ * take. At the end of the replay, the throughput and latency percentiles are reported in a {@link
+ * ReplayReport}.
+ */
+public final class TrafficReplayer {
+
+  private static final AtomicLong EXECUTOR_COUNT = new AtomicLong();
+
+  private final VajramKryonGraph vajramKryonGraph;
+  private final ImmutableList<RecordedExecution> executions;
+  private final SingleThreadExecutorsPool executorsPool;
+  private final Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory;
+  private final VajramPrimer primer;
+  private final double qps;
+  private final int iterations;
+
+  /**
+   * @param vajramKryonGraph The graph against which the traffic is replayed
+   * @param trafficLog The recorded traffic
+   * @param executorsPool The pool from which the threads of the vajram executors are leased
+   * @param executorConfigFactory Creates the config of each vajram executor. Defaults to a config
+   *     with the default {@link KryonExecutorConfig}
+   * @param primer Serves the responses of IO vajrams. Defaults to a primer of all the responses in
+   *     the traffic log.
+   * @param qps The rate at which executions are started. If not positive, executions are started
+   *     at the pace at which they were recorded
+   * @param iterations The number of times the recorded executions are replayed. Defaults to 1
+   */
+  @Builder
+  private TrafficReplayer(
+      @NonNull VajramKryonGraph vajramKryonGraph,
+      @NonNull TrafficLog trafficLog,
+      @NonNull SingleThreadExecutorsPool executorsPool,
+      @Nullable Function<SingleThreadExecutor, KrystexVajramExecutorConfig> executorConfigFactory,
+      @Nullable VajramPrimer primer,
+      double qps,
+      int iterations) {
+    this.vajramKryonGraph = vajramKryonGraph;
+    this.executions = trafficLog.executions();
+    this.executorsPool = executorsPool;
+    this.executorConfigFactory =
+        executorConfigFactory != null
+            ? executorConfigFactory
+            : executor ->
+                KrystexVajramExecutorConfig.builder()
+                    .requestId("traffic-replay-" + EXECUTOR_COUNT.getAndIncrement())
+                    .kryonExecutorConfigBuilder(
+                        KryonExecutorConfig.builder().singleThreadExecutor(executor))
+                    .build();
+    this.primer = primer != null ? primer : VajramPrimer.fromTrafficLog(trafficLog);
+    this.qps = qps;
+    this.iterations = iterations > 0 ? iterations : 1;
+  }
+
+  /**
+   * Replays the recorded executions and waits for all of them to complete.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while pacing the executions
+   */
+  public ReplayReport replay() throws InterruptedException {
+    int total = executions.size() * iterations;
+    long[] latencyNanos = new long[total];
+    CompletableFuture<?>[] completions = new CompletableFuture<?>[total];
+    AtomicInteger failures = new AtomicInteger();
+    long start = System.nanoTime();
+    for (int i = 0; i < total; i++) {
+      RecordedExecution execution = executions.get(i % executions.size());
+      long scheduledStart = start + scheduledOffsetNanos(i);
+      long wait = scheduledStart - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      int index = i;
+      completions[i] =
+          execute(execution, "replay-" + i)
+              .whenComplete(
+                  (_r, throwable) -> {
+                    latencyNanos[index] = System.nanoTime() - scheduledStart;
+                    if (throwable != null) {
+                      failures.incrementAndGet();
+                    }
+                  });
+    }
+    allOf(completions).handle((_r, _t) -> null).join();
+    return ReplayReport.of(latencyNanos, failures.get(), System.nanoTime() - start);
+  }
+
+  /** Returns the time at which the i'th execution starts, relative to the start of the replay. */
+  private long scheduledOffsetNanos(int i) {
+    if (qps > 0) {
+      //noinspection NumericCastThatLosesPrecision
+      return (long) (i * 1e9 / qps);
+    }
+    long firstOffset = executions.get(0).offsetNanos();
+    long recordingSpan = executions.get(executions.size() - 1).offsetNanos() - firstOffset;
+    int iteration = i / executions.size();
+    return iteration * recordingSpan
+        + executions.get(i % executions.size()).offsetNanos()
+        - firstOffset;
+  }
+
+  private CompletableFuture<@Nullable Object> execute(
+      RecordedExecution execution, String executionId) {
+    Lease<SingleThreadExecutor> lease;
+    try {
+      lease = executorsPool.lease();
+    } catch (LeaseUnavailableException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    KrystexVajramExecutorConfig executorConfig = executorConfigFactory.apply(lease.get());
+    executorConfig
+        .kryonExecutorConfigBuilder()
+        .requestScopedKryonDecoratorConfig(VajramPrimer.DECORATOR_TYPE, primer.config());
+    CompletableFuture<@Nullable Object> result;
+    try (KrystexVajramExecutor vajramExecutor = vajramKryonGraph.createExecutor(executorConfig)) {
+      result =
+          vajramExecutor.executeWithFacets(
+              vajramID(execution.kryonId()),
+              TrafficLog.toFacets(execution.inputs()),
+              KryonExecutionConfig.builder().executionId(executionId).build());
+    } catch (Throwable e) {
+      lease.close();
+      return CompletableFuture.failedFuture(e);
+    }
+    result.whenComplete((_r, _t) -> lease.close());
+    return result;
+  }
+}
@@ -0,0 +1,16 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import com.flipkart.krystal.vajram.VajramID;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Sends every batch to the vajram which is depended upon, and falls back to its alternates - in
+ * the order they were registered - for the requests which fail. This is the default policy.
+ */
+public final class FallbackOnErrorRouting implements ProviderRoutingPolicy {
+
+  @Override
+  public ImmutableList<VajramID> route(ImmutableList<VajramID> providers, int batchSize) {
+    return providers;
+  }
+}
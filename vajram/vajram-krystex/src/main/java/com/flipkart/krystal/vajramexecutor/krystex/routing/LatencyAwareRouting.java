@@ -0,0 +1,100 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import com.flipkart.krystal.vajram.VajramID;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Builder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Sends every batch to the provider with the lowest exponentially weighted moving average of batch
+ * latencies. Providers which have not executed any batch yet are tried first, so that every
+ * provider has a latency estimate.
+ *
+ * <p>Batches with failed requests are accounted with a latency of at least {@code errorPenalty}, so
+ * that a provider which fails fast does not attract all the traffic. Since a provider which is not
+ * chosen does not get new latency samples, one in every {@code explorationInterval} batches is sent
+ * to the provider whose estimate is the stalest, so that providers which recover are noticed.
+ */
+public final class LatencyAwareRouting implements ProviderRoutingPolicy {
+
+  public static final double DEFAULT_SMOOTHING_FACTOR = 0.2;
+  public static final Duration DEFAULT_ERROR_PENALTY = Duration.ofSeconds(1);
+  public static final int DEFAULT_EXPLORATION_INTERVAL = 50;
+
+  private final double smoothingFactor;
+  private final long errorPenaltyNanos;
+  private final int explorationInterval;
+
+  private final Map<VajramID, LatencyEstimate> estimates = new ConcurrentHashMap<>();
+  private final AtomicLong batchCount = new AtomicLong();
+  private final AtomicLong sampleCount = new AtomicLong();
+
+  /**
+   * @param smoothingFactor The weight of the latest sample in the moving average, between 0 and 1.
+   *     Defaults to {@value #DEFAULT_SMOOTHING_FACTOR}
+   * @param errorPenalty Defaults to {@link #DEFAULT_ERROR_PENALTY}
+   * @param explorationInterval Defaults to {@value #DEFAULT_EXPLORATION_INTERVAL}
+   */
+  @Builder
+  private LatencyAwareRouting(
+      double smoothingFactor, @Nullable Duration errorPenalty, int explorationInterval) {
+    this.smoothingFactor =
+        smoothingFactor <= 0 || smoothingFactor > 1 ? DEFAULT_SMOOTHING_FACTOR : smoothingFactor;
+    this.errorPenaltyNanos = (errorPenalty == null ? DEFAULT_ERROR_PENALTY : errorPenalty).toNanos();
+    this.explorationInterval =
+        explorationInterval <= 0 ? DEFAULT_EXPLORATION_INTERVAL : explorationInterval;
+  }
+
+  @Override
+  public ImmutableList<VajramID> route(ImmutableList<VajramID> providers, int batchSize) {
+    boolean explore = batchCount.incrementAndGet() % explorationInterval == 0;
+    VajramID chosen = providers.get(0);
+    @Nullable LatencyEstimate chosenEstimate = estimates.get(chosen);
+    for (VajramID provider : providers) {
+      LatencyEstimate estimate = estimates.get(provider);
+      if (estimate == null) {
+        return ImmutableList.of(provider);
+      }
+      if (chosenEstimate == null
+          || (explore
+              ? estimate.lastSample() < chosenEstimate.lastSample()
+              : estimate.averageNanos() < chosenEstimate.averageNanos())) {
+        chosen = provider;
+        chosenEstimate = estimate;
+      }
+    }
+    return ImmutableList.of(chosen);
+  }
+
+  @Override
+  public void onBatchEnd(VajramID provider, int batchSize, int failures, Duration latency) {
+    long sampleNanos = latency.toNanos();
+    if (failures > 0) {
+      sampleNanos = Math.max(sampleNanos, errorPenaltyNanos);
+    }
+    long sample = sampleNanos;
+    long sampleNumber = sampleCount.incrementAndGet();
+    estimates.merge(
+        provider,
+        new LatencyEstimate(sample, sampleNumber),
+        (current, _new) ->
+            new LatencyEstimate(
+                current.averageNanos() + smoothingFactor * (sample - current.averageNanos()),
+                sampleNumber));
+  }
+
+  /** Returns the current latency estimate of the provider, if it has executed any batch. */
+  public @Nullable Duration estimatedLatency(VajramID provider) {
+    LatencyEstimate estimate = estimates.get(provider);
+    return estimate == null ? null : Duration.ofNanos((long) estimate.averageNanos());
+  }
+
+  /**
+   * @param lastSample The sequence number of the latest sample, across all providers
+   */
+  private record LatencyEstimate(double averageNanos, long lastSample) {}
+}
@@ -0,0 +1,50 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import com.flipkart.krystal.vajram.VajramID;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends every batch to the provider with the fewest requests in flight, across all the executors
+ * sharing this policy. Ties are broken in favour of the vajram which is depended upon, followed by
+ * its alternates in the order they were registered.
+ */
+public final class LeastLoadedRouting implements ProviderRoutingPolicy {
+
+  private final Map<VajramID, AtomicInteger> inFlightRequests = new ConcurrentHashMap<>();
+
+  @Override
+  public ImmutableList<VajramID> route(ImmutableList<VajramID> providers, int batchSize) {
+    VajramID leastLoaded = providers.get(0);
+    int leastInFlight = inFlight(leastLoaded).get();
+    for (int i = 1; i < providers.size(); i++) {
+      int inFlight = inFlight(providers.get(i)).get();
+      if (inFlight < leastInFlight) {
+        leastLoaded = providers.get(i);
+        leastInFlight = inFlight;
+      }
+    }
+    return ImmutableList.of(leastLoaded);
+  }
+
+  @Override
+  public void onBatchStart(VajramID provider, int batchSize) {
+    inFlight(provider).addAndGet(batchSize);
+  }
+
+  @Override
+  public void onBatchEnd(VajramID provider, int batchSize, int failures, Duration latency) {
+    inFlight(provider).addAndGet(-batchSize);
+  }
+
+  public int inFlightRequests(VajramID provider) {
+    return inFlight(provider).get();
+  }
+
+  private AtomicInteger inFlight(VajramID provider) {
+    return inFlightRequests.computeIfAbsent(provider, _p -> new AtomicInteger());
+  }
+}
@@ -0,0 +1,21 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.vajram.VajramID;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A kryon which stands in for a vajram with alternate providers. Dependants of the vajram depend
+ * on this kryon instead, and this kryon depends on all the providers - each under a dependency
+ * named after the provider's id - so that the kryons of all the providers are created along with
+ * it. The batches it receives are forwarded to the providers by the {@link
+ * ProviderRoutingDecorator}.
+ *
+ * @param providers The vajram which is depended upon, followed by its alternates
+ */
+public record ProviderRouter(KryonId routerKryonId, ImmutableList<VajramID> providers) {
+
+  public VajramID primary() {
+    return providers.get(0);
+  }
+}
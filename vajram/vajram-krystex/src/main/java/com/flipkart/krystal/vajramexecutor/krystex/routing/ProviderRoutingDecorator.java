@@ -0,0 +1,271 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import static com.flipkart.krystal.data.Errable.withError;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonExecutor;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Forwards the batches received by {@link ProviderRouter} kryons to the providers chosen by the
+ * {@link ProviderRoutingPolicy} registered for the vajram which is depended upon.
+ *
+ * <p>Every provider receives exactly one batch per dependant chain of the router - the providers
+ * which the batch is not routed to receive a batch in which all the requests are skipped - and all
+ * of them are flushed when the router is flushed. Batchers shared between the providers' dependant
+ * chains are hence never left waiting for a chain which was routed elsewhere.
+ *
+ * <p>The requests of a batch which fail in one provider are forwarded, as a new batch, to the next
+ * provider returned by the policy. Since a kryon accepts only one batch per dependant chain, such
+ * fallback batches are forwarded in a dependant chain of their own, and are flushed right away
+ * since the original batch must have been flushed for it to have failed.
+ *
+ * <p>Routing is supported only with the {@link KryonExecutor.KryonExecStrategy#BATCH} strategy.
+ */
+public final class ProviderRoutingDecorator implements KryonDecorator {
+
+  public static final String DECORATOR_TYPE = ProviderRoutingDecorator.class.getName();
+
+  private final VajramKryonGraph vajramKryonGraph;
+
+  public ProviderRoutingDecorator(VajramKryonGraph vajramKryonGraph) {
+    this.vajramKryonGraph = vajramKryonGraph;
+  }
+
+  @Override
+  public String decoratorType() {
+    return DECORATOR_TYPE;
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    Kryon<KryonCommand, KryonResponse> kryon = decorationInput.kryon();
+    KryonId kryonId = kryon.getKryonDefinition().kryonId();
+    ProviderRouter router =
+        vajramKryonGraph
+            .getProviderRouter(kryonId)
+            .orElseThrow(
+                () -> new IllegalArgumentException("%s is not a provider router".formatted(kryonId)));
+    return new RoutingKryon(
+        kryon,
+        decorationInput.kryonExecutor(),
+        router,
+        vajramKryonGraph.getProviderRoutingPolicy(router.primary()));
+  }
+
+  private static final class RoutingKryon implements Kryon<KryonCommand, KryonResponse> {
+
+    private final Kryon<KryonCommand, KryonResponse> kryon;
+    private final KryonExecutor kryonExecutor;
+    private final ProviderRouter router;
+    private final ProviderRoutingPolicy policy;
+
+    /** The dependant chains of the router which have been flushed */
+    private final Set<DependantChain> flushedChains = ConcurrentHashMap.newKeySet();
+
+    /** The dependant chains of the router whose batch has been forwarded to all the providers */
+    private final Set<DependantChain> forwardedChains = ConcurrentHashMap.newKeySet();
+
+    private RoutingKryon(
+        Kryon<KryonCommand, KryonResponse> kryon,
+        KryonExecutor kryonExecutor,
+        ProviderRouter router,
+        ProviderRoutingPolicy policy) {
+      this.kryon = kryon;
+      this.kryonExecutor = kryonExecutor;
+      this.router = router;
+      this.policy = policy;
+    }
+
+    @Override
+    public void executeCommand(Flush flushCommand) {
+      DependantChain routerChain = flushCommand.dependantChain();
+      if (flushedChains.add(routerChain) && forwardedChains.contains(routerChain)) {
+        flushProviders(routerChain);
+      }
+    }
+
+    @Override
+    public KryonDefinition getKryonDefinition() {
+      return kryon.getKryonDefinition();
+    }
+
+    @Override
+    public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+      if (kryonCommand instanceof ForwardBatch forwardBatch) {
+        ImmutableList<VajramID> providers =
+            policy.route(router.providers(), forwardBatch.executableRequests().size());
+        if (providers.isEmpty()) {
+          providers = router.providers();
+        }
+        CompletableFuture<ImmutableMap<RequestId, Errable<Object>>> results =
+            forward(
+                providers,
+                0,
+                forwardBatch,
+                forwardBatch.executableRequests(),
+                forwardBatch.skippedRequests());
+        skipOtherProviders(providers.get(0), forwardBatch);
+        DependantChain routerChain = forwardBatch.dependantChain();
+        forwardedChains.add(routerChain);
+        if (flushedChains.contains(routerChain)) {
+          flushProviders(routerChain);
+        }
+        return results.<KryonResponse>thenApply(BatchResponse::new);
+      } else {
+        return kryon.executeCommand(kryonCommand);
+      }
+    }
+
+    private CompletableFuture<ImmutableMap<RequestId, Errable<Object>>> forward(
+        ImmutableList<VajramID> providers,
+        int attempt,
+        ForwardBatch original,
+        ImmutableMap<RequestId, Facets> requests,
+        ImmutableMap<RequestId, String> skippedRequests) {
+      VajramID provider = providers.get(attempt);
+      ForwardBatch forwardBatch =
+          new ForwardBatch(
+              providerKryonId(provider),
+              original.inputNames(),
+              requests,
+              attempt == 0
+                  ? providerChain(provider, original.dependantChain())
+                  : fallbackChain(provider, original.dependantChain()),
+              skippedRequests);
+      policy.onBatchStart(provider, requests.size());
+      long startNanos = System.nanoTime();
+      CompletableFuture<BatchResponse> response;
+      if (attempt == 0) {
+        // The first attempt is made in the executor's thread, while the batch is being forwarded
+        response = kryonExecutor.executeCommand(forwardBatch);
+      } else {
+        // Fallbacks are made from the thread which completed the previous attempt
+        response = kryonExecutor.enqueueKryonCommand(() -> forwardBatch);
+        kryonExecutor.enqueueKryonCommand(
+            () -> new Flush(forwardBatch.kryonId(), forwardBatch.dependantChain()));
+      }
+      return response
+          .handle(
+              (batchResponse, throwable) -> {
+                Map<RequestId, Errable<Object>> results = new LinkedHashMap<>();
+                if (batchResponse != null) {
+                  results.putAll(batchResponse.responses());
+                }
+                for (RequestId requestId : requests.keySet()) {
+                  if (throwable != null) {
+                    results.put(requestId, withError(throwable));
+                  } else {
+                    results.putIfAbsent(
+                        requestId,
+                        withError(
+                            new IllegalStateException(
+                                "%s did not respond to %s".formatted(provider, requestId))));
+                  }
+                }
+                ImmutableMap<RequestId, Facets> failedRequests =
+                    requests.entrySet().stream()
+                        .filter(e -> isFailed(results.get(e.getKey())))
+                        .collect(toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+                policy.onBatchEnd(
+                    provider,
+                    requests.size(),
+                    failedRequests.size(),
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+                if (failedRequests.isEmpty() || attempt + 1 >= providers.size()) {
+                  return completedFuture(ImmutableMap.copyOf(results));
+                }
+                return forward(providers, attempt + 1, original, failedRequests, ImmutableMap.of())
+                    .thenApply(
+                        retried -> {
+                          results.putAll(retried);
+                          return ImmutableMap.copyOf(results);
+                        });
+              })
+          .thenCompose(identity());
+    }
+
+    private static boolean isFailed(@Nullable Errable<Object> result) {
+      return result == null || result.error().isPresent();
+    }
+
+    private KryonId providerKryonId(VajramID provider) {
+      KryonId providerKryonId =
+          kryon.getKryonDefinition().dependencyKryons().get(provider.vajramId());
+      if (providerKryonId == null) {
+        throw new AssertionError(
+            "Could not find kryon of provider %s of %s. This is a bug"
+                .formatted(provider, router.routerKryonId()));
+      }
+      return providerKryonId;
+    }
+
+    /**
+     * Sends the providers other than the one the batch is routed to a batch in which all the
+     * requests are skipped, so that they can be flushed along with the router.
+     */
+    private void skipOtherProviders(VajramID routedTo, ForwardBatch original) {
+      ImmutableMap<RequestId, String> skippedRequests =
+          original.requestIds().stream()
+              .collect(
+                  toImmutableMap(identity(), _r -> "Routed to provider %s".formatted(routedTo)));
+      for (VajramID provider : router.providers()) {
+        if (!provider.equals(routedTo)) {
+          kryonExecutor.executeCommand(
+              new ForwardBatch(
+                  providerKryonId(provider),
+                  original.inputNames(),
+                  ImmutableMap.of(),
+                  providerChain(provider, original.dependantChain()),
+                  skippedRequests));
+        }
+      }
+    }
+
+    private void flushProviders(DependantChain routerChain) {
+      for (VajramID provider : router.providers()) {
+        kryonExecutor.executeCommand(
+            new Flush(providerKryonId(provider), providerChain(provider, routerChain)));
+      }
+    }
+
+    private DependantChain providerChain(VajramID provider, DependantChain routerChain) {
+      return routerChain.extend(router.routerKryonId(), provider.vajramId());
+    }
+
+    /**
+     * The dependant chain in which a fallback batch is forwarded to a provider. It is not a chain
+     * of the graph, so batchers do not wait for any other chain before batching its requests.
+     */
+    private DependantChain fallbackChain(VajramID provider, DependantChain routerChain) {
+      return routerChain.extend(
+          router.routerKryonId(), "%s[fallback]".formatted(provider.vajramId()));
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.das.AlternateProviderOf;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+
+/**
+ * Chooses which of the vajrams serving the same data (See {@link AlternateProviderOf}) execute a
+ * batch of requests to a dependency on that data. A policy is consulted once per batch.
+ *
+ * <p>A policy is shared by all the executors of a graph, and hence must be thread-safe.
+ */
+public interface ProviderRoutingPolicy {
+
+  /**
+   * Returns the providers which execute the batch, in order of preference. The batch is sent to
+   * the first provider. The requests which fail are sent to the next provider, and so on, until
+   * the requests succeed or the providers run out.
+   *
+   * @param providers All the providers of the data. The vajram which is depended upon comes first,
+   *     followed by its alternates.
+   * @param batchSize The number of requests in the batch
+   */
+  ImmutableList<VajramID> route(ImmutableList<VajramID> providers, int batchSize);
+
+  /** Called when a batch of requests is sent to a provider. */
+  default void onBatchStart(VajramID provider, int batchSize) {}
+
+  /**
+   * Called when a provider responds to a batch of requests.
+   *
+   * @param failures The number of requests of the batch which failed
+   * @param latency The time between sending the batch and receiving the responses of all of its
+   *     requests
+   */
+  default void onBatchEnd(VajramID provider, int batchSize, int failures, Duration latency) {}
+}
@@ -0,0 +1,49 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness;
+
+import java.time.Duration;
+import java.util.Random;
+
+/** A distribution from which the latencies of a {@link SimulatedDownstream} are sampled. */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+  long sampleNanos(Random random);
+
+  static LatencyDistribution none() {
+    return _r -> 0;
+  }
+
+  static LatencyDistribution fixed(Duration latency) {
+    long nanos = latency.toNanos();
+    return _r -> nanos;
+  }
+
+  static LatencyDistribution uniform(Duration min, Duration max) {
+    long minNanos = min.toNanos();
+    long range = max.toNanos() - minNanos;
+    if (range < 0) {
+      throw new IllegalArgumentException("max must not be less than min");
+    }
+    return random -> minNanos + (range == 0 ? 0 : (long) (random.nextDouble() * range));
+  }
+
+  /** Latencies of a memoryless process - most calls are fast, with a long tail. */
+  static LatencyDistribution exponential(Duration mean) {
+    double meanNanos = mean.toNanos();
+    return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+  }
+
+  /**
+   * A log-normal distribution with the given median and 99th percentile - generally a good model
+   * of the latencies of network services.
+   */
+  static LatencyDistribution logNormal(Duration median, Duration p99) {
+    if (p99.compareTo(median) < 0) {
+      throw new IllegalArgumentException("p99 must not be less than the median");
+    }
+    double mu = Math.log(Math.max(1, median.toNanos()));
+    // 2.3263 is the z-score of the 99th percentile of the standard normal distribution
+    double sigma = (Math.log(Math.max(1, p99.toNanos())) - mu) / 2.3263;
+    return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+  }
+}
@@ -0,0 +1,248 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness;
+
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.config.ConfigProvider;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.except.StackTracelessException;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.flipkart.krystal.krystex.OutputLogicDefinition;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecorator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A stand-in for the downstream service called by an IO vajram, which simulates the latency,
+ * capacity and errors of the service - so that the batching and bulkhead settings of a vajram graph
+ * can be tuned under load without deploying the real service.
+ *
+ * <p>A simulated downstream replaces the output logic of the IO vajram it is bound to (see {@link
+ * VajramTestHarness#withSimulatedDownstream}). Since it is an output logic decorator, the other
+ * decorators of the logic - input batchers, bulkheads, circuit breakers - are applied as usual.
+ * Each call of the logic is one call to the downstream:
+ *
+ * <ul>
+ *   <li>The call takes a latency sampled from {@code perCallLatency}, plus a latency sampled from
+ *       {@code perElementLatency} for each element of the batch - modelling the fixed and the
+ *       variable costs of a batched call.
+ *   <li>At most {@code maxConcurrentCalls} calls are served at a time. Further calls wait in a FIFO
+ *       queue - which adds to their latency - and are rejected with a {@link
+ *       RejectedExecutionException} if {@code maxQueuedCalls} calls are already waiting.
+ *   <li>Whole calls fail with a probability of {@code callFailureRate}, and the remaining elements
+ *       fail with a probability of {@code errorRate} each.
+ *   <li>The response of each element which does not fail is computed by the {@code responder}.
+ * </ul>
+ *
+ * <p>Responses are completed on the threads of a scheduled executor, the way the responses of IO
+ * vajrams are completed on the threads of their clients. A downstream can be shared across vajram
+ * executors, like a real service shared by all the requests of a server.
+ */
+public final class SimulatedDownstream implements OutputLogicDecorator {
+
+  public static final String DECORATOR_TYPE = SimulatedDownstream.class.getName();
+
+  private static final ScheduledExecutorService DEFAULT_SCHEDULER =
+      Executors.newScheduledThreadPool(
+          2,
+          runnable -> {
+            Thread thread = new Thread(runnable, "krystal-simulated-downstream");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final String name;
+  private final Function<Facets, @Nullable Object> responder;
+  private final LatencyDistribution perCallLatency;
+  private final LatencyDistribution perElementLatency;
+  private final int maxConcurrentCalls;
+  private final int maxQueuedCalls;
+  private final double callFailureRate;
+  private final double errorRate;
+  private final ScheduledExecutorService scheduler;
+
+  /** Guarded by {@code this} */
+  private final Queue<Call> queuedCalls = new ArrayDeque<>();
+
+  /** Guarded by {@code this} */
+  private int activeCalls;
+
+  /** Guarded by {@code this} */
+  private long calls;
+
+  /** Guarded by {@code this} */
+  private long elements;
+
+  /** Guarded by {@code this} */
+  private int peakConcurrentCalls;
+
+  /** Guarded by {@code this} */
+  private int peakQueuedCalls;
+
+  /** Guarded by {@code this} */
+  private long rejectedCalls;
+
+  /** Guarded by {@code this} */
+  private long injectedErrors;
+
+  /**
+   * @param name The name of the downstream. Defaults to "simulated-downstream"
+   * @param responder Computes the response of an element from its facets. If it throws, the
+   *     element fails with the thrown exception.
+   * @param perCallLatency Defaults to no latency
+   * @param perElementLatency Defaults to no latency
+   * @param maxConcurrentCalls Defaults to no limit
+   * @param maxQueuedCalls Defaults to no limit
+   * @param callFailureRate The probability that a call fails as a whole. Defaults to 0
+   * @param errorRate The probability that an element of a call fails. Defaults to 0
+   * @param scheduler Defaults to a shared scheduler of daemon threads
+   */
+  @Builder
+  private SimulatedDownstream(
+      @Nullable String name,
+      @NonNull Function<Facets, @Nullable Object> responder,
+      @Nullable LatencyDistribution perCallLatency,
+      @Nullable LatencyDistribution perElementLatency,
+      int maxConcurrentCalls,
+      int maxQueuedCalls,
+      double callFailureRate,
+      double errorRate,
+      @Nullable ScheduledExecutorService scheduler) {
+    this.name = name != null ? name : "simulated-downstream";
+    this.responder = responder;
+    this.perCallLatency = perCallLatency != null ? perCallLatency : LatencyDistribution.none();
+    this.perElementLatency =
+        perElementLatency != null ? perElementLatency : LatencyDistribution.none();
+    this.maxConcurrentCalls = maxConcurrentCalls > 0 ? maxConcurrentCalls : Integer.MAX_VALUE;
+    this.maxQueuedCalls = maxQueuedCalls > 0 ? maxQueuedCalls : Integer.MAX_VALUE;
+    this.callFailureRate = callFailureRate;
+    this.errorRate = errorRate;
+    this.scheduler = scheduler != null ? scheduler : DEFAULT_SCHEDULER;
+  }
+
+  @Override
+  public OutputLogic<Object> decorateLogic(
+      OutputLogic<Object> logicToDecorate, OutputLogicDefinition<Object> originalLogicDefinition) {
+    // The original logic is never called - the downstream serves all the calls.
+    return logic();
+  }
+
+  /** Returns the output logic which calls this downstream. */
+  public OutputLogic<Object> logic() {
+    return this::call;
+  }
+
+  @Override
+  public void onConfigUpdate(ConfigProvider configProvider) {}
+
+  @Override
+  public String getId() {
+    return name;
+  }
+
+  public synchronized SimulatedDownstreamStats stats() {
+    return new SimulatedDownstreamStats(
+        calls, elements, peakConcurrentCalls, peakQueuedCalls, rejectedCalls, injectedErrors);
+  }
+
+  private ImmutableMap<Facets, CompletableFuture<@Nullable Object>> call(
+      ImmutableList<Facets> batch) {
+    Map<Facets, CompletableFuture<@Nullable Object>> responses = new LinkedHashMap<>();
+    for (Facets facets : batch) {
+      responses.put(facets, new CompletableFuture<>());
+    }
+    Call call = new Call(ImmutableMap.copyOf(responses));
+    boolean rejected = false;
+    synchronized (this) {
+      calls++;
+      elements += responses.size();
+      if (activeCalls < maxConcurrentCalls) {
+        start(call);
+      } else if (queuedCalls.size() < maxQueuedCalls) {
+        queuedCalls.add(call);
+        peakQueuedCalls = max(peakQueuedCalls, queuedCalls.size());
+      } else {
+        rejectedCalls++;
+        rejected = true;
+      }
+    }
+    if (rejected) {
+      call.failAll(new RejectedExecutionException(name + " is overloaded"));
+    }
+    return call.responses();
+  }
+
+  /** Must be called while holding the lock of this downstream */
+  private void start(Call call) {
+    activeCalls++;
+    peakConcurrentCalls = max(peakConcurrentCalls, activeCalls);
+    Random random = ThreadLocalRandom.current();
+    long latencyNanos = perCallLatency.sampleNanos(random);
+    for (int i = 0; i < call.responses().size(); i++) {
+      latencyNanos += perElementLatency.sampleNanos(random);
+    }
+    scheduler.schedule(() -> complete(call), max(0, latencyNanos), NANOSECONDS);
+  }
+
+  private void complete(Call call) {
+    Random random = ThreadLocalRandom.current();
+    boolean callFailed = random.nextDouble() < callFailureRate;
+    Set<Facets> failedElements = new HashSet<>();
+    if (!callFailed) {
+      for (Facets facets : call.responses().keySet()) {
+        if (random.nextDouble() < errorRate) {
+          failedElements.add(facets);
+        }
+      }
+    }
+    // Update the stats before completing the responses so that they are visible to the callers
+    synchronized (this) {
+      injectedErrors += callFailed ? call.responses().size() : failedElements.size();
+      activeCalls--;
+      Call next = queuedCalls.poll();
+      if (next != null) {
+        start(next);
+      }
+    }
+    if (callFailed) {
+      call.failAll(new StackTracelessException("Simulated failure of a call to " + name));
+      return;
+    }
+    call.responses()
+        .forEach(
+            (facets, response) -> {
+              if (failedElements.contains(facets)) {
+                response.completeExceptionally(
+                    new StackTracelessException("Simulated error from " + name));
+                return;
+              }
+              try {
+                response.complete(responder.apply(facets));
+              } catch (Throwable e) {
+                response.completeExceptionally(e);
+              }
+            });
+  }
+
+  private record Call(ImmutableMap<Facets, CompletableFuture<@Nullable Object>> responses) {
+    void failAll(Throwable error) {
+      responses.values().forEach(response -> response.completeExceptionally(error));
+    }
+  }
+}
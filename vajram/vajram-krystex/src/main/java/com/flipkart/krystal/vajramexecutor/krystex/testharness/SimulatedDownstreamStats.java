@@ -0,0 +1,25 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness;
+
+/**
+ * The stats of a {@link SimulatedDownstream}.
+ *
+ * @param calls The number of calls (batches) received by the downstream
+ * @param elements The number of elements across all the calls
+ * @param peakConcurrentCalls The highest number of calls which were being served at the same time
+ * @param peakQueuedCalls The highest number of calls which were waiting for capacity at the same
+ *     time
+ * @param rejectedCalls The number of calls which were rejected because the queue was full
+ * @param injectedErrors The number of elements which were failed by error injection
+ */
+public record SimulatedDownstreamStats(
+    long calls,
+    long elements,
+    int peakConcurrentCalls,
+    int peakQueuedCalls,
+    long rejectedCalls,
+    long injectedErrors) {
+
+  public double avgBatchSize() {
+    return calls == 0 ? 0 : elements * 1.0 / calls;
+  }
+}
@@ -1 +1,278 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.except.StackTracelessException;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorator;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficLog;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedCall;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Builder;
+import lombok.Singular;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Primes vajrams with recorded responses, so that a vajram graph can be executed without invoking
+ * the real vajrams - typically IO vajrams which call downstream services.
+ *
+ * <p>When a primed vajram receives a batch, the batch is not executed: each request of the batch
+ * is served the recorded response of the vajram for the same inputs, after the recorded latency
+ * (unless latencies are ignored). If multiple responses have been recorded for the same inputs,
+ * they are served in a round-robin manner, so that the distribution of latencies observed during
+ * the recording is reproduced. Requests without recorded responses either fail or, if the primer
+ * passes through misses, are executed by the real vajram. The real vajram receives every batch,
+ * with the requests it does not execute skipped, so that it is flushed like any other kryon.
+ *
+ * <p>Responses are completed on a timer thread, the way the responses of IO vajrams are completed
+ * on the threads of their clients.
+ *
+ * @see TrafficLog
+ * @see VajramTestHarness#withPrimer(VajramPrimer)
+ */
+public final class VajramPrimer implements KryonDecorator {
+
+  public static final String DECORATOR_TYPE = VajramPrimer.class.getName();
+
+  private static final ScheduledExecutorService TIMER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "krystal-vajram-primer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final ImmutableMap<KryonId, ImmutableMap<ImmutableMap<String, Object>, PrimedResponses>>
+      primedResponses;
+  private final boolean passThroughMisses;
+  private final boolean ignoreLatencies;
+
+  /**
+   * @param calls The recorded responses with which the vajrams are primed
+   * @param passThroughMisses If true, requests without recorded responses are executed by the
+   *     primed vajram. Else they fail.
+   * @param ignoreLatencies If true, recorded responses are served immediately
+   */
+  @Builder
+  private VajramPrimer(
+      @Singular List<RecordedCall> calls, boolean passThroughMisses, boolean ignoreLatencies) {
+    Map<KryonId, Map<ImmutableMap<String, Object>, ImmutableList.Builder<RecordedCall>>> byInputs =
+        new LinkedHashMap<>();
+    for (RecordedCall call : calls) {
+      byInputs
+          .computeIfAbsent(new KryonId(call.kryonId()), _k -> new HashMap<>())
+          .computeIfAbsent(call.inputs(), _i -> ImmutableList.builder())
+          .add(call);
+    }
+    ImmutableMap.Builder<KryonId, ImmutableMap<ImmutableMap<String, Object>, PrimedResponses>>
+        primedResponses = ImmutableMap.builder();
+    byInputs.forEach(
+        (kryonId, callsByInputs) -> {
+          ImmutableMap.Builder<ImmutableMap<String, Object>, PrimedResponses> responses =
+              ImmutableMap.builder();
+          callsByInputs.forEach(
+              (inputs, recorded) -> responses.put(inputs, new PrimedResponses(recorded.build())));
+          primedResponses.put(kryonId, responses.build());
+        });
+    this.primedResponses = primedResponses.build();
+    this.passThroughMisses = passThroughMisses;
+    this.ignoreLatencies = ignoreLatencies;
+  }
+
+  /** Returns a primer which serves all the IO vajram responses recorded in the given log. */
+  public static VajramPrimer fromTrafficLog(TrafficLog trafficLog) {
+    return VajramPrimer.builder().calls(trafficLog.calls()).build();
+  }
+
+  /**
+   * Returns the config with which this primer is registered in a {@link
+   * com.flipkart.krystal.krystex.kryon.KryonExecutorConfig} (via {@code
+   * requestScopedKryonDecoratorConfig(DECORATOR_TYPE, config)}). Only the primed vajrams are
+   * decorated.
+   */
+  public KryonDecoratorConfig config() {
+    return new KryonDecoratorConfig(
+        DECORATOR_TYPE,
+        context -> primedResponses.containsKey(context.kryonId()),
+        _c -> DECORATOR_TYPE,
+        _c -> this);
+  }
+
+  /** Returns the ids of the primed vajrams */
+  public ImmutableSet<String> primedVajrams() {
+    return primedResponses.keySet().stream().map(KryonId::value).collect(toImmutableSet());
+  }
+
+  @Override
+  public String decoratorType() {
+    return DECORATOR_TYPE;
+  }
+
+  @Override
+  public Kryon<KryonCommand, KryonResponse> decorateKryon(KryonDecorationInput decorationInput) {
+    return new PrimedKryon(decorationInput.kryon());
+  }
+
+  /** The responses recorded for the same inputs of a vajram */
+  private static final class PrimedResponses {
+    private final ImmutableList<RecordedCall> calls;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private PrimedResponses(ImmutableList<RecordedCall> calls) {
+      this.calls = calls;
+    }
+
+    RecordedCall next() {
+      return calls.get(Math.floorMod(next.getAndIncrement(), calls.size()));
+    }
+  }
+
+  private final class PrimedKryon implements Kryon<KryonCommand, KryonResponse> {
+
+    private final Kryon<KryonCommand, KryonResponse> kryon;
+    private final ImmutableMap<ImmutableMap<String, Object>, PrimedResponses> responses;
+
+    private PrimedKryon(Kryon<KryonCommand, KryonResponse> kryon) {
+      this.kryon = kryon;
+      this.responses =
+          primedResponses.getOrDefault(kryon.getKryonDefinition().kryonId(), ImmutableMap.of());
+    }
+
+    @Override
+    public void executeCommand(Flush flushCommand) {
+      kryon.executeCommand(flushCommand);
+    }
+
+    @Override
+    public KryonDefinition getKryonDefinition() {
+      return kryon.getKryonDefinition();
+    }
+
+    @Override
+    public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+      if (kryonCommand instanceof ForwardBatch forwardBatch) {
+        return serve(forwardBatch);
+      } else {
+        return kryon.executeCommand(kryonCommand);
+      }
+    }
+
+    private CompletableFuture<KryonResponse> serve(ForwardBatch forwardBatch) {
+      Map<RequestId, Errable<Object>> hits = new LinkedHashMap<>();
+      Map<RequestId, Facets> misses = new LinkedHashMap<>();
+      long latencyNanos = 0;
+      for (Map.Entry<RequestId, Facets> entry : forwardBatch.executableRequests().entrySet()) {
+        PrimedResponses primed = responses.get(TrafficLog.inputsOf(entry.getValue()));
+        if (primed == null) {
+          misses.put(entry.getKey(), entry.getValue());
+          continue;
+        }
+        RecordedCall call = primed.next();
+        hits.put(entry.getKey(), toErrable(call));
+        latencyNanos = max(latencyNanos, call.latencyNanos());
+      }
+      // The batch is always forwarded to the primed vajram - with the requests it does not execute
+      // skipped - since a kryon can be flushed only in the dependant chains it received a batch in
+      Map<RequestId, String> skippedRequests = new LinkedHashMap<>(forwardBatch.skippedRequests());
+      hits.keySet().forEach(requestId -> skippedRequests.put(requestId, "Served by primer"));
+      if (!passThroughMisses) {
+        misses.keySet().forEach(requestId -> skippedRequests.put(requestId, "Failed by primer"));
+      }
+      CompletableFuture<KryonResponse> passedThrough;
+      try {
+        passedThrough =
+            kryon.executeCommand(
+                new ForwardBatch(
+                    forwardBatch.kryonId(),
+                    forwardBatch.inputNames(),
+                    passThroughMisses ? ImmutableMap.copyOf(misses) : ImmutableMap.of(),
+                    forwardBatch.dependantChain(),
+                    ImmutableMap.copyOf(skippedRequests)));
+      } catch (Throwable e) {
+        passedThrough = CompletableFuture.failedFuture(e);
+      }
+      CompletableFuture<KryonResponse> missesResponse;
+      if (misses.isEmpty()) {
+        missesResponse = CompletableFuture.completedFuture(new BatchResponse(ImmutableMap.of()));
+      } else if (passThroughMisses) {
+        // A failure of the passed through misses fails only the misses - not the primed hits
+        missesResponse =
+            passedThrough.handle(
+                (response, error) ->
+                    error == null ? response : failedMisses(misses.keySet(), unwrap(error)));
+      } else {
+        missesResponse =
+            CompletableFuture.completedFuture(
+                failedMisses(
+                    misses.keySet(),
+                    new StackTracelessException(
+                        "No recorded response of %s for these inputs"
+                            .formatted(forwardBatch.kryonId().value()))));
+      }
+      CompletableFuture<KryonResponse> hitsResponse = new CompletableFuture<>();
+      BatchResponse primedResponse = new BatchResponse(ImmutableMap.copyOf(hits));
+      if (ignoreLatencies || latencyNanos == 0 || hits.isEmpty()) {
+        hitsResponse.complete(primedResponse);
+      } else {
+        TIMER.schedule(() -> hitsResponse.complete(primedResponse), latencyNanos, NANOSECONDS);
+      }
+      return hitsResponse.thenCombine(
+          missesResponse,
+          (hitsBatch, missesBatch) -> {
+            Map<RequestId, Errable<Object>> all = new LinkedHashMap<>();
+            if (missesBatch instanceof BatchResponse batchResponse) {
+              all.putAll(batchResponse.responses());
+            }
+            all.putAll(((BatchResponse) hitsBatch).responses());
+            return new BatchResponse(ImmutableMap.copyOf(all));
+          });
+    }
+  }
+
+  private static BatchResponse failedMisses(Set<RequestId> misses, Throwable error) {
+    Errable<Object> miss = Errable.withError(error);
+    ImmutableMap.Builder<RequestId, Errable<Object>> missResponses = ImmutableMap.builder();
+    misses.forEach(requestId -> missResponses.put(requestId, miss));
+    return new BatchResponse(missResponses.build());
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  private static Errable<Object> toErrable(RecordedCall call) {
+    @Nullable String errorMessage = call.errorMessage();
+    if (errorMessage != null) {
+      return Errable.withError(new StackTracelessException(errorMessage));
+    }
+    return Errable.withValue(call.value());
+  }
+}
@@ -4,13 +4,18 @@ import com.flipkart.krystal.concurrent.SingleThreadExecutor;
 import com.flipkart.krystal.data.Errable;
 import com.flipkart.krystal.krystex.caching.RequestLevelCache;
 import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig.KryonExecutorConfigBuilder;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
 import com.flipkart.krystal.krystex.kryondecoration.KryonDecoratorConfig;
+import com.flipkart.krystal.krystex.logicdecoration.OutputLogicDecoratorConfig;
 import com.flipkart.krystal.vajram.VajramRequest;
 import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
 import jakarta.inject.Inject;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Test harness is a collection of software/test data used by developers for unit testing. It is
@@ -23,6 +28,8 @@ public class VajramTestHarness {
   private final Map<String, Map<VajramRequest<Object>, Errable<Object>>> vajramIdMockData;
   private final KrystexVajramExecutorConfig kryonExecutorConfigBuilder;
   private final RequestLevelCache requestLevelCache;
+  private final Map<String, SimulatedDownstream> simulatedDownstreams = new LinkedHashMap<>();
+  private @Nullable VajramPrimer primer;
 
   @Inject
   public VajramTestHarness(
@@ -57,6 +64,27 @@ public class VajramTestHarness {
     return this;
   }
 
+  /**
+   * Serves the responses of the vajrams primed by the given primer - for example responses recorded
+   * in a {@link com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficLog} - instead of
+   * executing them.
+   */
+  public VajramTestHarness withPrimer(VajramPrimer primer) {
+    this.primer = primer;
+    return this;
+  }
+
+  /**
+   * Serves the calls of the given IO vajram from the given simulated downstream instead of the
+   * output logic of the vajram. The output logic decorators configured for the vajram - input
+   * batchers, bulkheads etc. - are applied around the simulated downstream.
+   */
+  public VajramTestHarness withSimulatedDownstream(
+      String vajramId, SimulatedDownstream simulatedDownstream) {
+    this.simulatedDownstreams.put(vajramId, simulatedDownstream);
+    return this;
+  }
+
   public KrystexVajramExecutorConfig buildConfig() {
     vajramIdMockData.forEach(
         (s, vajramRequestErrableMap) -> {
@@ -89,6 +117,37 @@ public class VajramTestHarness {
                     return requestLevelCache;
                   }));
     }
+    VajramPrimer primer = this.primer;
+    if (primer != null) {
+      kryonExecutorConfigBuilder
+          .kryonExecutorConfigBuilder()
+          .requestScopedKryonDecoratorConfig(VajramPrimer.DECORATOR_TYPE, primer.config());
+    }
+    if (!simulatedDownstreams.isEmpty()) {
+      KryonExecutorConfig kryonExecutorConfig = configBuilder.build();
+      Map<String, List<OutputLogicDecoratorConfig>> logicDecoratorConfigs =
+          new LinkedHashMap<>(kryonExecutorConfig.requestScopedLogicDecoratorConfigs());
+      logicDecoratorConfigs.put(
+          SimulatedDownstream.DECORATOR_TYPE,
+          List.of(
+              new OutputLogicDecoratorConfig(
+                  SimulatedDownstream.DECORATOR_TYPE,
+                  logicExecutionContext ->
+                      simulatedDownstreams.containsKey(logicExecutionContext.kryonId().value()),
+                  logicExecutionContext -> logicExecutionContext.kryonId().value(),
+                  decoratorContext ->
+                      Objects.requireNonNull(
+                          simulatedDownstreams.get(
+                              decoratorContext.logicExecutionContext().kryonId().value())))));
+      configBuilder
+          .requestScopedLogicDecoratorConfigs(logicDecoratorConfigs)
+          // The simulated downstream replaces the output logic, so it must be the innermost
+          // decorator
+          .logicDecorationOrdering(
+              kryonExecutorConfig
+                  .logicDecorationOrdering()
+                  .withInnermost(SimulatedDownstream.DECORATOR_TYPE));
+    }
     return kryonExecutorConfigBuilder;
   }
 }
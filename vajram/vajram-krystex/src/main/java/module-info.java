@@ -8,4 +8,5 @@ module flipkart.krystal.vajramexecutor.krystex {
   requires jakarta.inject;
   requires jdk.compiler;
   requires org.slf4j;
+  requires jdk.jfr;
 }
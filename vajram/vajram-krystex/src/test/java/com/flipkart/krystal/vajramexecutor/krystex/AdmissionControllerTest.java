@@ -0,0 +1,151 @@
+package com.flipkart.krystal.vajramexecutor.krystex;
+
+import static com.flipkart.krystal.annos.AdmissionPriority.Priority.CRITICAL;
+import static com.flipkart.krystal.annos.AdmissionPriority.Priority.DEFAULT;
+import static com.flipkart.krystal.annos.AdmissionPriority.Priority.SHEDDABLE;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.vajramexecutor.krystex.AdmissionController.Permit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+  @Test
+  void admit_belowConcurrencyLimit_admittedWithoutWaiting() {
+    AdmissionController admissionController =
+        AdmissionController.builder()
+            .maxConcurrentExecutions(2)
+            .maxQueueSize(0)
+            .targetQueueingDelay(ofSeconds(10))
+            .build();
+    Permit permit1 = admissionController.admit(SHEDDABLE);
+    Permit permit2 = admissionController.admit(SHEDDABLE);
+    assertThat(admissionController.activeExecutions()).isEqualTo(2);
+    permit1.close();
+    permit2.close();
+    // Closing a permit is idempotent
+    permit2.close();
+    assertThat(admissionController.activeExecutions()).isEqualTo(0);
+  }
+
+  @Test
+  void admit_sheddableAboveConcurrencyLimit_rejected() {
+    AdmissionController admissionController =
+        AdmissionController.builder()
+            .maxConcurrentExecutions(1)
+            .maxQueueSize(10)
+            .targetQueueingDelay(ofSeconds(10))
+            .build();
+    try (Permit ignored = admissionController.admit(DEFAULT)) {
+      assertThatThrownBy(() -> admissionController.admit(SHEDDABLE))
+          .isInstanceOf(RejectedExecutionException.class);
+      assertThat(admissionController.queuedExecutions()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void admit_queueingDelayExceedsTarget_rejected() {
+    AdmissionController admissionController =
+        AdmissionController.builder()
+            .maxConcurrentExecutions(1)
+            .maxQueueSize(10)
+            .targetQueueingDelay(ofMillis(50))
+            .build();
+    try (Permit ignored = admissionController.admit(DEFAULT)) {
+      assertThatThrownBy(() -> admissionController.admit(CRITICAL))
+          .isInstanceOf(RejectedExecutionException.class)
+          .hasMessageContaining("could not be admitted within");
+      assertThat(admissionController.queuedExecutions()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void admit_queueFull_lowerPriorityWaiterShed() throws Exception {
+    AdmissionController admissionController =
+        AdmissionController.builder()
+            .maxConcurrentExecutions(1)
+            .maxQueueSize(1)
+            .targetQueueingDelay(ofSeconds(10))
+            .build();
+    Permit permit = admissionController.admit(DEFAULT);
+    CompletableFuture<Permit> defaultWaiter =
+        CompletableFuture.supplyAsync(() -> admissionController.admit(DEFAULT));
+    awaitQueued(admissionController, 1);
+
+    // A waiter of equal priority does not displace the queued execution
+    assertThatThrownBy(() -> admissionController.admit(DEFAULT))
+        .isInstanceOf(RejectedExecutionException.class)
+        .hasMessageContaining("queue is full");
+
+    CompletableFuture<Permit> criticalWaiter =
+        CompletableFuture.supplyAsync(() -> admissionController.admit(CRITICAL));
+    assertThat(defaultWaiter)
+        .failsWithin(ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(RejectedExecutionException.class);
+    awaitQueued(admissionController, 1);
+
+    permit.close();
+    assertThat(criticalWaiter).succeedsWithin(ofSeconds(1));
+    assertThat(admissionController.activeExecutions()).isEqualTo(1);
+    criticalWaiter.join().close();
+    assertThat(admissionController.activeExecutions()).isEqualTo(0);
+  }
+
+  @Test
+  void admitFollowUp_aboveConcurrencyLimit_admitted() {
+    AdmissionController admissionController =
+        AdmissionController.builder()
+            .maxConcurrentExecutions(1)
+            .maxQueueSize(0)
+            .targetQueueingDelay(ofSeconds(10))
+            .build();
+    try (Permit ignored1 = admissionController.admit(DEFAULT);
+        Permit ignored2 = admissionController.admitFollowUp()) {
+      assertThat(admissionController.activeExecutions()).isEqualTo(2);
+    }
+    assertThat(admissionController.activeExecutions()).isEqualTo(0);
+  }
+
+  @Test
+  void releasePermit_aboveConcurrencyLimit_notHandedOverToWaiter() throws Exception {
+    AdmissionController admissionController =
+        AdmissionController.builder()
+            .maxConcurrentExecutions(1)
+            .maxQueueSize(1)
+            .targetQueueingDelay(ofSeconds(10))
+            .build();
+    Permit permit = admissionController.admit(DEFAULT);
+    Permit followUp = admissionController.admitFollowUp();
+    CompletableFuture<Permit> waiter =
+        CompletableFuture.supplyAsync(() -> admissionController.admit(DEFAULT));
+    awaitQueued(admissionController, 1);
+
+    // Two executions are in progress against a limit of one - the waiter must not be admitted
+    permit.close();
+    assertThat(admissionController.activeExecutions()).isEqualTo(1);
+    assertThat(admissionController.queuedExecutions()).isEqualTo(1);
+    assertThat(waiter).isNotDone();
+
+    followUp.close();
+    assertThat(waiter).succeedsWithin(ofSeconds(1));
+    assertThat(admissionController.activeExecutions()).isEqualTo(1);
+    waiter.join().close();
+    assertThat(admissionController.activeExecutions()).isEqualTo(0);
+  }
+
+  private static void awaitQueued(AdmissionController admissionController, int count)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + ofSeconds(1).toNanos();
+    while (admissionController.queuedExecutions() != count && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(admissionController.queuedExecutions()).isEqualTo(count);
+  }
+}
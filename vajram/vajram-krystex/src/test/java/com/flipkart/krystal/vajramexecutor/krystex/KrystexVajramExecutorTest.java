@@ -17,6 +17,7 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.flipkart.krystal.concurrent.SingleThreadExecutor;
 import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.config.SnapshotConfigProvider;
 import com.flipkart.krystal.krystex.OutputLogic;
 import com.flipkart.krystal.krystex.OutputLogicDefinition;
 import com.flipkart.krystal.krystex.caching.RequestLevelCache;
@@ -60,14 +61,19 @@ import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.mutualFriendsHel
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserInfo;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserService;
 import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice.TestUserServiceRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.testharness.LatencyDistribution;
+import com.flipkart.krystal.vajramexecutor.krystex.testharness.SimulatedDownstream;
+import com.flipkart.krystal.vajramexecutor.krystex.testharness.VajramTestHarness;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -76,10 +82,14 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -809,6 +819,95 @@ class KrystexVajramExecutorTest {
     assertThat(multiHellos).succeedsWithin(TIMEOUT).isEqualTo("");
   }
 
+  @Test
+  void executeIo_jfrEventsEnabled_inputBatchDispatchEventRecorded(@TempDir Path tempDir)
+      throws Exception {
+    graph =
+        loadFromClasspath(
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice",
+                "com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.hellofriends")
+            .build();
+    autoRegisterSharedBatchers(graph, _v -> 3);
+    Path recordingFile = tempDir.resolve("batching.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("krystal.InputBatchDispatch").withoutThreshold();
+      recording.start();
+      CompletableFuture<String> helloString;
+      try (KrystexVajramExecutor krystexVajramExecutor =
+          graph.createExecutor(
+              getExecutorConfig(BATCH, DEPTH).requestId("inputBatchDispatchEvent").build())) {
+        helloString =
+            krystexVajramExecutor.execute(
+                graph.getVajramId(HelloFriends.class), this.helloFriendsRequest(requestContext));
+      }
+      assertThat(helloString).succeedsWithin(TIMEOUT);
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    assertThat(RecordingFile.readAllEvents(recordingFile))
+        .filteredOn(event -> event.getEventType().getName().equals("krystal.InputBatchDispatch"))
+        .singleElement()
+        .satisfies(
+            event -> {
+              assertThat(event.getString("kryonId")).isEqualTo("TestUserService");
+              assertThat(event.getInt("batchSize")).isEqualTo(3);
+            });
+  }
+
+  @Test
+  void sessionScopedBulkhead_configUpdated_limitOfLiveBulkheadChanged() {
+    SnapshotConfigProvider configs =
+        new SnapshotConfigProvider(Map.of("TestUserService.bulkhead.max_concurrency", 1));
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.userservice")
+            .decorateOutputLogicForSession(
+                new OutputLogicDecoratorConfig(
+                    Resilience4JBulkhead.DECORATOR_TYPE,
+                    context -> context.kryonId().value().equals("TestUserService"),
+                    context -> context.kryonId().value(),
+                    decoratorContext -> new Resilience4JBulkhead(decoratorContext.instanceId())))
+            .configProvider(configs)
+            .build();
+    SimulatedDownstream downstream =
+        SimulatedDownstream.builder()
+            .responder(facets -> new TestUserInfo("Firstname Lastname"))
+            .perCallLatency(LatencyDistribution.fixed(Duration.ofMillis(300)))
+            .build();
+
+    List<CompletableFuture<TestUserInfo>> callsWithLimitOne =
+        List.of(callUserService(downstream, "user_id_1"), callUserService(downstream, "user_id_2"));
+    assertThat(CompletableFuture.allOf(callsWithLimitOne.toArray(CompletableFuture[]::new)))
+        .failsWithin(TIMEOUT);
+    assertThat(callsWithLimitOne)
+        .filteredOn(CompletableFuture::isCompletedExceptionally)
+        .hasSize(1);
+
+    configs.update(Map.of("TestUserService.bulkhead.max_concurrency", 2));
+
+    List<CompletableFuture<TestUserInfo>> callsWithLimitTwo =
+        List.of(callUserService(downstream, "user_id_3"), callUserService(downstream, "user_id_4"));
+    assertThat(CompletableFuture.allOf(callsWithLimitTwo.toArray(CompletableFuture[]::new)))
+        .succeedsWithin(TIMEOUT);
+    assertThat(downstream.stats().calls()).isEqualTo(3);
+  }
+
+  private CompletableFuture<TestUserInfo> callUserService(
+      SimulatedDownstream downstream, String userId) {
+    try (KrystexVajramExecutor krystexVajramExecutor =
+        graph.createExecutor(
+            VajramTestHarness.prepareForTest(
+                    getExecutorConfig(BATCH, DEPTH).requestId(userId).build(),
+                    new RequestLevelCache())
+                .withSimulatedDownstream("TestUserService", downstream)
+                .buildConfig())) {
+      return krystexVajramExecutor.execute(
+          graph.getVajramId(TestUserService.class),
+          TestUserServiceRequest.builder().userId(userId).build());
+    }
+  }
+
   private HelloRequest helloRequest(TestRequestContext applicationRequestContext) {
     return helloRequestBuilder(applicationRequestContext).build();
   }
@@ -0,0 +1,106 @@
+package com.flipkart.krystal.vajramexecutor.krystex.graphql;
+
+import static com.flipkart.krystal.vajram.das.GraphQl.graphQl;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajram.das.GraphQl;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders.TestOrderPricing;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders.TestOrderService;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GraphQlPlannerTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  private Lease<SingleThreadExecutor> executorLease;
+  private VajramKryonGraph graph;
+  private GraphQlPlanner planner;
+
+  @BeforeEach
+  void setUp() throws LeaseUnavailableException {
+    executorLease = EXEC_POOL.lease();
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders")
+            .build();
+    graph.registerInputBatchers(
+        graph.getVajramId(TestOrderService.class),
+        InputBatcherConfig.simple(() -> new InputBatcherImpl<>(10)));
+    planner = new GraphQlPlanner(graph);
+    TestOrderService.CALL_COUNTER.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorLease.close();
+  }
+
+  @Test
+  void plan_siblingFieldsOfSameVajram_fetchedTogether() {
+    GraphQlPlan plan = planner.plan(GraphQl.parse("Order { id status total }"));
+
+    assertThat(plan.fetches())
+        .containsExactly(
+            Map.entry(graphQl("Order", "id", "status"), graph.getVajramId(TestOrderService.class)),
+            Map.entry(graphQl("Order", "total"), graph.getVajramId(TestOrderPricing.class)));
+  }
+
+  @Test
+  void plan_unservedField_throws() {
+    assertThatThrownBy(() -> planner.plan(graphQl("Order", "id", "discount")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("discount");
+  }
+
+  @Test
+  void execute_multipleObjects_batchedAndMerged() {
+    GraphQlPlan plan = planner.plan(GraphQl.parse("Order { id status total }"));
+    ImmutableList<CompletableFuture<Map<String, Object>>> results;
+    try (KrystexVajramExecutor executor =
+        graph.createExecutor(
+            KrystexVajramExecutorConfig.builder()
+                .requestId("graphql")
+                .kryonExecutorConfigBuilder(
+                    KryonExecutorConfig.builder().singleThreadExecutor(executorLease.get()))
+                .build())) {
+      results =
+          plan.execute(
+              executor,
+              List.of(Map.of("orderId", "o1"), Map.of("orderId", "o22"), Map.of("orderId", "o1")));
+    }
+
+    assertThat(results.get(0))
+        .succeedsWithin(ofSeconds(1))
+        .isEqualTo(Map.of("id", "o1", "status", "SHIPPED", "total", 200));
+    assertThat(results.get(1))
+        .succeedsWithin(ofSeconds(1))
+        .isEqualTo(Map.of("id", "o22", "status", "SHIPPED", "total", 300));
+    // Duplicate objects share the same fetch
+    assertThat(results.get(2)).isSameAs(results.get(0));
+    assertThat(TestOrderService.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+}
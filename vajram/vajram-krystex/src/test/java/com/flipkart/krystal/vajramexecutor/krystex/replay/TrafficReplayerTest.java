@@ -0,0 +1,182 @@
+package com.flipkart.krystal.vajramexecutor.krystex.replay;
+
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedCall;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedExecution;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.MarketSnapshot;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteService;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummary;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummaryRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.TradeVolumeService;
+import com.flipkart.krystal.vajramexecutor.krystex.testharness.VajramPrimer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrafficReplayerTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  @TempDir Path tempDir;
+
+  private VajramKryonGraph graph;
+
+  @BeforeEach
+  void setUp() {
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes")
+            .build();
+    QuoteService.CALL_COUNTER.reset();
+    QuoteService.FAILING_SYMBOLS.clear();
+    TradeVolumeService.CALL_COUNTER.reset();
+  }
+
+  @Test
+  void replay_ioVajramsServedFromRecording() throws Exception {
+    Path logFile = tempDir.resolve("traffic.log");
+    List<String> symbols = List.of("FLPK", "AAPL", "GOOG");
+    try (TrafficRecorder recorder =
+        TrafficRecorder.builder().vajramKryonGraph(graph).path(logFile).build()) {
+      for (String symbol : symbols) {
+        assertThat(summarize(recorder, symbol)).succeedsWithin(ofSeconds(1));
+      }
+    }
+
+    TrafficLog trafficLog = TrafficLog.read(logFile);
+    assertThat(trafficLog.executions()).hasSize(3);
+    assertThat(trafficLog.calls())
+        .extracting(RecordedCall::value)
+        .containsExactlyInAnyOrder("QuoteService:FLPK", "QuoteService:AAPL", "QuoteService:GOOG");
+
+    QuoteService.CALL_COUNTER.reset();
+    ReplayReport report =
+        TrafficReplayer.builder()
+            .vajramKryonGraph(graph)
+            .trafficLog(trafficLog)
+            .executorsPool(EXEC_POOL)
+            .qps(1000)
+            .iterations(2)
+            .build()
+            .replay();
+
+    assertThat(report.executions()).isEqualTo(6);
+    assertThat(report.failures()).isZero();
+    assertThat(report.max()).isGreaterThanOrEqualTo(report.p50());
+    assertThat(QuoteService.CALL_COUNTER.sum()).isZero();
+  }
+
+  @Test
+  void replay_batchedDependencyNotPrimed_flushedAlongWithPrimedSibling() {
+    graph.registerInputBatchers(
+        graph.getVajramId(TradeVolumeService.class),
+        InputBatcherConfig.simple(() -> new InputBatcherImpl<>(100)));
+    String marketSnapshot = graph.getVajramId(MarketSnapshot.class).vajramId();
+    ImmutableMap<String, Object> inputs = ImmutableMap.of("symbol", "FLPK");
+    TrafficReplayer replayer =
+        TrafficReplayer.builder()
+            .vajramKryonGraph(graph)
+            .trafficLog(
+                new TrafficLog(
+                    ImmutableList.of(new RecordedExecution(marketSnapshot, inputs, 0)),
+                    ImmutableList.of()))
+            .executorsPool(EXEC_POOL)
+            // Only QuoteService is primed - TradeVolumeService is executed, in a batch
+            .primer(
+                VajramPrimer.builder()
+                    .call(
+                        new RecordedCall(
+                            graph.getVajramId(QuoteService.class).vajramId(),
+                            inputs,
+                            "QuoteService:FLPK",
+                            null,
+                            0))
+                    .build())
+            .qps(1000)
+            .build();
+
+    CompletableFuture<ReplayReport> report =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return replayer.replay();
+              } catch (InterruptedException e) {
+                throw new CompletionException(e);
+              }
+            });
+
+    assertThat(report)
+        .succeedsWithin(ofSeconds(1))
+        .satisfies(
+            replayReport -> {
+              assertThat(replayReport.executions()).isEqualTo(1);
+              assertThat(replayReport.failures()).isZero();
+            });
+    assertThat(QuoteService.CALL_COUNTER.sum()).isZero();
+    assertThat(TradeVolumeService.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+
+  @Test
+  void report_percentilesOfLatencies() {
+    ReplayReport report =
+        ReplayReport.of(
+            ImmutableList.of(5L, 1L, 4L, 2L, 3L).stream().mapToLong(Long::longValue).toArray(),
+            1,
+            1_000_000_000L);
+
+    assertThat(report.executions()).isEqualTo(5);
+    assertThat(report.throughput()).isEqualTo(5.0);
+    assertThat(report.p50().toNanos()).isEqualTo(3);
+    assertThat(report.p90().toNanos()).isEqualTo(5);
+    assertThat(report.max().toNanos()).isEqualTo(5);
+  }
+
+  private CompletableFuture<String> summarize(TrafficRecorder recorder, String symbol)
+      throws LeaseUnavailableException {
+    Lease<SingleThreadExecutor> lease = EXEC_POOL.lease();
+    KryonExecutorConfig.KryonExecutorConfigBuilder kryonExecutorConfig =
+        KryonExecutorConfig.builder()
+            .singleThreadExecutor(lease.get())
+            .requestScopedKryonDecoratorConfig(TrafficRecorder.DECORATOR_TYPE, recorder.config());
+    CompletableFuture<String> result;
+    try (KrystexVajramExecutor executor =
+        graph.createExecutor(
+            KrystexVajramExecutorConfig.builder()
+                .requestId("record-" + symbol)
+                .kryonExecutorConfigBuilder(kryonExecutorConfig)
+                .build())) {
+      result =
+          executor.execute(
+              graph.getVajramId(QuoteSummary.class),
+              QuoteSummaryRequest.builder().symbol(symbol).build(),
+              KryonExecutionConfig.builder().executionId(symbol).build());
+    }
+    result.whenComplete((_r, _t) -> lease.close());
+    return result;
+  }
+}
@@ -0,0 +1,179 @@
+package com.flipkart.krystal.vajramexecutor.krystex.routing;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.concurrent.SingleThreadExecutor;
+import com.flipkart.krystal.concurrent.SingleThreadExecutorsPool;
+import com.flipkart.krystal.krystex.kryon.DependantChain;
+import com.flipkart.krystal.krystex.kryon.KryonExecutionConfig;
+import com.flipkart.krystal.krystex.kryon.KryonExecutorConfig;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.pooling.Lease;
+import com.flipkart.krystal.pooling.LeaseUnavailableException;
+import com.flipkart.krystal.vajram.VajramID;
+import com.flipkart.krystal.vajram.batching.InputBatcherImpl;
+import com.flipkart.krystal.vajramexecutor.krystex.InputBatcherConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutor;
+import com.flipkart.krystal.vajramexecutor.krystex.KrystexVajramExecutorConfig;
+import com.flipkart.krystal.vajramexecutor.krystex.VajramKryonGraph;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.CachedQuoteService;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparison;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparisonRequest;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteService;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummary;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummaryRequest;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProviderRoutingTest {
+
+  private static SingleThreadExecutorsPool EXEC_POOL;
+
+  @BeforeAll
+  static void beforeAll() {
+    EXEC_POOL = new SingleThreadExecutorsPool("Test", 4);
+  }
+
+  private Lease<SingleThreadExecutor> executorLease;
+  private VajramKryonGraph graph;
+  private VajramID quoteService;
+  private VajramID cachedQuoteService;
+
+  @BeforeEach
+  void setUp() throws LeaseUnavailableException {
+    executorLease = EXEC_POOL.lease();
+    graph =
+        VajramKryonGraph.builder()
+            .loadFromPackage("com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes")
+            .build();
+    quoteService = graph.getVajramId(QuoteService.class);
+    cachedQuoteService = graph.getVajramId(CachedQuoteService.class);
+    QuoteService.CALL_COUNTER.reset();
+    QuoteService.FAILING_SYMBOLS.clear();
+    CachedQuoteService.CALL_COUNTER.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorLease.close();
+  }
+
+  @Test
+  void fallbackOnError_primarySucceeds_alternateNotCalled() {
+    assertThat(summarize("FLPK"))
+        .succeedsWithin(ofSeconds(1))
+        .isEqualTo("Quote: QuoteService:FLPK");
+    assertThat(QuoteService.CALL_COUNTER.sum()).isEqualTo(1);
+    assertThat(CachedQuoteService.CALL_COUNTER.sum()).isZero();
+  }
+
+  @Test
+  void fallbackOnError_primaryFails_servedByAlternate() {
+    QuoteService.FAILING_SYMBOLS.add("FLPK");
+
+    assertThat(summarize("FLPK"))
+        .succeedsWithin(ofSeconds(1))
+        .isEqualTo("Quote: CachedQuoteService:FLPK");
+    assertThat(QuoteService.CALL_COUNTER.sum()).isEqualTo(1);
+    assertThat(CachedQuoteService.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+
+  @Test
+  void leastLoaded_primaryBusy_routedToAlternate() {
+    LeastLoadedRouting routing = new LeastLoadedRouting();
+    routing.onBatchStart(quoteService, 10);
+    graph.registerProviderRouting(quoteService, routing);
+
+    assertThat(summarize("FLPK"))
+        .succeedsWithin(ofSeconds(1))
+        .isEqualTo("Quote: CachedQuoteService:FLPK");
+    assertThat(QuoteService.CALL_COUNTER.sum()).isZero();
+    assertThat(routing.inFlightRequests(cachedQuoteService)).isZero();
+  }
+
+  @Test
+  void latencyAware_prefersLowerEstimatedLatency() {
+    LatencyAwareRouting routing = LatencyAwareRouting.builder().explorationInterval(1000).build();
+    ImmutableList<VajramID> providers = ImmutableList.of(quoteService, cachedQuoteService);
+
+    // Providers without samples are tried first
+    assertThat(routing.route(providers, 1)).containsExactly(quoteService);
+    routing.onBatchEnd(quoteService, 1, 0, ofMillis(50));
+    assertThat(routing.route(providers, 1)).containsExactly(cachedQuoteService);
+    routing.onBatchEnd(cachedQuoteService, 1, 0, ofMillis(5));
+
+    assertThat(routing.route(providers, 1)).containsExactly(cachedQuoteService);
+    assertThat(routing.estimatedLatency(cachedQuoteService)).isEqualTo(ofMillis(5));
+  }
+
+  @Test
+  void sharedBatcher_dependantChainsRoutedToDifferentProviders_batchesDispatched() {
+    // Routes the batches to the providers in turn
+    AtomicInteger batches = new AtomicInteger();
+    graph.registerProviderRouting(
+        quoteService,
+        (providers, batchSize) ->
+            ImmutableList.of(providers.get(batches.getAndIncrement() % providers.size())));
+    KryonId comparisonKryon = new KryonId(graph.getVajramId(QuoteComparison.class).vajramId());
+    KryonId routerKryon = new KryonId("providers(%s)".formatted(quoteService.vajramId()));
+    DependantChain start = graph.kryonDefinitionRegistry().getDependantChainsStart();
+    for (VajramID provider : List.of(quoteService, cachedQuoteService)) {
+      // Each provider's batcher is shared by both the dependencies on QuoteService
+      graph.registerInputBatchers(
+          provider,
+          InputBatcherConfig.sharedBatcher(
+              () -> new InputBatcherImpl<>(100),
+              provider.vajramId(),
+              start.extend(comparisonKryon, "quote").extend(routerKryon, provider.vajramId()),
+              start
+                  .extend(comparisonKryon, "otherQuote")
+                  .extend(routerKryon, provider.vajramId())));
+    }
+
+    CompletableFuture<String> comparison;
+    try (KrystexVajramExecutor executor =
+        graph.createExecutor(
+            KrystexVajramExecutorConfig.builder()
+                .requestId("routing")
+                .kryonExecutorConfigBuilder(
+                    KryonExecutorConfig.builder().singleThreadExecutor(executorLease.get()))
+                .build())) {
+      comparison =
+          executor.execute(
+              graph.getVajramId(QuoteComparison.class),
+              QuoteComparisonRequest.builder().symbol("FLPK").otherSymbol("AAPL").build(),
+              KryonExecutionConfig.builder().executionId("comparison").build());
+    }
+
+    assertThat(comparison)
+        .succeedsWithin(ofSeconds(1))
+        .isIn(
+            "QuoteService:FLPK vs CachedQuoteService:AAPL",
+            "CachedQuoteService:FLPK vs QuoteService:AAPL");
+    assertThat(QuoteService.CALL_COUNTER.sum()).isEqualTo(1);
+    assertThat(CachedQuoteService.CALL_COUNTER.sum()).isEqualTo(1);
+  }
+
+  private CompletableFuture<String> summarize(String symbol) {
+    try (KrystexVajramExecutor executor =
+        graph.createExecutor(
+            KrystexVajramExecutorConfig.builder()
+                .requestId("routing")
+                .kryonExecutorConfigBuilder(
+                    KryonExecutorConfig.builder().singleThreadExecutor(executorLease.get()))
+                .build())) {
+      return executor.execute(
+          graph.getVajramId(QuoteSummary.class),
+          QuoteSummaryRequest.builder().symbol(symbol).build(),
+          KryonExecutionConfig.builder().executionId(symbol).build());
+    }
+  }
+}
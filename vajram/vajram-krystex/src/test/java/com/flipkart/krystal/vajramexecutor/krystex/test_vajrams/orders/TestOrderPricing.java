@@ -0,0 +1,26 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.das.GraphQlFields;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders.TestOrderPricingFacetUtil.TestOrderPricingFacets;
+import com.google.common.collect.ImmutableMap;
+
+@GraphQlFields(
+    type = "Order",
+    fields = {"total", "currency"})
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class TestOrderPricing extends ComputeVajram<ImmutableMap<String, Object>> {
+  static class _Facets {
+    @Input String orderId;
+  }
+
+  @Output
+  static ImmutableMap<String, Object> price(TestOrderPricingFacets facets) {
+    return ImmutableMap.of("total", facets.orderId().length() * 100, "currency", "INR");
+  }
+}
@@ -0,0 +1,49 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.batching.Batch;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.das.GraphQlFields;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders.TestOrderServiceFacetUtil.TestOrderServiceBatchFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.orders.TestOrderServiceFacetUtil.TestOrderServiceCommonFacets;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+@GraphQlFields(
+    type = "Order",
+    fields = {"id", "status", "placedBy"})
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class TestOrderService extends IOVajram<ImmutableMap<String, Object>> {
+  static class _Facets {
+    @Batch @Input String orderId;
+  }
+
+  public static final LongAdder CALL_COUNTER = new LongAdder();
+
+  @Output
+  static ImmutableMap<TestOrderServiceBatchFacets, CompletableFuture<ImmutableMap<String, Object>>>
+      callOrderService(
+          BatchedFacets<TestOrderServiceBatchFacets, TestOrderServiceCommonFacets>
+              batchedRequest) {
+    CALL_COUNTER.increment();
+    return batchedRequest.batch().stream()
+        .collect(
+            toImmutableMap(
+                facets -> facets,
+                facets ->
+                    completedFuture(
+                        ImmutableMap.of(
+                            "id", facets.orderId(),
+                            "status", "SHIPPED",
+                            "placedBy", "user_" + facets.orderId()))));
+  }
+}
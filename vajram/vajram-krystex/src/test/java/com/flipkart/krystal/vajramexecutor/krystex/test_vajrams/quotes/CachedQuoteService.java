@@ -0,0 +1,41 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.batching.Batch;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajram.das.AlternateProviderOf;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.CachedQuoteServiceFacetUtil.CachedQuoteServiceBatchFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.CachedQuoteServiceFacetUtil.CachedQuoteServiceCommonFacets;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+@AlternateProviderOf("QuoteService")
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class CachedQuoteService extends IOVajram<String> {
+  static class _Facets {
+    @Batch @Input String symbol;
+  }
+
+  public static final LongAdder CALL_COUNTER = new LongAdder();
+
+  @Output
+  static ImmutableMap<CachedQuoteServiceBatchFacets, CompletableFuture<String>> fetchQuotes(
+      BatchedFacets<CachedQuoteServiceBatchFacets, CachedQuoteServiceCommonFacets>
+          batchedRequest) {
+    CALL_COUNTER.increment();
+    return batchedRequest.batch().stream()
+        .collect(
+            toImmutableMap(
+                facets -> facets,
+                facets -> completedFuture("CachedQuoteService:" + facets.symbol())));
+  }
+}
@@ -0,0 +1,46 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes;
+
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.dep;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.depInput;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.resolve;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.MarketSnapshotFacetUtil.quote_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.MarketSnapshotFacetUtil.volume_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.MarketSnapshotRequest.symbol_s;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Dependency;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.MarketSnapshotFacetUtil.MarketSnapshotFacets;
+import com.google.common.collect.ImmutableCollection;
+
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class MarketSnapshot extends ComputeVajram<String> {
+  static class _Facets {
+    @Input String symbol;
+
+    @Dependency(onVajram = QuoteService.class)
+    String quote;
+
+    @Dependency(onVajram = TradeVolumeService.class)
+    String volume;
+  }
+
+  @Override
+  public ImmutableCollection<InputResolver> getSimpleInputResolvers() {
+    return resolve(
+        dep(quote_s, depInput(QuoteServiceRequest.symbol_s).usingAsIs(symbol_s).asResolver()),
+        dep(
+            volume_s,
+            depInput(TradeVolumeServiceRequest.symbol_s).usingAsIs(symbol_s).asResolver()));
+  }
+
+  @Output
+  static String snapshot(MarketSnapshotFacets facets) {
+    return facets.quote() + ", " + facets.volume();
+  }
+}
@@ -0,0 +1,49 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes;
+
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.dep;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.depInput;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.resolve;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparisonFacetUtil.otherQuote_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparisonFacetUtil.quote_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparisonRequest.otherSymbol_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparisonRequest.symbol_s;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Dependency;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteComparisonFacetUtil.QuoteComparisonFacets;
+import com.google.common.collect.ImmutableCollection;
+
+/** Depends on {@link QuoteService} twice, so that it is routed in two dependant chains */
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class QuoteComparison extends ComputeVajram<String> {
+  static class _Facets {
+    @Input String symbol;
+    @Input String otherSymbol;
+
+    @Dependency(onVajram = QuoteService.class)
+    String quote;
+
+    @Dependency(onVajram = QuoteService.class)
+    String otherQuote;
+  }
+
+  @Override
+  public ImmutableCollection<InputResolver> getSimpleInputResolvers() {
+    return resolve(
+        dep(quote_s, depInput(QuoteServiceRequest.symbol_s).usingAsIs(symbol_s).asResolver()),
+        dep(
+            otherQuote_s,
+            depInput(QuoteServiceRequest.symbol_s).usingAsIs(otherSymbol_s).asResolver()));
+  }
+
+  @Output
+  static String compare(QuoteComparisonFacets facets) {
+    return facets.quote() + " vs " + facets.otherQuote();
+  }
+}
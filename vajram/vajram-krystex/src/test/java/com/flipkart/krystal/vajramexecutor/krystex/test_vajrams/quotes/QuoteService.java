@@ -0,0 +1,46 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.batching.Batch;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteServiceFacetUtil.QuoteServiceBatchFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteServiceFacetUtil.QuoteServiceCommonFacets;
+import com.google.common.collect.ImmutableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** The source of truth of quotes. Fails for the symbols in {@link #FAILING_SYMBOLS} */
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class QuoteService extends IOVajram<String> {
+  static class _Facets {
+    @Batch @Input String symbol;
+  }
+
+  public static final LongAdder CALL_COUNTER = new LongAdder();
+  public static final Set<String> FAILING_SYMBOLS = ConcurrentHashMap.newKeySet();
+
+  @Output
+  static ImmutableMap<QuoteServiceBatchFacets, CompletableFuture<String>> fetchQuotes(
+      BatchedFacets<QuoteServiceBatchFacets, QuoteServiceCommonFacets> batchedRequest) {
+    CALL_COUNTER.increment();
+    return batchedRequest.batch().stream()
+        .collect(
+            toImmutableMap(
+                facets -> facets,
+                facets ->
+                    FAILING_SYMBOLS.contains(facets.symbol())
+                        ? failedFuture(new IllegalStateException("Quote service is down"))
+                        : completedFuture("QuoteService:" + facets.symbol())));
+  }
+}
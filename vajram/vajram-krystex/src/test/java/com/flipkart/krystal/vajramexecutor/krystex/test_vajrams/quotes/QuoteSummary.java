@@ -0,0 +1,39 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes;
+
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.dep;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.depInput;
+import static com.flipkart.krystal.vajram.facets.resolution.sdk.InputResolvers.resolve;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummaryFacetUtil.quote_s;
+import static com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummaryRequest.symbol_s;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.ComputeVajram;
+import com.flipkart.krystal.vajram.Dependency;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.facets.resolution.InputResolver;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.QuoteSummaryFacetUtil.QuoteSummaryFacets;
+import com.google.common.collect.ImmutableCollection;
+
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class QuoteSummary extends ComputeVajram<String> {
+  static class _Facets {
+    @Input String symbol;
+
+    @Dependency(onVajram = QuoteService.class)
+    String quote;
+  }
+
+  @Override
+  public ImmutableCollection<InputResolver> getSimpleInputResolvers() {
+    return resolve(
+        dep(quote_s, depInput(QuoteServiceRequest.symbol_s).usingAsIs(symbol_s).asResolver()));
+  }
+
+  @Output
+  static String summarize(QuoteSummaryFacets facets) {
+    return "Quote: " + facets.quote();
+  }
+}
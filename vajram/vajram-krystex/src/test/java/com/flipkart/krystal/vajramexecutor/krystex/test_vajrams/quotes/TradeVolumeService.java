@@ -0,0 +1,39 @@
+package com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import com.flipkart.krystal.annos.ExternalInvocation;
+import com.flipkart.krystal.vajram.IOVajram;
+import com.flipkart.krystal.vajram.Input;
+import com.flipkart.krystal.vajram.Output;
+import com.flipkart.krystal.vajram.VajramDef;
+import com.flipkart.krystal.vajram.batching.Batch;
+import com.flipkart.krystal.vajram.batching.BatchedFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.TradeVolumeServiceFacetUtil.TradeVolumeServiceBatchFacets;
+import com.flipkart.krystal.vajramexecutor.krystex.test_vajrams.quotes.TradeVolumeServiceFacetUtil.TradeVolumeServiceCommonFacets;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+@ExternalInvocation(allow = true)
+@VajramDef
+public abstract class TradeVolumeService extends IOVajram<String> {
+  static class _Facets {
+    @Batch @Input String symbol;
+  }
+
+  public static final LongAdder CALL_COUNTER = new LongAdder();
+
+  @Output
+  static ImmutableMap<TradeVolumeServiceBatchFacets, CompletableFuture<String>> fetchVolumes(
+      BatchedFacets<TradeVolumeServiceBatchFacets, TradeVolumeServiceCommonFacets>
+          batchedRequest) {
+    CALL_COUNTER.increment();
+    return batchedRequest.batch().stream()
+        .collect(
+            toImmutableMap(
+                facets -> facets,
+                facets -> completedFuture("TradeVolumeService:" + facets.symbol())));
+  }
+}
@@ -0,0 +1,80 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness;
+
+import static com.flipkart.krystal.data.Errable.withValue;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.OutputLogic;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+class SimulatedDownstreamTest {
+
+  @Test
+  void call_atCapacity_queuesAndThenRejects() {
+    SimulatedDownstream downstream =
+        SimulatedDownstream.builder()
+            .responder(facets -> "response:" + facets.getInputValueOrThrow("input"))
+            .perCallLatency(LatencyDistribution.fixed(ofMillis(50)))
+            .maxConcurrentCalls(1)
+            .maxQueuedCalls(1)
+            .build();
+    OutputLogic<Object> logic = downstream.logic();
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> first =
+        logic.execute(ImmutableList.of(facets(1), facets(2)));
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> queued =
+        logic.execute(ImmutableList.of(facets(3)));
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> rejected =
+        logic.execute(ImmutableList.of(facets(4)));
+
+    assertThat(rejected.get(facets(4)))
+        .failsWithin(ofSeconds(1))
+        .withThrowableOfType(Exception.class)
+        .withCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(first.get(facets(2))).succeedsWithin(ofSeconds(1)).isEqualTo("response:2");
+    assertThat(queued.get(facets(3))).succeedsWithin(ofSeconds(1)).isEqualTo("response:3");
+    assertThat(downstream.stats()).isEqualTo(new SimulatedDownstreamStats(3, 4, 1, 1, 1, 0));
+  }
+
+  @Test
+  void call_errorRateOne_failsAllElements() {
+    SimulatedDownstream downstream =
+        SimulatedDownstream.builder().responder(facets -> "response").errorRate(1).build();
+
+    ImmutableMap<Facets, CompletableFuture<@Nullable Object>> responses =
+        downstream.logic().execute(ImmutableList.of(facets(1), facets(2)));
+
+    responses.values().forEach(response -> assertThat(response).failsWithin(ofSeconds(1)));
+    assertThat(downstream.stats().injectedErrors()).isEqualTo(2);
+    assertThat(downstream.stats().avgBatchSize()).isEqualTo(2.0);
+  }
+
+  @Test
+  void logNormal_medianAndP99() {
+    LatencyDistribution distribution = LatencyDistribution.logNormal(ofMillis(10), ofMillis(100));
+    Random random = new Random(42);
+    long[] samples = new long[10_000];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = distribution.sampleNanos(random);
+    }
+    Arrays.sort(samples);
+
+    assertThat(samples[samples.length / 2])
+        .isBetween(ofMillis(9).toNanos(), ofMillis(11).toNanos());
+    assertThat(samples[samples.length * 99 / 100])
+        .isBetween(ofMillis(80).toNanos(), ofMillis(125).toNanos());
+  }
+
+  private static Facets facets(int input) {
+    return new Facets(ImmutableMap.of("input", withValue(input)));
+  }
+}
@@ -0,0 +1,105 @@
+package com.flipkart.krystal.vajramexecutor.krystex.testharness;
+
+import static com.flipkart.krystal.tags.ElementTags.emptyTags;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flipkart.krystal.data.Errable;
+import com.flipkart.krystal.data.Facets;
+import com.flipkart.krystal.krystex.LogicDefinitionRegistry;
+import com.flipkart.krystal.krystex.commands.Flush;
+import com.flipkart.krystal.krystex.commands.ForwardBatch;
+import com.flipkart.krystal.krystex.commands.KryonCommand;
+import com.flipkart.krystal.krystex.kryon.BatchResponse;
+import com.flipkart.krystal.krystex.kryon.Kryon;
+import com.flipkart.krystal.krystex.kryon.KryonDefinition;
+import com.flipkart.krystal.krystex.kryon.KryonDefinitionRegistry;
+import com.flipkart.krystal.krystex.kryon.KryonId;
+import com.flipkart.krystal.krystex.kryon.KryonLogicId;
+import com.flipkart.krystal.krystex.kryon.KryonResponse;
+import com.flipkart.krystal.krystex.kryondecoration.KryonDecorationInput;
+import com.flipkart.krystal.krystex.request.RequestId;
+import com.flipkart.krystal.vajramexecutor.krystex.replay.TrafficRecord.RecordedCall;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class VajramPrimerTest {
+
+  private final KryonDefinition quoteService =
+      new KryonDefinitionRegistry(new LogicDefinitionRegistry())
+          .newKryonDefinition(
+              "QuoteService",
+              Set.of("symbol"),
+              new KryonLogicId(new KryonId("QuoteService"), "QuoteService:logic"),
+              ImmutableMap.of(),
+              ImmutableList.of(),
+              null,
+              emptyTags());
+
+  @Test
+  void serve_passedThroughMissesFail_primedHitsStillServed() {
+    VajramPrimer primer =
+        VajramPrimer.builder()
+            .call(
+                new RecordedCall(
+                    "QuoteService",
+                    ImmutableMap.of("symbol", "FLPK"),
+                    "QuoteService:FLPK",
+                    null,
+                    0))
+            .passThroughMisses(true)
+            .build();
+    // The kryon executor is not used by the primer
+    Kryon<KryonCommand, KryonResponse> primed =
+        primer.decorateKryon(new KryonDecorationInput(unavailableKryon(), null));
+    RequestId hit = new RequestId("hit");
+    RequestId miss = new RequestId("miss");
+
+    CompletableFuture<KryonResponse> response =
+        primed.executeCommand(
+            new ForwardBatch(
+                quoteService.kryonId(),
+                ImmutableSet.of("symbol"),
+                ImmutableMap.of(hit, facets("FLPK"), miss, facets("AAPL")),
+                quoteService.kryonDefinitionRegistry().getDependantChainsStart(),
+                ImmutableMap.of()));
+
+    assertThat(response)
+        .succeedsWithin(ofSeconds(1))
+        .isInstanceOfSatisfying(
+            BatchResponse.class,
+            batchResponse -> {
+              assertThat(batchResponse.responses().get(hit).value())
+                  .hasValue("QuoteService:FLPK");
+              assertThat(batchResponse.responses().get(miss).error())
+                  .containsInstanceOf(IllegalStateException.class);
+            });
+  }
+
+  /** A kryon whose batches fail as a whole */
+  private Kryon<KryonCommand, KryonResponse> unavailableKryon() {
+    return new Kryon<>() {
+      @Override
+      public void executeCommand(Flush flushCommand) {}
+
+      @Override
+      public CompletableFuture<KryonResponse> executeCommand(KryonCommand kryonCommand) {
+        return failedFuture(new IllegalStateException("QuoteService is unavailable"));
+      }
+
+      @Override
+      public KryonDefinition getKryonDefinition() {
+        return quoteService;
+      }
+    };
+  }
+
+  private static Facets facets(String symbol) {
+    return new Facets(ImmutableMap.of("symbol", Errable.withValue(symbol)));
+  }
+}
@@ -0,0 +1,46 @@
+package com.flipkart.krystal.vajram.samples.calculator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.flipkart.krystal.vajram.wire.WireFormatException;
+import org.junit.jupiter.api.Test;
+
+class FormulaRequestCodecTest {
+
+  private final FormulaRequestCodec codec = new FormulaRequestCodec();
+
+  @Test
+  void proto_roundTrip_preservesInputs() {
+    FormulaRequest request = FormulaRequest.builder().a(-100).p(2).q(3).build();
+    assertThat(codec.fromProto(codec.toProto(request))).isEqualTo(request);
+  }
+
+  @Test
+  void json_roundTrip_preservesInputs() {
+    FormulaRequest request = FormulaRequest.builder().a(100).p(2).q(3).build();
+    byte[] json = codec.toJson(request);
+    assertThat(new String(json, UTF_8)).isEqualTo("{\"a\":100,\"p\":2,\"q\":3}");
+    assertThat(codec.fromJson(json)).isEqualTo(request);
+  }
+
+  @Test
+  void json_unknownFieldsAndNulls_ignored() {
+    FormulaRequest request =
+        codec.fromJson(
+            "{\"x\": {\"y\": [1, \"z\"]}, \"a\": 100, \"p\": 2, \"q\": 3, \"r\": null}"
+                .getBytes(UTF_8));
+    assertThat(request).isEqualTo(FormulaRequest.builder().a(100).p(2).q(3).build());
+  }
+
+  @Test
+  void missingMandatoryInput_throws() {
+    assertThatThrownBy(() -> codec.fromJson("{\"a\": 100, \"p\": 2}".getBytes(UTF_8)))
+        .isInstanceOf(WireFormatException.class)
+        .hasMessageContaining("'q'");
+    assertThatThrownBy(() -> codec.fromProto(new byte[0]))
+        .isInstanceOf(WireFormatException.class)
+        .hasMessageContaining("'a'");
+  }
+}